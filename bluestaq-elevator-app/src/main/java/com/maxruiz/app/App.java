@@ -5,21 +5,33 @@ import java.lang.Thread;
 import java.lang.System;
 import java.util.concurrent.TimeUnit;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.PrintStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Paths;
 
 import com.maxruiz.config.AppConfig;
 import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.config.ResourceManager;
+import com.maxruiz.logging.Log;
+import com.maxruiz.logging.RollingLogOutputStream;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.MonteCarloResult;
+import com.maxruiz.metrics.TelemetryWriter;
 import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+import com.maxruiz.utility.ArrivalProfile;
 
 /*
 * This application runs an event loop containing
 * a building which contains one or more elevators. The building 
 * causes events that affect the elevator(s).
 * <p>This program will catch an os exit of ctrl+c to exit
-* as well as prints to a file <i>test_output/test_output.txt<i></p>
+* as well as logs to a rolling file <i>system_out.txt<i></p>
+* <p>Passing --headless with --ticks=N and/or --sim-seconds=S runs the building
+* as fast as possible and prints a performance report at the end.</p>
 * @author Max Ruiz
 */
 
@@ -29,12 +41,18 @@ public class App
     // ......^.........^
     static volatile boolean ccExit = false;
 
-    static File file;
-    static FileOutputStream fos;
-    static PrintStream ps;
-
     static AppConfig appConfig = new AppConfig();
 
+    // Population of a floor of an office building when --population is not given
+    static final int PEOPLE_PER_OFFICE_FLOOR = 60;
+
+    static final String USAGE = 
+        "Usage: App [--headless] [--ticks=N] [--sim-seconds=S] [--discrete-event] [--runs=N] [--seed=S]\n" +
+        "           [--dispatch=FIFO|LOOK|ETA] [--park-idle] [--start-time=HH:MM]\n" +
+        "           [--arrivals=RANDOM|OFFICE] [--population=N] [--scenario=FILE] [--config=FILE]\n" +
+        "           [--resume=FILE] [--checkpoint=FILE] [--telemetry=FILE]\n" +
+        "           [--log-level=TRACE|DEBUG|INFO|WARN|ERROR|OFF] [--log-max-mb=N] [--log-max-files=N] [--log-gzip]";
+
     /**
      * @param args command line arguments
      * @throws IllegalArgumentException dumps stack trace. The building requires
@@ -45,7 +63,21 @@ public class App
      */
     public static void main(String[] args)
     {
-        // Setup console output to go to a text file
+        try
+        {
+            App.appConfig.applyCommandLineArgs(args);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        // The log may go to a file, the headless report always goes to the console
+        PrintStream console = System.out;
+
+        // Setup logging to go to a text file
         openOutputStream();
 
         // Create thread to capture ctrl+c and clean up before exiting.
@@ -57,7 +89,16 @@ public class App
 
         try 
         {
-            building = loadBuilding();
+            if (App.appConfig.getMonteCarloRuns() > 0)
+            {
+                // Every run creates its own building
+                runMonteCarlo(console);
+                appExit = true;
+            }
+            else 
+            {
+                building = loadBuilding();
+            }
         }
         catch (IllegalArgumentException e)
         {
@@ -75,6 +116,12 @@ public class App
             appExit = true;
         }
 
+        if (!appExit && App.appConfig.isHeadless())
+        {
+            runHeadless(building, console);
+            appExit = true;
+        }
+
         while (!appExit)
         {
             // Run the main operation of this event loop
@@ -94,87 +141,302 @@ public class App
             appExit = (appExit == true) ? true : ccExit;
         }
 
-        // clean up output stream
+        // clean up log output
         closeOutputStream();
     }
 
 
+    /**
+     * Run the building without sleeping between frames until the tick limit is reached,
+     * or the user exits, then print a report of how fast it ran and how the building did.
+     * @param building
+     * @param console - stream to print the report to, kept apart from the log output
+     */
+    private static void runHeadless(Building building, PrintStream console)
+    {
+        long tickLimit = App.appConfig.getHeadlessTickLimit();
+
+        DiscreteEventEngine engine = null;
+
+        if (App.appConfig.isDiscreteEvent())
+        {
+            engine = new DiscreteEventEngine(building);
+        }
+
+        TelemetryWriter telemetry = openTelemetry(building, console);
+
+        // A resumed building starts at the frame it was saved at
+        long startTicks = building.getTicks();
+        long startNanos = System.nanoTime();
+
+        while (building.getTicks() < tickLimit && !ccExit)
+        {
+            if (null != engine)
+            {
+                engine.step(tickLimit);
+            }
+            else 
+            {
+                building.operate();
+            }
+        }
+
+        long wallNanos = System.nanoTime() - startNanos;
+
+        if (null != telemetry)
+        {
+            closeTelemetry(building, telemetry, console);
+        }
+
+        if (null != App.appConfig.getCheckpointPath())
+        {
+            saveCheckpoint(building, console);
+        }
+
+        BuildingKpis kpis = building.getKpis();
+        double wallSeconds = wallNanos / 1.0e9;
+        double ticksPerSecond = (wallNanos > 0) ? (kpis.getTicks() - startTicks) / wallSeconds : 0.0;
+        double simSeconds = kpis.getTicks() * App.appConfig.getFrameTimeMillis() / 1000.0;
+
+        console.println("===== Headless Run Report =====");
+        console.println("Seed: " + building.getSeed());
+        console.println("Dispatch: " + building.getDispatchStrategy().Representation);
+        console.println(String.format("Wall Time: %.3f s", wallSeconds));
+        console.println(String.format("Simulated Time: %.1f s", simSeconds));
+        console.println(String.format("Ticks/sec: %.1f", ticksPerSecond));
+        if (null != engine)
+        {
+            console.println("Frames Skipped: " + engine.getFramesSkipped());
+            console.println("Frames Operated: " + engine.getFramesOperated());
+        }
+        console.println(kpis.summaryString());
+        console.println(building.getJourneyMetrics().summaryString());
+        console.println("===============================");
+        console.flush();
+    }
+
+    /**
+     * Record the telemetry of the building to the file given with --telemetry
+     * @param building
+     * @param console - stream to report a failure to
+     * @return TelemetryWriter - null if there is no telemetry file, or it cannot be created
+     */
+    private static TelemetryWriter openTelemetry(Building building, PrintStream console)
+    {
+        if (null == App.appConfig.getTelemetryPath())
+        {
+            return null;
+        }
+
+        try
+        {
+            TelemetryWriter telemetry = new TelemetryWriter(App.appConfig.getTelemetryPath());
+            building.setTelemetry(telemetry);
+            return telemetry;
+        }
+        catch (UncheckedIOException e)
+        {
+            console.println("Could not create telemetry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stop recording the telemetry of the building and write the rest of it to the file
+     * @param building
+     * @param telemetry
+     * @param console - stream to report a failure to
+     */
+    private static void closeTelemetry(Building building, TelemetryWriter telemetry, PrintStream console)
+    {
+        building.setTelemetry(null);
+
+        try
+        {
+            telemetry.close();
+        }
+        catch (UncheckedIOException e)
+        {
+            console.println("Could not write telemetry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save the building to the checkpoint file given with --checkpoint, to resume or fork it later
+     * @param building
+     * @param console - stream to report a failure to
+     */
+    private static void saveCheckpoint(Building building, PrintStream console)
+    {
+        try (FileChannel channel = FileChannel.open(App.appConfig.getCheckpointPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            building.saveCheckpoint(channel);
+        }
+        catch (IOException | UncheckedIOException e)
+        {
+            console.println("Could not save checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run many independent copies of the building in parallel, each with its own seed, 
+     * and print the statistics of their KPIs.
+     * @param console - stream to print the report to, kept apart from the log output
+     */
+    private static void runMonteCarlo(PrintStream console)
+    {
+        BuildingConfig bc = createBuildingConfig();
+
+        applyBuildingArgs(bc);
+
+        MonteCarloRunner runner = new MonteCarloRunner(bc);
+        runner.setUseDiscreteEvent(App.appConfig.isDiscreteEvent());
+
+        MonteCarloResult result = runner.run(App.appConfig.getFirstSeed(), 
+                                             App.appConfig.getMonteCarloRuns(),
+                                             App.appConfig.getHeadlessTickLimit());
+
+        console.println("===== Monte Carlo Report =====");
+        console.println(result.summaryString());
+        console.println("==============================");
+        console.flush();
+    }
+
     /**
      * Set parameters for the building to run.
      * @return Building
      */
     private static Building loadBuilding()
     {
-        // DESIRED FEATURE: Pull in this data via a json file
-
         // Set values to generate building
-        BuildingConfig bc = new BuildingConfig();
+        BuildingConfig bc = createBuildingConfig();
+
+        if (App.appConfig.hasSeed())
+        {
+            bc.setSeed(App.appConfig.getFirstSeed());
+        }
+
+        applyBuildingArgs(bc);
+
+        Building building = new Building(bc);
 
-        return new Building(bc);
+        // Pick up where a saved run left off, the ticks count on from its frame
+        if (null != App.appConfig.getResumePath())
+        {
+            try (FileChannel channel = FileChannel.open(App.appConfig.getResumePath(), StandardOpenOption.READ))
+            {
+                building.loadCheckpoint(channel);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return building;
     }
 
     /**
-     * Create thread to catch os exit ctrl+c and clean up output stream
+     * @return BuildingConfig - loaded from the json file given with --config, the default building
+     *                          otherwise
+     * @throws IllegalArgumentException if the file is invalid
      */
-    private static void createExitThread()
+    private static BuildingConfig createBuildingConfig()
     {
-        Thread userExitThread = new Thread(() -> {
-            System.out.println("Detected Interrupt - Ctrl+C");
-            ccExit = true;
-            closeOutputStream();
-        });
-        Runtime.getRuntime().addShutdownHook(userExitThread);
+        if (null == App.appConfig.getBuildingConfigPath())
+        {
+            return new BuildingConfig();
+        }
+
+        return ResourceManager.loadBuildingConfig(App.appConfig.getBuildingConfigPath());
     }
 
     /**
-     * Try to create an output stream to print console content to a file.
+     * Hand the command line arguments that change how the building runs over to its configuration
+     * @param bc BuildingConfig
      */
-    private static void openOutputStream()
+    private static void applyBuildingArgs(BuildingConfig bc)
     {
-        if (false == App.appConfig.getPrintToFile())
+        if (null != App.appConfig.getDispatchStrategy())
         {
-            return;
+            bc.setDispatchStrategy(App.appConfig.getDispatchStrategy());
         }
 
-        try 
+        bc.setFrameTimeMillis(App.appConfig.getFrameTimeMillis());
+        bc.setStartTimeOfDayMillis(App.appConfig.getStartTimeOfDayMillis());
+        bc.setParkIdleElevators(App.appConfig.isParkIdleElevators());
+
+        if (App.appConfig.isOfficeArrivals())
         {
-            file = new File(App.appConfig.getPrintToFileName());
-            fos = new FileOutputStream(file);
-            ps = new PrintStream(fos);
-            System.setOut(ps);
+            int population = App.appConfig.getPopulation();
+
+            if (0 == population)
+            {
+                population = PEOPLE_PER_OFFICE_FLOOR * (bc.getHighestFloor() - bc.getLowestFloor());
+            }
+
+            bc.setArrivalProfile(ArrivalProfile.office(population));
         }
-        catch (IOException e)
+
+        if (null != App.appConfig.getScenarioPath())
         {
-            e.printStackTrace();
+            bc.setScenarioPath(App.appConfig.getScenarioPath());
         }
     }
 
     /**
-     * Try to clean up output stream
+     * Create thread to catch os exit ctrl+c and clean up the log output
      */
-    private static void closeOutputStream()
+    private static void createExitThread()
     {
+        Thread userExitThread = new Thread(() -> {
+            Log.log(Log.Level.INFO, Log.Category.APP, "Detected Interrupt - Ctrl+C");
+            ccExit = true;
+            closeOutputStream();
+        });
+        Runtime.getRuntime().addShutdownHook(userExitThread);
+    }
+
+    /**
+     * Start logging at the configured level, to a rolling file if printing to a file, 
+     * otherwise to the console.
+     */
+    private static void openOutputStream()
+    {
+        Log.setLevel(App.appConfig.getLogLevel());
+
         if (false == App.appConfig.getPrintToFile())
         {
+            Log.start(System.out);
             return;
         }
 
-        try 
-        {
-            ps.close();
-        }
-        catch (Exception e)
+        String fileName = App.appConfig.getPrintToFileName();
+
+        if (App.appConfig.isLogGzip())
         {
-            e.printStackTrace();
+            fileName += ".gz";
         }
 
         try 
         {
-            fos.close();
+            Log.start(new RollingLogOutputStream(Paths.get(fileName), 
+                                                 App.appConfig.getLogMaxBytes(),
+                                                 App.appConfig.getLogMaxFiles(),
+                                                 App.appConfig.isLogGzip()));
         }
-        catch (Exception e)
+        catch (IOException e)
         {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Write out everything logged so far and close the log output
+     */
+    private static void closeOutputStream()
+    {
+        Log.shutdown();
+    }
 }
@@ -0,0 +1,174 @@
+package com.maxruiz.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.MonteCarloResult;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+
+/**
+ * This class runs the same building configuration many times with different seeds and
+ * aggregates the KPIs of the runs. Each run builds its own Building, so the runs share no
+ * mutable state and are spread over every core of a ForkJoinPool.
+ *
+ * The BuildingConfig is only read while the runs execute and must not be changed until
+ * run() returns.
+ * @see MonteCarloResult
+ * @author Max Ruiz
+ */
+public class MonteCarloRunner
+{
+  // Below this many runs a task stops splitting and executes its runs itself
+  private static final int RUNS_PER_LEAF = 1;
+
+  private final BuildingConfig m_buildingConfig;
+  private final int m_parallelism;
+  private boolean m_useDiscreteEvent = false;
+
+  /**
+   * Constructor for MonteCarloRunner that uses every available processor
+   * @param bc BuildingConfig - the configuration every run is built from
+   */
+  public MonteCarloRunner(BuildingConfig bc)
+  {
+    this(bc, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor for MonteCarloRunner with a fixed number of worker threads
+   * @param bc BuildingConfig - the configuration every run is built from
+   * @param parallelism int - number of worker threads
+   * @throws IllegalArgumentException if parallelism is not positive
+   */
+  public MonteCarloRunner(BuildingConfig bc, int parallelism)
+  {
+    if (parallelism <= 0)
+    {
+      throw new IllegalArgumentException("parallelism is invalid.");
+    }
+
+    m_buildingConfig = bc;
+    m_parallelism = parallelism;
+  }
+
+  /**
+   * @param useDiscreteEvent boolean - run each building with the DiscreteEventEngine instead of
+   *                         calling Building.operate() once per frame
+   * @see DiscreteEventEngine
+   */
+  public void setUseDiscreteEvent(boolean useDiscreteEvent)
+  {
+    m_useDiscreteEvent = useDiscreteEvent;
+  }
+
+  /**
+   * Execute runCount runs, run i being seeded with firstSeed + i, each for tickBudget frames.
+   * @param firstSeed long - seed of the first run
+   * @param runCount int - number of runs
+   * @param tickBudget long - number of frames each run operates
+   * @return MonteCarloResult
+   * @throws IllegalArgumentException if runCount or tickBudget are not positive
+   */
+  public MonteCarloResult run(long firstSeed, int runCount, long tickBudget)
+  {
+    if (runCount <= 0)
+    {
+      throw new IllegalArgumentException("runCount is invalid.");
+    }
+
+    if (tickBudget <= 0)
+    {
+      throw new IllegalArgumentException("tickBudget is invalid.");
+    }
+
+    BuildingKpis[] results = new BuildingKpis[runCount];
+
+    long startNanos = System.nanoTime();
+
+    ForkJoinPool pool = new ForkJoinPool(m_parallelism);
+
+    try
+    {
+      pool.invoke(new RunRange(firstSeed, results, 0, runCount, tickBudget));
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+
+    long wallNanos = System.nanoTime() - startNanos;
+
+    return new MonteCarloResult(firstSeed, new ArrayList<>(Arrays.asList(results)), wallNanos);
+  }
+
+  /**
+   * Run a single building to the end of its tick budget
+   * @param seed long
+   * @param tickBudget long
+   * @return BuildingKpis
+   */
+  private BuildingKpis runOne(long seed, long tickBudget)
+  {
+    Building building = new Building(m_buildingConfig, seed);
+
+    if (m_useDiscreteEvent)
+    {
+      new DiscreteEventEngine(building).run(tickBudget);
+    }
+    else
+    {
+      while (building.getTicks() < tickBudget)
+      {
+        building.operate();
+      }
+    }
+
+    return building.getKpis();
+  }
+
+  /**
+   * A range of runs that splits itself in half until it is small enough to execute
+   */
+  private class RunRange extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final long m_firstSeed;
+    private final BuildingKpis[] m_results;
+    private final int m_begin;
+    private final int m_end;
+    private final long m_tickBudget;
+
+    RunRange(long firstSeed, BuildingKpis[] results, int begin, int end, long tickBudget)
+    {
+      m_firstSeed = firstSeed;
+      m_results = results;
+      m_begin = begin;
+      m_end = end;
+      m_tickBudget = tickBudget;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (m_end - m_begin <= RUNS_PER_LEAF)
+      {
+        for (int i = m_begin; i < m_end; i++)
+        {
+          m_results[i] = runOne(m_firstSeed + i, m_tickBudget);
+        }
+        return;
+      }
+
+      int middle = (m_begin + m_end) >>> 1;
+
+      invokeAll(new RunRange(m_firstSeed, m_results, m_begin, middle, m_tickBudget),
+                new RunRange(m_firstSeed, m_results, middle, m_end, m_tickBudget));
+    }
+  }
+}
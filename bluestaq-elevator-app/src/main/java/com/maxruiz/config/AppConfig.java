@@ -1,5 +1,12 @@
 package com.maxruiz.config;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.maxruiz.logging.Log;
+import com.maxruiz.structures.Dispatcher;
+
 /**
  * This class is used to extract configuration data from a json file to setup how the application runs
  * or use a set of defaults.
@@ -11,6 +18,27 @@ public class AppConfig
   private int m_frameTimeMillis;
   private boolean m_printToFile;
   private String m_printToFileName;
+  private boolean m_headless = false;
+  private long m_tickLimit = 0;
+  private long m_simTimeLimitMillis = 0;
+  private boolean m_discreteEvent = false;
+  private int m_monteCarloRuns = 0;
+  private long m_firstSeed = 0;
+  private boolean m_hasSeed = false;
+  private Dispatcher.Strategy m_dispatchStrategy = null;
+  private boolean m_parkIdleElevators = false;
+  private long m_startTimeOfDayMillis = 0;
+  private boolean m_officeArrivals = false;
+  private int m_population = 0;
+  private Path m_scenarioPath = null;
+  private Path m_buildingConfigPath = null;
+  private Path m_resumePath = null;
+  private Path m_checkpointPath = null;
+  private Path m_telemetryPath = null;
+  private Log.Level m_logLevel = null;
+  private long m_logMaxBytes;
+  private int m_logMaxFiles;
+  private boolean m_logGzip;
 
   /**
    * Constuctor for AppConfig which takes in all the parameters to configure the main application
@@ -20,10 +48,13 @@ public class AppConfig
    */
   public AppConfig(int frameRate, boolean printToFile, String printToFileName)
   {
-    m_frameRate = 5;
+    m_frameRate = frameRate;
     m_frameTimeMillis = convertFrameRateToMillis(frameRate);
     m_printToFile = printToFile;
     m_printToFileName = printToFileName;
+    m_logMaxBytes = 64L * 1024L * 1024L;
+    m_logMaxFiles = 5;
+    m_logGzip = false;
   }
 
   /**
@@ -45,6 +76,9 @@ public class AppConfig
     m_frameTimeMillis = convertFrameRateToMillis(m_frameRate);
     m_printToFile = true;
     m_printToFileName = "system_out.txt";
+    m_logMaxBytes = 64L * 1024L * 1024L;
+    m_logMaxFiles = 5;
+    m_logGzip = false;
   }
 
   /**
@@ -64,6 +98,446 @@ public class AppConfig
     return (int)m;
   }
 
+  /**
+   * Apply the command line arguments handed to the main application. These select the headless 
+   * mode, which runs the building as fast as possible for a fixed budget, and how it logs.
+   * <ul>
+   *   <li>--headless - run without sleeping between frames</li>
+   *   <li>--ticks=N - stop after N frames (implies --headless)</li>
+   *   <li>--sim-seconds=S - stop after S seconds of simulated time (implies --headless)</li>
+   *   <li>--discrete-event - jump over frames in which nothing changes (headless only)</li>
+   *   <li>--runs=N - execute N independent runs in parallel and report their statistics (headless only)</li>
+   *   <li>--seed=S - seed of the building, with --runs the seed of the first run, run i uses S + i</li>
+   *   <li>--dispatch=STRATEGY - how the elevators pick calls and stops, FIFO, LOOK or ETA</li>
+   *   <li>--park-idle - move idle elevators to where passengers are expected</li>
+   *   <li>--start-time=HH:MM - time of day of the first frame, midnight by default</li>
+   *   <li>--arrivals=MODE - RANDOM passengers from the random events, or the OFFICE day of arrivals</li>
+   *   <li>--population=N - number of people working above the lobby, for --arrivals=OFFICE</li>
+   *   <li>--scenario=FILE - read the passengers and events from a file as the building runs</li>
+   *   <li>--config=FILE - load the building, its elevators and passengers from a json file</li>
+   *   <li>--resume=FILE - continue the building from a checkpoint (headless only, not with --runs)</li>
+   *   <li>--checkpoint=FILE - save the building to a checkpoint at the end of the run (headless only, not with --runs)</li>
+   *   <li>--telemetry=FILE - record what the cars and passengers do to a binary file (headless only, not with --runs)</li>
+   *   <li>--log-level=LEVEL - one of TRACE, DEBUG, INFO, WARN, ERROR or OFF</li>
+   *   <li>--log-max-mb=N - roll the log file over after N megabytes</li>
+   *   <li>--log-max-files=N - number of rolled over log files to keep</li>
+   *   <li>--log-gzip - compress the log files</li>
+   * </ul>
+   * @param args command line arguments
+   * @throws IllegalArgumentException if an argument is unknown or its value is invalid
+   */
+  public void applyCommandLineArgs(String[] args)
+  {
+    for (String arg : args)
+    {
+      if (arg.equals("--headless"))
+      {
+        m_headless = true;
+      }
+      else if (arg.startsWith("--ticks="))
+      {
+        m_tickLimit = parsePositiveLong(arg, "--ticks=");
+        m_headless = true;
+      }
+      else if (arg.equals("--discrete-event"))
+      {
+        m_discreteEvent = true;
+      }
+      else if (arg.startsWith("--runs="))
+      {
+        long runs = parsePositiveLong(arg, "--runs=");
+
+        if (runs > Integer.MAX_VALUE)
+        {
+          throw new IllegalArgumentException("Too many runs for " + arg);
+        }
+
+        m_monteCarloRuns = (int)runs;
+      }
+      else if (arg.startsWith("--seed="))
+      {
+        try 
+        {
+          m_firstSeed = Long.parseLong(arg.substring("--seed=".length()));
+          m_hasSeed = true;
+        }
+        catch (NumberFormatException e)
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+      }
+      else if (arg.startsWith("--dispatch="))
+      {
+        try 
+        {
+          m_dispatchStrategy = Dispatcher.Strategy.valueOf(arg.substring("--dispatch=".length()));
+        }
+        catch (IllegalArgumentException e)
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+      }
+      else if (arg.equals("--park-idle"))
+      {
+        m_parkIdleElevators = true;
+      }
+      else if (arg.startsWith("--start-time="))
+      {
+        m_startTimeOfDayMillis = parseTimeOfDay(arg, "--start-time=");
+      }
+      else if (arg.startsWith("--arrivals="))
+      {
+        String mode = arg.substring("--arrivals=".length());
+
+        if (false == mode.equals("RANDOM") && false == mode.equals("OFFICE"))
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_officeArrivals = mode.equals("OFFICE");
+      }
+      else if (arg.startsWith("--population="))
+      {
+        long population = parsePositiveLong(arg, "--population=");
+
+        if (population > Integer.MAX_VALUE)
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_population = (int)population;
+      }
+      else if (arg.startsWith("--scenario="))
+      {
+        Path path = Paths.get(arg.substring("--scenario=".length()));
+
+        if (false == Files.isRegularFile(path))
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_scenarioPath = path;
+      }
+      else if (arg.startsWith("--config="))
+      {
+        Path path = Paths.get(arg.substring("--config=".length()));
+
+        if (false == Files.isRegularFile(path))
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_buildingConfigPath = path;
+      }
+      else if (arg.startsWith("--resume="))
+      {
+        Path path = Paths.get(arg.substring("--resume=".length()));
+
+        if (false == Files.isRegularFile(path))
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_resumePath = path;
+      }
+      else if (arg.startsWith("--checkpoint="))
+      {
+        String file = arg.substring("--checkpoint=".length());
+
+        if (file.isEmpty())
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_checkpointPath = Paths.get(file);
+      }
+      else if (arg.startsWith("--telemetry="))
+      {
+        String file = arg.substring("--telemetry=".length());
+
+        if (file.isEmpty())
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+
+        m_telemetryPath = Paths.get(file);
+      }
+      else if (arg.startsWith("--log-level="))
+      {
+        try 
+        {
+          m_logLevel = Log.Level.valueOf(arg.substring("--log-level=".length()));
+        }
+        catch (IllegalArgumentException e)
+        {
+          throw new IllegalArgumentException("Invalid value for " + arg);
+        }
+      }
+      else if (arg.startsWith("--log-max-mb="))
+      {
+        long megabytes = parsePositiveLong(arg, "--log-max-mb=");
+
+        if (megabytes > Long.MAX_VALUE / (1024L * 1024L))
+        {
+          throw new IllegalArgumentException("Value is too large for " + arg);
+        }
+
+        m_logMaxBytes = megabytes * 1024L * 1024L;
+      }
+      else if (arg.startsWith("--log-max-files="))
+      {
+        long files = parsePositiveLong(arg, "--log-max-files=");
+
+        if (files > Integer.MAX_VALUE)
+        {
+          throw new IllegalArgumentException("Too many files for " + arg);
+        }
+
+        m_logMaxFiles = (int)files;
+      }
+      else if (arg.equals("--log-gzip"))
+      {
+        m_logGzip = true;
+      }
+      else if (arg.startsWith("--sim-seconds="))
+      {
+        m_simTimeLimitMillis = parsePositiveLong(arg, "--sim-seconds=") * 1000L;
+        m_headless = true;
+      }
+      else 
+      {
+        throw new IllegalArgumentException("Unknown argument: " + arg);
+      }
+    }
+
+    if (m_headless && 0 == m_tickLimit && 0 == m_simTimeLimitMillis)
+    {
+      throw new IllegalArgumentException("Headless mode requires --ticks=N or --sim-seconds=S.");
+    }
+
+    if (m_discreteEvent && !m_headless)
+    {
+      throw new IllegalArgumentException("--discrete-event is only available in headless mode.");
+    }
+
+    if (m_monteCarloRuns > 0 && !m_headless)
+    {
+      throw new IllegalArgumentException("--runs is only available in headless mode.");
+    }
+
+    // Every run of a Monte Carlo starts its own building, there is no one building to resume,
+    // save or record
+    if (m_monteCarloRuns > 0 && (null != m_resumePath || null != m_checkpointPath || null != m_telemetryPath))
+    {
+      throw new IllegalArgumentException("--resume, --checkpoint and --telemetry are not available with --runs.");
+    }
+  }
+
+  /**
+   * A Macro to pull a positive numerical value out of an argument of the form prefix=value
+   * @param arg
+   * @param prefix
+   * @return long
+   */
+  private long parsePositiveLong(String arg, String prefix)
+  {
+    long value;
+
+    try 
+    {
+      value = Long.parseLong(arg.substring(prefix.length()));
+    }
+    catch (NumberFormatException e)
+    {
+      throw new IllegalArgumentException("Invalid value for " + arg);
+    }
+
+    if (value <= 0)
+    {
+      throw new IllegalArgumentException("Value must be positive for " + arg);
+    }
+
+    return value;
+  }
+
+  /**
+   * A Macro to pull a time of day out of an argument of the form prefix=HH:MM
+   * @param arg
+   * @param prefix
+   * @return long - milliseconds after midnight
+   */
+  private long parseTimeOfDay(String arg, String prefix)
+  {
+    String[] fields = arg.substring(prefix.length()).split(":");
+    int hours;
+    int minutes;
+
+    try 
+    {
+      if (2 != fields.length)
+      {
+        throw new NumberFormatException();
+      }
+
+      hours = Integer.parseInt(fields[0]);
+      minutes = Integer.parseInt(fields[1]);
+    }
+    catch (NumberFormatException e)
+    {
+      throw new IllegalArgumentException("Invalid value for " + arg);
+    }
+
+    if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59)
+    {
+      throw new IllegalArgumentException("Invalid value for " + arg);
+    }
+
+    return (hours * 60L + minutes) * 60L * 1000L;
+  }
+
+  /**
+   * The number of frames the headless mode runs. When both a tick limit and a simulated time
+   * limit are given, whichever comes first wins. Each frame simulates getFrameTimeMillis() of time.
+   * @return long
+   */
+  public long getHeadlessTickLimit()
+  {
+    long limit = Long.MAX_VALUE;
+
+    if (m_tickLimit > 0)
+    {
+      limit = m_tickLimit;
+    }
+
+    if (m_simTimeLimitMillis > 0)
+    {
+      long simTicks = (m_simTimeLimitMillis + m_frameTimeMillis - 1) / m_frameTimeMillis;
+      limit = Math.min(limit, simTicks);
+    }
+
+    return limit;
+  }
+
+  /**
+   * The level to log at. Unless one was given, everything is logged when watching the building 
+   * in real time, while the headless mode only logs the notable events.
+   * @return Log.Level
+   */
+  public Log.Level getLogLevel()
+  {
+    if (null != m_logLevel)
+    {
+      return m_logLevel;
+    }
+
+    return m_headless ? Log.Level.INFO : Log.Level.TRACE;
+  }
+
+  public long getLogMaxBytes() {
+    return m_logMaxBytes;
+  }
+
+  public int getLogMaxFiles() {
+    return m_logMaxFiles;
+  }
+
+  public boolean isLogGzip() {
+    return m_logGzip;
+  }
+
+  public boolean isHeadless() {
+    return m_headless;
+  }
+
+  public boolean isDiscreteEvent() {
+    return m_discreteEvent;
+  }
+
+  public int getMonteCarloRuns() {
+    return m_monteCarloRuns;
+  }
+
+  public long getFirstSeed() {
+    return m_firstSeed;
+  }
+
+  /**
+   * @return boolean - was a seed given, otherwise the building picks one at random
+   */
+  public boolean hasSeed() {
+    return m_hasSeed;
+  }
+
+  /**
+   * @return Dispatcher.Strategy - the dispatch strategy given, null to keep the one of the building
+   */
+  public Dispatcher.Strategy getDispatchStrategy() {
+    return m_dispatchStrategy;
+  }
+
+  /**
+   * @return boolean - should idle elevators move to where passengers are expected?
+   */
+  public boolean isParkIdleElevators() {
+    return m_parkIdleElevators;
+  }
+
+  /**
+   * @return long - time of day of the first frame, in milliseconds after midnight
+   */
+  public long getStartTimeOfDayMillis() {
+    return m_startTimeOfDayMillis;
+  }
+
+  /**
+   * @return boolean - should passengers show up over the day of an office building?
+   */
+  public boolean isOfficeArrivals() {
+    return m_officeArrivals;
+  }
+
+  /**
+   * @return int - number of people working above the lobby, 0 to size it from the floors
+   */
+  public int getPopulation() {
+    return m_population;
+  }
+
+  /**
+   * @return Path - file the passengers and events are read from, null if there is none
+   */
+  public Path getScenarioPath() {
+    return m_scenarioPath;
+  }
+
+  /**
+   * @return Path - json file the building is loaded from, null for the default building
+   */
+  public Path getBuildingConfigPath() {
+    return m_buildingConfigPath;
+  }
+
+  /**
+   * @return Path - checkpoint the building continues from, null to start from the first frame
+   */
+  public Path getResumePath() {
+    return m_resumePath;
+  }
+
+  /**
+   * @return Path - checkpoint the building is saved to at the end of a headless run, null for none
+   */
+  public Path getCheckpointPath() {
+    return m_checkpointPath;
+  }
+
+  /**
+   * @return Path - file the telemetry of a headless run is written to, null for none
+   */
+  public Path getTelemetryPath() {
+    return m_telemetryPath;
+  }
+
   public int getFrameRate() {
     return m_frameRate;
   }
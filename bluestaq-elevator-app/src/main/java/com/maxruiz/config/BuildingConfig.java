@@ -1,10 +1,17 @@
 package com.maxruiz.config;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import com.maxruiz.passengers.PassengerPriority;
 import com.maxruiz.structures.Building;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.structures.ParkingPolicy;
+import com.maxruiz.utility.ArrivalProfile;
+import com.maxruiz.utility.EventController;
+import com.maxruiz.utility.ScenarioReader;
 
 /**
  * This class holds the configuration data necessary to build a Building instance
@@ -12,6 +19,8 @@ import com.maxruiz.structures.Building;
  */
 public class BuildingConfig
 {
+  public static final long DEFAULT_FRAME_TIME_MILLIS = 200;
+
   private int m_lowestFloor;
   private int m_highestFloor;
   private int m_maxNumPassengersPerFloor;
@@ -19,6 +28,19 @@ public class BuildingConfig
   private ArrayList<ElevatorConfig> m_elevatorConfigs = new ArrayList<>();
   private boolean m_useCustomPassengers;
   private ArrayList<PassengerConfig> m_passengerConfigs = new ArrayList<>();
+  // Every random value of a building is derived from this seed, so the same seed repeats a run
+  private long m_seed = new SplittableRandom().nextLong();
+  private Dispatcher.Strategy m_dispatchStrategy = Dispatcher.Strategy.LOOK;
+  // Simulated time of a frame and time of day of the first frame, for the demand forecast
+  private long m_frameTimeMillis = DEFAULT_FRAME_TIME_MILLIS;
+  private long m_startTimeOfDayMillis = 0;
+  private boolean m_parkIdleElevators = false;
+  // Passengers show up from the random PASSENGERS events unless there is a profile
+  private ArrivalProfile m_arrivalProfile = null;
+  // Passengers and events are read from a file instead, if there is one
+  private Path m_scenarioPath = null;
+  // The default list of the EventController unless set
+  private ArrayList<EventController.EventType> m_customEvents = null;
 
   /**
    * Constructor for BuildingConfig that accepts all of the configuration values as parameters
@@ -44,15 +66,11 @@ public class BuildingConfig
   }
 
   /**
-   * Constructor for BuildingConfig that loads a set of configuration data from a json file
-   * or uses a set of default values if it cannot get the values from the json file
+   * Constructor for BuildingConfig that uses a set of default values, see ResourceManager to load
+   * one from a json file
    */
   public BuildingConfig()
   {
-    // Disired feature: Pull data from json config file
-    
-    // else
-
     loadDefaultBuildingConfig(false, false);
   }
 
@@ -115,4 +133,141 @@ public class BuildingConfig
   {
     return m_passengerConfigs;
   }
+
+  /**
+   * @return long - root seed of the random values of buildings built from this configuration.
+   *                Unless set, a new configuration picks one at random.
+   */
+  public long getSeed()
+  {
+    return m_seed;
+  }
+
+  /**
+   * @param seed long - root seed of the random values of buildings built from this configuration
+   */
+  public void setSeed(long seed)
+  {
+    m_seed = seed;
+  }
+
+  /**
+   * @return Dispatcher.Strategy - how the elevators pick calls and stops, LOOK unless set
+   * @see Dispatcher
+   */
+  public Dispatcher.Strategy getDispatchStrategy()
+  {
+    return m_dispatchStrategy;
+  }
+
+  /**
+   * @param dispatchStrategy - how the elevators pick calls and stops
+   */
+  public void setDispatchStrategy(Dispatcher.Strategy dispatchStrategy)
+  {
+    m_dispatchStrategy = dispatchStrategy;
+  }
+
+  /**
+   * @return long - simulated time of a frame in milliseconds, DEFAULT_FRAME_TIME_MILLIS unless set
+   */
+  public long getFrameTimeMillis()
+  {
+    return m_frameTimeMillis;
+  }
+
+  /**
+   * @param frameTimeMillis long - simulated time of a frame in milliseconds
+   */
+  public void setFrameTimeMillis(long frameTimeMillis)
+  {
+    m_frameTimeMillis = frameTimeMillis;
+  }
+
+  /**
+   * @return long - time of day of the first frame, in milliseconds after midnight
+   */
+  public long getStartTimeOfDayMillis()
+  {
+    return m_startTimeOfDayMillis;
+  }
+
+  /**
+   * @param startTimeOfDayMillis long - time of day of the first frame, in milliseconds after midnight
+   */
+  public void setStartTimeOfDayMillis(long startTimeOfDayMillis)
+  {
+    m_startTimeOfDayMillis = startTimeOfDayMillis;
+  }
+
+  /**
+   * @return boolean - do idle elevators move to where passengers are expected? false unless set
+   * @see ParkingPolicy
+   */
+  public boolean parkingIdleElevators()
+  {
+    return m_parkIdleElevators;
+  }
+
+  /**
+   * @param parkIdleElevators - should idle elevators move to where passengers are expected?
+   */
+  public void setParkIdleElevators(boolean parkIdleElevators)
+  {
+    m_parkIdleElevators = parkIdleElevators;
+  }
+
+  /**
+   * @return ArrivalProfile - how many passengers show up and where they go by the time of day,
+   *                          null if they show up from the random PASSENGERS events
+   */
+  public ArrivalProfile getArrivalProfile()
+  {
+    return m_arrivalProfile;
+  }
+
+  /**
+   * @param arrivalProfile - how many passengers show up and where they go by the time of day,
+   *                         null for them to show up from the random PASSENGERS events
+   */
+  public void setArrivalProfile(ArrivalProfile arrivalProfile)
+  {
+    m_arrivalProfile = arrivalProfile;
+  }
+
+  /**
+   * @return Path - file the passengers and events are read from as the building runs,
+   *                null if they are random or custom
+   * @see ScenarioReader
+   */
+  public Path getScenarioPath()
+  {
+    return m_scenarioPath;
+  }
+
+  /**
+   * @param scenarioPath - file the passengers and events are read from as the building runs,
+   *                       null for them to be random or custom
+   */
+  public void setScenarioPath(Path scenarioPath)
+  {
+    m_scenarioPath = scenarioPath;
+  }
+
+  /**
+   * @return ArrayList<EventController.EventType> - events of the building when using custom events,
+   *                                               null for the default list
+   */
+  public ArrayList<EventController.EventType> getCustomEvents()
+  {
+    return m_customEvents;
+  }
+
+  /**
+   * @param customEvents - events of the building when using custom events, null for the default list
+   */
+  public void setCustomEvents(ArrayList<EventController.EventType> customEvents)
+  {
+    m_customEvents = customEvents;
+  }
 }
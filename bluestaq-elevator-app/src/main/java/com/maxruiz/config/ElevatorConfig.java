@@ -1,5 +1,7 @@
 package com.maxruiz.config;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.maxruiz.structures.Elevator;
 
 /**
@@ -8,6 +10,11 @@ import com.maxruiz.structures.Elevator;
  */
 public class ElevatorConfig 
 {
+    /**
+     * Passengers that can get on, and separately get off, an elevator in one frame
+     */
+    public static final int DEFAULT_TRANSFER_RATE = 2;
+
     private int m_ID;
     private int m_startingFloor;
     private int m_sqft;
@@ -15,25 +22,23 @@ public class ElevatorConfig
     private int m_highestFloor;
     private int m_atFloorFrames;
     private int m_movingFrames;
+    private int m_transferRate;
 
     private boolean m_hasUpdatedInstanceCounter = false;
 
-    private static int m_elevatorCount = 0;
+    private static final AtomicInteger m_elevatorCount = new AtomicInteger();
 
     /**
      * Constructor for ElevatorConfig that takes in the minimum required data from the building
-     * and either extracts data from a json config file or uses a set of default values
+     * and uses a set of default values, see ResourceManager to load one from a json file
      * @param lowestFloor
      * @param highestFloor
      * @see Elevator
      */
-    public ElevatorConfig(int lowestFloor, int highestFloor) // , JsonObject elevatorJObj)
+    public ElevatorConfig(int lowestFloor, int highestFloor)
     {
       m_lowestFloor = lowestFloor;
       m_highestFloor = highestFloor;
-      
-      // Desired Feature: Extract data from a json configuration file
-      // loadElevatorConfig(JsonObject elevatorJObj)
 
       loadDefaultElevatorConfig();
     }
@@ -52,6 +57,26 @@ public class ElevatorConfig
      */
     public ElevatorConfig(int lowestFloor, int highestFloor, int id, int startingFloor, 
                           int sqft, int atFloorFrames, int movingFrames)
+    {
+      this(lowestFloor, highestFloor, id, startingFloor, sqft, atFloorFrames, movingFrames, 
+           DEFAULT_TRANSFER_RATE);
+    }
+
+    /**
+     * Constructor for ElevatorConfig that takes in all of the required parameters used to build
+     * an instance of an Elevator, along with how many passengers fit through its doors at once
+     * @param lowestFloor
+     * @param highestFloor
+     * @param id
+     * @param startingFloor
+     * @param sqft
+     * @param atFloorFrames
+     * @param movingFrames
+     * @param transferRate - passengers that can get on, and separately get off, in one frame
+     * @see Elevator
+     */
+    public ElevatorConfig(int lowestFloor, int highestFloor, int id, int startingFloor, 
+                          int sqft, int atFloorFrames, int movingFrames, int transferRate)
     {
       m_lowestFloor = lowestFloor;
       m_highestFloor = highestFloor;
@@ -60,17 +85,12 @@ public class ElevatorConfig
       m_sqft = sqft;
       m_atFloorFrames = atFloorFrames;
       m_movingFrames = movingFrames;
+      m_transferRate = transferRate;
 
-      m_elevatorCount++;
+      m_elevatorCount.incrementAndGet();
       m_hasUpdatedInstanceCounter = true;
     }
 
-    // public void loadElevatorConfig(JsonObject elevatorJObj)
-    // {
-    //   // load from json object
-    //   // i.e. { "ID" : "1234", "starting_floor" : 0, "sqft" : 15, "at_floor_frames" : 4, "moving_frames" : 4}
-    // }
-
     /**
      * Load a set of default configuration values
      */
@@ -78,7 +98,7 @@ public class ElevatorConfig
     {
       if (!m_hasUpdatedInstanceCounter)
       {
-        m_ID = m_elevatorCount++;
+        m_ID = m_elevatorCount.getAndIncrement();
         m_hasUpdatedInstanceCounter = true;
       }
 
@@ -86,6 +106,7 @@ public class ElevatorConfig
       m_sqft = 15;
       m_atFloorFrames = 4;
       m_movingFrames = 4;
+      m_transferRate = DEFAULT_TRANSFER_RATE;
     }
 
     public int getID() {
@@ -128,18 +149,34 @@ public class ElevatorConfig
       this.m_movingFrames = m_movingFrames;
     }
 
+    public int getTransferRate() {
+      return m_transferRate;
+    }
+
+    public void setTransferRate(int m_transferRate) {
+      this.m_transferRate = m_transferRate;
+    }
+
     public int getLowestFloor()
     {
       return m_lowestFloor;
     }
 
+    public void setLowestFloor(int m_lowestFloor) {
+      this.m_lowestFloor = m_lowestFloor;
+    }
+
     public int getHighestFloor()
     {
       return m_highestFloor;
     }
 
+    public void setHighestFloor(int m_highestFloor) {
+      this.m_highestFloor = m_highestFloor;
+    }
+
     public static int getElevatorCount() {
-      return m_elevatorCount;
+      return m_elevatorCount.get();
     }
 
     
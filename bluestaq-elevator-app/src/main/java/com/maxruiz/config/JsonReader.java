@@ -0,0 +1,727 @@
+package com.maxruiz.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * This class reads a JSON document one token at a time, so a configuration is copied straight into
+ * the classes that hold it without building a tree of the whole document first. Values are taken in
+ * the order they are written, e.g.
+ * <pre>
+ *   reader.beginObject();
+ *   while (reader.hasNext())
+ *   {
+ *     String name = reader.nextName();
+ *     ...
+ *   }
+ *   reader.endObject();
+ * </pre>
+ * The document is checked against the JSON grammar as it is read, and anything that does not follow
+ * it, or is not the type of value asked for, is reported with its line and column.
+ *
+ * This class is NOT thread safe.
+ * @see ResourceManager
+ * @author Max Ruiz
+ */
+public class JsonReader implements Closeable
+{
+  public enum Token
+  {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+  }
+
+  // What the reader is in the middle of
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int DANGLING_NAME = 3;
+  private static final int NONEMPTY_OBJECT = 4;
+  private static final int EMPTY_ARRAY = 5;
+  private static final int NONEMPTY_ARRAY = 6;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader m_in;
+  private final char[] m_buffer = new char[BUFFER_SIZE];
+  private int m_pos = 0;
+  private int m_limit = 0;
+  private int m_line = 1;
+  private int m_column = 1;
+
+  private int[] m_stack = new int[32];
+  private int m_stackSize = 1;
+
+  // The next token, read ahead by peek(), and its text for a name, string, number or boolean
+  private Token m_peeked = null;
+  private String m_peekedText = null;
+  // A whole number is kept as one, without its text, unless it does not fit in a long
+  private long m_peekedLong = 0;
+  private final StringBuilder m_text = new StringBuilder();
+
+  /**
+   * Constructor for JsonReader
+   * @param in - the document, best buffered by the reader itself rather than by in
+   * @throws IllegalArgumentException if in is null
+   */
+  public JsonReader(Reader in)
+  {
+    if (null == in)
+    {
+      throw new IllegalArgumentException("in is invalid.");
+    }
+
+    m_in = in;
+    m_stack[0] = EMPTY_DOCUMENT;
+  }
+
+  /**
+   * @return Token - the type of the next token, without taking it
+   * @throws IllegalArgumentException if the document is invalid
+   * @throws UncheckedIOException if the document cannot be read
+   */
+  public Token peek()
+  {
+    if (null != m_peeked)
+    {
+      return m_peeked;
+    }
+
+    int c;
+
+    switch (m_stack[m_stackSize - 1])
+    {
+      case EMPTY_DOCUMENT:
+        m_stack[m_stackSize - 1] = NONEMPTY_DOCUMENT;
+        return peekValue(nextNonWhitespace());
+
+      case NONEMPTY_DOCUMENT:
+        if (-1 != nextNonWhitespace())
+        {
+          throw invalid("JSON");
+        }
+        return m_peeked = Token.END_DOCUMENT;
+
+      case EMPTY_ARRAY:
+        m_stack[m_stackSize - 1] = NONEMPTY_ARRAY;
+        c = nextNonWhitespace();
+        return (']' == c) ? (m_peeked = Token.END_ARRAY) : peekValue(c);
+
+      case NONEMPTY_ARRAY:
+        c = nextNonWhitespace();
+
+        if (']' == c)
+        {
+          return m_peeked = Token.END_ARRAY;
+        }
+        else if (',' != c)
+        {
+          throw invalid("JSON");
+        }
+        return peekValue(nextNonWhitespace());
+
+      case EMPTY_OBJECT:
+      case NONEMPTY_OBJECT:
+        c = nextNonWhitespace();
+
+        if ('}' == c)
+        {
+          return m_peeked = Token.END_OBJECT;
+        }
+        else if (NONEMPTY_OBJECT == m_stack[m_stackSize - 1])
+        {
+          if (',' != c)
+          {
+            throw invalid("JSON");
+          }
+
+          c = nextNonWhitespace();
+        }
+
+        if ('"' != c)
+        {
+          throw invalid("Name");
+        }
+
+        m_stack[m_stackSize - 1] = DANGLING_NAME;
+        m_peekedText = readString();
+        return m_peeked = Token.NAME;
+
+      case DANGLING_NAME:
+        if (':' != nextNonWhitespace())
+        {
+          throw invalid("JSON");
+        }
+
+        m_stack[m_stackSize - 1] = NONEMPTY_OBJECT;
+        return peekValue(nextNonWhitespace());
+
+      default:
+        throw new IllegalStateException("JsonReader is closed.");
+    }
+  }
+
+  /**
+   * Take the start of an object
+   * @throws IllegalArgumentException if the next token is not the start of an object
+   */
+  public void beginObject()
+  {
+    expect(Token.BEGIN_OBJECT, "Object");
+    push(EMPTY_OBJECT);
+  }
+
+  /**
+   * Take the end of an object
+   * @throws IllegalArgumentException if the object has more names
+   */
+  public void endObject()
+  {
+    expect(Token.END_OBJECT, "End of object");
+    m_stackSize--;
+  }
+
+  /**
+   * Take the start of an array
+   * @throws IllegalArgumentException if the next token is not the start of an array
+   */
+  public void beginArray()
+  {
+    expect(Token.BEGIN_ARRAY, "Array");
+    push(EMPTY_ARRAY);
+  }
+
+  /**
+   * Take the end of an array
+   * @throws IllegalArgumentException if the array has more values
+   */
+  public void endArray()
+  {
+    expect(Token.END_ARRAY, "End of array");
+    m_stackSize--;
+  }
+
+  /**
+   * @return boolean - does the current object or array have another name or value?
+   * @throws IllegalArgumentException if the document is invalid
+   */
+  public boolean hasNext()
+  {
+    Token token = peek();
+
+    return Token.END_OBJECT != token && Token.END_ARRAY != token && Token.END_DOCUMENT != token;
+  }
+
+  /**
+   * @return String - the next name of the current object
+   * @throws IllegalArgumentException if the next token is not a name
+   */
+  public String nextName()
+  {
+    expect(Token.NAME, "Name");
+    return m_peekedText;
+  }
+
+  /**
+   * @return String - the next value, which must be a string
+   * @throws IllegalArgumentException if the next token is not a string
+   */
+  public String nextString()
+  {
+    expect(Token.STRING, "String");
+    return m_peekedText;
+  }
+
+  /**
+   * @return boolean - the next value, which must be true or false
+   * @throws IllegalArgumentException if the next token is not a boolean
+   */
+  public boolean nextBoolean()
+  {
+    expect(Token.BOOLEAN, "Boolean");
+    return "true".equals(m_peekedText);
+  }
+
+  /**
+   * @return double - the next value, which must be a number
+   * @throws IllegalArgumentException if the next token is not a number
+   */
+  public double nextDouble()
+  {
+    expect(Token.NUMBER, "Number");
+    return (null == m_peekedText) ? (double)m_peekedLong : Double.parseDouble(m_peekedText);
+  }
+
+  /**
+   * @return long - the next value, which must be a whole number
+   * @throws IllegalArgumentException if the next token is not a whole number that fits in a long
+   */
+  public long nextLong()
+  {
+    if (Token.NUMBER != peek() || null != m_peekedText)
+    {
+      throw invalid("Number");
+    }
+
+    m_peeked = null;
+    return m_peekedLong;
+  }
+
+  /**
+   * @return int - the next value, which must be a whole number
+   * @throws IllegalArgumentException if the next token is not a whole number that fits in an int
+   */
+  public int nextInt()
+  {
+    if (Token.NUMBER != peek())
+    {
+      throw invalid("Number");
+    }
+
+    long value = nextLong();
+
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+    {
+      throw invalid("Number");
+    }
+
+    return (int)value;
+  }
+
+  /**
+   * Take the next value, whatever it is, e.g. one the configuration has no use for
+   * @throws IllegalArgumentException if the value is invalid
+   */
+  public void skipValue()
+  {
+    int depth = 0;
+
+    do
+    {
+      switch (peek())
+      {
+        case BEGIN_OBJECT:
+          beginObject();
+          depth++;
+          break;
+
+        case BEGIN_ARRAY:
+          beginArray();
+          depth++;
+          break;
+
+        case END_OBJECT:
+          endObject();
+          depth--;
+          break;
+
+        case END_ARRAY:
+          endArray();
+          depth--;
+          break;
+
+        case END_DOCUMENT:
+          throw invalid("Value");
+
+        default:
+          m_peeked = null;
+      }
+    }
+    while (depth > 0);
+  }
+
+  /**
+   * @param what - what was read, e.g. the name of a value that is out of range
+   * @return IllegalArgumentException - to be thrown, saying where in the document it was read
+   */
+  public IllegalArgumentException invalid(String what)
+  {
+    return new IllegalArgumentException(what + " at line " + m_line + " column " + m_column + " is invalid.");
+  }
+
+  /**
+   * Close the document
+   * @throws UncheckedIOException if the document cannot be closed
+   */
+  @Override
+  public void close()
+  {
+    m_peeked = null;
+    m_stackSize = 1;
+    m_stack[0] = -1;
+
+    try
+    {
+      m_in.close();
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * A Macro to take the next token, which must be of a type
+   * @param token
+   * @param what - what is expected, for the error
+   */
+  private void expect(Token token, String what)
+  {
+    if (token != peek())
+    {
+      throw invalid(what);
+    }
+
+    m_peeked = null;
+  }
+
+  /**
+   * @param context - what the reader is now in the middle of
+   */
+  private void push(int context)
+  {
+    if (m_stackSize == m_stack.length)
+    {
+      int[] stack = new int[m_stack.length * 2];
+      System.arraycopy(m_stack, 0, stack, 0, m_stackSize);
+      m_stack = stack;
+    }
+
+    m_stack[m_stackSize++] = context;
+  }
+
+  /**
+   * Read the value that starts with a character
+   * @param c - the first character of the value
+   * @return Token
+   */
+  private Token peekValue(int c)
+  {
+    switch (c)
+    {
+      case '{':
+        return m_peeked = Token.BEGIN_OBJECT;
+
+      case '[':
+        return m_peeked = Token.BEGIN_ARRAY;
+
+      case '"':
+        m_peekedText = readString();
+        return m_peeked = Token.STRING;
+
+      case 't':
+      case 'f':
+      case 'n':
+        m_peekedText = readLiteral(c);
+
+        if ("null".equals(m_peekedText))
+        {
+          return m_peeked = Token.NULL;
+        }
+        else if ("true".equals(m_peekedText) || "false".equals(m_peekedText))
+        {
+          return m_peeked = Token.BOOLEAN;
+        }
+        throw invalid("Value");
+
+      default:
+        if ('-' == c || (c >= '0' && c <= '9'))
+        {
+          readNumber(c);
+          return m_peeked = Token.NUMBER;
+        }
+        throw invalid("Value");
+    }
+  }
+
+  /**
+   * Read the rest of a string, after its opening quote
+   * @return String
+   */
+  private String readString()
+  {
+    m_text.setLength(0);
+
+    while (true)
+    {
+      // Copy plain characters straight out of the buffer
+      int start = m_pos;
+
+      while (m_pos < m_limit && '"' != m_buffer[m_pos] && '\\' != m_buffer[m_pos] && m_buffer[m_pos] >= 0x20)
+      {
+        m_pos++;
+      }
+
+      m_text.append(m_buffer, start, m_pos - start);
+      m_column += m_pos - start;
+
+      int c = read();
+
+      if ('"' == c)
+      {
+        return m_text.toString();
+      }
+      else if ('\\' == c)
+      {
+        m_text.append(readEscape());
+      }
+      else if (-1 == c || c < 0x20)
+      {
+        throw invalid("String");
+      }
+      else
+      {
+        m_text.append((char)c);
+      }
+    }
+  }
+
+  /**
+   * @return char - the character of an escape sequence, after its backslash
+   */
+  private char readEscape()
+  {
+    int c = read();
+
+    switch (c)
+    {
+      case '"':
+      case '\\':
+      case '/':
+        return (char)c;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        int value = 0;
+
+        for (int i = 0; i < 4; i++)
+        {
+          int digit = Character.digit(read(), 16);
+
+          if (digit < 0)
+          {
+            throw invalid("String");
+          }
+
+          value = (value << 4) | digit;
+        }
+        return (char)value;
+      default:
+        throw invalid("String");
+    }
+  }
+
+  /**
+   * Read the rest of true, false or null
+   * @param first - the first letter
+   * @return String - every letter up to the next character that is not one
+   */
+  private String readLiteral(int first)
+  {
+    m_text.setLength(0);
+    m_text.append((char)first);
+
+    for (int c = peekChar(); c >= 'a' && c <= 'z'; c = peekChar())
+    {
+      m_text.append((char)read());
+    }
+
+    return m_text.toString();
+  }
+
+  /**
+   * Read the rest of a number, e.g. -12.5e3, checked against the JSON grammar. A whole number that
+   * fits in a long is kept in m_peekedLong, anything else as it was written in m_peekedText.
+   * @param first - the minus sign or first digit
+   */
+  private void readNumber(int first)
+  {
+    m_text.setLength(0);
+    m_text.append((char)first);
+
+    int c = first;
+    boolean negative = ('-' == c);
+
+    if (negative)
+    {
+      c = readDigit();
+    }
+
+    // Accumulated negative, which has room for Long.MIN_VALUE
+    long value = '0' - c;
+    boolean whole = true;
+
+    // No leading zeros
+    if ('0' != c)
+    {
+      for (c = peekChar(); c >= '0' && c <= '9'; c = peekChar())
+      {
+        m_text.append((char)read());
+
+        int digit = c - '0';
+        whole = whole && value >= (Long.MIN_VALUE + digit) / 10;
+        value = value * 10 - digit;
+      }
+    }
+
+    if ('.' == peekChar())
+    {
+      whole = false;
+      m_text.append((char)read());
+      readDigit();
+      readDigits();
+    }
+
+    c = peekChar();
+
+    if ('e' == c || 'E' == c)
+    {
+      whole = false;
+      m_text.append((char)read());
+      c = peekChar();
+
+      if ('+' == c || '-' == c)
+      {
+        m_text.append((char)read());
+      }
+
+      readDigit();
+      readDigits();
+    }
+
+    if (whole && (negative || Long.MIN_VALUE != value))
+    {
+      m_peekedLong = negative ? value : -value;
+      m_peekedText = null;
+    }
+    else
+    {
+      m_peekedText = m_text.toString();
+    }
+  }
+
+  /**
+   * @return int - a digit that must be next
+   */
+  private int readDigit()
+  {
+    int c = read();
+
+    if (c < '0' || c > '9')
+    {
+      throw invalid("Number");
+    }
+
+    m_text.append((char)c);
+    return c;
+  }
+
+  /**
+   * Read any digits that are next
+   */
+  private void readDigits()
+  {
+    for (int c = peekChar(); c >= '0' && c <= '9'; c = peekChar())
+    {
+      m_text.append((char)read());
+    }
+  }
+
+  /**
+   * @return int - the next character that is not whitespace, -1 at the end of the document
+   */
+  private int nextNonWhitespace()
+  {
+    // Skip the spaces of a line straight out of the buffer
+    while (m_pos < m_limit && (' ' == m_buffer[m_pos] || '\t' == m_buffer[m_pos]))
+    {
+      m_pos++;
+      m_column++;
+    }
+
+    int c = read();
+
+    while (' ' == c || '\n' == c || '\r' == c || '\t' == c)
+    {
+      c = read();
+    }
+
+    return c;
+  }
+
+  /**
+   * @return int - the next character, without taking it, -1 at the end of the document
+   */
+  private int peekChar()
+  {
+    if (m_pos == m_limit && false == fill())
+    {
+      return -1;
+    }
+
+    return m_buffer[m_pos];
+  }
+
+  /**
+   * @return int - the next character, -1 at the end of the document
+   */
+  private int read()
+  {
+    if (m_pos == m_limit && false == fill())
+    {
+      return -1;
+    }
+
+    char c = m_buffer[m_pos++];
+
+    if ('\n' == c)
+    {
+      m_line++;
+      m_column = 1;
+    }
+    else
+    {
+      m_column++;
+    }
+
+    return c;
+  }
+
+  /**
+   * @return boolean - was more of the document read into the buffer?
+   */
+  private boolean fill()
+  {
+    try
+    {
+      int read = m_in.read(m_buffer, 0, m_buffer.length);
+
+      m_pos = 0;
+      m_limit = Math.max(0, read);
+
+      return read > 0;
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
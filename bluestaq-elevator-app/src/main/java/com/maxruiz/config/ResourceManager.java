@@ -1,73 +1,557 @@
 package com.maxruiz.config;
 
-/* 
- * Known incomplete class. I failed to get Gson to work.
- * I followed guides online.
- * 1) You will find in my repo that there is a 'scripts' folder that has
- *     how I attempted to manually install the module after downloading it
- * 2) You will also find in the 'libs' folder the .jar file that I used
- * 3) You will see in my pom file that I really tried (several) methods to get
- *     it to work.
- * ----------------------------------------------
- * PLEASE SEE MY NOTES IN THE FILE: notes.txt
- * ----------------------------------------------
- */
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 
+import com.maxruiz.passengers.PassengerPriority;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.utility.EventController;
 
+/**
+ * This class loads the configuration of the application from json files, e.g. the ones in the
+ * resources folder. Each file is read as a stream with a JsonReader and copied straight into the
+ * configuration classes, so a building of hundreds of floors and a long list of passengers is
+ * loaded without holding the document in memory.
+ *
+ * Every value is checked as it is read. A name that is not known, a value of the wrong type or out
+ * of range, or a file that is not valid json is reported with where it is in the file.
+ * @see JsonReader
+ * @author Max Ruiz
+ */
 public class ResourceManager
 {
+  // Floors of an elevator or passenger that are the floors of the building unless given
+  private static final int BUILDING_FLOOR = Integer.MIN_VALUE;
 
-}
+  private ResourceManager()
+  {
+  }
+
+  /**
+   * Load the configuration of the main application, e.g. resources/app_config.json
+   * @param path
+   * @return AppConfig
+   * @throws IllegalArgumentException if the file is invalid
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public static AppConfig loadAppConfig(Path path)
+  {
+    try (JsonReader reader = open(path))
+    {
+      AppConfig ac = readAppConfig(reader);
+      reader.peek();
+
+      return ac;
+    }
+  }
+
+  /**
+   * Load the configuration of a building, with its elevators and passengers,
+   * e.g. resources/building_config.json
+   * @param path
+   * @return BuildingConfig
+   * @throws IllegalArgumentException if the file is invalid
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public static BuildingConfig loadBuildingConfig(Path path)
+  {
+    try (JsonReader reader = open(path))
+    {
+      BuildingConfig bc = readBuildingConfig(reader);
+      reader.peek();
+
+      return bc;
+    }
+  }
+
+  /**
+   * Load a list of custom events, e.g. resources/custom_events.json
+   * @param path
+   * @return ArrayList<EventController.EventType> - never empty
+   * @throws IllegalArgumentException if the file is invalid
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public static ArrayList<EventController.EventType> loadCustomEvents(Path path)
+  {
+    try (JsonReader reader = open(path))
+    {
+      ArrayList<EventController.EventType> events = null;
+
+      reader.beginObject();
+
+      while (reader.hasNext())
+      {
+        String name = reader.nextName();
+
+        if (name.equals("custom_events"))
+        {
+          events = readCustomEvents(reader);
+        }
+        else
+        {
+          throw reader.invalid(name);
+        }
+      }
+
+      reader.endObject();
+
+      if (null == events)
+      {
+        throw reader.invalid("custom_events");
+      }
+
+      reader.peek();
+
+      return events;
+    }
+  }
+
+  /**
+   * @param reader - positioned at an app configuration object
+   * @return AppConfig
+   * @throws IllegalArgumentException if the configuration is invalid
+   */
+  public static AppConfig readAppConfig(JsonReader reader)
+  {
+    AppConfig defaults = new AppConfig();
+    int frameRate = defaults.getFrameRate();
+    boolean printToFile = defaults.getPrintToFile();
+    String printToFileName = defaults.getPrintToFileName();
+
+    reader.beginObject();
+
+    while (reader.hasNext())
+    {
+      String name = reader.nextName();
+
+      switch (name)
+      {
+        case "frame_rate":
+          frameRate = readPositiveInt(reader, name);
+          break;
+
+        case "print_to_file":
+          printToFile = reader.nextBoolean();
+          break;
+
+        case "print_to_file_name":
+          printToFileName = reader.nextString();
+
+          if (printToFileName.isBlank())
+          {
+            throw reader.invalid(name);
+          }
+          break;
+
+        default:
+          throw reader.invalid(name);
+      }
+    }
+
+    reader.endObject();
+
+    return new AppConfig(frameRate, printToFile, printToFileName);
+  }
+
+  /**
+   * @param reader - positioned at a building configuration object
+   * @return BuildingConfig
+   * @throws IllegalArgumentException if the configuration is invalid
+   */
+  public static BuildingConfig readBuildingConfig(JsonReader reader)
+  {
+    int lowestFloor = BUILDING_FLOOR;
+    int highestFloor = BUILDING_FLOOR;
+    int maxNumPassengersPerFloor = 0;
+    boolean useCustomEvents = false;
+    boolean useCustomPassengers = false;
+    ArrayList<ElevatorConfig> elevatorConfigs = new ArrayList<>();
+    ArrayList<PassengerConfig> passengerConfigs = new ArrayList<>();
+    ArrayList<EventController.EventType> customEvents = null;
+    Long seed = null;
+    Dispatcher.Strategy dispatchStrategy = null;
+
+    reader.beginObject();
+
+    while (reader.hasNext())
+    {
+      String name = reader.nextName();
+
+      switch (name)
+      {
+        case "lowest_floor":
+          lowestFloor = reader.nextInt();
+          break;
+
+        case "highest_floor":
+          highestFloor = reader.nextInt();
+          break;
+
+        case "max_number_of_passengers_per_floor":
+          maxNumPassengersPerFloor = readPositiveInt(reader, name);
+          break;
+
+        case "use_custom_events":
+          useCustomEvents = reader.nextBoolean();
+          break;
+
+        case "use_custom_passengers":
+          useCustomPassengers = reader.nextBoolean();
+          break;
+
+        case "elevators":
+          reader.beginArray();
+
+          while (reader.hasNext())
+          {
+            elevatorConfigs.add(readElevatorConfig(reader));
+          }
+
+          reader.endArray();
+          break;
+
+        case "passengers":
+          reader.beginArray();
+
+          while (reader.hasNext())
+          {
+            passengerConfigs.add(readPassengerConfig(reader));
+          }
+
+          reader.endArray();
+          break;
+
+        case "custom_events":
+          customEvents = readCustomEvents(reader);
+          break;
+
+        case "seed":
+          seed = reader.nextLong();
+          break;
+
+        case "dispatch_strategy":
+          try
+          {
+            dispatchStrategy = Dispatcher.Strategy.valueOf(reader.nextString());
+          }
+          catch (IllegalArgumentException e)
+          {
+            throw reader.invalid(name);
+          }
+          break;
+
+        default:
+          throw reader.invalid(name);
+      }
+    }
+
+    reader.endObject();
+
+    // Only known once the whole building is read, the values can come in any order
+    if (BUILDING_FLOOR == lowestFloor || BUILDING_FLOOR == highestFloor || lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    if (0 == maxNumPassengersPerFloor)
+    {
+      throw new IllegalArgumentException("max_number_of_passengers_per_floor is invalid.");
+    }
+
+    if (elevatorConfigs.isEmpty())
+    {
+      throw new IllegalArgumentException("There must be one or more elevators.");
+    }
+
+    for (ElevatorConfig ec : elevatorConfigs)
+    {
+      placeElevator(ec, lowestFloor, highestFloor);
+    }
+
+    for (PassengerConfig pc : passengerConfigs)
+    {
+      placePassenger(pc, lowestFloor, highestFloor);
+    }
+
+    BuildingConfig bc = new BuildingConfig(lowestFloor, highestFloor, maxNumPassengersPerFloor,
+                                           useCustomEvents, elevatorConfigs, useCustomPassengers,
+                                           passengerConfigs);
+    bc.setCustomEvents(customEvents);
+
+    if (null != seed)
+    {
+      bc.setSeed(seed);
+    }
 
-// import com.google.gson.Gson;
-// import com.google.gson.JsonObject;
-
-// import java.io.FileReader;
-// import java.io.IOException;
-
-// public class ResourceManager 
-// {
-//   // Initial resource json file that contains other resource information
-//   private String RESOURCE_DB_PATH = "resources/resource_db.json";
-
-//   // Keys that index info in the json db
-//   private String KEY_JSON_PATHS = "json_paths";
-
-//   // JSON object
-//   JsonObject m_jsonObject = null;
-
-//   // Singleton
-//   private static ResourceManager self = null;
-
-//   private ResourceManager()
-//   {
-//     Gson gson = new Gson();
-
-//     //Try to load the resource database
-//     try 
-//     {
-//       FileReader reader = new FileReader(RESOURCE_DB_PATH);
-//       m_jsonObject = gson.fromJson(reader, JsonObject.class);
-//       System.out.println(m_jsonObject);
-//     }
-//     catch (IOException e)
-//     {
-//       e.printStackTrace();
-//       m_jsonObject = new JsonObject();
-//     }
-//   }
-
-//   public static ResourceManager get()
-//   {
-//     if (null == self)
-//     {
-//       self = new ResourceManager();
-//     }
-
-//     return self;
-//   }
-
-  
-  
-// }
+    if (null != dispatchStrategy)
+    {
+      bc.setDispatchStrategy(dispatchStrategy);
+    }
+
+    return bc;
+  }
+
+  /**
+   * @param reader - positioned at an elevator object
+   * @return ElevatorConfig - any floor that was not given is BUILDING_FLOOR
+   */
+  private static ElevatorConfig readElevatorConfig(JsonReader reader)
+  {
+    ElevatorConfig ec = new ElevatorConfig(BUILDING_FLOOR, BUILDING_FLOOR);
+
+    reader.beginObject();
+
+    while (reader.hasNext())
+    {
+      String name = reader.nextName();
+
+      switch (name)
+      {
+        case "ID":
+          ec.setID(reader.nextInt());
+          break;
+
+        case "lowest_floor":
+          ec.setLowestFloor(reader.nextInt());
+          break;
+
+        case "highest_floor":
+          ec.setHighestFloor(reader.nextInt());
+          break;
+
+        case "starting_floor":
+          ec.setStartingFloor(reader.nextInt());
+          break;
+
+        case "sqft":
+          ec.setSqft(readPositiveInt(reader, name));
+          break;
+
+        case "at_floor_frames":
+          ec.setAtFloorFrames(readPositiveInt(reader, name));
+          break;
+
+        case "moving_frames":
+          ec.setMovingFrames(readPositiveInt(reader, name));
+          break;
+
+        case "transfer_rate":
+          ec.setTransferRate(readPositiveInt(reader, name));
+          break;
+
+        default:
+          throw reader.invalid(name);
+      }
+    }
+
+    reader.endObject();
+
+    return ec;
+  }
+
+  /**
+   * @param reader - positioned at a passenger object
+   * @return PassengerConfig - any floor that was not given is BUILDING_FLOOR
+   */
+  private static PassengerConfig readPassengerConfig(JsonReader reader)
+  {
+    PassengerConfig pc = new PassengerConfig(PassengerPriority.get().getLowestPriority(), BUILDING_FLOOR,
+                                             BUILDING_FLOOR, BUILDING_FLOOR, 4, null);
+
+    reader.beginObject();
+
+    while (reader.hasNext())
+    {
+      String name = reader.nextName();
+
+      switch (name)
+      {
+        case "title":
+          pc.m_priority = PassengerPriority.get().getPriorityFromTitle(reader.nextString());
+
+          if (null == pc.m_priority)
+          {
+            throw reader.invalid(name);
+          }
+          break;
+
+        case "origin_floor":
+          pc.m_originFloor = reader.nextInt();
+          break;
+
+        case "lowest_floor":
+          pc.m_lowestFloor = reader.nextInt();
+          break;
+
+        case "highest_floor":
+          pc.m_highestFloor = reader.nextInt();
+          break;
+
+        case "sqft":
+          pc.m_sqft = readPositiveInt(reader, name);
+          break;
+
+        case "sick_factors":
+          reader.beginArray();
+
+          while (reader.hasNext())
+          {
+            pc.m_sickFactors.add(reader.nextDouble());
+          }
+
+          reader.endArray();
+          break;
+
+        default:
+          throw reader.invalid(name);
+      }
+    }
+
+    if (BUILDING_FLOOR == pc.m_originFloor)
+    {
+      throw reader.invalid("origin_floor");
+    }
+
+    reader.endObject();
+
+    return pc;
+  }
+
+  /**
+   * @param reader - positioned at an array of event names
+   * @return ArrayList<EventController.EventType> - never empty
+   */
+  private static ArrayList<EventController.EventType> readCustomEvents(JsonReader reader)
+  {
+    ArrayList<EventController.EventType> events = new ArrayList<>();
+
+    reader.beginArray();
+
+    while (reader.hasNext())
+    {
+      String event = reader.nextString();
+
+      try
+      {
+        events.add(EventController.EventType.valueOf(event));
+      }
+      catch (IllegalArgumentException e)
+      {
+        throw reader.invalid(event);
+      }
+
+      if (EventController.EventType.SIZE == events.get(events.size() - 1))
+      {
+        throw reader.invalid(event);
+      }
+    }
+
+    if (events.isEmpty())
+    {
+      throw reader.invalid("custom_events");
+    }
+
+    reader.endArray();
+
+    return events;
+  }
+
+  /**
+   * Give an elevator the floors of the building it did not have, and check that it fits in it
+   * @param ec
+   * @param lowestFloor - of the building
+   * @param highestFloor - of the building
+   */
+  private static void placeElevator(ElevatorConfig ec, int lowestFloor, int highestFloor)
+  {
+    if (BUILDING_FLOOR == ec.getLowestFloor())
+    {
+      ec.setLowestFloor(lowestFloor);
+    }
+
+    if (BUILDING_FLOOR == ec.getHighestFloor())
+    {
+      ec.setHighestFloor(highestFloor);
+    }
+
+    if (BUILDING_FLOOR == ec.getStartingFloor())
+    {
+      ec.setStartingFloor(ec.getLowestFloor());
+    }
+
+    if (ec.getLowestFloor() < lowestFloor || ec.getHighestFloor() > highestFloor
+        || ec.getLowestFloor() >= ec.getHighestFloor()
+        || ec.getStartingFloor() < ec.getLowestFloor() || ec.getStartingFloor() > ec.getHighestFloor())
+    {
+      throw new IllegalArgumentException("Floors of elevator " + ec.getID() + " are invalid.");
+    }
+  }
+
+  /**
+   * Give a passenger the floors of the building they did not have, and check that they fit in it
+   * @param pc
+   * @param lowestFloor - of the building
+   * @param highestFloor - of the building
+   */
+  private static void placePassenger(PassengerConfig pc, int lowestFloor, int highestFloor)
+  {
+    if (BUILDING_FLOOR == pc.m_lowestFloor)
+    {
+      pc.m_lowestFloor = lowestFloor;
+    }
+
+    if (BUILDING_FLOOR == pc.m_highestFloor)
+    {
+      pc.m_highestFloor = highestFloor;
+    }
+
+    if (pc.m_lowestFloor < lowestFloor || pc.m_highestFloor > highestFloor
+        || pc.m_lowestFloor >= pc.m_highestFloor
+        || pc.m_originFloor < pc.m_lowestFloor || pc.m_originFloor > pc.m_highestFloor)
+    {
+      throw new IllegalArgumentException("Floors of a passenger are invalid.");
+    }
+  }
+
+  /**
+   * @param reader
+   * @param name - of the value, for the error
+   * @return int - the next value, which must be a whole number above 0
+   */
+  private static int readPositiveInt(JsonReader reader, String name)
+  {
+    int value = reader.nextInt();
+
+    if (value <= 0)
+    {
+      throw reader.invalid(name);
+    }
+
+    return value;
+  }
+
+  /**
+   * @param path
+   * @return JsonReader - over the file
+   */
+  private static JsonReader open(Path path)
+  {
+    if (null == path)
+    {
+      throw new IllegalArgumentException("path is invalid.");
+    }
+
+    try
+    {
+      return new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package com.maxruiz.logging;
+
+import java.io.OutputStream;
+
+/**
+ * This class is the logging facade of the application. A record is a fixed set of structured
+ * fields (elevator, floor, passenger, target floor, count) plus a message and an optional detail.
+ * Messages and details are expected to be constants, so logging a record never builds a string.
+ *
+ * Each category has its own level. A record below the level of its category is dropped by the
+ * very first comparison, before anything else is touched. Enabled records are copied into a ring
+ * buffer and a background thread drains them to the output, so the caller never waits on I/O.
+ *
+ * Levels should be set before the simulation starts, they are not published to other threads.
+ * @see LogRingBuffer
+ * @see LogDrainer
+ * @author Max Ruiz
+ */
+public final class Log
+{
+  public enum Level
+  {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+  }
+
+  public enum Category
+  {
+    APP,
+    BUILDING,
+    ELEVATOR,
+    PASSENGER,
+    EVENTS,
+    ENGINE
+  }
+
+  /**
+   * Value of a field that does not apply to a record. Floors can be negative, so this is
+   * the one value a field can't otherwise hold.
+   */
+  public static final int NONE = Integer.MIN_VALUE;
+
+  private static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private static final int[] s_thresholds = new int[Category.values().length];
+
+  private static final LogRingBuffer s_buffer = new LogRingBuffer(DEFAULT_CAPACITY);
+  private static LogDrainer s_drainer = null;
+  private static volatile boolean s_started = false;
+  private static volatile boolean s_shutdown = false;
+
+  static
+  {
+    setLevel(Level.INFO);
+  }
+
+  private Log()
+  {
+  }
+
+  /**
+   * Set the level of every category
+   * @param level
+   */
+  public static void setLevel(Level level)
+  {
+    for (Category category : Category.values())
+    {
+      setLevel(category, level);
+    }
+  }
+
+  /**
+   * @param category
+   * @param level
+   */
+  public static void setLevel(Category category, Level level)
+  {
+    s_thresholds[category.ordinal()] = level.ordinal();
+  }
+
+  /**
+   * @param level
+   * @param category
+   * @return boolean - would a record of this level and category be written?
+   */
+  public static boolean isEnabled(Level level, Category category)
+  {
+    return level.ordinal() >= s_thresholds[category.ordinal()];
+  }
+
+  /**
+   * Start draining records to the provided output. Any output that was already started is
+   * drained and closed first. Records logged before the first call go to System.out.
+   * @param output
+   */
+  public static synchronized void start(OutputStream output)
+  {
+    stopDrainer();
+
+    s_drainer = new LogDrainer(s_buffer, output, output != System.out);
+    s_drainer.start();
+    s_shutdown = false;
+    s_started = true;
+  }
+
+  /**
+   * Write out every record logged so far and close the output. Records logged afterwards are
+   * dropped until start() is called again.
+   */
+  public static synchronized void shutdown()
+  {
+    s_shutdown = true;
+    s_started = false;
+    stopDrainer();
+  }
+
+  /**
+   * @param level
+   * @param category
+   * @param message - constant text of the record
+   */
+  public static void log(Level level, Category category, String message)
+  {
+    log(level, category, message, NONE, NONE, NONE, NONE, NONE, null);
+  }
+
+  /**
+   * Log a record with every structured field. Pass NONE for fields that don't apply
+   * and null for no detail.
+   * @param level
+   * @param category
+   * @param message - constant text of the record
+   * @param elevator - ID of the elevator
+   * @param floor - floor the record happened at
+   * @param passenger - ID of the passenger
+   * @param target - floor being headed to, e.g. a target or destination floor
+   * @param count - a count or amount, e.g. number of passengers or frames
+   * @param detail - constant text to add to the message, e.g. an enum representation
+   */
+  public static void log(Level level, Category category, String message, int elevator,
+                         int floor, int passenger, int target, long count, String detail)
+  {
+    if (level.ordinal() < s_thresholds[category.ordinal()])
+    {
+      return;
+    }
+
+    if (!s_started && !startDefault())
+    {
+      return;
+    }
+
+    long sequence = s_buffer.claim();
+    s_buffer.write(sequence, level, category, message, elevator, floor, passenger,
+                   target, count, detail);
+    s_buffer.publish(sequence);
+  }
+
+  /**
+   * Start draining to System.out, unless another thread beat us to it or logging was shut down
+   * @return boolean - is there a drainer to log to?
+   */
+  private static synchronized boolean startDefault()
+  {
+    if (s_shutdown)
+    {
+      return false;
+    }
+
+    if (!s_started)
+    {
+      s_drainer = new LogDrainer(s_buffer, System.out, false);
+      s_drainer.start();
+      s_started = true;
+    }
+
+    return true;
+  }
+
+  /**
+   * Wait for the drainer to write out everything that has been published, then stop it
+   */
+  private static void stopDrainer()
+  {
+    if (null == s_drainer)
+    {
+      return;
+    }
+
+    s_drainer.shutdown();
+    s_drainer = null;
+  }
+}
@@ -0,0 +1,224 @@
+package com.maxruiz.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is the background thread that drains the log ring buffer. Each record is formatted
+ * as one line of text and written through a large buffer, which is flushed whenever the ring runs
+ * dry so that a person watching the output still sees it promptly.
+ *
+ * A line looks like:
+ * <pre>DEBUG ELEVATOR [elevator=1 floor=4 passenger=12] Passenger got OFF the elevator</pre>
+ * @see LogRingBuffer
+ * @author Max Ruiz
+ */
+final class LogDrainer extends Thread
+{
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+  private static final long IDLE_PARK_NANOS = 200_000L;
+
+  private final LogRingBuffer m_buffer;
+  private final Writer m_writer;
+  private final OutputStream m_output;
+  private final boolean m_closeOutput;
+  private final StringBuilder m_line = new StringBuilder(256);
+
+  private long m_nextSequence;
+  private volatile boolean m_running = true;
+
+  /**
+   * @param buffer - ring buffer to drain
+   * @param output - where the lines go
+   * @param closeOutput boolean - close the output on shutdown, false for e.g. System.out
+   */
+  LogDrainer(LogRingBuffer buffer, OutputStream output, boolean closeOutput)
+  {
+    super("log-drainer");
+    setDaemon(true);
+
+    m_buffer = buffer;
+    m_output = output;
+    m_closeOutput = closeOutput;
+    m_writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                                  WRITE_BUFFER_SIZE);
+    m_nextSequence = buffer.getClaimSequence();
+  }
+
+  @Override
+  public void run()
+  {
+    while (m_running)
+    {
+      if (0 == drain())
+      {
+        flush();
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+
+    // Whatever was claimed before shutdown still gets written
+    long lastSequence = m_buffer.getClaimSequence();
+
+    while (m_nextSequence < lastSequence)
+    {
+      if (0 == drain())
+      {
+        Thread.onSpinWait();
+      }
+    }
+
+    flush();
+
+    if (m_closeOutput)
+    {
+      try
+      {
+        m_writer.close();
+        m_output.close();
+      }
+      catch (IOException e)
+      {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Stop the thread after it has written every record claimed so far, and wait for it
+   */
+  void shutdown()
+  {
+    m_running = false;
+    LockSupport.unpark(this);
+
+    try
+    {
+      join();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Write out every record that is published, in order
+   * @return int - number of records written
+   */
+  private int drain()
+  {
+    int drained = 0;
+
+    while (m_buffer.isPublished(m_nextSequence))
+    {
+      format(m_nextSequence);
+      m_buffer.release(m_nextSequence);
+      m_nextSequence++;
+      drained++;
+
+      try
+      {
+        m_writer.append(m_line);
+      }
+      catch (IOException e)
+      {
+        // Nothing else to report it to, keep draining so the producers are never stuck
+        e.printStackTrace();
+      }
+    }
+
+    return drained;
+  }
+
+  /**
+   * Turn a record into a line of text
+   * @param sequence
+   */
+  private void format(long sequence)
+  {
+    m_line.setLength(0);
+
+    Log.Level level = m_buffer.getLevel(sequence);
+    m_line.append(level.name());
+
+    for (int i = level.name().length(); i < 6; i++)
+    {
+      m_line.append(' ');
+    }
+
+    m_line.append(m_buffer.getCategory(sequence).name()).append(' ');
+
+    int fieldsStart = m_line.length();
+    m_line.append('[');
+    appendField("elevator", m_buffer.getElevator(sequence));
+    appendField("floor", m_buffer.getFloor(sequence));
+    appendField("passenger", m_buffer.getPassenger(sequence));
+    appendField("target", m_buffer.getTarget(sequence));
+
+    long count = m_buffer.getCount(sequence);
+
+    if (Log.NONE != count)
+    {
+      appendSeparator();
+      m_line.append("count=").append(count);
+    }
+
+    if (m_line.length() == fieldsStart + 1)
+    {
+      // No fields, drop the bracket
+      m_line.setLength(fieldsStart);
+    }
+    else
+    {
+      m_line.append("] ");
+    }
+
+    m_line.append(m_buffer.getMessage(sequence));
+
+    String detail = m_buffer.getDetail(sequence);
+
+    if (null != detail)
+    {
+      m_line.append(": ").append(detail);
+    }
+
+    m_line.append(System.lineSeparator());
+  }
+
+  private void appendField(String name, int value)
+  {
+    if (Log.NONE == value)
+    {
+      return;
+    }
+
+    appendSeparator();
+    m_line.append(name).append('=').append(value);
+  }
+
+  private void appendSeparator()
+  {
+    if (m_line.charAt(m_line.length() - 1) != '[')
+    {
+      m_line.append(' ');
+    }
+  }
+
+  private void flush()
+  {
+    try
+    {
+      m_writer.flush();
+    }
+    catch (IOException e)
+    {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.maxruiz.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is a bounded ring of log records shared by any number of logging threads and a
+ * single draining thread. The fields of the records live in parallel arrays allocated up front,
+ * so writing a record allocates nothing.
+ *
+ * A producer claims the next sequence number, fills in the slot and publishes it by storing the
+ * sequence number in the slot. The consumer reads slots in sequence order once they are published
+ * and then releases them. When the ring is full, producers wait for the consumer to catch up
+ * rather than losing records.
+ * @see Log
+ * @author Max Ruiz
+ */
+final class LogRingBuffer
+{
+  private final int CAPACITY;
+  private final int MASK;
+
+  private final AtomicLong m_claimSequence = new AtomicLong();
+  private final AtomicLongArray m_published;
+  private volatile long m_releasedSequence = 0;
+
+  private final Log.Level[] m_levels;
+  private final Log.Category[] m_categories;
+  private final String[] m_messages;
+  private final int[] m_elevators;
+  private final int[] m_floors;
+  private final int[] m_passengers;
+  private final int[] m_targets;
+  private final long[] m_counts;
+  private final String[] m_details;
+
+  /**
+   * @param capacity int - number of records, must be a power of two
+   */
+  LogRingBuffer(int capacity)
+  {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+    {
+      throw new IllegalArgumentException("capacity must be a power of two.");
+    }
+
+    CAPACITY = capacity;
+    MASK = capacity - 1;
+
+    m_published = new AtomicLongArray(capacity);
+
+    for (int i = 0; i < capacity; i++)
+    {
+      m_published.set(i, -1);
+    }
+
+    m_levels = new Log.Level[capacity];
+    m_categories = new Log.Category[capacity];
+    m_messages = new String[capacity];
+    m_elevators = new int[capacity];
+    m_floors = new int[capacity];
+    m_passengers = new int[capacity];
+    m_targets = new int[capacity];
+    m_counts = new long[capacity];
+    m_details = new String[capacity];
+  }
+
+  /**
+   * Claim the next slot, waiting for the consumer if the ring is full
+   * @return long - sequence number of the claimed slot
+   */
+  long claim()
+  {
+    long sequence = m_claimSequence.getAndIncrement();
+
+    int spins = 0;
+
+    while (sequence - m_releasedSequence >= CAPACITY)
+    {
+      if (spins < 100)
+      {
+        Thread.onSpinWait();
+      }
+      else if (spins < 200)
+      {
+        Thread.yield();
+      }
+      else
+      {
+        LockSupport.parkNanos(10_000L);
+      }
+
+      spins++;
+    }
+
+    return sequence;
+  }
+
+  void write(long sequence, Log.Level level, Log.Category category, String message, int elevator,
+             int floor, int passenger, int target, long count, String detail)
+  {
+    int index = (int)(sequence & MASK);
+
+    m_levels[index] = level;
+    m_categories[index] = category;
+    m_messages[index] = message;
+    m_elevators[index] = elevator;
+    m_floors[index] = floor;
+    m_passengers[index] = passenger;
+    m_targets[index] = target;
+    m_counts[index] = count;
+    m_details[index] = detail;
+  }
+
+  /**
+   * Make a written slot visible to the consumer
+   * @param sequence
+   */
+  void publish(long sequence)
+  {
+    m_published.setRelease((int)(sequence & MASK), sequence);
+  }
+
+  /**
+   * @param sequence
+   * @return boolean - has the producer of this sequence number finished writing it?
+   */
+  boolean isPublished(long sequence)
+  {
+    return m_published.getAcquire((int)(sequence & MASK)) == sequence;
+  }
+
+  /**
+   * Hand the slots up to and including sequence back to the producers
+   * @param sequence
+   */
+  void release(long sequence)
+  {
+    m_releasedSequence = sequence + 1;
+  }
+
+  /**
+   * @return long - sequence number the next producer will claim
+   */
+  long getClaimSequence()
+  {
+    return m_claimSequence.get();
+  }
+
+  Log.Level getLevel(long sequence) {
+    return m_levels[(int)(sequence & MASK)];
+  }
+
+  Log.Category getCategory(long sequence) {
+    return m_categories[(int)(sequence & MASK)];
+  }
+
+  String getMessage(long sequence) {
+    return m_messages[(int)(sequence & MASK)];
+  }
+
+  int getElevator(long sequence) {
+    return m_elevators[(int)(sequence & MASK)];
+  }
+
+  int getFloor(long sequence) {
+    return m_floors[(int)(sequence & MASK)];
+  }
+
+  int getPassenger(long sequence) {
+    return m_passengers[(int)(sequence & MASK)];
+  }
+
+  int getTarget(long sequence) {
+    return m_targets[(int)(sequence & MASK)];
+  }
+
+  long getCount(long sequence) {
+    return m_counts[(int)(sequence & MASK)];
+  }
+
+  String getDetail(long sequence) {
+    return m_details[(int)(sequence & MASK)];
+  }
+}
@@ -0,0 +1,183 @@
+package com.maxruiz.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is an OutputStream over a log file that rolls over at the end of the line that
+ * reaches a byte limit. The active file is always the given path. On rollover, path.1 becomes
+ * path.2 and so on, the oldest file is deleted, and the active file becomes path.1.
+ *
+ * When compressed, the files are gzip streams and the limit counts the uncompressed bytes.
+ * This stream is meant to be written by the single log draining thread and is not thread safe.
+ * @author Max Ruiz
+ */
+public class RollingLogOutputStream extends OutputStream
+{
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Path m_path;
+  private final long m_maxBytes;
+  private final int m_maxFiles;
+  private final boolean m_compress;
+
+  private OutputStream m_output;
+  private long m_bytesWritten = 0;
+  private boolean m_rollOverPending = false;
+
+  /**
+   * Constructor for RollingLogOutputStream, truncating any existing active file
+   * @param path - the active log file, e.g. output.txt or output.txt.gz
+   * @param maxBytes long - bytes written to a file before rolling over
+   * @param maxFiles int - number of rolled over files to keep
+   * @param compress boolean - gzip each file
+   * @throws IOException if the file can't be opened
+   * @throws IllegalArgumentException if maxBytes or maxFiles are not positive
+   */
+  public RollingLogOutputStream(Path path, long maxBytes, int maxFiles, boolean compress)
+      throws IOException
+  {
+    if (maxBytes <= 0)
+    {
+      throw new IllegalArgumentException("maxBytes is invalid.");
+    }
+
+    if (maxFiles <= 0)
+    {
+      throw new IllegalArgumentException("maxFiles is invalid.");
+    }
+
+    m_path = path;
+    m_maxBytes = maxBytes;
+    m_maxFiles = maxFiles;
+    m_compress = compress;
+
+    open();
+  }
+
+  @Override
+  public void write(int b) throws IOException
+  {
+    if (m_rollOverPending)
+    {
+      rollOver();
+    }
+
+    m_output.write(b);
+    m_bytesWritten++;
+
+    if ('\n' == b && m_bytesWritten >= m_maxBytes)
+    {
+      m_rollOverPending = true;
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException
+  {
+    if (0 == len)
+    {
+      return;
+    }
+
+    if (m_rollOverPending)
+    {
+      rollOver();
+    }
+
+    // Once the limit is reached, roll over at the next line break so no line is split
+    if (m_bytesWritten + len >= m_maxBytes)
+    {
+      long start = Math.max(0, m_maxBytes - m_bytesWritten - 1);
+
+      for (int i = off + (int)start; i < off + len; i++)
+      {
+        if ('\n' == b[i])
+        {
+          int head = i + 1 - off;
+
+          m_output.write(b, off, head);
+          m_bytesWritten += head;
+          m_rollOverPending = true;
+
+          write(b, off + head, len - head);
+          return;
+        }
+      }
+    }
+
+    m_output.write(b, off, len);
+    m_bytesWritten += len;
+  }
+
+  @Override
+  public void flush() throws IOException
+  {
+    m_output.flush();
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    m_output.close();
+  }
+
+  /**
+   * @param index int - 0 for the active file
+   * @return Path - path of the file that has rolled over index times
+   */
+  public Path getPath(int index)
+  {
+    if (0 == index)
+    {
+      return m_path;
+    }
+
+    return m_path.resolveSibling(m_path.getFileName() + "." + index);
+  }
+
+  /**
+   * Close the active file, shift the rolled over files up by one and open a new active file
+   * @throws IOException
+   */
+  private void rollOver() throws IOException
+  {
+    m_output.close();
+
+    Files.deleteIfExists(getPath(m_maxFiles));
+
+    for (int i = m_maxFiles - 1; i >= 0; i--)
+    {
+      Path from = getPath(i);
+
+      if (Files.exists(from))
+      {
+        Files.move(from, getPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+
+    open();
+  }
+
+  private void open() throws IOException
+  {
+    OutputStream file = Files.newOutputStream(m_path);
+
+    if (m_compress)
+    {
+      m_output = new GZIPOutputStream(file, BUFFER_SIZE);
+    }
+    else
+    {
+      m_output = new BufferedOutputStream(file, BUFFER_SIZE);
+    }
+
+    m_bytesWritten = 0;
+    m_rollOverPending = false;
+  }
+}
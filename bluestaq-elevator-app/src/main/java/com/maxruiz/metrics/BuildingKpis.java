@@ -0,0 +1,181 @@
+package com.maxruiz.metrics;
+
+/**
+ * This class is a snapshot of the key performance indicators of a Building at some frame.
+ * It holds plain values only, so it can be kept around after the building is gone, e.g. to
+ * report at the end of a headless run.
+ * @see com.maxruiz.structures.Building
+ * @author Max Ruiz
+ */
+public class BuildingKpis
+{
+  /**
+   * The counters of the snapshot, used to pick one out when aggregating many snapshots
+   */
+  public enum Kpi
+  {
+    TICKS("Ticks"),
+    PASSENGERS_SPAWNED("Passengers Spawned"),
+    PASSENGERS_TURNED_AWAY("Passengers Turned Away"),
+    PASSENGERS_BOARDED("Passengers Boarded"),
+    PASSENGERS_DELIVERED("Passengers Delivered"),
+    PASSENGERS_TRANSFERRED("Passengers Transferred"),
+    PASSENGERS_WAITING("Passengers Waiting"),
+    PASSENGERS_RIDING("Passengers Riding"),
+    FLOORS_TRAVELED("Floors Traveled"),
+    WAIT_P90("Wait Time p90 (frames)"),
+    TIME_TO_DESTINATION_P90("Time to Destination p90 (frames)");
+
+    public final String Representation;
+
+    private Kpi(String rep)
+    {
+      Representation = rep;
+    }
+  }
+
+  private final long m_ticks;
+  private final long m_passengersSpawned;
+  private final long m_passengersTurnedAway;
+  private final long m_passengersBoarded;
+  private final long m_passengersDelivered;
+  private final long m_passengersTransferred;
+  private final long m_passengersWaiting;
+  private final long m_passengersRiding;
+  private final long m_floorsTraveled;
+  private final long m_waitP90;
+  private final long m_timeToDestinationP90;
+
+  /**
+   * Constructor for BuildingKpis that takes in every counter of the snapshot
+   * @param ticks - number of frames the building has operated
+   * @param passengersSpawned - passengers that made it onto a floor of the building
+   * @param passengersTurnedAway - passengers that could not fit on their floor
+   * @param passengersBoarded - passengers that got on an elevator
+   * @param passengersDelivered - passengers that got off an elevator at their final destination
+   * @param passengersTransferred - passengers that got off at a sky lobby to change banks
+   * @param passengersWaiting - passengers currently waiting on a floor
+   * @param passengersRiding - passengers currently on board an elevator
+   * @param floorsTraveled - floors traveled by all the elevators combined
+   * @param waitP90 - 90th percentile of the frames passengers waited for an elevator
+   * @param timeToDestinationP90 - 90th percentile of the frames passengers took to get to 
+   *                               their destination
+   */
+  public BuildingKpis(long ticks, long passengersSpawned, long passengersTurnedAway,
+                      long passengersBoarded, long passengersDelivered, long passengersTransferred,
+                      long passengersWaiting, long passengersRiding, long floorsTraveled,
+                      long waitP90, long timeToDestinationP90)
+  {
+    m_ticks = ticks;
+    m_passengersSpawned = passengersSpawned;
+    m_passengersTurnedAway = passengersTurnedAway;
+    m_passengersBoarded = passengersBoarded;
+    m_passengersDelivered = passengersDelivered;
+    m_passengersTransferred = passengersTransferred;
+    m_passengersWaiting = passengersWaiting;
+    m_passengersRiding = passengersRiding;
+    m_floorsTraveled = floorsTraveled;
+    m_waitP90 = waitP90;
+    m_timeToDestinationP90 = timeToDestinationP90;
+  }
+
+  public long getTicks() {
+    return m_ticks;
+  }
+
+  public long getPassengersSpawned() {
+    return m_passengersSpawned;
+  }
+
+  public long getPassengersTurnedAway() {
+    return m_passengersTurnedAway;
+  }
+
+  public long getPassengersBoarded() {
+    return m_passengersBoarded;
+  }
+
+  public long getPassengersDelivered() {
+    return m_passengersDelivered;
+  }
+
+  public long getPassengersTransferred() {
+    return m_passengersTransferred;
+  }
+
+  public long getPassengersWaiting() {
+    return m_passengersWaiting;
+  }
+
+  public long getPassengersRiding() {
+    return m_passengersRiding;
+  }
+
+  public long getFloorsTraveled() {
+    return m_floorsTraveled;
+  }
+
+  public long getWaitP90() {
+    return m_waitP90;
+  }
+
+  public long getTimeToDestinationP90() {
+    return m_timeToDestinationP90;
+  }
+
+  /**
+   * @param kpi
+   * @return long - the value of the provided counter
+   */
+  public long getValue(Kpi kpi)
+  {
+    switch (kpi)
+    {
+      case TICKS:
+        return m_ticks;
+      case PASSENGERS_SPAWNED:
+        return m_passengersSpawned;
+      case PASSENGERS_TURNED_AWAY:
+        return m_passengersTurnedAway;
+      case PASSENGERS_BOARDED:
+        return m_passengersBoarded;
+      case PASSENGERS_DELIVERED:
+        return m_passengersDelivered;
+      case PASSENGERS_TRANSFERRED:
+        return m_passengersTransferred;
+      case PASSENGERS_WAITING:
+        return m_passengersWaiting;
+      case PASSENGERS_RIDING:
+        return m_passengersRiding;
+      case FLOORS_TRAVELED:
+        return m_floorsTraveled;
+      case WAIT_P90:
+        return m_waitP90;
+      case TIME_TO_DESTINATION_P90:
+        return m_timeToDestinationP90;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * A Macro to build a multi-line human readable report of this snapshot
+   * @return String
+   */
+  public String summaryString()
+  {
+    StringBuilder sb = new StringBuilder();
+
+    for (Kpi kpi : Kpi.values())
+    {
+      if (sb.length() > 0)
+      {
+        sb.append('\n');
+      }
+
+      sb.append(kpi.Representation).append(": ").append(getValue(kpi));
+    }
+
+    return sb.toString();
+  }
+}
@@ -0,0 +1,235 @@
+package com.maxruiz.metrics;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+
+/**
+ * This class collects how long the passengers of a building waited for an elevator, rode it,
+ * and took overall to get to their destination. Each duration is kept in a LatencyHistogram
+ * for the whole building, for the elevator that carried the passenger and for the floor the
+ * passenger started on. Every histogram is created up front, so recording a journey never
+ * allocates.
+ *
+ * Durations are in frames.
+ * @see LatencyHistogram
+ * @author Max Ruiz
+ */
+public class JourneyMetrics
+{
+  /**
+   * The legs of a journey
+   */
+  public enum Leg
+  {
+    WAIT("Wait Time"),
+    RIDE("Ride Time"),
+    TO_DESTINATION("Time to Destination");
+
+    public final String Representation;
+
+    private Leg(String rep)
+    {
+      Representation = rep;
+    }
+  }
+
+  private static final Leg[] LEGS = Leg.values();
+
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+
+  private final LatencyHistogram[] m_overall = new LatencyHistogram[LEGS.length];
+  private final LatencyHistogram[][] m_perElevator;
+  private final LatencyHistogram[][] m_perFloor;
+
+  /**
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param elevatorCount - number of elevators of the building
+   * @throws IllegalArgumentException if the floors are out of order or there are no elevators
+   */
+  public JourneyMetrics(int lowestFloor, int highestFloor, int elevatorCount)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    if (elevatorCount <= 0)
+    {
+      throw new IllegalArgumentException("elevatorCount is invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+
+    m_perElevator = new LatencyHistogram[LEGS.length][elevatorCount];
+    m_perFloor = new LatencyHistogram[LEGS.length][highestFloor - lowestFloor + 1];
+
+    for (Leg leg : LEGS)
+    {
+      m_overall[leg.ordinal()] = new LatencyHistogram();
+      fill(m_perElevator[leg.ordinal()]);
+      fill(m_perFloor[leg.ordinal()]);
+    }
+  }
+
+  /**
+   * Record the journey of a passenger that just got off an elevator
+   * @param elevatorIndex int - index of the elevator in the building, from 0
+   * @param originFloor int - floor the passenger started on
+   * @param arrivalFrame long - frame the passenger showed up on their floor
+   * @param boardFrame long - frame the passenger got on the elevator
+   * @param alightFrame long - frame the passenger got off the elevator
+   */
+  public void recordJourney(int elevatorIndex, int originFloor, long arrivalFrame,
+                            long boardFrame, long alightFrame)
+  {
+    int floorIndex = originFloor - LOWEST_FLOOR;
+
+    record(Leg.WAIT, elevatorIndex, floorIndex, boardFrame - arrivalFrame);
+    record(Leg.RIDE, elevatorIndex, floorIndex, alightFrame - boardFrame);
+    record(Leg.TO_DESTINATION, elevatorIndex, floorIndex, alightFrame - arrivalFrame);
+  }
+
+  /**
+   * @param leg
+   * @return LatencyHistogram - durations of every journey of the building
+   */
+  public LatencyHistogram getHistogram(Leg leg)
+  {
+    return m_overall[leg.ordinal()];
+  }
+
+  /**
+   * @param leg
+   * @param elevatorIndex int - index of the elevator in the building, from 0
+   * @return LatencyHistogram - durations of the journeys on that elevator
+   */
+  public LatencyHistogram getElevatorHistogram(Leg leg, int elevatorIndex)
+  {
+    return m_perElevator[leg.ordinal()][elevatorIndex];
+  }
+
+  /**
+   * @param leg
+   * @param floor int - floor the passengers started on
+   * @return LatencyHistogram - durations of the journeys that started on that floor
+   */
+  public LatencyHistogram getFloorHistogram(Leg leg, int floor)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("floor is invalid.");
+    }
+
+    return m_perFloor[leg.ordinal()][floor - LOWEST_FLOOR];
+  }
+
+  public int getElevatorCount() {
+    return m_perElevator[0].length;
+  }
+
+  /**
+   * A Macro to build a multi-line human readable report of every histogram, in frames.
+   * Elevators and floors without any journey are left out.
+   * @return String
+   */
+  public String summaryString()
+  {
+    StringBuilder sb = new StringBuilder();
+
+    for (Leg leg : LEGS)
+    {
+      if (sb.length() > 0)
+      {
+        sb.append('\n');
+      }
+
+      sb.append(leg.Representation).append(" (frames): ")
+        .append(getHistogram(leg).summaryString());
+
+      for (int i = 0; i < getElevatorCount(); i++)
+      {
+        appendIfRecorded(sb, "  Elevator ", i, getElevatorHistogram(leg, i));
+      }
+
+      for (int floor = LOWEST_FLOOR; floor <= HIGHEST_FLOOR; floor++)
+      {
+        appendIfRecorded(sb, "  Floor ", floor, getFloorHistogram(leg, floor));
+      }
+    }
+
+    return sb.toString();
+  }
+
+  /**
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    for (Leg leg : LEGS)
+    {
+      m_overall[leg.ordinal()].writeCheckpoint(out);
+
+      for (LatencyHistogram histogram : m_perElevator[leg.ordinal()])
+      {
+        histogram.writeCheckpoint(out);
+      }
+
+      for (LatencyHistogram histogram : m_perFloor[leg.ordinal()])
+      {
+        histogram.writeCheckpoint(out);
+      }
+    }
+  }
+
+  /**
+   * Replace every journey recorded with the ones written by writeCheckpoint(), for a building
+   * with the same floors and elevators
+   * @param in - where the state is read from
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    for (Leg leg : LEGS)
+    {
+      m_overall[leg.ordinal()].readCheckpoint(in);
+
+      for (LatencyHistogram histogram : m_perElevator[leg.ordinal()])
+      {
+        histogram.readCheckpoint(in);
+      }
+
+      for (LatencyHistogram histogram : m_perFloor[leg.ordinal()])
+      {
+        histogram.readCheckpoint(in);
+      }
+    }
+  }
+
+  private void record(Leg leg, int elevatorIndex, int floorIndex, long frames)
+  {
+    m_overall[leg.ordinal()].record(frames);
+    m_perElevator[leg.ordinal()][elevatorIndex].record(frames);
+    m_perFloor[leg.ordinal()][floorIndex].record(frames);
+  }
+
+  private static void appendIfRecorded(StringBuilder sb, String label, int index,
+                                       LatencyHistogram histogram)
+  {
+    if (0 == histogram.getCount())
+    {
+      return;
+    }
+
+    sb.append('\n').append(label).append(index).append(": ").append(histogram.summaryString());
+  }
+
+  private static void fill(LatencyHistogram[] histograms)
+  {
+    for (int i = 0; i < histograms.length; i++)
+    {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.maxruiz.metrics;
+
+import java.util.Arrays;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+
+/**
+ * This class is a fixed size histogram of non-negative durations, e.g. a number of frames.
+ * Durations below 64 each have their own bucket. Above that, every power of two is split into
+ * 32 buckets, so a reported percentile is never more than about 3% above the true value.
+ * Recording a duration only increments an array slot, so it never allocates.
+ *
+ * The exact count, mean and maximum are kept on the side.
+ * @author Max Ruiz
+ */
+public class LatencyHistogram
+{
+  // Every power of two above EXACT_LIMIT is split into 2^SUB_BUCKET_BITS buckets
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final long EXACT_LIMIT = 2L * SUB_BUCKET_COUNT;
+
+  // Durations of 2^MAX_EXPONENT and up share one last bucket
+  private static final int MAX_EXPONENT = 47;
+  private static final int BUCKET_COUNT =
+                   (int)EXACT_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + 1;
+
+  private final long[] m_counts = new long[BUCKET_COUNT];
+  private long m_count = 0;
+  private long m_sum = 0;
+  private long m_max = 0;
+
+  /**
+   * @param value long - a duration
+   * @throws IllegalArgumentException if value is negative
+   */
+  public void record(long value)
+  {
+    if (value < 0)
+    {
+      throw new IllegalArgumentException("value is invalid.");
+    }
+
+    m_counts[bucketOf(value)]++;
+    m_count++;
+    m_sum += value;
+
+    if (value > m_max)
+    {
+      m_max = value;
+    }
+  }
+
+  /**
+   * Add every duration recorded by another histogram to this one
+   * @param other
+   */
+  public void add(LatencyHistogram other)
+  {
+    for (int i = 0; i < BUCKET_COUNT; i++)
+    {
+      m_counts[i] += other.m_counts[i];
+    }
+
+    m_count += other.m_count;
+    m_sum += other.m_sum;
+    m_max = Math.max(m_max, other.m_max);
+  }
+
+  /**
+   * @param percentile double - in the range [0, 100]
+   * @return long - the smallest duration that percentile of the recorded durations don't exceed,
+   *                rounded up to the top of its bucket. 0 if nothing was recorded.
+   * @throws IllegalArgumentException if percentile is out of range
+   */
+  public long getValueAtPercentile(double percentile)
+  {
+    if (percentile < 0.0 || percentile > 100.0)
+    {
+      throw new IllegalArgumentException("percentile is invalid.");
+    }
+
+    if (0 == m_count)
+    {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long)Math.ceil(percentile / 100.0 * m_count));
+    long seen = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++)
+    {
+      seen += m_counts[i];
+
+      if (seen >= rank)
+      {
+        return Math.min(highestValueOf(i), m_max);
+      }
+    }
+
+    return m_max;
+  }
+
+  public long getCount() {
+    return m_count;
+  }
+
+  public long getMax() {
+    return m_max;
+  }
+
+  /**
+   * @return double - the exact mean of the recorded durations, 0 if nothing was recorded
+   */
+  public double getMean()
+  {
+    return (0 == m_count) ? 0.0 : (double)m_sum / m_count;
+  }
+
+  /**
+   * A Macro to build a single line report of the count, percentiles and maximum
+   * @return String
+   */
+  public String summaryString()
+  {
+    return String.format("count %d, p50 %d, p90 %d, p99 %d, max %d", m_count,
+                         getValueAtPercentile(50), getValueAtPercentile(90),
+                         getValueAtPercentile(99), m_max);
+  }
+
+  /**
+   * @param value
+   * @return int - index of the bucket the value is counted in
+   */
+  private static int bucketOf(long value)
+  {
+    if (value < EXACT_LIMIT)
+    {
+      return (int)value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+    if (exponent >= MAX_EXPONENT)
+    {
+      return BUCKET_COUNT - 1;
+    }
+
+    // The bits right below the leading one pick the sub bucket
+    int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+
+    return (int)EXACT_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /**
+   * @param bucket
+   * @return long - the largest value counted in the bucket
+   */
+  private static long highestValueOf(int bucket)
+  {
+    if (bucket < EXACT_LIMIT)
+    {
+      return bucket;
+    }
+
+    if (BUCKET_COUNT - 1 == bucket)
+    {
+      return Long.MAX_VALUE;
+    }
+
+    int offset = bucket - (int)EXACT_LIMIT;
+    int exponent = offset / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+    long subBucket = offset % SUB_BUCKET_COUNT;
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+
+    return ((SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+  }
+
+  /**
+   * Write the counts, only the buckets that have any, so an empty histogram takes a few bytes
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    int buckets = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++)
+    {
+      buckets += (0 == m_counts[i]) ? 0 : 1;
+    }
+
+    out.writeLong(m_count);
+    out.writeLong(m_sum);
+    out.writeLong(m_max);
+    out.writeInt(buckets);
+
+    for (int i = 0; i < BUCKET_COUNT && buckets > 0; i++)
+    {
+      if (0 != m_counts[i])
+      {
+        out.writeInt(i);
+        out.writeLong(m_counts[i]);
+        buckets--;
+      }
+    }
+  }
+
+  /**
+   * Replace every duration recorded with the counts written by writeCheckpoint()
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if a bucket is out of range
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    m_count = in.readLong();
+    m_sum = in.readLong();
+    m_max = in.readLong();
+
+    Arrays.fill(m_counts, 0);
+
+    for (int buckets = in.readCount(BUCKET_COUNT); buckets > 0; buckets--)
+    {
+      m_counts[in.readCount(BUCKET_COUNT - 1)] = in.readLong();
+    }
+  }
+}
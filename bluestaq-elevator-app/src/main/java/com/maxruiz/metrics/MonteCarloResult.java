@@ -0,0 +1,96 @@
+package com.maxruiz.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the outcome of many independent runs of the same building: the KPIs of
+ * every run, ordered by seed, and the statistics of each KPI across the runs.
+ * @see BuildingKpis
+ * @author Max Ruiz
+ */
+public class MonteCarloResult
+{
+  private final long m_firstSeed;
+  private final List<BuildingKpis> m_runKpis;
+  private final long m_wallNanos;
+  private final Map<BuildingKpis.Kpi, SampleStatistics> m_statistics =
+                                                new EnumMap<>(BuildingKpis.Kpi.class);
+
+  /**
+   * Constructor for MonteCarloResult that aggregates the KPIs of every run
+   * @param firstSeed long - seed of the first run, run i used firstSeed + i
+   * @param runKpis - KPIs of each run, in seed order
+   * @param wallNanos long - wall time it took to execute all of the runs
+   */
+  public MonteCarloResult(long firstSeed, List<BuildingKpis> runKpis, long wallNanos)
+  {
+    m_firstSeed = firstSeed;
+    m_runKpis = Collections.unmodifiableList(runKpis);
+    m_wallNanos = wallNanos;
+
+    double[] samples = new double[runKpis.size()];
+
+    for (BuildingKpis.Kpi kpi : BuildingKpis.Kpi.values())
+    {
+      for (int i = 0; i < samples.length; i++)
+      {
+        samples[i] = runKpis.get(i).getValue(kpi);
+      }
+
+      m_statistics.put(kpi, new SampleStatistics(samples));
+    }
+  }
+
+  public long getFirstSeed() {
+    return m_firstSeed;
+  }
+
+  public int getRunCount() {
+    return m_runKpis.size();
+  }
+
+  public List<BuildingKpis> getRunKpis() {
+    return m_runKpis;
+  }
+
+  public long getWallNanos() {
+    return m_wallNanos;
+  }
+
+  /**
+   * @param kpi
+   * @return SampleStatistics - statistics of the KPI across every run
+   */
+  public SampleStatistics getStatistics(BuildingKpis.Kpi kpi)
+  {
+    return m_statistics.get(kpi);
+  }
+
+  /**
+   * A Macro to build a multi-line human readable report of the statistics
+   * @return String
+   */
+  public String summaryString()
+  {
+    StringBuilder sb = new StringBuilder();
+
+    sb.append(String.format("Runs: %d (seeds %d to %d)%n", getRunCount(),
+                            m_firstSeed, m_firstSeed + getRunCount() - 1));
+    sb.append(String.format("Wall Time: %.3f s", m_wallNanos / 1.0e9));
+
+    for (BuildingKpis.Kpi kpi : BuildingKpis.Kpi.values())
+    {
+      SampleStatistics stats = m_statistics.get(kpi);
+
+      sb.append(String.format("%n%s: mean %.2f +/- %.2f (95%% CI), sd %.2f, min %.0f, max %.0f",
+                              kpi.Representation, stats.getMean(),
+                              stats.getConfidenceHalfWidth95(), stats.getStandardDeviation(),
+                              stats.getMin(), stats.getMax()));
+    }
+
+    return sb.toString();
+  }
+}
@@ -0,0 +1,103 @@
+package com.maxruiz.metrics;
+
+/**
+ * This class summarizes a set of samples, e.g. one KPI over many independent runs of a building,
+ * into a mean with a 95% confidence interval.
+ * @author Max Ruiz
+ */
+public class SampleStatistics
+{
+  // Two sided 95% critical values of Student's t distribution for 1 to 30 degrees of freedom
+  private static final double[] T_95 = {
+    12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+    2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+    2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+  };
+  private static final double Z_95 = 1.960;
+
+  private final int m_count;
+  private final double m_mean;
+  private final double m_standardDeviation;
+  private final double m_min;
+  private final double m_max;
+
+  /**
+   * Constructor for SampleStatistics that summarizes the provided samples
+   * @param samples
+   * @throws IllegalArgumentException if there are no samples
+   */
+  public SampleStatistics(double[] samples)
+  {
+    if (samples.length == 0)
+    {
+      throw new IllegalArgumentException("There must be one or more samples.");
+    }
+
+    // Welford's method, to stay accurate with many large samples
+    double mean = 0.0;
+    double m2 = 0.0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+
+    for (int i = 0; i < samples.length; i++)
+    {
+      double delta = samples[i] - mean;
+      mean += delta / (i + 1);
+      m2 += delta * (samples[i] - mean);
+      min = Math.min(min, samples[i]);
+      max = Math.max(max, samples[i]);
+    }
+
+    m_count = samples.length;
+    m_mean = mean;
+    m_standardDeviation = (m_count > 1) ? Math.sqrt(m2 / (m_count - 1)) : 0.0;
+    m_min = min;
+    m_max = max;
+  }
+
+  public int getCount() {
+    return m_count;
+  }
+
+  public double getMean() {
+    return m_mean;
+  }
+
+  public double getStandardDeviation() {
+    return m_standardDeviation;
+  }
+
+  public double getMin() {
+    return m_min;
+  }
+
+  public double getMax() {
+    return m_max;
+  }
+
+  /**
+   * Half the width of the 95% confidence interval of the mean. Uses Student's t distribution
+   * for small sample counts and the normal distribution above 30 degrees of freedom.
+   * @return double - 0 with a single sample
+   */
+  public double getConfidenceHalfWidth95()
+  {
+    if (m_count < 2)
+    {
+      return 0.0;
+    }
+
+    int degreesOfFreedom = m_count - 1;
+    double critical = (degreesOfFreedom <= T_95.length) ? T_95[degreesOfFreedom - 1] : Z_95;
+
+    return critical * m_standardDeviation / Math.sqrt(m_count);
+  }
+
+  public double getConfidenceLow95() {
+    return m_mean - getConfidenceHalfWidth95();
+  }
+
+  public double getConfidenceHigh95() {
+    return m_mean + getConfidenceHalfWidth95();
+  }
+}
@@ -0,0 +1,281 @@
+package com.maxruiz.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.maxruiz.metrics.TelemetryWriter.Stream;
+
+/**
+ * This class reads back a telemetry file written by a TelemetryWriter, a block at a time. The
+ * columns of a block are decoded into arrays that are reused for every block, so a file of any
+ * size is read without creating an object per row, e.g.
+ *
+ *   while (reader.nextBlock())
+ *   {
+ *     if (Stream.CARS == reader.getStream())
+ *     {
+ *       for (int row = 0; row < reader.size(); row++)
+ *       {
+ *         reader.get(TelemetryWriter.CAR_FLOOR, row) ...
+ *
+ * The blocks of the two streams are mixed in the file, each stream is in order of its frames.
+ *
+ * This class is NOT thread safe.
+ * @see TelemetryWriter
+ * @author Max Ruiz
+ */
+public class TelemetryReader implements Closeable
+{
+  private static final Stream[] STREAMS = Stream.values();
+
+  private final FileChannel m_channel;
+  private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+  private final long[][] m_columns = new long[Math.max(TelemetryWriter.CAR_COLUMNS,
+                                                       TelemetryWriter.PASSENGER_COLUMNS)]
+                                             [TelemetryWriter.BLOCK_ROWS];
+  private Stream m_stream = null;
+  private int m_size = 0;
+
+  /**
+   * @param path - a file written by a TelemetryWriter
+   * @throws IllegalArgumentException if the file is not a telemetry file
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public TelemetryReader(Path path)
+  {
+    try
+    {
+      m_channel = FileChannel.open(path, StandardOpenOption.READ);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    m_buffer.limit(0);
+
+    if (false == ensure(2 * Integer.BYTES) ||
+        TelemetryWriter.MAGIC != m_buffer.getInt() ||
+        TelemetryWriter.VERSION != m_buffer.getInt())
+    {
+      close();
+      throw new IllegalArgumentException("Telemetry file is invalid.");
+    }
+  }
+
+  /**
+   * Decode the next block of the file
+   * @return boolean - false at the end of the file
+   * @throws IllegalArgumentException if the block is cut short or invalid
+   */
+  public boolean nextBlock()
+  {
+    m_stream = null;
+    m_size = 0;
+
+    if (false == ensure(1))
+    {
+      return false;
+    }
+
+    int stream = m_buffer.get();
+    int rows = readInt();
+
+    if (stream < 0 || stream >= STREAMS.length || rows <= 0 || rows > TelemetryWriter.BLOCK_ROWS)
+    {
+      throw new IllegalArgumentException("Telemetry file is invalid.");
+    }
+
+    int columns = (Stream.CARS == STREAMS[stream]) ? TelemetryWriter.CAR_COLUMNS
+                                                   : TelemetryWriter.PASSENGER_COLUMNS;
+
+    for (int c = 0; c < columns; c++)
+    {
+      readColumn(m_columns[c], rows);
+    }
+
+    m_stream = STREAMS[stream];
+    m_size = rows;
+
+    return true;
+  }
+
+  /**
+   * @return Stream - of the current block, null before the first and after the last
+   */
+  public Stream getStream()
+  {
+    return m_stream;
+  }
+
+  /**
+   * @return int - number of rows of the current block
+   */
+  public int size()
+  {
+    return m_size;
+  }
+
+  /**
+   * @param column - a column of the stream of the block, e.g. TelemetryWriter.CAR_FLOOR
+   * @param row - from 0 to size() - 1
+   * @return long
+   */
+  public long get(int column, int row)
+  {
+    if (row < 0 || row >= m_size)
+    {
+      throw new IllegalArgumentException("row is invalid.");
+    }
+
+    return m_columns[column][row];
+  }
+
+  /**
+   * @param column - a column of the stream of the block, e.g. TelemetryWriter.CAR_FLOOR
+   * @return long[] - the values of the column, the first size() of them are of the current block.
+   * Reused for the next block.
+   */
+  public long[] getColumn(int column)
+  {
+    return m_columns[column];
+  }
+
+  @Override
+  public void close()
+  {
+    try
+    {
+      m_channel.close();
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * A Macro to decode a column, its first value then the differences from one row to the next
+   * @param values
+   * @param rows
+   */
+  private void readColumn(long[] values, int rows)
+  {
+    int width = readByte();
+    values[0] = readLong();
+
+    if (width != 0 && width != Byte.BYTES && width != Short.BYTES &&
+        width != Integer.BYTES && width != Long.BYTES)
+    {
+      throw new IllegalArgumentException("Telemetry file is invalid.");
+    }
+
+    for (int i = 1; i < rows; )
+    {
+      if (0 == width)
+      {
+        values[i] = values[i - 1];
+        i++;
+        continue;
+      }
+
+      require(width);
+      int count = Math.min(rows - i, m_buffer.remaining() / width);
+
+      for (int end = i + count; i < end; i++)
+      {
+        switch (width)
+        {
+          case Byte.BYTES:
+            values[i] = values[i - 1] + m_buffer.get();
+            break;
+
+          case Short.BYTES:
+            values[i] = values[i - 1] + m_buffer.getShort();
+            break;
+
+          case Integer.BYTES:
+            values[i] = values[i - 1] + m_buffer.getInt();
+            break;
+
+          default:
+            values[i] = values[i - 1] + m_buffer.getLong();
+        }
+      }
+    }
+  }
+
+  private int readByte()
+  {
+    require(1);
+    return m_buffer.get();
+  }
+
+  private int readInt()
+  {
+    require(Integer.BYTES);
+    return m_buffer.getInt();
+  }
+
+  private long readLong()
+  {
+    require(Long.BYTES);
+    return m_buffer.getLong();
+  }
+
+  /**
+   * A Macro to have the next value in the buffer, the file may not end before it
+   * @param bytes - size of the value
+   * @throws IllegalArgumentException if the file ends first
+   */
+  private void require(int bytes)
+  {
+    if (false == ensure(bytes))
+    {
+      throw new IllegalArgumentException("Telemetry file is truncated.");
+    }
+  }
+
+  /**
+   * A Macro to have the next value in the buffer, reading from the file if it is not
+   * @param bytes - size of the value
+   * @return boolean - false if the file ends first
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  private boolean ensure(int bytes)
+  {
+    if (m_buffer.remaining() >= bytes)
+    {
+      return true;
+    }
+
+    m_buffer.compact();
+
+    try
+    {
+      while (m_buffer.position() < bytes)
+      {
+        if (m_channel.read(m_buffer) < 0)
+        {
+          return false;
+        }
+      }
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    finally
+    {
+      m_buffer.flip();
+    }
+
+    return true;
+  }
+}
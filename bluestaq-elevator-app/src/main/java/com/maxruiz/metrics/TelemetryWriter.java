@@ -0,0 +1,331 @@
+package com.maxruiz.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class writes what the cars and passengers of a building did, frame by frame, to a compact
+ * binary file for analysis after the run, see TelemetryReader. It is a fraction of the size of the
+ * text log and recording a row is only a few stores into arrays.
+ *
+ * There are two streams of rows. A car row is written whenever the floor, direction, position or
+ * load of a car changes, a car is in that state until its next row. A passenger row is written for
+ * every step of a journey. Rows are kept in columns, one array per value, and every BLOCK_ROWS rows
+ * of a stream are written as a block. Each column of a block is written as its first value and
+ * the differences from one row to the next, all with the fewest bytes that fit the largest one.
+ * Frames only go up and floors move by one, so most columns take a byte a row, or none.
+ *
+ * The file is written through one direct buffer, a block at a time.
+ *
+ * This class is NOT thread safe, the same as the Building that records to it.
+ * @see TelemetryReader
+ * @author Max Ruiz
+ */
+public class TelemetryWriter implements Closeable
+{
+  /**
+   * The streams of rows in a telemetry file
+   */
+  public enum Stream
+  {
+    CARS,
+    PASSENGERS
+  }
+
+  /**
+   * The steps of the journey of a passenger
+   */
+  public enum PassengerEvent
+  {
+    ARRIVED,
+    TURNED_AWAY,
+    BOARDED,
+    TRANSFERRED,
+    DELIVERED,
+    LEFT
+  }
+
+  // Columns of the CARS stream
+  public static final int CAR_FRAME = 0;
+  public static final int CAR_ELEVATOR = 1;
+  public static final int CAR_FLOOR = 2;
+  public static final int CAR_DIRECTION = 3;
+  public static final int CAR_MOVING = 4;
+  public static final int CAR_REMAINING_SQFT = 5;
+  public static final int CAR_COLUMNS = 6;
+
+  // Columns of the PASSENGERS stream
+  public static final int PASSENGER_FRAME = 0;
+  public static final int PASSENGER_ID = 1;
+  public static final int PASSENGER_EVENT = 2;
+  public static final int PASSENGER_FLOOR = 3;
+  public static final int PASSENGER_ELEVATOR = 4;
+  public static final int PASSENGER_COLUMNS = 5;
+
+  /**
+   * Elevator of a passenger row that is not about an elevator
+   */
+  public static final int NO_ELEVATOR = -1;
+
+  public static final int BLOCK_ROWS = 4096;
+
+  // "BSTL"
+  static final int MAGIC = 0x4253544C;
+  static final int VERSION = 1;
+
+  // Stream, row count, then per column its width, first value and the differences
+  private static final int BUFFER_SIZE = Byte.BYTES + Integer.BYTES +
+      Math.max(CAR_COLUMNS, PASSENGER_COLUMNS) * (Byte.BYTES + Long.BYTES * BLOCK_ROWS);
+
+  private final FileChannel m_channel;
+  private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  private final long[][] m_cars = new long[CAR_COLUMNS][BLOCK_ROWS];
+  private final long[][] m_passengers = new long[PASSENGER_COLUMNS][BLOCK_ROWS];
+  private int m_carRows = 0;
+  private int m_passengerRows = 0;
+
+  // Last state written of every car, packed into one value
+  private long[] m_lastCarStates = new long[0];
+
+  /**
+   * Create the file, or empty it if it exists
+   * @param path - where the telemetry is written
+   * @throws UncheckedIOException if the file cannot be opened
+   */
+  public TelemetryWriter(Path path)
+  {
+    try
+    {
+      m_channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    m_buffer.putInt(MAGIC);
+    m_buffer.putInt(VERSION);
+    flush();
+  }
+
+  /**
+   * Record the state of a car, if it is not the state recorded last
+   * @param frame
+   * @param elevator int - index of the elevator in the building, from 0
+   * @param floor
+   * @param direction
+   * @param moving - is the car between floors?
+   * @param remainingSqft - room left on board
+   */
+  public void recordCar(long frame, int elevator, int floor, Direction direction, boolean moving,
+                        int remainingSqft)
+  {
+    if (elevator >= m_lastCarStates.length)
+    {
+      int length = m_lastCarStates.length;
+      m_lastCarStates = Arrays.copyOf(m_lastCarStates, elevator + 1);
+      Arrays.fill(m_lastCarStates, length, m_lastCarStates.length, -1L);
+    }
+
+    // Floor and room are well under 2^24, so the state fits in one long that is never -1
+    long state = ((long)(floor & 0xFFFFFF) << 40) | ((long)(remainingSqft & 0xFFFFFF) << 16) |
+                 (direction.ordinal() << 1) | (moving ? 1 : 0);
+
+    if (state == m_lastCarStates[elevator])
+    {
+      return;
+    }
+
+    m_lastCarStates[elevator] = state;
+
+    int row = m_carRows;
+    m_cars[CAR_FRAME][row] = frame;
+    m_cars[CAR_ELEVATOR][row] = elevator;
+    m_cars[CAR_FLOOR][row] = floor;
+    m_cars[CAR_DIRECTION][row] = direction.ordinal();
+    m_cars[CAR_MOVING][row] = moving ? 1 : 0;
+    m_cars[CAR_REMAINING_SQFT][row] = remainingSqft;
+
+    if (++m_carRows == BLOCK_ROWS)
+    {
+      writeBlock(Stream.CARS, m_cars, m_carRows);
+      m_carRows = 0;
+    }
+  }
+
+  /**
+   * Record a step of the journey of a passenger
+   * @param frame
+   * @param passengerID
+   * @param event
+   * @param floor - where it happened
+   * @param elevator int - index of the elevator in the building, or NO_ELEVATOR
+   */
+  public void recordPassenger(long frame, int passengerID, PassengerEvent event, int floor, int elevator)
+  {
+    int row = m_passengerRows;
+    m_passengers[PASSENGER_FRAME][row] = frame;
+    m_passengers[PASSENGER_ID][row] = passengerID;
+    m_passengers[PASSENGER_EVENT][row] = event.ordinal();
+    m_passengers[PASSENGER_FLOOR][row] = floor;
+    m_passengers[PASSENGER_ELEVATOR][row] = elevator;
+
+    if (++m_passengerRows == BLOCK_ROWS)
+    {
+      writeBlock(Stream.PASSENGERS, m_passengers, m_passengerRows);
+      m_passengerRows = 0;
+    }
+  }
+
+  /**
+   * Write the rows not yet written and close the file
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  @Override
+  public void close()
+  {
+    try
+    {
+      if (m_carRows > 0)
+      {
+        writeBlock(Stream.CARS, m_cars, m_carRows);
+        m_carRows = 0;
+      }
+
+      if (m_passengerRows > 0)
+      {
+        writeBlock(Stream.PASSENGERS, m_passengers, m_passengerRows);
+        m_passengerRows = 0;
+      }
+    }
+    finally
+    {
+      try
+      {
+        m_channel.close();
+      }
+      catch (IOException e)
+      {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * A Macro to write the rows of a stream as a block, column after column
+   * @param stream
+   * @param columns
+   * @param rows - number of rows, from 1
+   */
+  private void writeBlock(Stream stream, long[][] columns, int rows)
+  {
+    m_buffer.put((byte)stream.ordinal());
+    m_buffer.putInt(rows);
+
+    for (long[] column : columns)
+    {
+      int width = getDeltaWidth(column, rows);
+
+      m_buffer.put((byte)width);
+      m_buffer.putLong(column[0]);
+
+      for (int i = 1; i < rows && width > 0; i++)
+      {
+        long delta = column[i] - column[i - 1];
+
+        switch (width)
+        {
+          case Byte.BYTES:
+            m_buffer.put((byte)delta);
+            break;
+
+          case Short.BYTES:
+            m_buffer.putShort((short)delta);
+            break;
+
+          case Integer.BYTES:
+            m_buffer.putInt((int)delta);
+            break;
+
+          default:
+            m_buffer.putLong(delta);
+        }
+      }
+    }
+
+    flush();
+  }
+
+  /**
+   * A Macro to find the fewest bytes that fit every difference of a column
+   * @param column
+   * @param rows
+   * @return int - 0, 1, 2, 4 or 8
+   */
+  private static int getDeltaWidth(long[] column, int rows)
+  {
+    long min = 0;
+    long max = 0;
+
+    for (int i = 1; i < rows; i++)
+    {
+      long delta = column[i] - column[i - 1];
+      min = Math.min(min, delta);
+      max = Math.max(max, delta);
+    }
+
+    if (0 == min && 0 == max)
+    {
+      return 0;
+    }
+    else if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE)
+    {
+      return Byte.BYTES;
+    }
+    else if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE)
+    {
+      return Short.BYTES;
+    }
+    else if (min >= Integer.MIN_VALUE && max <= Integer.MAX_VALUE)
+    {
+      return Integer.BYTES;
+    }
+
+    return Long.BYTES;
+  }
+
+  /**
+   * A Macro to write everything in the buffer to the file
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  private void flush()
+  {
+    m_buffer.flip();
+
+    try
+    {
+      while (m_buffer.hasRemaining())
+      {
+        m_channel.write(m_buffer);
+      }
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    finally
+    {
+      m_buffer.clear();
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.maxruiz.passengers;
 
+import java.util.random.RandomGenerator;
+
 import com.maxruiz.config.PassengerConfig;
+import com.maxruiz.logging.Log;
 
 /**
  * This class superclasses Passenger to override how this passenger gets
@@ -9,6 +12,9 @@ import com.maxruiz.config.PassengerConfig;
  */
 public class Civilian extends Passenger
 {
+  public static final double DEFAULT_SICK_FACTOR_X0 = 0.01;
+  public static final double DEFAULT_SICK_FACTOR_X1 = 1.1;
+
   private final double SICK_FACTOR_X0;
   private final double SICK_FACTOR_X1;
 
@@ -24,8 +30,28 @@ public class Civilian extends Passenger
   {
     super(PassengerPriority.get().getPriorityFromTitle("civilian"), 
           originFloor, lowestFloor, highestFloor, sqft);
-    SICK_FACTOR_X0 = 0.01;
-    SICK_FACTOR_X1 = 1.1;
+    SICK_FACTOR_X0 = DEFAULT_SICK_FACTOR_X0;
+    SICK_FACTOR_X1 = DEFAULT_SICK_FACTOR_X1;
+  }
+
+  /**
+   * Constructor for Civilian that is handed its ID and random values, and assumes the default 
+   * sick factors
+   * @param id - ID of the passenger
+   * @param random - stream of random values of this passenger
+   * @param originFloor - where the passenger starts
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @see PassengerFactory
+   */
+  Civilian(int id, RandomGenerator random, int originFloor, int lowestFloor, int highestFloor, 
+           int sqft)
+  {
+    super(id, random, PassengerPriority.get().getPriorityFromTitle("civilian"), 
+          originFloor, lowestFloor, highestFloor, sqft);
+    SICK_FACTOR_X0 = DEFAULT_SICK_FACTOR_X0;
+    SICK_FACTOR_X1 = DEFAULT_SICK_FACTOR_X1;
   }
 
   /**
@@ -60,6 +86,28 @@ public class Civilian extends Passenger
     SICK_FACTOR_X1 = pc.getSickFactorAt(1);
   }
 
+  /**
+   * Constructor for Civilian that is handed its ID and random values, and takes in a 
+   * PassengerConfig
+   * @param id - ID of the passenger
+   * @param random - stream of random values of this passenger
+   * @param pc
+   * @see PassengerFactory
+   */
+  Civilian(int id, RandomGenerator random, PassengerConfig pc)
+  {
+    super(id, random, pc.getPriority(), pc.getOriginFloor(), pc.getLowestFloor(), 
+          pc.getHighestFloor(), pc.getSqft());
+    SICK_FACTOR_X0 = pc.getSickFactorAt(0);
+    SICK_FACTOR_X1 = pc.getSickFactorAt(1);
+  }
+
+  @Override
+  double getSickChancePerFloor()
+  {
+    return SICK_FACTOR_X0 * SICK_FACTOR_X1;
+  }
+
   /**
    * This method will use parameters, as well as the knowledge of floors
    * this passenger has traveled, to determine whether or not this passenger gets sick.
@@ -79,7 +127,8 @@ public class Civilian extends Passenger
 
     if (m_isSick)
     {
-      System.out.println("Civilian: I've become sick :( ID: " + ID);
+      Log.log(Log.Level.DEBUG, Log.Category.PASSENGER, "Civilian has become sick", Log.NONE,
+              Log.NONE, ID, Log.NONE, Log.NONE, null);
     }
   }
 }
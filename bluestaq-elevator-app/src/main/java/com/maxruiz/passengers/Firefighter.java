@@ -1,5 +1,7 @@
 package com.maxruiz.passengers;
 
+import java.util.random.RandomGenerator;
+
 import com.maxruiz.config.PassengerConfig;
 
 /**
@@ -9,6 +11,8 @@ import com.maxruiz.config.PassengerConfig;
  */
 public class Firefighter extends Passenger
 {
+  public static final double DEFAULT_SICK_FACTOR = 0.001;
+
   private final double SICK_FACTOR;
 
   /**
@@ -22,7 +26,25 @@ public class Firefighter extends Passenger
   {
     super(PassengerPriority.get().getPriorityFromTitle("firefighter"), 
           0, lowestFloor, highestFloor, sqft);
-    SICK_FACTOR = 0.001;
+    SICK_FACTOR = DEFAULT_SICK_FACTOR;
+  }
+
+  /**
+   * Constructor for Firefighter that is handed its ID and random values, and assumes a value
+   * for how and when this passenger will get sick.
+   * @param id - ID of the passenger
+   * @param random - stream of random values of this passenger
+   * @param destinationFloor - where the firefighter needs to go, where the fire is
+   * @param lowestFloor - the lowest floor in the building
+   * @param highestFloor - the highest floor in the building
+   * @see PassengerFactory
+   */
+  Firefighter(int id, RandomGenerator random, int destinationFloor, int lowestFloor, int highestFloor, 
+              int sqft)
+  {
+    super(id, random, PassengerPriority.get().getPriorityFromTitle("firefighter"), 
+          0, lowestFloor, highestFloor, sqft);
+    SICK_FACTOR = DEFAULT_SICK_FACTOR;
   }
 
   /**
@@ -54,6 +76,12 @@ public class Firefighter extends Passenger
     SICK_FACTOR = pc.getSickFactorAt(0);
   }
 
+  @Override
+  double getSickChance()
+  {
+    return SICK_FACTOR;
+  }
+
   /**
    * This method will use a simple equation with a single factor to determine how
    * and when this passenger will get sick.
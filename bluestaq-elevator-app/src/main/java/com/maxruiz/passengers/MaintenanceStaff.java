@@ -1,5 +1,7 @@
 package com.maxruiz.passengers;
 
+import java.util.random.RandomGenerator;
+
 import com.maxruiz.config.PassengerConfig;
 
 /**
@@ -9,6 +11,8 @@ import com.maxruiz.config.PassengerConfig;
  */
 public class MaintenanceStaff extends Passenger
 {
+  public static final double DEFAULT_SICK_FACTOR = 0.01;
+
   private final double SICK_FACTOR;
   
   /**
@@ -22,7 +26,25 @@ public class MaintenanceStaff extends Passenger
   {
     super(PassengerPriority.get().getPriorityFromTitle("maintenance"), 
           originFloor, lowestFloor, highestFloor, sqft);
-    SICK_FACTOR = 0.01;
+    SICK_FACTOR = DEFAULT_SICK_FACTOR;
+  }
+
+  /**
+   * Constructor for MaintenanceStaff that is handed its ID and random values, and assumes a value
+   * for how and when this passenger will get sick.
+   * @param id - ID of the passenger
+   * @param random - stream of random values of this passenger
+   * @param originFloor - which floor the MaintenanceStaff needs to service
+   * @param lowestFloor - the lowest floor in the building
+   * @param highestFloor - the highest floor in the building
+   * @see PassengerFactory
+   */
+  MaintenanceStaff(int id, RandomGenerator random, int originFloor, int lowestFloor, int highestFloor, 
+                   int sqft)
+  {
+    super(id, random, PassengerPriority.get().getPriorityFromTitle("maintenance"), 
+          originFloor, lowestFloor, highestFloor, sqft);
+    SICK_FACTOR = DEFAULT_SICK_FACTOR;
   }
 
   /**
@@ -54,6 +76,12 @@ public class MaintenanceStaff extends Passenger
     SICK_FACTOR = pc.getSickFactorAt(0);
   }
 
+  @Override
+  double getSickChance()
+  {
+    return SICK_FACTOR;
+  }
+
   /**
    * This method will use a simple equation with a single factor to determine how
    * and when this passenger will get sick.
@@ -1,6 +1,8 @@
 package com.maxruiz.passengers;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.maxruiz.utility.Direction;
 
@@ -38,16 +40,27 @@ public class Passenger
   protected final Integer PRIORITY;
   protected final int ID;
 
+  /**
+   * Value of a timestamp for something that hasn't happened yet
+   */
+  public static final long NO_FRAME = -1;
+
   protected Direction m_destinationDirection;
   protected int m_destinationFloor;
+  // Where the passenger is going in the end, m_destinationFloor is only as far as the current leg
+  protected int m_finalDestinationFloor;
   protected int m_originFloor;
   protected int m_floorsTraveled = 0;
   protected int m_currentFloor;
   protected boolean m_isSick = false;
   protected boolean m_setSickFloor = false;
   protected boolean m_onElevator = false;
-  protected Random m_randomGen;
-  protected static int m_passengerCount = 0;
+  protected final RandomGenerator m_randomGen;
+  protected long m_arrivalFrame = NO_FRAME;
+  protected long m_boardFrame = NO_FRAME;
+  protected long m_alightFrame = NO_FRAME;
+  // IDs of passengers created outside of a PassengerFactory
+  protected static final AtomicInteger m_passengerCount = new AtomicInteger();
   
   /**
    * Constructor for Passenger which randomly generates which floor this passenger
@@ -63,7 +76,27 @@ public class Passenger
   public Passenger(Integer priority, int originFloor, int lowestFloor, 
                    int highestFloor, int sqft)
   {
-    ID = m_passengerCount++;
+    this(m_passengerCount.getAndIncrement(), new SplittableRandom(), priority, originFloor, 
+         lowestFloor, highestFloor, sqft);
+  }
+
+  /**
+   * Constructor for Passenger that is handed its ID and random values, used by PassengerFactory 
+   * so that every building numbers its own passengers and repeats them from its seed.
+   * @param id - ID of the passenger
+   * @param random - stream of random values of this passenger
+   * @param priority
+   * @param originFloor - the floor that this passenger starts on
+   * @param lowestFloor - the lowest floor in the building
+   * @param highestFloor - the highest floor in the building
+   * @param sqft
+   * @see PassengerFactory
+   */
+  Passenger(int id, RandomGenerator random, Integer priority, int originFloor, int lowestFloor, 
+            int highestFloor, int sqft)
+  {
+    ID = id;
+    m_randomGen = random;
     SQFT = sqft;
     LOWEST_FLOOR = lowestFloor;
     HIGHEST_FLOOR = highestFloor;
@@ -82,7 +115,8 @@ public class Passenger
    */
   public Passenger(PassengerConfig pc)
   {
-    ID = m_passengerCount++;
+    ID = m_passengerCount.getAndIncrement();
+    m_randomGen = new SplittableRandom();
     LOWEST_FLOOR = pc.getLowestFloor();
     HIGHEST_FLOOR = pc.getHighestFloor();
     SQFT = pc.getSqft();
@@ -120,10 +154,9 @@ public class Passenger
       throw new IllegalArgumentException("Sqft value is invalid.");
     }
 
-    m_randomGen = new Random();
-
     //m_destinationFloor
     setRandomDestinationFloor(m_originFloor, LOWEST_FLOOR, HIGHEST_FLOOR);
+    m_finalDestinationFloor = m_destinationFloor;
 
     if (m_destinationFloor < m_originFloor)
     {
@@ -145,6 +178,54 @@ public class Passenger
     return ID;
   }
 
+  /**
+   * @param frame long - frame this passenger showed up on their origin floor
+   */
+  public void setArrivalFrame(long frame)
+  {
+    m_arrivalFrame = frame;
+  }
+
+  /**
+   * @return long - frame this passenger showed up on their origin floor, NO_FRAME if they haven't
+   */
+  public long getArrivalFrame()
+  {
+    return m_arrivalFrame;
+  }
+
+  /**
+   * @param frame long - frame this passenger got on an elevator
+   */
+  public void setBoardFrame(long frame)
+  {
+    m_boardFrame = frame;
+  }
+
+  /**
+   * @return long - frame this passenger got on an elevator, NO_FRAME if they haven't
+   */
+  public long getBoardFrame()
+  {
+    return m_boardFrame;
+  }
+
+  /**
+   * @param frame long - frame this passenger got off an elevator
+   */
+  public void setAlightFrame(long frame)
+  {
+    m_alightFrame = frame;
+  }
+
+  /**
+   * @return long - frame this passenger got off an elevator, NO_FRAME if they haven't
+   */
+  public long getAlightFrame()
+  {
+    return m_alightFrame;
+  }
+
   /**
    * Utility method to set this passengers destination to a random floor
    * @param originFloor - the floor that this passenger starts on
@@ -193,11 +274,41 @@ public class Passenger
   }
 
   /**
+   * Set where this passenger is going in the end, which is also the destination of their leg
    * @param floor
    */
   public final void setDestinationFloor(int floor)
   {
     m_destinationFloor = floor;
+    m_finalDestinationFloor = floor;
+  }
+
+  /**
+   * @return int - where this passenger is going in the end, after any transfers
+   */
+  public final int getFinalDestinationFloor()
+  {
+    return m_finalDestinationFloor;
+  }
+
+  /**
+   * Set how far this passenger rides the next elevator, e.g. to the sky lobby where they 
+   * transfer to another bank of elevators, and the direction they need to go to get there.
+   * Their final destination is left as it is.
+   * @param floor
+   */
+  public final void setLegDestinationFloor(int floor)
+  {
+    m_destinationFloor = floor;
+
+    if (m_destinationFloor < m_currentFloor)
+    {
+      m_destinationDirection = Direction.DOWN;
+    }
+    else 
+    {
+      m_destinationDirection = Direction.UP;
+    }
   }
 
   /**
@@ -265,6 +376,14 @@ public class Passenger
     return (m_currentFloor == m_destinationFloor);
   }
 
+  /**
+   * @return boolean - is the currentFloor equal to the final destination floor?
+   */
+  public final boolean isAtFinalDestinationFloor()
+  {
+    return (m_currentFloor == m_finalDestinationFloor);
+  }
+
   /**
    * A passenger on board the elevator will move up a floor
    * and this will also change how many floors the passenger has moved overall
@@ -301,6 +420,24 @@ public class Passenger
     return m_isSick;
   }
 
+  /**
+   * @return double - chance to get sick in a frame on board, before any floors are traveled
+   * @see PassengerStore
+   */
+  double getSickChance()
+  {
+    return 0.0;
+  }
+
+  /**
+   * @return double - how much the chance to get sick goes up with every floor traveled
+   * @see PassengerStore
+   */
+  double getSickChancePerFloor()
+  {
+    return 0.0;
+  }
+
   /**
    * This method is expected to be overriden by a subclass to use some function
    * to determine if this passenger gets sick.
@@ -338,4 +475,18 @@ public class Passenger
       }
     }
   }
+
+  /**
+   * Run the event loop for several frames in a row, in which nothing else in the system
+   * changes. Once the passenger is sick and has picked a floor to get off at, the remaining
+   * frames can't change anything, so they are not run.
+   * @param frames long - number of frames to run
+   */
+  public void operate(long frames)
+  {
+    for (long i = 0; i < frames && !m_setSickFloor; i++)
+    {
+      operate();
+    }
+  }
 }
@@ -0,0 +1,167 @@
+package com.maxruiz.passengers;
+
+import com.maxruiz.config.PassengerConfig;
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+import com.maxruiz.utility.SimulationRandom;
+
+/**
+ * This class creates the passengers of a single building. Each building owns one, so
+ * passenger IDs are numbered per building instead of being shared by every building
+ * in the application. Each passenger is handed its own stream of random values, split off
+ * the stream of the factory, so a seeded factory creates the same passengers every time.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @see Passenger
+ * @author Max Ruiz
+ */
+public class PassengerFactory
+{
+  private final SimulationRandom m_random;
+  private int m_nextID = 0;
+
+  /**
+   * Constructor for PassengerFactory whose passengers are different every time
+   */
+  public PassengerFactory()
+  {
+    this(new SimulationRandom());
+  }
+
+  /**
+   * @param random - stream the random values of each passenger are split from
+   */
+  public PassengerFactory(SimulationRandom random)
+  {
+    m_random = random;
+  }
+
+  /**
+   * @param originFloor - where the passenger starts
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return Civilian
+   * @see Civilian
+   */
+  public Civilian createCivilian(int originFloor, int lowestFloor, int highestFloor, int sqft)
+  {
+    return new Civilian(m_nextID++, m_random.split(), originFloor, lowestFloor, highestFloor, sqft);
+  }
+
+  /**
+   * @param pc
+   * @return Civilian
+   * @see Civilian
+   */
+  public Civilian createCivilian(PassengerConfig pc)
+  {
+    return new Civilian(m_nextID++, m_random.split(), pc);
+  }
+
+  /**
+   * @param originFloor - which floor the MaintenanceStaff needs to service
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return MaintenanceStaff
+   * @see MaintenanceStaff
+   */
+  public MaintenanceStaff createMaintenanceStaff(int originFloor, int lowestFloor,
+                                                 int highestFloor, int sqft)
+  {
+    return new MaintenanceStaff(m_nextID++, m_random.split(), originFloor, lowestFloor, highestFloor, sqft);
+  }
+
+  /**
+   * @param destinationFloor - where the firefighter needs to go, where the fire is
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return Firefighter
+   * @see Firefighter
+   */
+  public Firefighter createFirefighter(int destinationFloor, int lowestFloor,
+                                       int highestFloor, int sqft)
+  {
+    return new Firefighter(m_nextID++, m_random.split(), destinationFloor, lowestFloor, highestFloor, sqft);
+  }
+
+  /**
+   * Create a civilian in a store rather than as an object
+   * @param store - the store of the building
+   * @param originFloor - where the passenger starts
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return int - handle of the civilian in the store
+   * @see PassengerStore
+   */
+  public int createCivilian(PassengerStore store, int originFloor, int lowestFloor, int highestFloor,
+                            int sqft)
+  {
+    return store.add(m_nextID++, PassengerPriority.get().getPriorityFromTitle("civilian"), originFloor,
+                     lowestFloor, highestFloor, sqft, 0.0,
+                     Civilian.DEFAULT_SICK_FACTOR_X0 * Civilian.DEFAULT_SICK_FACTOR_X1, m_random.nextLong());
+  }
+
+  /**
+   * Create maintenance staff in a store rather than as an object
+   * @param store - the store of the building
+   * @param originFloor - which floor the MaintenanceStaff needs to service
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return int - handle of the maintenance staff in the store
+   * @see PassengerStore
+   */
+  public int createMaintenanceStaff(PassengerStore store, int originFloor, int lowestFloor,
+                                    int highestFloor, int sqft)
+  {
+    return store.add(m_nextID++, PassengerPriority.get().getPriorityFromTitle("maintenance"), originFloor,
+                     lowestFloor, highestFloor, sqft, MaintenanceStaff.DEFAULT_SICK_FACTOR, 0.0,
+                     m_random.nextLong());
+  }
+
+  /**
+   * Create a firefighter in a store rather than as an object, they start on the ground floor
+   * @param store - the store of the building
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @param sqft
+   * @return int - handle of the firefighter in the store
+   * @see PassengerStore
+   */
+  public int createFirefighter(PassengerStore store, int lowestFloor, int highestFloor, int sqft)
+  {
+    return store.add(m_nextID++, PassengerPriority.get().getPriorityFromTitle("firefighter"), 0,
+                     lowestFloor, highestFloor, sqft, Firefighter.DEFAULT_SICK_FACTOR, 0.0,
+                     m_random.nextLong());
+  }
+
+  /**
+   * @return int - number of passengers created so far
+   */
+  public int getCreatedCount()
+  {
+    return m_nextID;
+  }
+
+  /**
+   * The stream of random values belongs to the building, which writes it with the rest of its state
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeInt(m_nextID);
+  }
+
+  /**
+   * Continue from a state written by writeCheckpoint()
+   * @param in - where the state is read from
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    m_nextID = in.readCount(Integer.MAX_VALUE);
+  }
+}
@@ -10,7 +10,9 @@ import java.util.HashMap;
  * that can exists in the system.
  * 
  * This class is a singleton, it contains all necessary static passenger 
- * priority information that the application could use.
+ * priority information that the application could use. The instance is
+ * created up front and never changed afterwards, so it can be shared by
+ * buildings running on different threads.
  */
 public class PassengerPriority
 {
@@ -18,7 +20,7 @@ public class PassengerPriority
   public final int HIGHEST_PRIORITY = 0;
   private int m_lowestPriority = 0;
 
-  private static PassengerPriority self = null;
+  private static final PassengerPriority self = new PassengerPriority();
 
   /**
    * Constructor for PassengerPriority which builds the map of passenger
@@ -51,11 +53,6 @@ public class PassengerPriority
    */
   public static PassengerPriority get()
   {
-    if (null == self)
-    {
-      self = new PassengerPriority();
-    }
-
     return self;
   }
 
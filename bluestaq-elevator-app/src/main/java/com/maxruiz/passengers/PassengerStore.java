@@ -0,0 +1,726 @@
+package com.maxruiz.passengers;
+
+import com.maxruiz.logging.Log;
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class keeps the passengers of a building in columns of primitive values, one array per
+ * field, instead of one Passenger object each. A passenger is an int handle, the slot of their
+ * values in every column. When a passenger leaves the building their slot is released and handed
+ * to the next passenger that shows up, so the store only ever grows to the most passengers in the
+ * building at once, however many come and go over a day.
+ *
+ * A passenger here behaves the same as a Passenger object: they have an origin, a destination for
+ * the leg they are on and a final destination, they take up space, and they can get sick on board,
+ * the more floors they have traveled the likelier. Each one draws from their own stream of random
+ * values, kept as a single long (SplitMix64), seeded when they are added.
+ *
+ * Nothing is updated for a passenger on board as the elevator passes a floor. The elevator keeps
+ * count of the floors it has traveled, the passenger keeps the count they boarded at, and their
+ * current floor is only set again when they get off.
+ *
+ * A handle is only valid until it is released. This class is NOT thread safe, the same as the
+ * Building that owns it.
+ * @see Passenger
+ * @see PassengerFactory
+ * @author Max Ruiz
+ */
+public class PassengerStore
+{
+  public static final int NO_PASSENGER = -1;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private static final byte FLAG_IN_USE = 1;
+  private static final byte FLAG_GOING_DOWN = 2;
+  private static final byte FLAG_ON_ELEVATOR = 4;
+  private static final byte FLAG_SICK = 8;
+
+  // Weyl increment of SplitMix64
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private int[] m_id;
+  private int[] m_priority;
+  private int[] m_sqft;
+  private int[] m_originFloor;
+  // Where the passenger last got off, or showed up
+  private int[] m_currentFloor;
+  private int[] m_destinationFloor;
+  private int[] m_finalDestinationFloor;
+  // Floors traveled on earlier elevators, the count of the elevator is added while on board
+  private int[] m_floorsTraveled;
+  private long[] m_boardOdometer;
+  private long[] m_arrivalFrame;
+  private long[] m_boardFrame;
+  private long[] m_alightFrame;
+  private long[] m_randomState;
+  // Chance to get sick in a frame on board is m_sickChance + m_sickChancePerFloor * floors traveled
+  private double[] m_sickChance;
+  private double[] m_sickChancePerFloor;
+  private byte[] m_flags;
+
+  // Released slots, handed out again before any new one
+  private int[] m_freeSlots;
+  private int m_freeCount = 0;
+  // Slots below this have been handed out at least once
+  private int m_usedSlots = 0;
+  private int m_size = 0;
+
+  /**
+   * Constructor for PassengerStore with room for DEFAULT_CAPACITY passengers, it grows as needed
+   */
+  public PassengerStore()
+  {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor for PassengerStore
+   * @param capacity - passengers there is room for up front, it grows as needed
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public PassengerStore(int capacity)
+  {
+    if (capacity <= 0)
+    {
+      throw new IllegalArgumentException("capacity is invalid.");
+    }
+
+    allocate(capacity);
+  }
+
+  /**
+   * Add a passenger going to a random floor of the building, other than their origin
+   * @param id - ID of the passenger
+   * @param priority - see PassengerPriority
+   * @param originFloor - the floor that this passenger starts on
+   * @param lowestFloor - the lowest floor in the building
+   * @param highestFloor - the highest floor in the building
+   * @param sqft
+   * @param sickChance - chance to get sick in a frame on board
+   * @param sickChancePerFloor - added to the chance for every floor traveled
+   * @param seed - seed of the random values of the passenger
+   * @return int - handle of the passenger
+   * @throws IllegalArgumentException if a value is invalid, the same as Passenger
+   */
+  public int add(int id, int priority, int originFloor, int lowestFloor, int highestFloor, int sqft,
+                 double sickChance, double sickChancePerFloor, long seed)
+  {
+    if (priority < 0)
+    {
+      throw new IllegalArgumentException("Priority is invalid.");
+    }
+
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest floor and highest floor values are invalid.");
+    }
+
+    if (originFloor < lowestFloor || originFloor > highestFloor)
+    {
+      throw new IllegalArgumentException("Origin floor is invalid.");
+    }
+
+    if (sqft <= 0)
+    {
+      throw new IllegalArgumentException("Sqft value is invalid.");
+    }
+
+    int handle = takeSlot();
+
+    m_id[handle] = id;
+    m_priority[handle] = priority;
+    m_sqft[handle] = sqft;
+    m_originFloor[handle] = originFloor;
+    m_currentFloor[handle] = originFloor;
+    m_floorsTraveled[handle] = 0;
+    m_boardOdometer[handle] = 0;
+    m_arrivalFrame[handle] = Passenger.NO_FRAME;
+    m_boardFrame[handle] = Passenger.NO_FRAME;
+    m_alightFrame[handle] = Passenger.NO_FRAME;
+    m_randomState[handle] = seed;
+    m_sickChance[handle] = sickChance;
+    m_sickChancePerFloor[handle] = sickChancePerFloor;
+    m_flags[handle] = FLAG_IN_USE;
+
+    setDestinationFloor(handle, randomDestinationFloor(handle, originFloor, lowestFloor, highestFloor));
+
+    return handle;
+  }
+
+  /**
+   * Add a copy of a Passenger object, e.g. one placed on board an elevator directly. The object
+   * is not changed by anything that happens to the copy, which is not on board until it boards.
+   * @param p Passenger
+   * @return int - handle of the passenger
+   */
+  public int add(Passenger p)
+  {
+    int handle = takeSlot();
+
+    m_id[handle] = p.getID();
+    m_priority[handle] = p.getPriority();
+    m_sqft[handle] = p.getSqft();
+    m_originFloor[handle] = p.getOriginFloor();
+    m_currentFloor[handle] = p.getCurrentFloor();
+    m_destinationFloor[handle] = p.getDestinationFloor();
+    m_finalDestinationFloor[handle] = p.getFinalDestinationFloor();
+    m_floorsTraveled[handle] = p.m_floorsTraveled;
+    m_boardOdometer[handle] = 0;
+    m_arrivalFrame[handle] = p.getArrivalFrame();
+    m_boardFrame[handle] = p.getBoardFrame();
+    m_alightFrame[handle] = p.getAlightFrame();
+    m_randomState[handle] = p.m_randomGen.nextLong();
+    m_sickChance[handle] = p.getSickChance();
+    m_sickChancePerFloor[handle] = p.getSickChancePerFloor();
+    m_flags[handle] = FLAG_IN_USE;
+
+    setFlag(handle, FLAG_GOING_DOWN, Direction.DOWN == p.getDestinationDirection());
+    setFlag(handle, FLAG_SICK, p.isSick());
+
+    return handle;
+  }
+
+  /**
+   * The passenger left the building, their slot goes to the next passenger that shows up
+   * @param handle
+   * @throws IllegalArgumentException if the handle is not a passenger of the store
+   */
+  public void release(int handle)
+  {
+    if (handle < 0 || handle >= m_usedSlots || 0 == (m_flags[handle] & FLAG_IN_USE))
+    {
+      throw new IllegalArgumentException("Passenger handle is invalid.");
+    }
+
+    m_flags[handle] = 0;
+    m_freeSlots[m_freeCount++] = handle;
+    m_size--;
+  }
+
+  /**
+   * @return int - number of passengers in the store
+   */
+  public int size()
+  {
+    return m_size;
+  }
+
+  /**
+   * @return int - number of passengers there is room for before the store grows
+   */
+  public int capacity()
+  {
+    return m_id.length;
+  }
+
+  public int getID(int handle) {
+    return m_id[handle];
+  }
+
+  public int getPriority(int handle) {
+    return m_priority[handle];
+  }
+
+  public int getSqft(int handle) {
+    return m_sqft[handle];
+  }
+
+  public int getOriginFloor(int handle) {
+    return m_originFloor[handle];
+  }
+
+  /**
+   * @param handle
+   * @return int - the floor the passenger last got off at, or showed up on. It is not updated while
+   *               they are on board, the elevator knows where they are.
+   */
+  public int getCurrentFloor(int handle)
+  {
+    return m_currentFloor[handle];
+  }
+
+  /**
+   * @param handle
+   * @return int - where the passenger is going on the leg they are on
+   */
+  public int getDestinationFloor(int handle)
+  {
+    return m_destinationFloor[handle];
+  }
+
+  /**
+   * @param handle
+   * @return int - where the passenger is going in the end, after any transfers
+   */
+  public int getFinalDestinationFloor(int handle)
+  {
+    return m_finalDestinationFloor[handle];
+  }
+
+  /**
+   * @param handle
+   * @return Direction - UP or DOWN, the way to the destination of their leg
+   */
+  public Direction getDestinationDirection(int handle)
+  {
+    return hasFlag(handle, FLAG_GOING_DOWN) ? Direction.DOWN : Direction.UP;
+  }
+
+  /**
+   * Set where the passenger is going in the end, which is also the destination of their leg
+   * @param handle
+   * @param floor
+   */
+  public void setDestinationFloor(int handle, int floor)
+  {
+    m_finalDestinationFloor[handle] = floor;
+    setLegDestinationFloor(handle, floor);
+  }
+
+  /**
+   * Set how far the passenger rides the next elevator, and the direction they need to go to get
+   * there. Their final destination is left as it is.
+   * @param handle
+   * @param floor
+   */
+  public void setLegDestinationFloor(int handle, int floor)
+  {
+    m_destinationFloor[handle] = floor;
+    setFlag(handle, FLAG_GOING_DOWN, floor < m_currentFloor[handle]);
+  }
+
+  /**
+   * @param handle
+   * @return boolean - is the current floor the destination of their leg?
+   */
+  public boolean isAtDestinationFloor(int handle)
+  {
+    return m_currentFloor[handle] == m_destinationFloor[handle];
+  }
+
+  /**
+   * @param handle
+   * @return boolean - is the current floor the final destination?
+   */
+  public boolean isAtFinalDestinationFloor(int handle)
+  {
+    return m_currentFloor[handle] == m_finalDestinationFloor[handle];
+  }
+
+  public boolean isOnElevator(int handle) {
+    return hasFlag(handle, FLAG_ON_ELEVATOR);
+  }
+
+  public boolean isSick(int handle) {
+    return hasFlag(handle, FLAG_SICK);
+  }
+
+  public long getArrivalFrame(int handle) {
+    return m_arrivalFrame[handle];
+  }
+
+  public void setArrivalFrame(int handle, long frame) {
+    m_arrivalFrame[handle] = frame;
+  }
+
+  public long getBoardFrame(int handle) {
+    return m_boardFrame[handle];
+  }
+
+  public void setBoardFrame(int handle, long frame) {
+    m_boardFrame[handle] = frame;
+  }
+
+  public long getAlightFrame(int handle) {
+    return m_alightFrame[handle];
+  }
+
+  public void setAlightFrame(int handle, long frame) {
+    m_alightFrame[handle] = frame;
+  }
+
+  /**
+   * The passenger gets on an elevator
+   * @param handle
+   * @param odometer long - floors the elevator has traveled so far
+   */
+  public void board(int handle, long odometer)
+  {
+    setFlag(handle, FLAG_ON_ELEVATOR, true);
+    m_boardOdometer[handle] = odometer;
+  }
+
+  /**
+   * The passenger gets off an elevator
+   * @param handle
+   * @param floor - where the elevator is
+   * @param odometer long - floors the elevator has traveled so far
+   */
+  public void alight(int handle, int floor, long odometer)
+  {
+    setFlag(handle, FLAG_ON_ELEVATOR, false);
+    m_floorsTraveled[handle] += (int)(odometer - m_boardOdometer[handle]);
+    m_currentFloor[handle] = floor;
+  }
+
+  /**
+   * The event loop of a passenger, see Passenger.operate(). A passenger on board may get sick,
+   * then the elevator lets them off at the next floor it gets to.
+   * @param handle
+   * @param odometer long - floors the elevator they are on has traveled so far
+   * @return boolean - true if they got sick this frame
+   */
+  public boolean operate(int handle, long odometer)
+  {
+    if (false == hasFlag(handle, FLAG_ON_ELEVATOR) || hasFlag(handle, FLAG_SICK))
+    {
+      return false;
+    }
+
+    return calculateIfSick(handle, m_floorsTraveled[handle] + odometer - m_boardOdometer[handle]);
+  }
+
+  /**
+   * Run the event loop of a passenger for several frames in a row, in which nothing else in the
+   * system changes
+   * @param handle
+   * @param odometer long - floors the elevator they are on has traveled so far
+   * @param frames long - number of frames to run
+   * @return boolean - true if they got sick in one of the frames
+   */
+  public boolean operate(int handle, long odometer, long frames)
+  {
+    for (long i = 0; i < frames; i++)
+    {
+      if (operate(handle, odometer))
+      {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Look ahead at the rolls of a passenger on board without making them, see operate()
+   * @param handle
+   * @param odometer long - floors the elevator they are on has traveled so far
+   * @param frames long - most frames to look ahead, in which nothing else in the system changes
+   * @return long - number of frames before the one they get sick in, frames if they stay well
+   */
+  public long framesUntilSick(int handle, long odometer, long frames)
+  {
+    if (false == hasFlag(handle, FLAG_ON_ELEVATOR) || hasFlag(handle, FLAG_SICK))
+    {
+      return frames;
+    }
+
+    double sickChance = m_sickChance[handle] + 
+                        m_sickChancePerFloor[handle] * (m_floorsTraveled[handle] + odometer - m_boardOdometer[handle]);
+
+    if (sickChance <= 0.0)
+    {
+      return frames;
+    }
+
+    long state = m_randomState[handle];
+
+    for (long i = 0; i < frames; i++)
+    {
+      state += GOLDEN_GAMMA;
+
+      if ((mix(state) >>> 11) * 0x1.0p-53 < sickChance)
+      {
+        return i;
+      }
+    }
+
+    return frames;
+  }
+
+  /**
+   * A Macro to roll whether a passenger on board gets sick this frame
+   * @param handle
+   * @param floorsTraveled long - floors they have traveled in all
+   * @return boolean - true if they got sick
+   */
+  private boolean calculateIfSick(int handle, long floorsTraveled)
+  {
+    double sickChance = m_sickChance[handle] + m_sickChancePerFloor[handle] * floorsTraveled;
+
+    if (sickChance <= 0.0 || nextDouble(handle) >= sickChance)
+    {
+      return false;
+    }
+
+    setFlag(handle, FLAG_SICK, true);
+
+    Log.log(Log.Level.DEBUG, Log.Category.PASSENGER, "Passenger has become sick", Log.NONE,
+            Log.NONE, m_id[handle], Log.NONE, Log.NONE, null);
+
+    return true;
+  }
+
+  /**
+   * Pick a random floor other than the origin, the same way as a Passenger object
+   * @param handle
+   * @param originFloor
+   * @param lowestFloor
+   * @param highestFloor
+   * @return int
+   */
+  private int randomDestinationFloor(int handle, int originFloor, int lowestFloor, int highestFloor)
+  {
+    for (int i = 0; i < 3; i++)
+    {
+      int floor = lowestFloor + (int)(((nextLong(handle) >>> 32) * (highestFloor - lowestFloor)) >>> 32);
+
+      if (floor != originFloor)
+      {
+        return floor;
+      }
+    }
+
+    return (originFloor == lowestFloor) ? originFloor + 1 : originFloor - 1;
+  }
+
+  /**
+   * @param handle
+   * @return long - the next random value of the passenger
+   */
+  private long nextLong(int handle)
+  {
+    return mix(m_randomState[handle] += GOLDEN_GAMMA);
+  }
+
+  /**
+   * A Macro to turn a state of the generator into its random value
+   * @param z long - the state
+   * @return long
+   */
+  private static long mix(long z)
+  {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * @param handle
+   * @return double - the next random value of the passenger, from 0 up to but not including 1
+   */
+  private double nextDouble(int handle)
+  {
+    return (nextLong(handle) >>> 11) * 0x1.0p-53;
+  }
+
+  /**
+   * Write every slot that has been handed out, in use or not, one column at a time
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    int used = m_usedSlots;
+
+    out.writeInt(used);
+    out.writeInt(m_freeCount);
+    out.writeInts(m_id, used);
+    out.writeInts(m_priority, used);
+    out.writeInts(m_sqft, used);
+    out.writeInts(m_originFloor, used);
+    out.writeInts(m_currentFloor, used);
+    out.writeInts(m_destinationFloor, used);
+    out.writeInts(m_finalDestinationFloor, used);
+    out.writeInts(m_floorsTraveled, used);
+    out.writeLongs(m_boardOdometer, used);
+    out.writeLongs(m_arrivalFrame, used);
+    out.writeLongs(m_boardFrame, used);
+    out.writeLongs(m_alightFrame, used);
+    out.writeLongs(m_randomState, used);
+    out.writeDoubles(m_sickChance, used);
+    out.writeDoubles(m_sickChancePerFloor, used);
+    out.writeBytes(m_flags, used);
+    out.writeInts(m_freeSlots, m_freeCount);
+  }
+
+  /**
+   * Replace everyone in the store with the passengers written by writeCheckpoint(), with the
+   * same handles
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if the released slots do not add up
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    int used = in.readCount(Integer.MAX_VALUE / 2);
+    int freeCount = in.readCount(used);
+
+    m_usedSlots = 0;
+    m_freeCount = 0;
+    m_size = 0;
+
+    if (used > m_id.length)
+    {
+      allocate(Math.max(used, DEFAULT_CAPACITY));
+    }
+
+    in.readInts(m_id, used);
+    in.readInts(m_priority, used);
+    in.readInts(m_sqft, used);
+    in.readInts(m_originFloor, used);
+    in.readInts(m_currentFloor, used);
+    in.readInts(m_destinationFloor, used);
+    in.readInts(m_finalDestinationFloor, used);
+    in.readInts(m_floorsTraveled, used);
+    in.readLongs(m_boardOdometer, used);
+    in.readLongs(m_arrivalFrame, used);
+    in.readLongs(m_boardFrame, used);
+    in.readLongs(m_alightFrame, used);
+    in.readLongs(m_randomState, used);
+    in.readDoubles(m_sickChance, used);
+    in.readDoubles(m_sickChancePerFloor, used);
+    in.readBytes(m_flags, used);
+    in.readInts(m_freeSlots, freeCount);
+
+    int size = 0;
+
+    for (int handle = 0; handle < used; handle++)
+    {
+      size += hasFlag(handle, FLAG_IN_USE) ? 1 : 0;
+    }
+
+    for (int i = 0; i < freeCount; i++)
+    {
+      int handle = m_freeSlots[i];
+
+      if (handle < 0 || handle >= used || hasFlag(handle, FLAG_IN_USE))
+      {
+        throw new IllegalArgumentException("Checkpoint passengers are invalid.");
+      }
+    }
+
+    if (size + freeCount != used)
+    {
+      throw new IllegalArgumentException("Checkpoint passengers are invalid.");
+    }
+
+    m_usedSlots = used;
+    m_freeCount = freeCount;
+    m_size = size;
+  }
+
+  private boolean hasFlag(int handle, byte flag)
+  {
+    return 0 != (m_flags[handle] & flag);
+  }
+
+  private void setFlag(int handle, byte flag, boolean value)
+  {
+    m_flags[handle] = (byte)(value ? (m_flags[handle] | flag) : (m_flags[handle] & ~flag));
+  }
+
+  /**
+   * A Macro to hand out a released slot, or a new one
+   * @return int - the slot
+   */
+  private int takeSlot()
+  {
+    int handle;
+
+    if (m_freeCount > 0)
+    {
+      handle = m_freeSlots[--m_freeCount];
+    }
+    else
+    {
+      if (m_usedSlots == m_id.length)
+      {
+        allocate(m_id.length * 2);
+      }
+
+      handle = m_usedSlots++;
+    }
+
+    m_size++;
+
+    return handle;
+  }
+
+  /**
+   * Make room for more passengers, keeping everyone already in the store
+   * @param capacity
+   */
+  private void allocate(int capacity)
+  {
+    int used = m_usedSlots;
+
+    m_id = copyOf(m_id, capacity, used);
+    m_priority = copyOf(m_priority, capacity, used);
+    m_sqft = copyOf(m_sqft, capacity, used);
+    m_originFloor = copyOf(m_originFloor, capacity, used);
+    m_currentFloor = copyOf(m_currentFloor, capacity, used);
+    m_destinationFloor = copyOf(m_destinationFloor, capacity, used);
+    m_finalDestinationFloor = copyOf(m_finalDestinationFloor, capacity, used);
+    m_floorsTraveled = copyOf(m_floorsTraveled, capacity, used);
+    m_boardOdometer = copyOf(m_boardOdometer, capacity, used);
+    m_arrivalFrame = copyOf(m_arrivalFrame, capacity, used);
+    m_boardFrame = copyOf(m_boardFrame, capacity, used);
+    m_alightFrame = copyOf(m_alightFrame, capacity, used);
+    m_randomState = copyOf(m_randomState, capacity, used);
+    m_sickChance = copyOf(m_sickChance, capacity, used);
+    m_sickChancePerFloor = copyOf(m_sickChancePerFloor, capacity, used);
+    m_flags = copyOf(m_flags, capacity, used);
+    // Every slot can be free at once
+    m_freeSlots = copyOf(m_freeSlots, capacity, m_freeCount);
+  }
+
+  private static int[] copyOf(int[] column, int capacity, int used)
+  {
+    int[] copy = new int[capacity];
+
+    if (null != column)
+    {
+      System.arraycopy(column, 0, copy, 0, used);
+    }
+
+    return copy;
+  }
+
+  private static long[] copyOf(long[] column, int capacity, int used)
+  {
+    long[] copy = new long[capacity];
+
+    if (null != column)
+    {
+      System.arraycopy(column, 0, copy, 0, used);
+    }
+
+    return copy;
+  }
+
+  private static double[] copyOf(double[] column, int capacity, int used)
+  {
+    double[] copy = new double[capacity];
+
+    if (null != column)
+    {
+      System.arraycopy(column, 0, copy, 0, used);
+    }
+
+    return copy;
+  }
+
+  private static byte[] copyOf(byte[] column, int capacity, int used)
+  {
+    byte[] copy = new byte[capacity];
+
+    if (null != column)
+    {
+      System.arraycopy(column, 0, copy, 0, used);
+    }
+
+    return copy;
+  }
+}
@@ -1,13 +1,29 @@
 package com.maxruiz.structures;
 
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import com.maxruiz.config.ElevatorConfig;
 import com.maxruiz.config.PassengerConfig;
 import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.JourneyMetrics;
+import com.maxruiz.metrics.LatencyHistogram;
+import com.maxruiz.metrics.TelemetryWriter;
+import com.maxruiz.utility.ArrivalProcess;
+import com.maxruiz.utility.ArrivalProfile;
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
 import com.maxruiz.utility.EventController;
+import com.maxruiz.utility.ScenarioReader;
 import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationClock;
+import com.maxruiz.utility.SimulationRandom;
 import com.maxruiz.passengers.*;
 
 /**
@@ -17,32 +33,71 @@ import com.maxruiz.passengers.*;
  * operate(s). 
  * The elevator(s) run(s) an algorithm to handle these events.
  * 
+ * This class is NOT thread safe. Other threads press hall call buttons and badge in through
+ * its HallCallInbox, which it takes at the start of every frame.
+ * @see HallCallInbox
  * @author Max Ruiz
  */
 public class Building
 {
+  // "BSCK", the start of every checkpoint of a building, and the version of its format
+  private static final int CHECKPOINT_MAGIC = 0x4253434B;
+  private static final int CHECKPOINT_VERSION = 1;
+
+  // Requests from other threads that can wait for the next frame, more are refused
+  private static final int INBOX_CAPACITY = 4096;
+
   private final int LOWEST_FLOOR;
   private final int HIGHEST_FLOOR;
   private final int MAX_NUM_PASSENGERS_PER_FLOOR;
   private final boolean USE_CUSTOM_EVENTS;
   private final ArrayList<ElevatorConfig> ELEVATOR_CONFIGS;
   private final boolean USE_CUSTOM_PASSENGERS;
-  private ArrayList<Civilian> CUSTOM_PASSENGERS = new ArrayList<>();
+  private final Dispatcher.Strategy DISPATCH_STRATEGY;
+  private final long FRAME_TIME_MILLIS;
+  private final long START_TIME_OF_DAY_MILLIS;
+  private final boolean PARK_IDLE_ELEVATORS;
+  private final ArrivalProfile ARRIVAL_PROFILE;
+  private final Path SCENARIO_PATH;
+  private final ArrayList<EventController.EventType> CUSTOM_EVENTS;
+  // Each one becomes a Civilian when it is their turn to show up
+  private ArrayList<PassengerConfig> CUSTOM_PASSENGERS = new ArrayList<>();
   private int m_customPassengerIndex = 0;
 
-  private EventController m_eventController = new EventController();
+  private final long m_seed;
+  // Every stream of random values of the building, kept to be written to a checkpoint
+  private SimulationRandom m_rng;
+  private SimulationRandom m_eventRandom;
+  private SimulationRandom m_passengerRandom;
+  private SimulationRandom m_arrivalRandom = null;
+  private EventController m_eventController;
+  private PassengerFactory m_passengerFactory;
+  private ArrivalProcess m_arrivalProcess = null;
+  private ScenarioReader m_scenario = null;
   private EventController.EventType m_currentEvent = EventController.EventType.IDLE;
 
   private ArrayList<Elevator> m_elevators = new ArrayList<>();
-  private Elevator m_elevator;
+  private ArrayList<ElevatorBank> m_banks = new ArrayList<>();
+  private RoutingIndex m_routingIndex;
+  private DemandForecast m_demandForecast;
 
-  private ArrayList<ArrayList<Passenger>> m_passengersPerFloor = new ArrayList<ArrayList<Passenger>>();
+  // Every passenger in the building, the lines and elevators hold handles into it
+  private final PassengerStore m_passengerStore = new PassengerStore();
+  private WaitingPassengers m_waiting;
   private int MIN_PASSENGER_SQFT = 2;
   private int MAX_PASSENGER_SQFT = 10;
 
   private boolean m_onFire = false;
 
-  Random m_rng = new Random();
+  private final SimulationClock m_clock = new SimulationClock();
+  private JourneyMetrics m_journeyMetrics;
+  private TelemetryWriter m_telemetry = null;
+  private HallCallInbox m_inbox;
+  private final LatencyHistogram m_inboxLatency = new LatencyHistogram();
+  private long m_passengersSpawned = 0;
+  private long m_passengersTurnedAway = 0;
+  private long m_passengersBoarded = 0;
+  private long m_passengersTransferred = 0;
 
   /**
    * Constructor for building which takes all of the values a building needs to be configured.
@@ -64,6 +119,14 @@ public class Building
     USE_CUSTOM_EVENTS = useCustomEvents;
     ELEVATOR_CONFIGS = elevatorConfigs;
     USE_CUSTOM_PASSENGERS = usePassengerConfigs;
+    DISPATCH_STRATEGY = Dispatcher.Strategy.LOOK;
+    m_seed = new SplittableRandom().nextLong();
+    FRAME_TIME_MILLIS = BuildingConfig.DEFAULT_FRAME_TIME_MILLIS;
+    START_TIME_OF_DAY_MILLIS = 0;
+    PARK_IDLE_ELEVATORS = false;
+    ARRIVAL_PROFILE = null;
+    SCENARIO_PATH = null;
+    CUSTOM_EVENTS = null;
 
     init();
 
@@ -84,6 +147,44 @@ public class Building
     USE_CUSTOM_EVENTS = bc.usingCustomEvents();
     ELEVATOR_CONFIGS = bc.getElevatorConfigs();
     USE_CUSTOM_PASSENGERS = bc.usingCustomPassengers();
+    DISPATCH_STRATEGY = bc.getDispatchStrategy();
+    m_seed = bc.getSeed();
+    FRAME_TIME_MILLIS = bc.getFrameTimeMillis();
+    START_TIME_OF_DAY_MILLIS = bc.getStartTimeOfDayMillis();
+    PARK_IDLE_ELEVATORS = bc.parkingIdleElevators();
+    ARRIVAL_PROFILE = bc.getArrivalProfile();
+    SCENARIO_PATH = bc.getScenarioPath();
+    CUSTOM_EVENTS = bc.getCustomEvents();
+
+    init();
+
+    loadCustomPassengers(bc.getPassengerConfigs());
+  }
+
+  /**
+   * Constructor for Building which takes in a BuildingConfig class and a seed for the random
+   * values of the building, used instead of the seed of the configuration, so that independent 
+   * runs of the same configuration can be told apart and repeated.
+   * @param bc BuildingConfig is a class that holds all the values needed to configure the building.
+   * @param seed long - seed of the random number generators
+   * @see BuildingConfig
+   */
+  public Building(BuildingConfig bc, long seed)
+  {
+    LOWEST_FLOOR = bc.getLowestFloor();
+    HIGHEST_FLOOR = bc.getHighestFloor();
+    MAX_NUM_PASSENGERS_PER_FLOOR = bc.getMaxNumPassengersPerFloor();
+    USE_CUSTOM_EVENTS = bc.usingCustomEvents();
+    ELEVATOR_CONFIGS = bc.getElevatorConfigs();
+    USE_CUSTOM_PASSENGERS = bc.usingCustomPassengers();
+    DISPATCH_STRATEGY = bc.getDispatchStrategy();
+    m_seed = seed;
+    FRAME_TIME_MILLIS = bc.getFrameTimeMillis();
+    START_TIME_OF_DAY_MILLIS = bc.getStartTimeOfDayMillis();
+    PARK_IDLE_ELEVATORS = bc.parkingIdleElevators();
+    ARRIVAL_PROFILE = bc.getArrivalProfile();
+    SCENARIO_PATH = bc.getScenarioPath();
+    CUSTOM_EVENTS = bc.getCustomEvents();
 
     init();
 
@@ -105,6 +206,14 @@ public class Building
     USE_CUSTOM_EVENTS = bc.usingCustomEvents();
     ELEVATOR_CONFIGS = bc.getElevatorConfigs();
     USE_CUSTOM_PASSENGERS = bc.usingCustomPassengers();
+    DISPATCH_STRATEGY = bc.getDispatchStrategy();
+    m_seed = bc.getSeed();
+    FRAME_TIME_MILLIS = bc.getFrameTimeMillis();
+    START_TIME_OF_DAY_MILLIS = bc.getStartTimeOfDayMillis();
+    PARK_IDLE_ELEVATORS = bc.parkingIdleElevators();
+    ARRIVAL_PROFILE = bc.getArrivalProfile();
+    SCENARIO_PATH = bc.getScenarioPath();
+    CUSTOM_EVENTS = bc.getCustomEvents();
 
     init();
 
@@ -135,24 +244,67 @@ public class Building
       throw new IllegalArgumentException("There must be one or more ElevatorConfigs in the list.");
     }
 
-    // We only need floor many columns
-    int numFloors = HIGHEST_FLOOR - LOWEST_FLOOR;
+    // One line per floor and direction
+    m_waiting = new WaitingPassengers(LOWEST_FLOOR, HIGHEST_FLOOR, m_passengerStore);
 
-    // Want highest floor accessable
-    for (int i = 0; i <= numFloors; i++)
+    // Hall calls and badges from other threads, taken at the start of every frame
+    m_inbox = new HallCallInbox(INBOX_CAPACITY, LOWEST_FLOOR, HIGHEST_FLOOR);
+
+    // Each subsystem draws from its own stream, so a change in how often one of them
+    // draws doesn't shift the values of the others
+    SimulationRandom root = new SimulationRandom(m_seed);
+    m_rng = root.split();
+    m_eventRandom = root.split();
+    m_passengerRandom = root.split();
+    m_eventController = new EventController(m_eventRandom);
+    m_passengerFactory = new PassengerFactory(m_passengerRandom);
+
+    // Passengers are drawn from the arrival profile rather than the random events
+    if (null != ARRIVAL_PROFILE)
     {
-      m_passengersPerFloor.add(new ArrayList<Passenger>());
+      m_arrivalRandom = root.split();
+      m_arrivalProcess = new ArrivalProcess(ARRIVAL_PROFILE, LOWEST_FLOOR, HIGHEST_FLOOR, m_clock,
+                                            FRAME_TIME_MILLIS, START_TIME_OF_DAY_MILLIS, m_arrivalRandom);
+      m_eventController.setEventChance(EventController.EventType.PASSENGERS, 0.0);
     }
 
+    Log.log(Log.Level.INFO, Log.Category.BUILDING, "Building seeded", Log.NONE, Log.NONE,
+            Log.NONE, Log.NONE, m_seed, null);
+    Log.log(Log.Level.INFO, Log.Category.BUILDING, "Elevators dispatched", Log.NONE, Log.NONE,
+            Log.NONE, Log.NONE, Log.NONE, DISPATCH_STRATEGY.Representation);
+
     loadCustomEvents();
 
+    // Passengers and events are read from the scenario rather than rolled or listed
+    if (null != SCENARIO_PATH)
+    {
+      m_scenario = new ScenarioReader(SCENARIO_PATH, LOWEST_FLOOR, HIGHEST_FLOOR, m_clock);
+    }
+
     updateCurrentEvent();
 
     loadElevators();
+
+    m_routingIndex = new RoutingIndex(LOWEST_FLOOR, HIGHEST_FLOOR, m_banks);
+
+    m_demandForecast = new DemandForecast(LOWEST_FLOOR, HIGHEST_FLOOR, m_clock, FRAME_TIME_MILLIS,
+                                          START_TIME_OF_DAY_MILLIS);
+
+    loadParkingPolicies();
+
+    m_journeyMetrics = new JourneyMetrics(LOWEST_FLOOR, HIGHEST_FLOOR, m_elevators.size());
+
+    for (int i = 0; i < m_elevators.size(); i++)
+    {
+      m_elevators.get(i).attachJourneyMetrics(m_clock, m_journeyMetrics, i);
+      m_elevators.get(i).attachPassengerStore(m_passengerStore);
+    }
   }
 
   /**
-   * Create the elevator with a set of parameters.
+   * Create the elevator with a set of parameters. Elevators that serve the same floors are put
+   * in the same bank, and share its hall calls and dispatcher.
+   * @see ElevatorBank
    */
   private void loadElevators()
   {
@@ -164,28 +316,83 @@ public class Building
 
     for (ElevatorConfig ec : ELEVATOR_CONFIGS)
     {
-      m_elevators.add(new Elevator(ec));
+      m_elevators.add(getBank(ec).addElevator(ec));
+
+      Log.log(Log.Level.INFO, Log.Category.BUILDING, "Elevator initialized at its starting floor",
+              ec.getID(), ec.getStartingFloor(), Log.NONE, Log.NONE, Log.NONE, null);
+      Log.log(Log.Level.INFO, Log.Category.BUILDING, "Elevator serves floors from floor to target",
+              ec.getID(), ec.getLowestFloor(), Log.NONE, ec.getHighestFloor(), Log.NONE, null);
+    }
+  }
+
+  /**
+   * Let the idle elevators of every bank move to where passengers are expected, if configured to
+   * @see ParkingPolicy
+   */
+  private void loadParkingPolicies()
+  {
+    if (false == PARK_IDLE_ELEVATORS)
+    {
+      return;
+    }
+
+    for (ElevatorBank bank : m_banks)
+    {
+      ParkingPolicy parkingPolicy = new ParkingPolicy(m_demandForecast, bank);
 
-      System.out.println("\n===== Elevator Initialization =====");
-      System.out.println("Building: Elevator ID: " + ec.getID());
-      System.out.println("Building: Elevator Sqft: " + ec.getSqft());
-      System.out.println("Building: Lowest Floor: " + ec.getLowestFloor());
-      System.out.println("Building: Highest Floor: " + ec.getHighestFloor());
-      System.out.println("Building: Elevator Starting Floor: " + ec.getStartingFloor());
-      System.out.println("\n==================================");
+      for (Elevator elevator : bank.getElevators())
+      {
+        elevator.attachParkingPolicy(parkingPolicy);
+      }
     }
+
+    log(Log.Level.INFO, "Idle elevators park where passengers are expected");
+  }
+
+  /**
+   * @param ec
+   * @return ElevatorBank - the bank serving the floors of the elevator, created if there is none
+   */
+  private ElevatorBank getBank(ElevatorConfig ec)
+  {
+    for (ElevatorBank bank : m_banks)
+    {
+      if (bank.serves(ec))
+      {
+        return bank;
+      }
+    }
+
+    ElevatorBank bank = new ElevatorBank(m_banks.size(), ec.getLowestFloor(), ec.getHighestFloor(),
+                                         DISPATCH_STRATEGY);
+    m_banks.add(bank);
+
+    Log.log(Log.Level.INFO, Log.Category.BUILDING, "Elevator bank serves floors from floor to target",
+            Log.NONE, bank.getLowestFloor(), Log.NONE, bank.getHighestFloor(), Log.NONE, null);
+
+    return bank;
   }
 
   /**
-   * Load a list of custom events to force the events of the building.
+   * Load a list of custom events to force the events of the building, the default list
+   * unless the configuration has one.
    */
   private void loadCustomEvents()
   {
-    // Desired feature: Extract events data from json config file
+    if (null == CUSTOM_EVENTS)
+    {
+      m_eventController.loadCustomEventList();
+      return;
+    }
 
-    m_eventController.loadCustomEventList();
+    // Every building reads through its own copy
+    m_eventController.setCustomEventList(new ArrayList<>(CUSTOM_EVENTS));
   }
 
+  /**
+   * Keep the custom passengers to show up. They are only created when it is their turn.
+   * @param passengerConfigs
+   */
   private void loadCustomPassengers(ArrayList<PassengerConfig> passengerConfigs)
   {
     if (passengerConfigs.isEmpty())
@@ -194,11 +401,7 @@ public class Building
     }
 
     // Only concerned about general passengers or Civilians
-    for (PassengerConfig pc : passengerConfigs)
-    {
-      CUSTOM_PASSENGERS.add(new Civilian(pc));
-    }
-
+    CUSTOM_PASSENGERS = passengerConfigs;
   }
 
   /**
@@ -207,36 +410,46 @@ public class Building
    */
   public void operate()
   {
+    handleInbox();
+
     switch (m_currentEvent)
     {
       case IDLE:
-        System.out.println("\nBuilding: ----- IDLE EVENT -----\n");
+        log(Log.Level.TRACE, "IDLE EVENT");
         handleIdleEvent();
         break;
 
       case PASSENGERS:
-        System.out.println("\nBuilding: ----- PASSENGER EVENT -----\n");
+        log(Log.Level.DEBUG, "PASSENGER EVENT");
         handlePassengersEvent();
         break;
 
       case STUCK:
-        System.out.println("\nBuilding: ----- STUCK EVENT -----\n");
+        log(Log.Level.DEBUG, "STUCK EVENT");
         handleStuckEvent();
         break;
 
       case FIRE:
-        System.out.println("\nBuilding: ----- FIRE EVENT -----\n");
+        log(Log.Level.DEBUG, "FIRE EVENT");
         handleFireEvent();
         break;
 
       default:
-        System.out.println("\nBuilding: ----- DEFAULT IDLE EVENT -----\n");
+        log(Log.Level.WARN, "DEFAULT IDLE EVENT");
         handleIdleEvent();
     }
 
+    handleArrivals();
+
+    handleScenario();
+
     handleElevator();
 
+    recordCars();
+
     updateCurrentEvent();
+
+    m_clock.advance();
   }
 
   /**
@@ -269,42 +482,220 @@ public class Building
 
     
     
-    Civilian civ = getNextCivilian();
+    int civ = getNextCivilian();
 
-    if (null == civ)
+    if (PassengerStore.NO_PASSENGER == civ)
     {
       // treat as idle event
-      System.out.println("Building: No more people in the building.");
+      log(Log.Level.DEBUG, "No more people in the building");
       return;
     }
-    
-    int passengerFloor = civ.getOriginFloor();
 
-    boolean canFitPassenger = canFitPassengerOnFloor(passengerFloor);
+    spawnCivilian(civ);
+  }
 
-    if (canFitPassenger)
+  /**
+   * Spawn every group of passengers that has shown up by this frame, if passengers are drawn from
+   * an arrival profile. Any number of them can show up in the same frame, e.g. in a lobby rush.
+   * @see ArrivalProcess
+   */
+  private void handleArrivals()
+  {
+    if (null == m_arrivalProcess)
     {
-      m_passengersPerFloor.get(passengerFloor).add(civ);
-      System.out.println("Building: Passenger " + civ.getID() + " Submitted Request: Request Floor: " + passengerFloor + " Destination Floor: " + civ.getDestinationFloor());
+      return;
     }
-    else 
+
+    for (ArrivalProcess.Group group = m_arrivalProcess.poll(); null != group; group = m_arrivalProcess.poll())
     {
-      System.out.println("Building: Could not fit passenger on floor.");
+      // Everyone takes the stairs out while the building is on fire
+      if (m_onFire)
+      {
+        continue;
+      }
+
+      log(Log.Level.DEBUG, "Group of passengers arrived", Log.NONE, group.OriginFloor, Log.NONE,
+          group.DestinationFloor);
+
+      for (int i = 0; i < group.Size; i++)
+      {
+        int civ = m_passengerFactory.createCivilian(m_passengerStore, group.OriginFloor, LOWEST_FLOOR,
+                                                    HIGHEST_FLOOR, getRandomPassengerSize());
+        m_passengerStore.setDestinationFloor(civ, group.DestinationFloor);
+
+        spawnCivilian(civ);
+      }
     }
+  }
 
-    // Try to get their request to an elevator
-    for (Elevator e : m_elevators)
+  /**
+   * Take every request other threads offered to the inbox since the last frame. A hall call is
+   * registered with every bank that stops at its floor and goes that way, a badge lines up a
+   * passenger for its destination the same as one that walked in. How long each request waited
+   * is recorded, from when it was offered until its call was placed.
+   * @see HallCallInbox
+   */
+  private void handleInbox()
+  {
+    while (m_inbox.hasNext())
     {
-      if (canFitPassenger)
+      int floor = m_inbox.getFloor();
+
+      switch (m_inbox.getKind())
       {
-        e.receivePassengerRequest(passengerFloor);
+        case HALL_CALL:
+          receiveHallCall(floor, m_inbox.getDirection());
+          break;
 
-        // No need to continue if the passenger floor request has been accepted.
-        break;
+        case BADGE:
+          // Everyone takes the stairs out while the building is on fire
+          if (m_onFire)
+          {
+            break;
+          }
+
+          int civ = m_passengerFactory.createCivilian(m_passengerStore, floor, LOWEST_FLOOR, HIGHEST_FLOOR,
+                                                      getRandomPassengerSize());
+          m_passengerStore.setDestinationFloor(civ, m_inbox.getDestinationFloor());
+
+          spawnCivilian(civ);
+          break;
+
+        default:
+          break;
       }
+
+      m_inboxLatency.record(Math.max(0, (System.nanoTime() - m_inbox.getEnqueueNanos()) / 1000));
+      m_inbox.next();
     }
   }
 
+  /**
+   * A Macro to register a hall call with no passenger behind it yet, e.g. a button that was
+   * pressed, with every bank that can answer it
+   * @param floor
+   * @param direction - UP or DOWN
+   */
+  private void receiveHallCall(int floor, Direction direction)
+  {
+    boolean received = false;
+
+    for (ElevatorBank bank : m_banks)
+    {
+      boolean goesThatWay = (Direction.UP == direction) ? floor < bank.getHighestFloor()
+                                                        : floor > bank.getLowestFloor();
+
+      if (bank.canReachFloor(floor) && goesThatWay)
+      {
+        bank.receivePassengerRequest(floor, direction);
+        received = true;
+      }
+    }
+
+    if (false == received)
+    {
+      log(Log.Level.DEBUG, "No elevator can answer hall call", Log.NONE, floor, Log.NONE, Log.NONE);
+    }
+  }
+
+  /**
+   * Apply every entry of the scenario that has happened by this frame, if there is one. Any number
+   * of passengers and events can happen in the same frame.
+   * @see ScenarioReader
+   */
+  private void handleScenario()
+  {
+    if (null == m_scenario)
+    {
+      return;
+    }
+
+    for (ScenarioReader.Entry entry = m_scenario.poll(); null != entry; entry = m_scenario.poll())
+    {
+      switch (entry.Event)
+      {
+        case PASSENGERS:
+          // Everyone takes the stairs out while the building is on fire
+          if (m_onFire)
+          {
+            break;
+          }
+
+          int sqft = (0 == entry.Sqft) ? getRandomPassengerSize() : entry.Sqft;
+          int civ = m_passengerFactory.createCivilian(m_passengerStore, entry.OriginFloor, LOWEST_FLOOR,
+                                                      HIGHEST_FLOOR, sqft);
+          m_passengerStore.setDestinationFloor(civ, entry.DestinationFloor);
+
+          spawnCivilian(civ);
+          break;
+
+        case STUCK:
+          log(Log.Level.DEBUG, "STUCK EVENT");
+          handleStuckEvent();
+          break;
+
+        case FIRE:
+          log(Log.Level.DEBUG, "FIRE EVENT");
+          handleFireEvent();
+          break;
+
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Put a passenger that showed up in line on their floor and call an elevator for them, unless
+   * there is no room on the floor or no way to their destination. A passenger turned away leaves
+   * the building, and the store.
+   * @param civ - handle of a civilian
+   */
+  private void spawnCivilian(int civ)
+  {
+    int passengerFloor = m_passengerStore.getOriginFloor(civ);
+    int finalDestination = m_passengerStore.getFinalDestinationFloor(civ);
+    int bank = m_routingIndex.getBank(passengerFloor, finalDestination);
+
+    if (RoutingIndex.NO_ROUTE == bank)
+    {
+      m_passengersTurnedAway++;
+      recordPassenger(civ, TelemetryWriter.PassengerEvent.TURNED_AWAY, passengerFloor);
+      log(Log.Level.DEBUG, "No elevator can take passenger to their destination", Log.NONE,
+          passengerFloor, m_passengerStore.getID(civ), finalDestination);
+      m_passengerStore.release(civ);
+      return;
+    }
+
+    // Only as far as the first bank goes, they are routed again at the sky lobby
+    m_passengerStore.setLegDestinationFloor(civ, m_routingIndex.getLegDestination(passengerFloor,
+                                                                                  finalDestination));
+    Direction direction = m_passengerStore.getDestinationDirection(civ);
+
+    // Everyone who shows up is demand, even if they're turned away
+    m_demandForecast.observe(passengerFloor, direction);
+
+    if (false == canFitPassengerOnFloor(passengerFloor))
+    {
+      m_passengersTurnedAway++;
+      recordPassenger(civ, TelemetryWriter.PassengerEvent.TURNED_AWAY, passengerFloor);
+      log(Log.Level.DEBUG, "Could not fit passenger on floor", Log.NONE, passengerFloor,
+          m_passengerStore.getID(civ), m_passengerStore.getDestinationFloor(civ));
+      m_passengerStore.release(civ);
+      return;
+    }
+
+    m_passengerStore.setArrivalFrame(civ, m_clock.getFrame());
+    m_waiting.add(passengerFloor, civ);
+    m_passengersSpawned++;
+    recordPassenger(civ, TelemetryWriter.PassengerEvent.ARRIVED, passengerFloor);
+    log(Log.Level.DEBUG, "Passenger submitted request", Log.NONE, passengerFloor, m_passengerStore.getID(civ),
+        m_passengerStore.getDestinationFloor(civ));
+
+    // Every elevator of the bank shares the hall calls, the dispatcher decides which one answers it
+    m_banks.get(bank).receivePassengerRequest(passengerFloor, direction);
+  }
+
   /**
    * Handle method for a STUCK event. This creates a passenger of
    * priority: Maintenance. It shoves the passenger onto it's corresponding floor,
@@ -346,22 +737,27 @@ public class Building
     }
 
     int stuckFloor = elevator.getCurrentFloor();
-    MaintenanceStaff staff = new MaintenanceStaff(stuckFloor, LOWEST_FLOOR, HIGHEST_FLOOR, getRandomPassengerSize());
+    int staff = m_passengerFactory.createMaintenanceStaff(m_passengerStore, stuckFloor, LOWEST_FLOOR,
+                                                         HIGHEST_FLOOR, getRandomPassengerSize());
+    m_passengerStore.setArrivalFrame(staff, m_clock.getFrame());
+
+    log(Log.Level.INFO, "Elevator is stuck", elevator.getID(), stuckFloor, m_passengerStore.getID(staff), Log.NONE);
 
-    System.out.println("Building: Stuck Floor: " + stuckFloor);
     if (canFitPassengerOnFloor(stuckFloor))
     {
-      m_passengersPerFloor.get(stuckFloor).add(staff);
+      m_waiting.add(stuckFloor, staff);
     }
     else 
     {
-      System.out.println("Building: Maintenance Staff forced their way in line.");
-      m_passengersPerFloor.get(stuckFloor).remove(0);
-      m_passengersPerFloor.get(stuckFloor).add(staff);
+      log(Log.Level.DEBUG, "Maintenance Staff forced their way in line", elevator.getID(), stuckFloor,
+          m_passengerStore.getID(staff), Log.NONE);
+      int oldest = m_waiting.removeOldest(stuckFloor);
+      recordPassenger(oldest, TelemetryWriter.PassengerEvent.LEFT, stuckFloor);
+      m_passengerStore.release(oldest);
+      m_waiting.add(stuckFloor, staff);
     }
 
-    System.out.println("Building: Maintenance Request Submitted");
-    System.out.println("Building: ID: " + staff.getID());
+    recordPassenger(staff, TelemetryWriter.PassengerEvent.ARRIVED, stuckFloor);
 
     elevator.receiveMaintenanceRequest(stuckFloor);
 
@@ -407,23 +803,22 @@ public class Building
     }
     
     
-    Firefighter firefighter = new Firefighter(floorOnFire, LOWEST_FLOOR, HIGHEST_FLOOR, getRandomPassengerSize());
-
-    System.out.println("Building: Floor on Fire: " + floorOnFire);
+    int firefighter = m_passengerFactory.createFirefighter(m_passengerStore, LOWEST_FLOOR, HIGHEST_FLOOR,
+                                                           getRandomPassengerSize());
+    m_passengerStore.setArrivalFrame(firefighter, m_clock.getFrame());
 
-    System.out.println("Building: Everyone is evacuating via the stairs.");
+    log(Log.Level.INFO, "Floor on Fire, everyone is evacuating via the stairs", Log.NONE, floorOnFire,
+        Log.NONE, Log.NONE);
 
-    for (ArrayList<Passenger> plist : m_passengersPerFloor)
-    {
-      plist.clear();
-    }
+    m_waiting.clear();
 
-    m_passengersPerFloor.get(0).add(firefighter);
+    m_waiting.add(0, firefighter);
+    recordPassenger(firefighter, TelemetryWriter.PassengerEvent.ARRIVED, 0);
 
-    System.out.println("Building: Firefighter Request Submitted.");
-    System.out.println("Building: ID: " + firefighter.getID());
+    log(Log.Level.INFO, "Firefighter request submitted", elevator.getID(), 0, m_passengerStore.getID(firefighter),
+        floorOnFire);
 
-    m_elevator.receiveFirefighterRequest(0, floorOnFire);
+    elevator.receiveFirefighterRequest(0, floorOnFire);
 
     // Future endeavor, but for now...
     m_onFire = false;
@@ -442,62 +837,230 @@ public class Building
       // Let elevator drop people off, if it's at a floor, or keep moving if it's not
       elevator.operate();
 
+      int transfer = elevator.takeTransferringPassenger();
+
+      while (PassengerStore.NO_PASSENGER != transfer)
+      {
+        transferPassenger(transfer);
+        transfer = elevator.takeTransferringPassenger();
+      }
+
       // Check if anyone can get on the elevator at this floor
       if (elevator.atFloor())
       {
-        System.out.println("Building: Elevator " + elevator.getID() + " is at a floor: " + elevator.getCurrentFloor());
-        
-        ArrayList<Passenger> passengers = m_passengersPerFloor.get(elevator.getCurrentFloor());
-        
-        System.out.println("Building: Number of passengers on floor " + elevator.getCurrentFloor() + " is: " + passengers.size());
-        
-        for (int i = 0; i < passengers.size(); i++)
+        int floor = elevator.getCurrentFloor();
+
+        Log.log(Log.Level.TRACE, Log.Category.BUILDING, "Elevator is at a floor, passengers waiting",
+                elevator.getID(), floor, Log.NONE, Log.NONE, m_waiting.size(floor), null);
+
+        boardPassengers(elevator, floor);
+      }
+      else 
+      {
+        Log.log(Log.Level.TRACE, Log.Category.BUILDING, "Elevator is between floors", elevator.getID(),
+                Log.NONE, Log.NONE, Log.NONE, Log.NONE, null);
+      }
+    }
+  }
+
+  /**
+   * A passenger got off at a sky lobby, put them back in line on the floor for the next bank.
+   * They are already in the building, so they are let on the floor even if it is full.
+   * @param p - handle of the passenger
+   */
+  private void transferPassenger(int p)
+  {
+    int floor = m_passengerStore.getCurrentFloor(p);
+    int finalDestination = m_passengerStore.getFinalDestinationFloor(p);
+    int bank = m_routingIndex.getBank(floor, finalDestination);
+
+    m_passengerStore.setLegDestinationFloor(p, m_routingIndex.getLegDestination(floor, finalDestination));
+    m_waiting.add(floor, p);
+    m_passengersTransferred++;
+
+    log(Log.Level.DEBUG, "Passenger is changing elevators", Log.NONE, floor, m_passengerStore.getID(p),
+        m_passengerStore.getDestinationFloor(p));
+
+    m_banks.get(bank).receivePassengerRequest(floor, m_passengerStore.getDestinationDirection(p));
+  }
+
+  /**
+   * Let the passengers waiting on the floor of an elevator get on, oldest first, as long as the
+   * doors let them through this frame. Only the lines going a way the elevator will take them are
+   * walked, the passenger at the front of a line gets on in constant time.
+   * @param elevator - an elevator at a floor
+   * @param floor - the floor of the elevator
+   */
+  private void boardPassengers(Elevator elevator, int floor)
+  {
+    // The rest get on next frame, the doors stay open while people are getting on
+    if (false == elevator.canBoardThisFrame())
+    {
+      return;
+    }
+
+    PassengerQueue up = m_waiting.get(floor, Direction.UP);
+    PassengerQueue down = m_waiting.get(floor, Direction.DOWN);
+    int upIndex = 0;
+    int downIndex = 0;
+
+    while (elevator.canBoardThisFrame())
+    {
+      boolean takesUp = upIndex < up.size() && canBoardGoing(elevator, Direction.UP);
+      boolean takesDown = downIndex < down.size() && canBoardGoing(elevator, Direction.DOWN);
+
+      if (false == takesUp && false == takesDown)
+      {
+        break;
+      }
+
+      // When both lines can get on, whoever showed up first goes first
+      boolean fromUp = takesUp && (false == takesDown || up.getSequence(upIndex) < down.getSequence(downIndex));
+      PassengerQueue line = fromUp ? up : down;
+      int index = fromUp ? upIndex : downIndex;
+      int p = line.get(index);
+
+      // Their call was made to another bank, which will come for them
+      if (isWaitingFor(p, elevator))
+      {
+        // Try to accept the passenger
+        if (elevator.acceptPassenger(p))
         {
-          Passenger p = passengers.get(i);
-
-          // if there are passengers waiting on the floor, then they will only try to
-          // board the elevator if it's going in the same direction 
-          // or if the elevator is not yet going anywhere 
-          // or if there are no passengers on board 
-          // or if the elevator reached its destination, then it's not just moving along.
-          if (p.getDestinationDirection() == elevator.getCurrentDirection() ||
-              Direction.IDLE == elevator.getCurrentDirection() ||
-              false == elevator.hasPassengers() ||
-              true == elevator.atTargetFloor())
-          {
-            // Try to accept the passenger
-            if (elevator.acceptPassenger(p))
-            {
-              System.out.println("Building: Passenger " + p.getID() + " left floor " + elevator.getCurrentFloor());
-              passengers.remove(i);
-              i--;
-            }
-            else 
-            {
-              // The passenger could not fit on the elevator
-              System.out.println("Building: Passenger " + p.getID() + " could not fit on the elevator.");
-              System.out.println("Building: Passenger resubmitted request.");
-              System.out.println("Building: ID: " + p.getID() + " Request Floor: " + p.getOriginFloor() + " Destination Floor: " + p.getDestinationFloor());
-          
-              elevator.receivePassengerRequest(p.getOriginFloor());
-            }
-          }
-          else 
-          {
-            // Passenger requests this floor again, but for the opposite direction
-            System.out.println("Building: Passenger " + p.getID() + " did not get on the elevator because it was going the wrong direction.");
-            System.out.println("Building: Passenger resubmitted request.");
-            System.out.println("Building: ID: " + p.getID() + " Request Floor: " + p.getOriginFloor() + " Destination Floor: " + p.getDestinationFloor());
-        
-            elevator.receivePassengerRequest(p.getOriginFloor());
-          }
+          log(Log.Level.DEBUG, "Passenger left floor", elevator.getID(), floor, m_passengerStore.getID(p),
+              m_passengerStore.getDestinationFloor(p));
+          m_passengersBoarded++;
+          line.remove(index);
+          continue;
+        }
+        else if (resubmitRequest(p, elevator))
+        {
+          // The passenger could not fit on the elevator, and its doors answered their call
+          log(Log.Level.DEBUG, "Passenger could not fit on the elevator, resubmitted request",
+              elevator.getID(), floor, m_passengerStore.getID(p), m_passengerStore.getDestinationFloor(p));
         }
       }
-      else 
+
+      if (fromUp)
+      {
+        upIndex++;
+      }
+      else
       {
-        System.out.println("Building: Elevator " + elevator.getID() + " is between floors.");
+        downIndex++;
       }
     }
+
+    resubmitLine(elevator, floor, Direction.UP);
+    resubmitLine(elevator, floor, Direction.DOWN);
+  }
+
+  /**
+   * A Macro to make sure the call of a line that won't get on an elevator going the wrong
+   * direction is set. They all share the call, so only the first one waiting for it asks.
+   * @param elevator
+   * @param floor
+   * @param direction - the way the line is going
+   */
+  private void resubmitLine(Elevator elevator, int floor, Direction direction)
+  {
+    if (canBoardGoing(elevator, direction))
+    {
+      return;
+    }
+
+    PassengerQueue line = m_waiting.get(floor, direction);
+
+    for (int i = 0; i < line.size(); i++)
+    {
+      int p = line.get(i);
+
+      if (false == isWaitingFor(p, elevator))
+      {
+        continue;
+      }
+
+      if (resubmitRequest(p, elevator))
+      {
+        // Their call for the opposite direction is normally still set, nothing to do then
+        log(Log.Level.TRACE, "Passenger did not get on the elevator going the wrong direction, resubmitted request",
+            elevator.getID(), floor, m_passengerStore.getID(p), m_passengerStore.getDestinationFloor(p));
+      }
+
+      return;
+    }
+  }
+
+  /**
+   * A Macro to check if passengers going a direction would get on an elevator. They only board
+   * an elevator going the same direction, one that is not yet going anywhere, one with no
+   * passengers on board or one that reached its target, then it's not just moving along.
+   * @param elevator
+   * @param direction
+   * @return boolean
+   */
+  private boolean canBoardGoing(Elevator elevator, Direction direction)
+  {
+    return direction == elevator.getCurrentDirection() ||
+           Direction.IDLE == elevator.getCurrentDirection() ||
+           false == elevator.hasPassengers() ||
+           elevator.atTargetFloor();
+  }
+
+  /**
+   * A Macro to check if anyone in a line on the floor of an elevator waits for it
+   * @param elevator - an elevator at a floor
+   * @param direction - the way the line is going
+   * @return boolean
+   */
+  private boolean isAnyoneWaitingFor(Elevator elevator, Direction direction)
+  {
+    PassengerQueue line = m_waiting.get(elevator.getCurrentFloor(), direction);
+
+    for (int i = 0; i < line.size(); i++)
+    {
+      if (isWaitingFor(line.get(i), elevator))
+      {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * A Macro to check if a passenger waits for this elevator, i.e. it is in the bank that takes
+   * the next leg of their journey. Passengers with no route, e.g. staff, try every elevator.
+   * @param p - handle of the passenger
+   * @param elevator
+   * @return boolean
+   */
+  private boolean isWaitingFor(int p, Elevator elevator)
+  {
+    int bank = m_routingIndex.getBank(m_passengerStore.getCurrentFloor(p),
+                                      m_passengerStore.getFinalDestinationFloor(p));
+
+    return RoutingIndex.NO_ROUTE == bank || m_banks.get(bank).contains(elevator);
+  }
+
+  /**
+   * A Macro to make sure the call of a passenger that didn't get on is set, with the bank they
+   * wait for. Only a state check while the call is still set.
+   * @param p - handle of the passenger
+   * @param elevator - the elevator they didn't get on
+   * @return boolean - true if the call had to be set again
+   */
+  private boolean resubmitRequest(int p, Elevator elevator)
+  {
+    int floor = m_passengerStore.getCurrentFloor(p);
+    Direction direction = m_passengerStore.getDestinationDirection(p);
+    int bank = m_routingIndex.getBank(floor, m_passengerStore.getFinalDestinationFloor(p));
+
+    if (RoutingIndex.NO_ROUTE == bank)
+    {
+      return elevator.receivePassengerRequest(floor, direction);
+    }
+
+    return m_banks.get(bank).receivePassengerRequest(floor, direction);
   }
 
   /**
@@ -507,7 +1070,12 @@ public class Building
    */
   private void updateCurrentEvent()
   {
-    if (USE_CUSTOM_EVENTS)
+    if (null != m_scenario)
+    {
+      // The scenario has every event, see handleScenario()
+      m_currentEvent = EventController.EventType.IDLE;
+    }
+    else if (USE_CUSTOM_EVENTS)
     {
       m_currentEvent = m_eventController.getNextCustomEvent();
     }
@@ -517,6 +1085,458 @@ public class Building
     }
   }
 
+  /**
+   * Count how many of the upcoming frames would be quiet for this building, meaning that
+   * operate() would only count frames. A frame is quiet when the event is IDLE and every 
+   * elevator is quiet, with no one waiting on the floor of an elevator that has stopped.
+   * @return long - number of quiet frames, Long.MAX_VALUE if nothing will ever happen
+   * @see DiscreteEventEngine
+   */
+  long framesUntilNextEvent()
+  {
+    // Requests from other threads are taken by the next frame operated
+    if (m_inbox.hasNext())
+    {
+      return 0;
+    }
+
+    if (EventController.EventType.IDLE != m_currentEvent)
+    {
+      return 0;
+    }
+
+    long quiet;
+
+    if (null != m_scenario)
+    {
+      // The scenario has every event, NO_ENTRY is Long.MAX_VALUE as well
+      quiet = m_scenario.framesUntilNextEntry();
+    }
+    else 
+    {
+      long upcomingIdle = m_eventController.countUpcomingIdleEvents(USE_CUSTOM_EVENTS);
+      quiet = (Long.MAX_VALUE == upcomingIdle) ? Long.MAX_VALUE : upcomingIdle + 1;
+    }
+
+    // Passengers from an arrival profile show up next to those of a scenario, or random events
+    if (null != m_arrivalProcess)
+    {
+      // NO_ARRIVAL is Long.MAX_VALUE as well
+      quiet = Math.min(quiet, m_arrivalProcess.framesUntilNextArrival());
+    }
+
+    return quiet;
+  }
+
+  /**
+   * @param elevator
+   * @return long - number of quiet frames for the elevator
+   * @see framesUntilNextEvent
+   */
+  long framesUntilElevatorChange(Elevator elevator)
+  {
+    if (elevator.atFloor())
+    {
+      // Passengers waiting for another bank don't change anything
+      if (isAnyoneWaitingFor(elevator, Direction.UP) || isAnyoneWaitingFor(elevator, Direction.DOWN))
+      {
+        return 0;
+      }
+    }
+
+    return elevator.quietFrames();
+  }
+
+  /**
+   * Jump over quiet frames, leaving the building in the same state as if operate() had been 
+   * called once per frame.
+   * @param frames long - must not be more than any of the quiet frame counts
+   */
+  void skipQuietFrames(long frames)
+  {
+    if (frames <= 0)
+    {
+      return;
+    }
+
+    for (Elevator elevator : m_elevators)
+    {
+      elevator.skipQuietFrames(frames);
+    }
+
+    // Every skipped frame would have rolled an IDLE event for the next one, 
+    // the last roll decides the event of the next frame. A scenario rolls nothing.
+    if (null == m_scenario)
+    {
+      m_eventController.skipIdleEvents(frames - 1, USE_CUSTOM_EVENTS);
+      updateCurrentEvent();
+    }
+
+    m_clock.advance(frames);
+  }
+
+  /**
+   * Record what the cars and passengers do from this frame on, e.g. for analysis after the run.
+   * The state of every car is recorded right away, and again whenever it changes. The building
+   * does not close the telemetry, whoever opened it does.
+   * @param telemetry - where it is recorded, null to stop recording
+   * @see TelemetryWriter
+   */
+  public void setTelemetry(TelemetryWriter telemetry)
+  {
+    m_telemetry = telemetry;
+
+    for (Elevator elevator : m_elevators)
+    {
+      elevator.attachTelemetry(telemetry);
+    }
+
+    recordCars();
+  }
+
+  /**
+   * A Macro to record the state of every car, the telemetry only keeps the ones that changed
+   */
+  private void recordCars()
+  {
+    if (null == m_telemetry)
+    {
+      return;
+    }
+
+    long frame = m_clock.getFrame();
+
+    for (int i = 0; i < m_elevators.size(); i++)
+    {
+      Elevator elevator = m_elevators.get(i);
+      m_telemetry.recordCar(frame, i, elevator.getCurrentFloor(), elevator.getCurrentDirection(),
+                            false == elevator.atFloor(), elevator.remainingSpace());
+    }
+  }
+
+  /**
+   * A Macro to record a step of the journey of a passenger that is not on an elevator
+   * @param p - handle of the passenger
+   * @param event
+   * @param floor
+   */
+  private void recordPassenger(int p, TelemetryWriter.PassengerEvent event, int floor)
+  {
+    if (null != m_telemetry)
+    {
+      m_telemetry.recordPassenger(m_clock.getFrame(), m_passengerStore.getID(p), event, floor,
+                                  TelemetryWriter.NO_ELEVATOR);
+    }
+  }
+
+  /**
+   * @return ArrayList<Elevator> - the elevators of the building
+   */
+  ArrayList<Elevator> getElevators()
+  {
+    return m_elevators;
+  }
+
+  /**
+   * Write the whole state of the building to a channel, e.g. a file, so the run can be resumed
+   * later or many runs forked from it, see loadCheckpoint(). That is where every elevator, hall
+   * call, passenger and line is, how far along the events, arrivals and scenario are, the state of
+   * every stream of random values and the metrics so far. The configuration is not written, only a
+   * fingerprint of it.
+   * @param channel - where the checkpoint is written, it is left open
+   * @throws UncheckedIOException if the channel cannot be written
+   * @see CheckpointWriter
+   */
+  public void saveCheckpoint(WritableByteChannel channel)
+  {
+    CheckpointWriter out = new CheckpointWriter(channel);
+    long[] fingerprint = getCheckpointFingerprint();
+
+    out.writeInt(CHECKPOINT_MAGIC);
+    out.writeInt(CHECKPOINT_VERSION);
+    out.writeInt(fingerprint.length);
+    out.writeLongs(fingerprint, fingerprint.length);
+
+    m_clock.writeCheckpoint(out);
+    m_rng.writeCheckpoint(out);
+    m_eventRandom.writeCheckpoint(out);
+    m_passengerRandom.writeCheckpoint(out);
+    m_eventController.writeCheckpoint(out);
+
+    if (null != m_arrivalProcess)
+    {
+      m_arrivalRandom.writeCheckpoint(out);
+      m_arrivalProcess.writeCheckpoint(out);
+    }
+
+    if (null != m_scenario)
+    {
+      m_scenario.writeCheckpoint(out);
+    }
+
+    out.writeEnum(m_currentEvent);
+    out.writeBoolean(m_onFire);
+    out.writeInt(m_customPassengerIndex);
+    out.writeLong(m_passengersSpawned);
+    out.writeLong(m_passengersTurnedAway);
+    out.writeLong(m_passengersBoarded);
+    out.writeLong(m_passengersTransferred);
+
+    m_passengerFactory.writeCheckpoint(out);
+    m_passengerStore.writeCheckpoint(out);
+    m_waiting.writeCheckpoint(out);
+
+    for (ElevatorBank bank : m_banks)
+    {
+      bank.getHallCalls().writeCheckpoint(out);
+    }
+
+    for (Elevator elevator : m_elevators)
+    {
+      elevator.writeCheckpoint(out);
+    }
+
+    m_demandForecast.writeCheckpoint(out);
+    m_journeyMetrics.writeCheckpoint(out);
+
+    out.flush();
+  }
+
+  /**
+   * Continue from a checkpoint written by saveCheckpoint(), replacing the whole state of this
+   * building. The building has to be created from the same configuration as the one that was
+   * saved, and not have run past it if it reads a scenario. From here on it runs bit for bit the
+   * same as the saved building would have, with operate() or a DiscreteEventEngine.
+   *
+   * Any number of buildings can load the same checkpoint, each from its own channel, at the same
+   * time, e.g. to fork many experiments from one warmed up building. The dispatch strategy and
+   * whether idle elevators park are not part of the state, so a fork may change them.
+   * @param channel - where the checkpoint is read from, it is left open
+   * @throws IllegalArgumentException if the checkpoint is not of a building of this configuration,
+   *                                  or is invalid. The building must not be used after that.
+   * @throws UncheckedIOException if the channel cannot be read
+   * @see CheckpointReader
+   */
+  public void loadCheckpoint(ReadableByteChannel channel)
+  {
+    CheckpointReader in = new CheckpointReader(channel);
+
+    if (CHECKPOINT_MAGIC != in.readInt() || CHECKPOINT_VERSION != in.readInt())
+    {
+      throw new IllegalArgumentException("Checkpoint is invalid.");
+    }
+
+    long[] expected = getCheckpointFingerprint();
+    long[] fingerprint = new long[in.readCount(expected.length)];
+    in.readLongs(fingerprint, fingerprint.length);
+
+    if (false == Arrays.equals(expected, fingerprint))
+    {
+      throw new IllegalArgumentException("Checkpoint is of a building with another configuration.");
+    }
+
+    m_clock.readCheckpoint(in);
+    m_rng.readCheckpoint(in);
+    m_eventRandom.readCheckpoint(in);
+    m_passengerRandom.readCheckpoint(in);
+    m_eventController.readCheckpoint(in);
+
+    if (null != m_arrivalProcess)
+    {
+      m_arrivalRandom.readCheckpoint(in);
+      m_arrivalProcess.readCheckpoint(in);
+    }
+
+    if (null != m_scenario)
+    {
+      m_scenario.readCheckpoint(in);
+    }
+
+    m_currentEvent = in.readEnum(EventController.EventType.values());
+    m_onFire = in.readBoolean();
+    m_customPassengerIndex = in.readCount(CUSTOM_PASSENGERS.size());
+    m_passengersSpawned = in.readLong();
+    m_passengersTurnedAway = in.readLong();
+    m_passengersBoarded = in.readLong();
+    m_passengersTransferred = in.readLong();
+
+    m_passengerFactory.readCheckpoint(in);
+    m_passengerStore.readCheckpoint(in);
+    m_waiting.readCheckpoint(in);
+
+    for (ElevatorBank bank : m_banks)
+    {
+      bank.getHallCalls().readCheckpoint(in);
+    }
+
+    for (Elevator elevator : m_elevators)
+    {
+      elevator.readCheckpoint(in);
+    }
+
+    m_demandForecast.readCheckpoint(in);
+    m_journeyMetrics.readCheckpoint(in);
+  }
+
+  /**
+   * A Macro to sum up the configuration a checkpoint can only be loaded into, i.e. everything that
+   * decides the size or meaning of its values
+   * @return long[]
+   */
+  private long[] getCheckpointFingerprint()
+  {
+    long[] fingerprint = new long[8 + 3 * m_elevators.size()];
+    int i = 0;
+
+    fingerprint[i++] = LOWEST_FLOOR;
+    fingerprint[i++] = HIGHEST_FLOOR;
+    fingerprint[i++] = m_seed;
+    fingerprint[i++] = m_banks.size();
+    fingerprint[i++] = (null == m_arrivalProcess) ? 0 : 1;
+    fingerprint[i++] = (null == m_scenario) ? 0 : 1;
+    fingerprint[i++] = CUSTOM_PASSENGERS.size();
+    fingerprint[i++] = m_elevators.size();
+
+    for (Elevator elevator : m_elevators)
+    {
+      fingerprint[i++] = elevator.getID();
+      fingerprint[i++] = elevator.getLowestFloor();
+      fingerprint[i++] = elevator.getHighestFloor();
+    }
+
+    return fingerprint;
+  }
+
+  /**
+   * Take a snapshot of the key performance indicators of this building
+   * @return BuildingKpis
+   * @see BuildingKpis
+   */
+  public BuildingKpis getKpis()
+  {
+    long waiting = m_waiting.size();
+    long riding = 0;
+    long delivered = 0;
+    long floorsTraveled = 0;
+
+    for (Elevator e : m_elevators)
+    {
+      riding += e.getPassengerCount();
+      delivered += e.getPassengersDelivered();
+      floorsTraveled += e.getFloorsTraveled();
+    }
+
+    return new BuildingKpis(m_clock.getFrame(), m_passengersSpawned, m_passengersTurnedAway, 
+                            m_passengersBoarded, delivered, m_passengersTransferred, waiting, 
+                            riding, floorsTraveled,
+                            m_journeyMetrics.getHistogram(JourneyMetrics.Leg.WAIT)
+                                            .getValueAtPercentile(90),
+                            m_journeyMetrics.getHistogram(JourneyMetrics.Leg.TO_DESTINATION)
+                                            .getValueAtPercentile(90));
+  }
+
+  /**
+   * Where other threads offer hall calls and badges, the one part of the building that is thread
+   * safe. What is in it is not part of a checkpoint.
+   * @return HallCallInbox
+   */
+  public HallCallInbox getInbox()
+  {
+    return m_inbox;
+  }
+
+  /**
+   * Only read from the thread running the building
+   * @return LatencyHistogram - microseconds from a request being offered to the inbox until its
+   * call was placed
+   */
+  public LatencyHistogram getInboxLatency()
+  {
+    return m_inboxLatency;
+  }
+
+  /**
+   * @return JourneyMetrics - wait, ride and time to destination of every passenger delivered so far
+   */
+  public JourneyMetrics getJourneyMetrics()
+  {
+    return m_journeyMetrics;
+  }
+
+  /**
+   * @return ArrayList<ElevatorBank> - the banks of the building, in the order they were created
+   */
+  public ArrayList<ElevatorBank> getBanks()
+  {
+    return m_banks;
+  }
+
+  /**
+   * @return DemandForecast - the passengers expected on every floor by the time of day
+   */
+  public DemandForecast getDemandForecast()
+  {
+    return m_demandForecast;
+  }
+
+  /**
+   * @return RoutingIndex - the way from every floor to every other floor
+   */
+  public RoutingIndex getRoutingIndex()
+  {
+    return m_routingIndex;
+  }
+
+  /**
+   * @return long - root seed of every random value of this building
+   */
+  public long getSeed()
+  {
+    return m_seed;
+  }
+
+  /**
+   * @return Dispatcher.Strategy - how the elevators of this building pick calls and stops
+   */
+  public Dispatcher.Strategy getDispatchStrategy()
+  {
+    return DISPATCH_STRATEGY;
+  }
+
+  /**
+   * @return long - number of frames this building has operated
+   */
+  public long getTicks()
+  {
+    return m_clock.getFrame();
+  }
+
+  /**
+   * A Macro to log a record about the building
+   * @param level
+   * @param message - constant text of the record
+   */
+  private void log(Log.Level level, String message)
+  {
+    Log.log(level, Log.Category.BUILDING, message);
+  }
+
+  /**
+   * A Macro to log a record about a passenger or elevator of the building
+   * @param level
+   * @param message - constant text of the record
+   * @param elevatorID int - Log.NONE if there is no elevator
+   * @param floor int - Log.NONE if there is no floor
+   * @param passengerID int - Log.NONE if there is no passenger
+   * @param target int - floor being headed to, Log.NONE if there is none
+   */
+  private void log(Log.Level level, String message, int elevatorID, int floor, int passengerID,
+                   int target)
+  {
+    Log.log(level, Log.Category.BUILDING, message, elevatorID, floor, passengerID, target,
+            Log.NONE, null);
+  }
+
   /**
    * @return int - a random floor value within the bounds of
    *             LOWEST_FLOOR and HIGHEST_FLOOR
@@ -526,25 +1546,32 @@ public class Building
     return m_rng.nextInt(LOWEST_FLOOR, HIGHEST_FLOOR);
   }
 
-  private Civilian getNextCivilian()
+  /**
+   * @return int - handle of the next civilian to show up, PassengerStore.NO_PASSENGER if
+   *               the custom passengers have run out
+   */
+  private int getNextCivilian()
   {
     if (USE_CUSTOM_PASSENGERS)
     {
       if (m_customPassengerIndex >= CUSTOM_PASSENGERS.size())
       {
-        return null;
+        return PassengerStore.NO_PASSENGER;
       }
 
-      return CUSTOM_PASSENGERS.get(m_customPassengerIndex++);
+      Civilian civ = m_passengerFactory.createCivilian(CUSTOM_PASSENGERS.get(m_customPassengerIndex++));
+
+      return m_passengerStore.add(civ);
     }
 
     return getRandomCivilian();
   }
 
-  private Civilian getRandomCivilian()
+  private int getRandomCivilian()
   {
     int originFloor = getRandomFloor();
-    return new Civilian(originFloor, LOWEST_FLOOR, HIGHEST_FLOOR, getRandomPassengerSize());
+    return m_passengerFactory.createCivilian(m_passengerStore, originFloor, LOWEST_FLOOR, HIGHEST_FLOOR,
+                                             getRandomPassengerSize());
   }
 
   private int getRandomPassengerSize()
@@ -565,7 +1592,7 @@ public class Building
       return false;
     }
 
-    if (m_passengersPerFloor.get(floor).size() < MAX_NUM_PASSENGERS_PER_FLOOR)
+    if (m_waiting.size(floor) < MAX_NUM_PASSENGERS_PER_FLOOR)
     {
       return true;
     }
@@ -0,0 +1,343 @@
+package com.maxruiz.structures;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationClock;
+
+/**
+ * This class forecasts how many passengers will arrive on each floor of a building, going UP or
+ * DOWN, by the time of day. Every arrival is counted as it happens, so the forecast is always up
+ * to date without going over the history again.
+ *
+ * The day is split into bins, 15 minutes by default. When a bin is over, the arrivals counted in
+ * it are folded into an exponentially weighted average of the same bin on the days before, so a
+ * morning up-peak seen on previous days is expected again the next morning. Until a bin has been
+ * seen on a previous day, the forecast falls back to the recent arrivals, counted with weights
+ * that decay by half over a bin.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @see ParkingPolicy
+ * @author Max Ruiz
+ */
+public class DemandForecast
+{
+  public static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+  public static final long DEFAULT_BIN_MILLIS = 15L * 60L * 1000L;
+  public static final double DEFAULT_DAILY_WEIGHT = 0.3;
+
+  private static final int SLOTS_PER_FLOOR = 2;
+  // The recent counts are rescaled before their weights overflow
+  private static final double MAX_RECENT_WEIGHT = 1e100;
+
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+  private final long FRAME_MILLIS;
+  private final long START_MILLIS;
+  private final long BIN_MILLIS;
+  private final int BINS_PER_DAY;
+  private final double DAILY_WEIGHT;
+
+  private final SimulationClock m_clock;
+
+  // Indexed by bin * slots + 2 * (floor - LOWEST_FLOOR) + direction
+  private final double[] m_daily;
+  private final int[] m_daysSeen;
+  private final int[] m_binCounts;
+  private long m_currentBin;
+
+  // Weighted by e^(age / decay frames) since m_recentEpoch, only their ratios matter
+  private final double[] m_recent;
+  private final double m_recentDecayFrames;
+  private long m_recentEpoch = 0;
+
+  /**
+   * Constructor for DemandForecast with bins of DEFAULT_BIN_MILLIS
+   * @param lowestFloor
+   * @param highestFloor
+   * @param clock - the clock of the building
+   * @param frameMillis long - simulated time of a frame
+   * @param startMillis long - time of day of the first frame, in milliseconds after midnight
+   * @throws IllegalArgumentException if the floors are equal or crossed, or a time is invalid
+   */
+  public DemandForecast(int lowestFloor, int highestFloor, SimulationClock clock, long frameMillis,
+                        long startMillis)
+  {
+    this(lowestFloor, highestFloor, clock, frameMillis, startMillis, DEFAULT_BIN_MILLIS,
+         DEFAULT_DAILY_WEIGHT);
+  }
+
+  /**
+   * Constructor for DemandForecast
+   * @param lowestFloor
+   * @param highestFloor
+   * @param clock - the clock of the building
+   * @param frameMillis long - simulated time of a frame
+   * @param startMillis long - time of day of the first frame, in milliseconds after midnight
+   * @param binMillis long - length of a bin, must divide a day
+   * @param dailyWeight double - weight of the newest day in the average of a bin, from 0 to 1
+   * @throws IllegalArgumentException if the floors are equal or crossed, or a value is invalid
+   */
+  public DemandForecast(int lowestFloor, int highestFloor, SimulationClock clock, long frameMillis,
+                        long startMillis, long binMillis, double dailyWeight)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    if (null == clock)
+    {
+      throw new IllegalArgumentException("clock is invalid.");
+    }
+
+    if (frameMillis <= 0)
+    {
+      throw new IllegalArgumentException("frameMillis is invalid.");
+    }
+
+    if (startMillis < 0 || startMillis >= MILLIS_PER_DAY)
+    {
+      throw new IllegalArgumentException("startMillis is invalid.");
+    }
+
+    if (binMillis <= 0 || 0 != MILLIS_PER_DAY % binMillis)
+    {
+      throw new IllegalArgumentException("binMillis is invalid.");
+    }
+
+    if (dailyWeight <= 0.0 || dailyWeight > 1.0)
+    {
+      throw new IllegalArgumentException("dailyWeight is invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+    FRAME_MILLIS = frameMillis;
+    START_MILLIS = startMillis;
+    BIN_MILLIS = binMillis;
+    BINS_PER_DAY = (int)(MILLIS_PER_DAY / binMillis);
+    DAILY_WEIGHT = dailyWeight;
+    m_clock = clock;
+
+    int slots = (HIGHEST_FLOOR - LOWEST_FLOOR + 1) * SLOTS_PER_FLOOR;
+
+    m_daily = new double[BINS_PER_DAY * slots];
+    m_daysSeen = new int[BINS_PER_DAY];
+    m_binCounts = new int[slots];
+    m_recent = new double[slots];
+    m_recentDecayFrames = Math.max(1.0, BIN_MILLIS / (double)FRAME_MILLIS / Math.log(2.0));
+    m_currentBin = binAt(m_clock.getFrame());
+  }
+
+  /**
+   * Count a passenger that arrived on a floor, now
+   * @param floor
+   * @param direction Direction - UP or DOWN, the way the passenger is going
+   * @throws IllegalArgumentException if the floor is not in the building or direction is IDLE
+   */
+  public void observe(int floor, Direction direction)
+  {
+    int slot = slotOf(floor, direction);
+    long frame = m_clock.getFrame();
+
+    rollOver(frame);
+
+    m_binCounts[slot]++;
+
+    double weight = Math.exp((frame - m_recentEpoch) / m_recentDecayFrames);
+
+    if (weight > MAX_RECENT_WEIGHT)
+    {
+      for (int i = 0; i < m_recent.length; i++)
+      {
+        m_recent[i] /= weight;
+      }
+
+      m_recentEpoch = frame;
+      weight = 1.0;
+    }
+
+    m_recent[slot] += weight;
+  }
+
+  /**
+   * Forecast the arrivals on every floor from lowestFloor to highestFloor over the rest of the
+   * current bin and the next one. The forecast of the previous days is used when both bins have
+   * been seen before, otherwise the recent arrivals are.
+   * @param lowestFloor
+   * @param highestFloor
+   * @param weights double[] - filled with one weight per floor, lowestFloor first, both
+   *                           directions added up. Only their ratios are meaningful.
+   * @return double - the sum of the weights, 0 if no passenger is expected
+   */
+  public double forecastFloors(int lowestFloor, int highestFloor, double[] weights)
+  {
+    rollOver(m_clock.getFrame());
+
+    int bin = (int)(m_currentBin % BINS_PER_DAY);
+    int nextBin = (bin + 1) % BINS_PER_DAY;
+    boolean daily = m_daysSeen[bin] > 0 && m_daysSeen[nextBin] > 0;
+    double total = 0.0;
+
+    for (int floor = lowestFloor; floor <= highestFloor; floor++)
+    {
+      double weight = 0.0;
+
+      for (int direction = 0; direction < SLOTS_PER_FLOOR; direction++)
+      {
+        int slot = (floor - LOWEST_FLOOR) * SLOTS_PER_FLOOR + direction;
+
+        weight += daily ? m_daily[bin * m_recent.length + slot] + m_daily[nextBin * m_recent.length + slot]
+                        : m_recent[slot];
+      }
+
+      weights[floor - lowestFloor] = weight;
+      total += weight;
+    }
+
+    return total;
+  }
+
+  /**
+   * @param floor
+   * @param direction Direction - UP or DOWN
+   * @return double - forecast arrivals during the current bin of the day, from the previous days,
+   *                  0 until the bin has been seen on a previous day
+   */
+  public double getDailyForecast(int floor, Direction direction)
+  {
+    rollOver(m_clock.getFrame());
+
+    int bin = (int)(m_currentBin % BINS_PER_DAY);
+
+    return m_daily[bin * m_recent.length + slotOf(floor, direction)];
+  }
+
+  /**
+   * @return long - number of frames until the next bin starts, when forecastFloors() can change
+   *                without any new arrival
+   */
+  public long framesUntilNextBin()
+  {
+    long nowMillis = millisAt(m_clock.getFrame());
+    long nextBinMillis = (nowMillis / BIN_MILLIS + 1) * BIN_MILLIS;
+
+    return (nextBinMillis - nowMillis + FRAME_MILLIS - 1) / FRAME_MILLIS;
+  }
+
+  /**
+   * @return int - bin of the day of the current frame, from 0 at midnight
+   */
+  public int getBinOfDay()
+  {
+    return (int)(binAt(m_clock.getFrame()) % BINS_PER_DAY);
+  }
+
+  public int getBinsPerDay() {
+    return BINS_PER_DAY;
+  }
+
+  /**
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeDoubles(m_daily, m_daily.length);
+    out.writeInts(m_daysSeen, m_daysSeen.length);
+    out.writeInts(m_binCounts, m_binCounts.length);
+    out.writeLong(m_currentBin);
+    out.writeDoubles(m_recent, m_recent.length);
+    out.writeLong(m_recentEpoch);
+  }
+
+  /**
+   * Replace everything observed with what was written by writeCheckpoint(), for the same floors
+   * and bins
+   * @param in - where the state is read from
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    in.readDoubles(m_daily, m_daily.length);
+    in.readInts(m_daysSeen, m_daysSeen.length);
+    in.readInts(m_binCounts, m_binCounts.length);
+    m_currentBin = in.readLong();
+    in.readDoubles(m_recent, m_recent.length);
+    m_recentEpoch = in.readLong();
+  }
+
+  /**
+   * Fold the counts of every bin that ended before the frame into the forecast of its time of
+   * day. Bins with no arrivals are folded in as well, as empty.
+   * @param frame long
+   */
+  private void rollOver(long frame)
+  {
+    long bin = binAt(frame);
+
+    if (bin == m_currentBin)
+    {
+      return;
+    }
+
+    // After a whole day without arrivals, every bin has been folded in at least once
+    long folds = Math.min(bin - m_currentBin, BINS_PER_DAY);
+
+    for (long i = 0; i < folds; i++)
+    {
+      int dayBin = (int)((m_currentBin + i) % BINS_PER_DAY);
+      int offset = dayBin * m_recent.length;
+
+      for (int slot = 0; slot < m_binCounts.length; slot++)
+      {
+        double count = m_binCounts[slot];
+        m_daily[offset + slot] = (0 == m_daysSeen[dayBin]) ? count
+                                 : m_daily[offset + slot] + DAILY_WEIGHT * (count - m_daily[offset + slot]);
+        m_binCounts[slot] = 0;
+      }
+
+      m_daysSeen[dayBin]++;
+    }
+
+    m_currentBin = bin;
+  }
+
+  /**
+   * @param frame
+   * @return long - milliseconds since midnight of the first day
+   */
+  private long millisAt(long frame)
+  {
+    return START_MILLIS + frame * FRAME_MILLIS;
+  }
+
+  /**
+   * @param frame
+   * @return long - bins since midnight of the first day
+   */
+  private long binAt(long frame)
+  {
+    return millisAt(frame) / BIN_MILLIS;
+  }
+
+  /**
+   * @param floor
+   * @param direction
+   * @return int - index of the floor and direction in the counts
+   * @throws IllegalArgumentException if the floor is not in the building or direction is IDLE
+   */
+  private int slotOf(int floor, Direction direction)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("Floor is invalid.");
+    }
+
+    if (Direction.UP != direction && Direction.DOWN != direction)
+    {
+      throw new IllegalArgumentException("Direction is invalid.");
+    }
+
+    return (floor - LOWEST_FLOOR) * SLOTS_PER_FLOOR + direction.Value;
+  }
+}
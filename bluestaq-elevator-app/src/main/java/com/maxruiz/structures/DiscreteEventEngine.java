@@ -0,0 +1,183 @@
+package com.maxruiz.structures;
+
+import java.util.ArrayList;
+
+import com.maxruiz.logging.Log;
+
+/**
+ * This class runs a Building by jumping from one state change to the next instead of stepping
+ * through every frame. Between state changes an elevator is only counting frames (moving between
+ * floors, holding its doors open or idling) and the building rolls IDLE events, so those frames
+ * can be skipped in one step.
+ *
+ * The next door-close or floor-arrival of every elevator, and the next building event, are worked
+ * out again after every frame that is run, since that frame operated every elevator. The clock
+ * jumps straight to the earliest of them, found with one pass over the elevators, which is then run
+ * as a regular frame through Building.operate(). The result is the same as calling
+ * Building.operate() once per frame, seed for seed.
+ *
+ * This class is NOT thread safe, the same as the Building it runs.
+ * @see Building
+ * @author Max Ruiz
+ */
+public class DiscreteEventEngine
+{
+  /**
+   * What the building is waiting on when a change is scheduled
+   */
+  public enum ChangeType
+  {
+    BUILDING_EVENT,
+    FLOOR_ARRIVAL,
+    DOOR_CLOSE,
+    ELEVATOR_ACTIVITY,
+    SIZE
+  }
+
+  /**
+   * A change scheduled for some frame. One of these is kept for each elevator plus one for
+   * the building events, and they are re-used every step.
+   */
+  private static class ScheduledChange
+  {
+    long m_frame;
+    ChangeType m_type;
+    int m_elevatorID;
+  }
+
+  private final Building m_building;
+  private final ScheduledChange m_eventChange = new ScheduledChange();
+  private final ScheduledChange[] m_elevatorChanges;
+
+  private long m_framesSkipped = 0;
+  private long m_framesOperated = 0;
+
+  /**
+   * Constructor for DiscreteEventEngine that will run the provided building
+   * @param building
+   */
+  public DiscreteEventEngine(Building building)
+  {
+    m_building = building;
+
+    m_eventChange.m_type = ChangeType.BUILDING_EVENT;
+    m_eventChange.m_elevatorID = -1;
+
+    ArrayList<Elevator> elevators = m_building.getElevators();
+    m_elevatorChanges = new ScheduledChange[elevators.size()];
+
+    for (int i = 0; i < m_elevatorChanges.length; i++)
+    {
+      m_elevatorChanges[i] = new ScheduledChange();
+      m_elevatorChanges[i].m_elevatorID = elevators.get(i).getID();
+    }
+  }
+
+  /**
+   * Run the building until it has operated tickLimit frames
+   * @param tickLimit long - frame count of the building to stop at
+   */
+  public void run(long tickLimit)
+  {
+    while (m_building.getTicks() < tickLimit)
+    {
+      step(tickLimit);
+    }
+  }
+
+  /**
+   * Jump the clock to the next scheduled change and run that frame, without going past tickLimit.
+   * @param tickLimit long - frame count of the building to stop at
+   */
+  public void step(long tickLimit)
+  {
+    long now = m_building.getTicks();
+
+    if (now >= tickLimit)
+    {
+      return;
+    }
+
+    ScheduledChange next = scheduleChanges(now);
+
+    long quietFrames = Math.min(next.m_frame - now, tickLimit - now);
+
+    if (quietFrames > 0)
+    {
+      Log.log(Log.Level.DEBUG, Log.Category.ENGINE, "Skipping quiet frames until the next change",
+              next.m_elevatorID >= 0 ? next.m_elevatorID : Log.NONE, Log.NONE, Log.NONE,
+              Log.NONE, quietFrames, next.m_type.name());
+
+      m_building.skipQuietFrames(quietFrames);
+      m_framesSkipped += quietFrames;
+    }
+
+    if (m_building.getTicks() < tickLimit)
+    {
+      m_building.operate();
+      m_framesOperated++;
+    }
+  }
+
+  /**
+   * Every elevator is operated in every frame that is run, so the change of every elevator is
+   * worked out again from the current state of the building.
+   * @param now long - the current frame of the building
+   * @return ScheduledChange - the earliest change, the building event on a tie
+   */
+  private ScheduledChange scheduleChanges(long now)
+  {
+    m_eventChange.m_frame = addFrames(now, m_building.framesUntilNextEvent());
+    ScheduledChange earliest = m_eventChange;
+
+    ArrayList<Elevator> elevators = m_building.getElevators();
+
+    for (int i = 0; i < m_elevatorChanges.length; i++)
+    {
+      Elevator elevator = elevators.get(i);
+      ScheduledChange change = m_elevatorChanges[i];
+
+      change.m_frame = addFrames(now, m_building.framesUntilElevatorChange(elevator));
+      change.m_type = elevator.nextChangeType();
+
+      if (change.m_frame < earliest.m_frame)
+      {
+        earliest = change;
+      }
+    }
+
+    return earliest;
+  }
+
+  /**
+   * A Macro to add frames to a frame count without overflowing
+   * @param frame
+   * @param frames
+   * @return long
+   */
+  private static long addFrames(long frame, long frames)
+  {
+    if (frames >= Long.MAX_VALUE - frame)
+    {
+      return Long.MAX_VALUE;
+    }
+
+    return frame + frames;
+  }
+
+  /**
+   * @return long - number of frames jumped over without running them
+   */
+  public long getFramesSkipped()
+  {
+    return m_framesSkipped;
+  }
+
+  /**
+   * @return long - number of frames run through Building.operate()
+   */
+  public long getFramesOperated()
+  {
+    return m_framesOperated;
+  }
+}
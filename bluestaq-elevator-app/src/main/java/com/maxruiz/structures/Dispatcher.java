@@ -0,0 +1,66 @@
+package com.maxruiz.structures;
+
+import java.util.List;
+
+/**
+ * This interface is the strategy an elevator consults to decide where to go next. It picks the
+ * hall call an empty, idle elevator answers and the next stop of an elevator with passengers.
+ *
+ * A dispatcher only answers questions, it never changes the elevator or the registry, so the
+ * same answer can be asked for again (e.g. by the DiscreteEventEngine) without side effects.
+ * @see Elevator
+ * @see HallCallRegistry
+ * @author Max Ruiz
+ */
+public interface Dispatcher
+{
+  /**
+   * The dispatch strategies a building can be configured with
+   */
+  public enum Strategy
+  {
+    FIFO("First Come First Served"),
+    LOOK("LOOK"),
+    ETA("Estimated Time of Arrival");
+
+    public final String Representation;
+
+    private Strategy(String representation)
+    {
+      Representation = representation;
+    }
+
+    /**
+     * @param elevators - every elevator of the bank, the list may still be filled afterwards
+     * @return Dispatcher - a new dispatcher of this strategy
+     */
+    public Dispatcher create(List<Elevator> elevators)
+    {
+      switch (this)
+      {
+        case ETA:
+          return new EtaDispatcher(elevators);
+        case LOOK:
+          return new LookDispatcher();
+        case FIFO:
+        default:
+          return new FifoDispatcher();
+      }
+    }
+  }
+
+  /**
+   * @param elevator - an elevator that is idle with no one on board
+   * @param hallCalls - the hall calls of the bank of the elevator
+   * @return int - the floor of the call the elevator should claim, HallCallRegistry.NO_CALL if
+   *               it should stay where it is
+   */
+  int selectHallCall(Elevator elevator, HallCallRegistry hallCalls);
+
+  /**
+   * @param elevator - an elevator that reached its target floor with passengers still on board
+   * @return int - the next floor the elevator should head to, one of its stops other than the
+   *               current floor, see Elevator.nextStop()
+   */
+  int selectNextStop(Elevator elevator);
+}
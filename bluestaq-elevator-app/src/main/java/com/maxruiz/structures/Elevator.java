@@ -1,16 +1,23 @@
 package com.maxruiz.structures;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 
 import com.maxruiz.passengers.Passenger;
+import com.maxruiz.passengers.PassengerStore;
 import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.JourneyMetrics;
+import com.maxruiz.metrics.TelemetryWriter;
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
 import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationClock;
 
 /**
  * This class simulates the brain of the elevator and runs the algorithms
  * for various states, driven by the events of the building and passengers.
  * 
- * This class is NOT thread safe. Each instance shares a queue of requests.
+ * This class is NOT thread safe. The elevators of a building share its hall call registry.
  * @author Max Ruiz
  */
 public class Elevator 
@@ -30,30 +37,59 @@ public class Elevator
     SIZE
   }
 
+  // The directions a hall call can be made for
+  private static final Direction[] HALL_CALL_DIRECTIONS = {Direction.UP, Direction.DOWN};
+
   private final int ELEVATOR_ID;
   private final int MAX_SQFT;
   private final int HIGHEST_FLOOR;
   private final int LOWEST_FLOOR;
   private final int AT_FLOOR_FRAMES;
   private final int MOVING_FRAMES;
+  private final int TRANSFER_RATE;
 
   private Position m_position = Position.AT_FLOOR;
   private Direction m_currentDirection = Direction.IDLE;
+  // The last direction the elevator set off in, kept while it idles between sweeps
+  private Direction m_sweepDirection = Direction.UP;
   private State m_state = State.NORMAL;
 
   private int m_atFloorFrameCounter = 0;
   private int m_movingFrameCounter = 0;
 
+  // Passengers that got off and on this frame, up to TRANSFER_RATE each
+  private int m_alightedThisFrame = 0;
+  private int m_boardedThisFrame = 0;
+
   private int m_targetFloor;
-  private boolean m_targetFloorIsRequestFloor = true;
+  // Floors whose hall calls this elevator claimed, one bit per floor from LOWEST_FLOOR. Together
+  // with the car calls, the floors the passengers on board get off at, they are its stops.
+  private BitSet m_hallCallStops;
   private int m_currentFloor;
   
-  private static ArrayList<Integer> m_requestFloorList = new ArrayList<>();
-  private static ArrayList<Integer> m_requestsBeingHandled = new ArrayList<>();
-  private int m_passengerAtFloorIndex = 0;
+  private final HallCallRegistry m_hallCalls;
+  private final Dispatcher m_dispatcher;
+
+  // Where the elevator waits when it has nothing to do, null to stay where it is
+  private ParkingPolicy m_parkingPolicy = null;
+  private boolean m_parking = false;
 
   private int m_onBoardSpaceTaken = 0;
-  private ArrayList<Passenger> m_passengers = new ArrayList<>();
+  // Handles of the passengers on board, in the store of the building, by the floor they get off at
+  private PassengerStore m_store = new PassengerStore();
+  private OnboardManifest m_passengers;
+
+  private long m_passengersDelivered = 0;
+  // Passengers that got off to change to another bank, until the building takes them back
+  private PassengerQueue m_transferringPassengers = new PassengerQueue();
+  private long m_floorsTraveled = 0;
+
+  // A stand alone elevator keeps its own time, one frame per operate()
+  private SimulationClock m_clock = new SimulationClock();
+  private boolean m_ownsClock = true;
+  private JourneyMetrics m_journeyMetrics = null;
+  private int m_journeyIndex = 0;
+  private TelemetryWriter m_telemetry = null;
 
   /**
    * @param id - Elevator ID
@@ -73,14 +109,44 @@ public class Elevator
     m_targetFloor = m_currentFloor;
     AT_FLOOR_FRAMES = atFloorFrames;
     MOVING_FRAMES = movingFrames;
+    TRANSFER_RATE = ElevatorConfig.DEFAULT_TRANSFER_RATE;
 
     init(startingFloor);
+
+    // A stand alone elevator answers its own calls, first come first served
+    m_hallCalls = new HallCallRegistry(LOWEST_FLOOR, HIGHEST_FLOOR);
+    m_dispatcher = new FifoDispatcher();
   }
 
   /**
    * @param ec - Elevator config class that holds necessary intialization values.
    */
   public Elevator(ElevatorConfig ec)
+  {
+    this(ec, null);
+  }
+
+  /**
+   * @param ec - Elevator config class that holds necessary intialization values.
+   * @param hallCalls - hall call registry shared with the other elevators of the bank,
+   *                    or null for the elevator to answer its own calls
+   * @see HallCallRegistry
+   */
+  public Elevator(ElevatorConfig ec, HallCallRegistry hallCalls)
+  {
+    this(ec, hallCalls, null);
+  }
+
+  /**
+   * @param ec - Elevator config class that holds necessary intialization values.
+   * @param hallCalls - hall call registry shared with the other elevators of the bank,
+   *                    or null for the elevator to answer its own calls
+   * @param dispatcher - decides which calls to answer and where to stop next,
+   *                     or null to serve first come first served
+   * @see HallCallRegistry
+   * @see Dispatcher
+   */
+  public Elevator(ElevatorConfig ec, HallCallRegistry hallCalls, Dispatcher dispatcher)
   {
     ELEVATOR_ID = ec.getID();
     MAX_SQFT = ec.getSqft();
@@ -90,8 +156,23 @@ public class Elevator
     m_targetFloor = m_currentFloor;
     AT_FLOOR_FRAMES = ec.getAtFloorFrames();
     MOVING_FRAMES = ec.getMovingFrames();
+    TRANSFER_RATE = ec.getTransferRate();
 
     init(ec.getStartingFloor());
+
+    if (null == hallCalls)
+    {
+      hallCalls = new HallCallRegistry(LOWEST_FLOOR, HIGHEST_FLOOR);
+    }
+
+    m_hallCalls = hallCalls;
+
+    if (null == dispatcher)
+    {
+      dispatcher = new FifoDispatcher();
+    }
+
+    m_dispatcher = dispatcher;
   }
 
   private void init(int startingFloor)
@@ -121,6 +202,14 @@ public class Elevator
       {
         throw new IllegalArgumentException("movingFrames is invalid.");
       }
+
+      if (TRANSFER_RATE <= 0)
+      {
+        throw new IllegalArgumentException("transferRate is invalid.");
+      }
+
+      m_passengers = new OnboardManifest(LOWEST_FLOOR, HIGHEST_FLOOR);
+      m_hallCallStops = new BitSet(HIGHEST_FLOOR - LOWEST_FLOOR + 1);
   }
 
   /**
@@ -132,32 +221,138 @@ public class Elevator
     switch (m_state)
     {
       case NORMAL:
-        System.out.println(elevatorHeaderStr() + "NORMAL OPERATION");
+        log(Log.Level.TRACE, "NORMAL OPERATION");
         normalOperation();
         break;
       case MAINTENANCE:
-        System.out.println(elevatorHeaderStr() + "MAINTENANCE OPERATION");
+        log(Log.Level.DEBUG, "MAINTENANCE OPERATION");
         maintenanceOperation();
         break;
       case FIRE:
-        System.out.println(elevatorHeaderStr() + "FIRE OPERATION");
+        log(Log.Level.DEBUG, "FIRE OPERATION");
         fireOperation();
         break;
       default:
-        System.out.println(elevatorHeaderStr() + "DEFAULT NORMAL OPERATION");
+        log(Log.Level.WARN, "DEFAULT NORMAL OPERATION");
         normalOperation();
     }
+
+    if (m_ownsClock)
+    {
+      m_clock.advance();
+    }
   }
 
   /**
-   * The elevator is working as expected and under no outstanding circumstances
+   * Run on the time of the building and report the journey of every passenger that gets off
+   * @param clock - the clock of the building
+   * @param journeyMetrics - where the journeys are recorded
+   * @param journeyIndex int - index of this elevator in the building, from 0
+   * @see JourneyMetrics
    */
-  private void normalOperation()
+  void attachJourneyMetrics(SimulationClock clock, JourneyMetrics journeyMetrics, int journeyIndex)
+  {
+    m_clock = clock;
+    m_ownsClock = false;
+    m_journeyMetrics = journeyMetrics;
+    m_journeyIndex = journeyIndex;
+  }
+
+  /**
+   * Record every passenger that gets on or off, by the index given to attachJourneyMetrics()
+   * @param telemetry - where the building records what happened, null to stop recording
+   * @see TelemetryWriter
+   */
+  void attachTelemetry(TelemetryWriter telemetry)
+  {
+    m_telemetry = telemetry;
+  }
+
+  /**
+   * Keep the passengers on board in the store of the building, which hands them over as handles.
+   * Must be attached before anyone gets on.
+   * @param store - the passenger store of the building
+   * @see PassengerStore
+   */
+  void attachPassengerStore(PassengerStore store)
   {
-    for (Passenger p : m_passengers)
+    m_store = store;
+  }
+
+  /**
+   * Move to where passengers are expected whenever there is nothing to do, instead of staying
+   * at the floor of the last stop
+   * @param parkingPolicy - the parking policy of the bank of this elevator
+   * @see ParkingPolicy
+   */
+  void attachParkingPolicy(ParkingPolicy parkingPolicy)
+  {
+    m_parkingPolicy = parkingPolicy;
+  }
+
+  /**
+   * Write where the elevator is, what it is doing and who is on board. The hall calls belong to
+   * the bank and the clock to the building, they write them.
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeEnum(m_position);
+    out.writeEnum(m_currentDirection);
+    out.writeEnum(m_sweepDirection);
+    out.writeEnum(m_state);
+    out.writeInt(m_atFloorFrameCounter);
+    out.writeInt(m_movingFrameCounter);
+    out.writeInt(m_alightedThisFrame);
+    out.writeInt(m_boardedThisFrame);
+    out.writeInt(m_currentFloor);
+    out.writeInt(m_targetFloor);
+    out.writeBitSet(m_hallCallStops);
+    out.writeBoolean(m_parking);
+    out.writeInt(m_onBoardSpaceTaken);
+    m_passengers.writeCheckpoint(out);
+    m_transferringPassengers.writeCheckpoint(out);
+    out.writeLong(m_passengersDelivered);
+    out.writeLong(m_floorsTraveled);
+  }
+
+  /**
+   * Continue from a state written by writeCheckpoint(), for an elevator of the same floors
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if a floor is not served by the elevator
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    m_position = in.readEnum(Position.values());
+    m_currentDirection = in.readEnum(Direction.values());
+    m_sweepDirection = in.readEnum(Direction.values());
+    m_state = in.readEnum(State.values());
+    m_atFloorFrameCounter = in.readInt();
+    m_movingFrameCounter = in.readInt();
+    m_alightedThisFrame = in.readInt();
+    m_boardedThisFrame = in.readInt();
+    m_currentFloor = in.readInt();
+    m_targetFloor = in.readInt();
+    in.readBitSet(m_hallCallStops, HIGHEST_FLOOR - LOWEST_FLOOR + 1);
+    m_parking = in.readBoolean();
+    m_onBoardSpaceTaken = in.readInt();
+    m_passengers.readCheckpoint(in);
+    m_transferringPassengers.readCheckpoint(in);
+    m_passengersDelivered = in.readLong();
+    m_floorsTraveled = in.readLong();
+
+    if (false == canReachFloor(m_currentFloor) || false == canReachFloor(m_targetFloor))
     {
-      p.operate();
+      throw new IllegalArgumentException("Checkpoint elevator floor is invalid.");
     }
+  }
+
+  /**
+   * The elevator is working as expected and under no outstanding circumstances
+   */
+  private void normalOperation()
+  {
+    operatePassengers(1);
 
     handleAtFloorPositionNormal();
 
@@ -196,62 +391,73 @@ public class Elevator
    */
   private void handleAtFloorPositionNormal()
   {
+    // Passengers got on after the elevator operated last frame, so the doors see them now
+    boolean crossedLastFrame = (m_alightedThisFrame + m_boardedThisFrame) > 0;
+    m_alightedThisFrame = 0;
+    m_boardedThisFrame = 0;
+
     // Wrong state, return
     if (Position.MOVING == m_position)
     {
       return;
     }
 
-    // We're only going to operate on one passenger per frame
+    // Only so many passengers fit through the doors in one frame
     // There may be a case where not all the passengers who
-    // should get off at this floor CAN get off at this floor
+    // should get off at this floor CAN get off in this frame
     // Why? This simulates a packed elevator
-    if (m_passengers.size() > m_passengerAtFloorIndex)
+    while (m_passengers.hasStop(m_currentFloor) && m_alightedThisFrame < TRANSFER_RATE)
     {
-      Passenger p = m_passengers.get(m_passengerAtFloorIndex);
-      m_passengerAtFloorIndex++;
+      int p = m_passengers.removeFirst(m_currentFloor);
 
-      // Remove passenger if this was their destination
-      if (p.isAtDestinationFloor() || p.isSick())
+      log(Log.Level.DEBUG, "Passenger got OFF the elevator", m_store.getID(p), Log.NONE);
+      m_store.alight(p, m_currentFloor, m_floorsTraveled);
+      m_onBoardSpaceTaken -= m_store.getSqft(p);
+      m_alightedThisFrame++;
+
+      if (m_store.isSick(p) || m_store.isAtFinalDestinationFloor(p))
       {
-        System.out.println(elevatorHeaderStr() + "Passenger " + p.getID() + " got OFF the elevator");
-        m_passengers.remove(p);
-        m_onBoardSpaceTaken -= p.getSqft();
-        // one fewer passengers
-        m_passengerAtFloorIndex--;
-
-        // If passenger gets off early, i.e. they're sick
-        // the elevators target floor is still set to their original destination
-        // In reality, it would still be set there even though they got off early
-        // so if no one was on the elevator, it would still continue to the
-        // original destination floor, even if someone, somewhere else had put in
-        // a request in the opposite direction.
+        m_passengersDelivered++;
+        recordJourney(p);
+        recordTelemetry(p, TelemetryWriter.PassengerEvent.DELIVERED);
+
+        // They left the building, their slot goes to the next passenger
+        m_store.release(p);
       }
-      else if (atTargetFloor())
+      else 
       {
-        // If this was not the next passengers destination, but was the elevator destination floor
-        // or some other passengers destination, then the next passenger gets to choose the 
-        // new destination, assuming there are any passengers on board
+        // Only a leg of their journey, e.g. up to a sky lobby
+        m_transferringPassengers.add(p);
+        recordTelemetry(p, TelemetryWriter.PassengerEvent.TRANSFERRED);
+      }
+
+      // If passenger gets off early, i.e. they're sick
+      // the elevators target floor is still set to their original destination
+      // In reality, it would still be set there even though they got off early
+      // so if no one was on the elevator, it would still continue to the
+      // original destination floor, even if someone, somewhere else had put in
+      // a request in the opposite direction.
+    }
 
-        System.out.println(elevatorHeaderStr() + "Next Passenger " + p.getID() + " has set target floor: " + p.getDestinationFloor());
-        m_targetFloor = p.getDestinationFloor();
-        m_targetFloorIsRequestFloor = false;
+    // If this was the elevator destination floor, everyone getting off here is off and someone
+    // on board is going further, then the dispatcher chooses the next of the stops
+    if (atTargetFloor() && false == m_passengers.hasStop(m_currentFloor) && false == m_passengers.isEmpty())
+    {
+      m_targetFloor = m_dispatcher.selectNextStop(this);
+      log(Log.Level.DEBUG, "Next stop has been set", Log.NONE, m_targetFloor);
 
-        // The target floor cannot be equal to the current floor
-        // otherwise this passenger would have been removed
-        if (m_targetFloor < m_currentFloor)
-        {
-          m_currentDirection = Direction.DOWN;
-        }
-        else 
-        {
-          m_currentDirection = Direction.UP;
-        }
+      // The target floor cannot be equal to the current floor
+      // otherwise no one would be going further
+      if (m_targetFloor < m_currentFloor)
+      {
+        m_currentDirection = Direction.DOWN;
       }
       else 
       {
-        System.out.println(elevatorHeaderStr() + "Passenger " + p.getID() + " is waiting.");
+        m_currentDirection = Direction.UP;
       }
+
+      m_sweepDirection = m_currentDirection;
     }
 
     // If there are no passengers, and the elevator is idle
@@ -263,6 +469,11 @@ public class Elevator
       if (setTargetFloorAsNextRequestFromList())
       {
         m_currentDirection = (m_targetFloor < m_currentFloor) ? Direction.DOWN : Direction.UP;
+
+        if (m_targetFloor != m_currentFloor)
+        {
+          m_sweepDirection = m_currentDirection;
+        }
         
         // 1) There's no one in the elevator
         // 2) The current request is at another floor
@@ -272,28 +483,35 @@ public class Elevator
         // then they, sadly, missed the elevator. Whomp.
         if (m_targetFloor != m_currentFloor)
         {
-          System.out.println(elevatorHeaderStr() + "New request, no one aboard, time to go!");
+          log(Log.Level.DEBUG, "New request, no one aboard, time to go!");
           m_atFloorFrameCounter = AT_FLOOR_FRAMES;
         }
 
-        System.out.println(elevatorHeaderStr() + "Next request being processed: " + m_targetFloor);
-        System.out.println(elevatorHeaderStr() + "Target Direction: " + directionString());
+        log(Log.Level.DEBUG, "Next request being processed", Log.NONE, m_targetFloor, directionString());
+      }
+      else if (setTargetFloorAsParkingFloor())
+      {
+        log(Log.Level.DEBUG, "Parking where passengers are expected", Log.NONE, m_targetFloor,
+            directionString());
       }
       else 
       {
         // we stay here
-        System.out.println(elevatorHeaderStr() + "Doors remaining Closed.");
+        log(Log.Level.TRACE, "Doors remaining Closed");
         m_atFloorFrameCounter = 0;
       }
     }
 
 
-    if (AT_FLOOR_FRAMES == m_atFloorFrameCounter)
+    // The doors are held open for as long as passengers are still getting on or off
+    boolean crossing = crossedLastFrame || m_alightedThisFrame > 0 || 
+                       m_passengers.hasStop(m_currentFloor);
+
+    if (m_atFloorFrameCounter >= AT_FLOOR_FRAMES && false == crossing)
     {
       m_atFloorFrameCounter = 0;
       m_position = Position.MOVING;
-      m_passengerAtFloorIndex = 0;
-      System.out.println(elevatorHeaderStr() + "Closing Doors.");
+      log(Log.Level.DEBUG, "Closing Doors");
 
       // If we're at the target floor by the time the doors are about to close
       // then no one has made any new requests and we can start scanning for
@@ -301,8 +519,9 @@ public class Elevator
       if (atTargetFloor())
       {
         m_currentDirection = Direction.IDLE;
+        m_parking = false;
 
-        System.out.println(elevatorHeaderStr() + "No new requests. Idling.");
+        log(Log.Level.DEBUG, "No new requests. Idling");
       }
 
     }
@@ -316,14 +535,21 @@ public class Elevator
           // 1) Are there any passengers that need to leave?
           // 2) Are there any new requests?
           m_currentDirection = Direction.IDLE;
+          m_parking = false;
 
           // set request handled if the target floor was also a request floor
           requestHandled();
         }
+        else if (false == crossing)
+        {
+          // No one is left to get on or off, no need to wait any longer
+          m_atFloorFrameCounter = AT_FLOOR_FRAMES;
+          log(Log.Level.TRACE, "Doors closing early");
+        }
         else
         {
           m_atFloorFrameCounter++;
-          System.out.println(elevatorHeaderStr() + "Doors remaining open.");
+          log(Log.Level.TRACE, "Doors remaining open");
         }
       }
     }
@@ -355,7 +581,7 @@ public class Elevator
     {
       m_movingFrameCounter = MOVING_FRAMES;
       m_currentDirection = Direction.IDLE;
-      System.out.println(elevatorHeaderStr() + "At Ground floor. Cannot travel further down.");
+      log(Log.Level.DEBUG, "At Ground floor. Cannot travel further down");
     }
 
     // Cannot continue to move up if we're at the highest floor
@@ -364,7 +590,7 @@ public class Elevator
     {
       m_movingFrameCounter = MOVING_FRAMES;
       m_currentDirection = Direction.IDLE;
-      System.out.println(elevatorHeaderStr() + "At Roof floor. Cannot travel further up.");
+      log(Log.Level.DEBUG, "At Roof floor. Cannot travel further up");
     }
 
     // done moving
@@ -380,65 +606,283 @@ public class Elevator
       if (movingDown())
       {
         m_currentFloor--;
+        m_floorsTraveled++;
 
-        // All passengers have now successfully moved down
-        for (Passenger p : m_passengers)
-        {
-          p.traveledDown();
-        }
-
-        System.out.println(elevatorHeaderStr() + "Reached floor: " + m_currentFloor);
+        log(Log.Level.DEBUG, "Reached floor");
       }
       else if (movingUp())
       {
         m_currentFloor++;
+        m_floorsTraveled++;
 
-        // All passengers have now successfully moved up
-        for (Passenger p : m_passengers)
-        {
-          p.traveledUp();
-        }
+        log(Log.Level.DEBUG, "Reached floor");
+      }
 
-        System.out.println(elevatorHeaderStr() + "Reached floor: " + m_currentFloor);
+      // A parking trip ends wherever there is work to do
+      if (m_parking && (hasHallCallToStopFor() || hasRequestToTake()))
+      {
+        m_targetFloor = m_currentFloor;
+        log(Log.Level.DEBUG, "Stopped parking, there are requests to take");
       }
 
-      // No one has made a request
+      // No one has made a request this elevator would take them for
       // and we haven't made it to the target floor
-      // and there are no people on the elevator
-      if (false == m_requestFloorList.contains(m_currentFloor) &&
-          m_currentFloor != m_targetFloor) //&&
-          //true == m_passengers.isEmpty())
+      if (false == hasHallCallToStopFor() &&
+          m_currentFloor != m_targetFloor)
       {
-        m_position = Position.MOVING;
-
-        // QUESTIONABLE
-        for (Passenger p : m_passengers)
-        {
-          if (p.isAtDestinationFloor())
-          {
-            m_position = Position.AT_FLOOR;
-          }
-        }
+        // Someone on board gets off here, or the elevator claimed the calls here
+        m_position = hasStop(m_currentFloor) ? Position.AT_FLOOR : Position.MOVING;
         
         if (Position.MOVING == m_position)
         {
-          System.out.println(elevatorHeaderStr() + "Continuing on.");
+          log(Log.Level.TRACE, "Continuing on");
         }
         
       }
       else 
       {
         
-        System.out.println(elevatorHeaderStr() + "Opening doors.");
+        log(Log.Level.DEBUG, "Opening doors");
+      }
+
+      if (Position.AT_FLOOR == m_position)
+      {
+        answerHallCalls();
       }
     }
     else 
     {
       m_movingFrameCounter++;
-      System.out.println(elevatorHeaderStr() + "Moving: " + directionString());
+      log(Log.Level.TRACE, "Moving", Log.NONE, Log.NONE, directionString());
     }
   }
   
+  /**
+   * Run the event loop of every passenger on board for a number of frames. A passenger that gets
+   * sick gets off at the next floor the elevator gets to, this one if it is at a floor.
+   * @param frames long - number of frames in a row in which nothing else changes
+   */
+  private void operatePassengers(long frames)
+  {
+    if (m_passengers.isEmpty())
+    {
+      return;
+    }
+
+    int sickFloor = m_currentFloor;
+
+    if (Position.MOVING == m_position && movingUp() && false == atRoof())
+    {
+      sickFloor++;
+    }
+    else if (Position.MOVING == m_position && movingDown() && false == atGround())
+    {
+      sickFloor--;
+    }
+
+    for (int floor = m_passengers.nextStopAbove(LOWEST_FLOOR - 1); HallCallRegistry.NO_CALL != floor;
+         floor = m_passengers.nextStopAbove(floor))
+    {
+      PassengerQueue line = m_passengers.get(floor);
+
+      for (int i = 0; i < line.size(); i++)
+      {
+        if (m_store.operate(line.get(i), m_floorsTraveled, frames) && floor != sickFloor)
+        {
+          m_passengers.move(floor, i, sickFloor);
+          i--;
+        }
+      }
+    }
+  }
+
+  /**
+   * Count how many of the upcoming frames would do nothing but count frames, assuming nothing 
+   * else in the building changes in the meantime. Those frames are either spent moving between 
+   * floors, holding the doors open, or idling with nothing to do.
+   * @return long - number of quiet frames, Long.MAX_VALUE if the elevator will idle indefinitely
+   * @see DiscreteEventEngine
+   */
+  long quietFrames()
+  {
+    if (State.NORMAL != m_state)
+    {
+      return 0;
+    }
+
+    if (Position.MOVING == m_position)
+    {
+      if (Direction.IDLE == m_currentDirection ||
+          (movingDown() && atGround()) ||
+          (movingUp() && atRoof()))
+      {
+        return 0;
+      }
+
+      // Counting up until the elevator reaches the next floor
+      return framesUntilPassengerSick(MOVING_FRAMES - m_movingFrameCounter);
+    }
+
+    // Still letting passengers off, or someone got on or off last frame
+    if (m_passengers.hasStop(m_currentFloor) ||
+        m_alightedThisFrame + m_boardedThisFrame > 0)
+    {
+      return 0;
+    }
+
+    // The doors are about to close
+    if (m_atFloorFrameCounter >= AT_FLOOR_FRAMES)
+    {
+      return 0;
+    }
+
+    if (Direction.IDLE == m_currentDirection)
+    {
+      if (m_passengers.isEmpty() && (hasRequestToTake() || wantsToPark()))
+      {
+        return 0;
+      }
+
+      // Doors remain closed until something changes, e.g. the forecast of where to park
+      return framesUntilPassengerSick((null == m_parkingPolicy) ? Long.MAX_VALUE 
+                                                                  : m_parkingPolicy.framesUntilChange());
+    }
+
+    // With no one getting on or off, the doors close early on the next frame
+    return 0;
+  }
+
+  /**
+   * A Macro to end the quiet frames at the first passenger on board that gets sick. Their new 
+   * stop changes the estimates of this elevator, and so which elevator the dispatcher sends to 
+   * a hall call.
+   * @param frames long - quiet frames of the elevator otherwise
+   * @return long - number of quiet frames
+   */
+  private long framesUntilPassengerSick(long frames)
+  {
+    for (int floor = m_passengers.nextStopAbove(LOWEST_FLOOR - 1); HallCallRegistry.NO_CALL != floor;
+         floor = m_passengers.nextStopAbove(floor))
+    {
+      PassengerQueue line = m_passengers.get(floor);
+
+      for (int i = 0; i < line.size(); i++)
+      {
+        frames = m_store.framesUntilSick(line.get(i), m_floorsTraveled, frames);
+      }
+    }
+
+    return frames;
+  }
+
+  /**
+   * Skip over quiet frames, leaving the elevator in the same state as if operate() had been
+   * called once per frame.
+   * @param frames long - must not be more than quietFrames()
+   * @see quietFrames
+   */
+  void skipQuietFrames(long frames)
+  {
+    operatePassengers(frames);
+
+    if (Position.MOVING == m_position)
+    {
+      m_movingFrameCounter += (int)frames;
+    }
+    else if (Direction.IDLE != m_currentDirection)
+    {
+      m_atFloorFrameCounter += (int)frames;
+    }
+    else if (m_passengers.isEmpty())
+    {
+      m_atFloorFrameCounter = 0;
+    }
+  }
+
+  /**
+   * @return ChangeType - what the quiet frames of this elevator are leading up to
+   * @see quietFrames
+   */
+  DiscreteEventEngine.ChangeType nextChangeType()
+  {
+    if (Position.MOVING == m_position)
+    {
+      return DiscreteEventEngine.ChangeType.FLOOR_ARRIVAL;
+    }
+
+    if (Direction.IDLE != m_currentDirection && false == m_passengers.hasStop(m_currentFloor))
+    {
+      return DiscreteEventEngine.ChangeType.DOOR_CLOSE;
+    }
+
+    return DiscreteEventEngine.ChangeType.ELEVATOR_ACTIVITY;
+  }
+
+  /**
+   * @return boolean - would the dispatcher hand this elevator a hall call to answer?
+   */
+  private boolean hasRequestToTake()
+  {
+    return HallCallRegistry.NO_CALL != m_dispatcher.selectHallCall(this, m_hallCalls);
+  }
+
+  /**
+   * @return boolean - would the parking policy send this elevator to another floor?
+   */
+  private boolean wantsToPark()
+  {
+    return ParkingPolicy.NO_FLOOR != parkingFloor();
+  }
+
+  /**
+   * @return int - the floor the parking policy sends this elevator to, NO_FLOOR if there is
+   *               no policy or the elevator is already there
+   */
+  private int parkingFloor()
+  {
+    if (null == m_parkingPolicy)
+    {
+      return ParkingPolicy.NO_FLOOR;
+    }
+
+    int floor = m_parkingPolicy.selectParkingFloor(this);
+
+    return (m_currentFloor == floor) ? ParkingPolicy.NO_FLOOR : floor;
+  }
+
+  /**
+   * Head to the floor the parking policy picks for this idle elevator, if it isn't there yet.
+   * The elevator claims no call, so any call on the way ends the trip.
+   * @return boolean - true if the elevator is on its way
+   */
+  private boolean setTargetFloorAsParkingFloor()
+  {
+    int floor = parkingFloor();
+
+    if (ParkingPolicy.NO_FLOOR == floor)
+    {
+      return false;
+    }
+
+    m_targetFloor = floor;
+    m_parking = true;
+    m_currentDirection = (m_targetFloor < m_currentFloor) ? Direction.DOWN : Direction.UP;
+    m_sweepDirection = m_currentDirection;
+    m_atFloorFrameCounter = AT_FLOOR_FRAMES;
+
+    return true;
+  }
+
+  /**
+   * @return boolean - is the elevator free to be parked, i.e. working with no one on board and
+   *                   either idle or already on its way to park?
+   */
+  boolean isAvailableToPark()
+  {
+    return State.NORMAL == m_state && m_passengers.isEmpty() &&
+           (Direction.IDLE == m_currentDirection || m_parking);
+  }
+
   /**
    * Future Endeavor
    */
@@ -471,37 +915,79 @@ public class Elevator
 
   }
 
-   /**
-   * If the target floor was reached and this target floor was a request made by a passenger
-   * not in the elevator, but rather a passenger on a floor of the building, then we
-   * need to make sure that we remove the request floor from the queue that holds the floors
-   * actively being handled by an elevator, as this elevator handled this request.
+  /**
+   * If the elevator claimed the calls at the current floor, i.e. the requests made by passengers
+   * not in the elevator, but rather on a floor of the building, then we need to make sure the
+   * floor is no longer held by this elevator, as it handled those requests. However the elevator
+   * got here, e.g. with passengers it picked up on the way and now takes further.
    */
   private void requestHandled()
   {
-    if (m_targetFloorIsRequestFloor)
+    if (false == m_hallCallStops.get(m_currentFloor - LOWEST_FLOOR))
     {
-      m_requestsBeingHandled.remove(Integer.valueOf(m_targetFloor));
+      return;
     }
+
+    m_hallCallStops.clear(m_currentFloor - LOWEST_FLOOR);
+    m_hallCalls.release(m_currentFloor);
   }
 
   /**
-   * This function will push back a passengers request IFF it's not already in the queue
-   * It does not accept multiple requests even though a passenger could be requesting
-   * to go up or down
+   * This function will set the call of a passenger IFF it's not already set for their
+   * direction. A passenger asking again while their call is still set changes nothing.
    * @param requestFloor int - floor request from a passenger in the building
+   * @param direction Direction - UP or DOWN, the way the passenger is going
+   * @return boolean - true if the call was not set yet
    */
-  public void receivePassengerRequest(int requestFloor)
+  public boolean receivePassengerRequest(int requestFloor, Direction direction)
   {  
-    if (m_requestFloorList.contains(requestFloor))
+    if (false == m_hallCalls.register(requestFloor, direction))
     {
-      System.out.println("Elevator Control: Floor " + requestFloor + " has already been requested.");
-      return;
+      return false;
     }
 
-    m_requestFloorList.add(requestFloor);
+    Log.log(Log.Level.DEBUG, Log.Category.ELEVATOR, "Accepted passenger request", Log.NONE,
+            requestFloor, Log.NONE, Log.NONE, Log.NONE, callString(direction));
 
-    System.out.println("Elevator Control: Accepted passenger request at floor: " + requestFloor);
+    return true;
+  }
+
+  /**
+   * @param direction
+   * @return boolean - would passengers at the current floor going this way get on?
+   *                   An elevator that is empty, idle or at its target floor takes everyone,
+   *                   otherwise only the passengers going the same way it is.
+   */
+  private boolean takesPassengersGoing(Direction direction)
+  {
+    return direction == m_currentDirection || Direction.IDLE == m_currentDirection || 
+           m_passengers.isEmpty() || atTargetFloor();
+  }
+
+  /**
+   * @return boolean - is there a call at the current floor from passengers that would get on?
+   */
+  private boolean hasHallCallToStopFor()
+  {
+    return (m_hallCalls.isPending(m_currentFloor, Direction.UP) && takesPassengersGoing(Direction.UP)) ||
+           (m_hallCalls.isPending(m_currentFloor, Direction.DOWN) && takesPassengersGoing(Direction.DOWN));
+  }
+
+  /**
+   * The doors opened at the current floor, so the calls of the passengers that would get on
+   * have been answered. Whoever is left behind calls again.
+   */
+  private void answerHallCalls()
+  {
+    requestHandled();
+
+    for (Direction direction : HALL_CALL_DIRECTIONS)
+    {
+      if (takesPassengersGoing(direction) && m_hallCalls.cancel(m_currentFloor, direction))
+      {
+        log(Log.Level.DEBUG, "Hall call answered", Log.NONE, Log.NONE, callString(direction));
+      }
+    }
   }
 
   /**
@@ -530,19 +1016,44 @@ public class Elevator
    * @see Passenger
    */
   public boolean canAcceptPassenger(Passenger p)
+  {
+    return canAcceptPassenger(p.getID(), p.getSqft(), p.getDestinationFloor());
+  }
+
+  /**
+   * Check if the passenger can get aboard the elevator, see canAcceptPassenger(Passenger)
+   * @param handle - the passenger, in the store of the building
+   * @return boolean
+   * @see PassengerStore
+   */
+  public boolean canAcceptPassenger(int handle)
+  {
+    return canAcceptPassenger(m_store.getID(handle), m_store.getSqft(handle),
+                              m_store.getDestinationFloor(handle));
+  }
+
+  /**
+   * A Macro to check if a passenger fits and goes somewhere this elevator can take them
+   * @param id
+   * @param sqft
+   * @param destinationFloor
+   * @return boolean
+   */
+  private boolean canAcceptPassenger(int id, int sqft, int destinationFloor)
   {
     // Passenger is too big
-    if (p.getSqft() > remainingSpace())
+    if (sqft > remainingSpace())
     {
-      System.out.println(elevatorHeaderStr() + "Passenger is too big. Passenger denied!");
+      log(Log.Level.DEBUG, "Passenger is too big. Passenger denied!", id, Log.NONE);
       return false;
     }
 
     // Passenger wants to go somewhere this elevator can't
-    if (p.getDestinationFloor() < LOWEST_FLOOR ||
-        p.getDestinationFloor() > HIGHEST_FLOOR)
+    if (destinationFloor < LOWEST_FLOOR ||
+        destinationFloor > HIGHEST_FLOOR)
     {
-      System.out.println(elevatorHeaderStr() + "Passenger wants to go to a floor this elevator cannot get to. Passenger denied!");
+      log(Log.Level.DEBUG, "Passenger wants to go to a floor this elevator cannot get to. Passenger denied!",
+          id, destinationFloor);
       return false;
     }
     
@@ -550,11 +1061,8 @@ public class Elevator
   }
 
   /**
-   * If the passenger meets the conditions to come aboard, then let them.
-   * Add the passenger to the elevator list
-   * Set the passenger flag to onBoard
-   * Remove the passengers request from the elevator request list
-   * Effectively take away the passengers space from available space on the elevator
+   * If the passenger meets the conditions to come aboard, then let them. A copy of the passenger
+   * gets on, kept in the store of the elevator, the object itself is only marked as on board.
    * @param passenger
    * @return boolean - true: passenger accepted, false: passenger denied
    * @see Passenger
@@ -569,55 +1077,83 @@ public class Elevator
 
     passenger.setOnElevator(true);
 
-    m_passengers.add(passenger);
+    return acceptPassenger(m_store.add(passenger));
+  }
 
-    System.out.println(elevatorHeaderStr() + "Passenger " + passenger.getID() + " entered the elevator");
+  /**
+   * If the passenger meets the conditions to come aboard, then let them.
+   * Add the passenger to the elevator list
+   * Set the passenger flag to onBoard
+   * Remove the passengers request from the elevator request list
+   * Effectively take away the passengers space from available space on the elevator
+   * @param handle - the passenger, in the store of the building
+   * @return boolean - true: passenger accepted, false: passenger denied
+   * @see PassengerStore
+   * @see canAcceptPassenger
+   */
+  public boolean acceptPassenger(int handle)
+  {
+    if (false == canAcceptPassenger(handle))
+    {
+      return false;
+    }
 
-    Integer passengerOriginFloor = Integer.valueOf(passenger.getOriginFloor());
+    m_store.board(handle, m_floorsTraveled);
+    m_boardedThisFrame++;
+    recordTelemetry(handle, TelemetryWriter.PassengerEvent.BOARDED);
+    m_parking = false;
 
-    if (m_requestFloorList.contains(passengerOriginFloor))
+    // A passenger that transfers keeps the frame they first boarded on
+    if (Passenger.NO_FRAME == m_store.getBoardFrame(handle))
     {
-      m_requestFloorList.remove(passengerOriginFloor);
-      System.out.println(elevatorHeaderStr() + "Passenger " + passenger.getID() + "'s request " + passenger.getOriginFloor() + " was removed.");  
+      m_store.setBoardFrame(handle, m_clock.getFrame());
+    }
+
+    // Someone who is already sick gets right back off
+    m_passengers.add(handle, m_store.isSick(handle) ? m_currentFloor : m_store.getDestinationFloor(handle));
+
+    log(Log.Level.DEBUG, "Passenger entered the elevator", m_store.getID(handle), m_store.getDestinationFloor(handle));
+
+    if (m_hallCalls.cancel(m_store.getCurrentFloor(handle), m_store.getDestinationDirection(handle)))
+    {
+      log(Log.Level.DEBUG, "Passenger's request was removed", m_store.getID(handle), m_store.getCurrentFloor(handle));
     }
     
-    m_onBoardSpaceTaken += passenger.getSqft();
+    m_onBoardSpaceTaken += m_store.getSqft(handle);
 
     return true;
   }
 
   /**
-   * There is a static list of requests that passengers enter for all instances of elevators to check on
-   * and this method will check if the elevator meets the requirements to accept the next request,
-   * assuming there is one
-   * @return boolean
+   * A Macro to record a step of the journey of a passenger on this elevator, if telemetry is attached
+   * @param handle - the passenger
+   * @param event
    */
-  private boolean canTakeNextRequestFromList()
+  private void recordTelemetry(int handle, TelemetryWriter.PassengerEvent event)
   {
-    // Are there more requests to take?
-    if (m_requestFloorList.isEmpty())
+    if (null != m_telemetry)
     {
-      System.out.println(elevatorHeaderStr() + "Cannot take request. Request floor list is empty.");
-      return false;
+      m_telemetry.recordPassenger(m_clock.getFrame(), m_store.getID(handle), event, m_currentFloor,
+                                  m_journeyIndex);
     }
+  }
 
-    int possibleNextRequest = m_requestFloorList.get(0);
-    
-    // Can this particular elevator even travel to that floor?
-    if (false == passengerRequestInRange(possibleNextRequest))
-    {
-      System.out.println(elevatorHeaderStr() + "Cannot take request. It's out of range.");
-      return false;
-    }
+  /**
+   * Stamp the passenger that just got off and report their journey, if they showed up on a floor
+   * of a building rather than being placed on board directly
+   * @param handle - the passenger
+   */
+  private void recordJourney(int handle)
+  {
+    m_store.setAlightFrame(handle, m_clock.getFrame());
 
-    // Is another elevator already working on this request?
-    if (m_requestsBeingHandled.contains(Integer.valueOf(possibleNextRequest)))
+    if (null == m_journeyMetrics || Passenger.NO_FRAME == m_store.getArrivalFrame(handle))
     {
-      System.out.println(elevatorHeaderStr() + "Cannot take request. Already being handled by another elevator.");
-      return false;
+      return;
     }
 
-    return true;
+    m_journeyMetrics.recordJourney(m_journeyIndex, m_store.getOriginFloor(handle), m_store.getArrivalFrame(handle),
+                                   m_store.getBoardFrame(handle), m_store.getAlightFrame(handle));
   }
 
   /**
@@ -629,23 +1165,23 @@ public class Elevator
    * request on a floor of the building. So we also keep track of the proper 
    * requests being handled, so that any requests in the queue, made by
    * passengers on a floor, can be polled appropriately by the next elevator
-   * without any overlap.
+   * without any overlap. Which request is taken is up to the dispatcher.
    * @return boolean
    */
   private boolean setTargetFloorAsNextRequestFromList()
   {
-    if (false == canTakeNextRequestFromList())
+    int request = m_dispatcher.selectHallCall(this, m_hallCalls);
+
+    if (HallCallRegistry.NO_CALL == request)
     {
+      log(Log.Level.TRACE, "Cannot take request. None that this elevator can answer");
       return false;
     }
 
-    m_targetFloor = m_requestFloorList.get(0);
+    m_targetFloor = request;
 
-    m_requestFloorList.remove(Integer.valueOf(m_targetFloor));
-
-    m_requestsBeingHandled.add(m_targetFloor);
-
-    m_targetFloorIsRequestFloor = true;
+    m_hallCalls.claim(m_targetFloor);
+    m_hallCallStops.set(m_targetFloor - LOWEST_FLOOR);
 
     return true;
   }
@@ -658,6 +1194,22 @@ public class Elevator
     return ELEVATOR_ID;
   }
 
+  /**
+   * @return int - lowest floor this elevator can reach
+   */
+  public int getLowestFloor()
+  {
+    return LOWEST_FLOOR;
+  }
+
+  /**
+   * @return int - highest floor this elevator can reach
+   */
+  public int getHighestFloor()
+  {
+    return HIGHEST_FLOOR;
+  }
+
   /**
    * @return is the position of the elevator at a floor or not (i.e. in motion)?
    */
@@ -682,6 +1234,190 @@ public class Elevator
     return m_currentDirection;
   }
 
+  /**
+   * Estimate how many frames it will take this elevator to arrive at a floor, answering the stops
+   * it already has on the way. An elevator heading away from the floor first finishes its sweep,
+   * i.e. goes to its target or farthest destination on board, before turning around.
+   * @param floor
+   * @return long - estimated frames, Long.MAX_VALUE if the elevator can't get there
+   */
+  public long estimateFramesTo(int floor)
+  {
+    if (State.NORMAL != m_state || false == canReachFloor(floor))
+    {
+      return Long.MAX_VALUE;
+    }
+
+    // Passing a floor takes one more frame than the counter runs, so does a stop
+    long framesPerFloor = MOVING_FRAMES + 1;
+    long framesPerStop = AT_FLOOR_FRAMES + 1;
+
+    // A parking elevator drops its trip for the first call
+    if (Direction.IDLE == m_currentDirection || m_parking)
+    {
+      return Math.abs(floor - m_currentFloor) * framesPerFloor;
+    }
+
+    int sign = movingUp() ? 1 : -1;
+    long frames = 0;
+    boolean ahead;
+
+    if (Position.MOVING == m_position)
+    {
+      frames -= m_movingFrameCounter;
+      ahead = sign * (floor - m_currentFloor) > 0;
+    }
+    else 
+    {
+      frames += AT_FLOOR_FRAMES - m_atFloorFrameCounter;
+      ahead = sign * (floor - m_currentFloor) >= 0;
+    }
+
+    if (ahead)
+    {
+      frames += sign * (floor - m_currentFloor) * framesPerFloor;
+
+      if (floor != m_currentFloor)
+      {
+        frames += countStopsBetween(m_currentFloor, floor - sign) * framesPerStop;
+      }
+    }
+    else 
+    {
+      // The farthest stop, if it is beyond the target
+      int farthest = (sign > 0) ? nextStopBelow(HIGHEST_FLOOR + 1) : nextStopAbove(LOWEST_FLOOR - 1);
+      int turnFloor = m_targetFloor;
+
+      if (HallCallRegistry.NO_CALL != farthest && sign * (farthest - turnFloor) > 0)
+      {
+        turnFloor = farthest;
+      }
+
+      if (sign * (turnFloor - m_currentFloor) < 0)
+      {
+        turnFloor = m_currentFloor;
+      }
+
+      frames += (sign * (turnFloor - m_currentFloor) + Math.abs(turnFloor - floor)) * framesPerFloor;
+      frames += countStopsBetween(m_currentFloor, turnFloor) * framesPerStop;
+    }
+
+    return Math.max(0, frames);
+  }
+
+  /**
+   * A Macro to count the stops of the elevator, after fromFloor and up to and including toFloor,
+   * in the direction of travel
+   * @param fromFloor
+   * @param toFloor
+   * @return int
+   */
+  private int countStopsBetween(int fromFloor, int toFloor)
+  {
+    int sign = (toFloor < fromFloor) ? -1 : 1;
+    int stops = 0;
+
+    for (int floor = nextStop(fromFloor, sign); HallCallRegistry.NO_CALL != floor && sign * (toFloor - floor) >= 0;
+         floor = nextStop(floor, sign))
+    {
+      stops++;
+    }
+
+    return stops;
+  }
+
+  /**
+   * @return Direction - the direction the elevator last set off in, UP or DOWN, even while idle
+   */
+  public Direction getSweepDirection()
+  {
+    return m_sweepDirection;
+  }
+
+  /**
+   * @return int - destination of the passenger that has been on board the longest,
+   *               HallCallRegistry.NO_CALL if there is no one on board
+   */
+  public int getOldestDestination()
+  {
+    return m_passengers.getOldestStop();
+  }
+
+  /**
+   * @param direction - UP or DOWN
+   * @return int - the closest floor strictly ahead of the current floor in a direction that the
+   *               elevator stops at, for a passenger on board or for hall calls it claimed,
+   *               HallCallRegistry.NO_CALL if there is none
+   */
+  public int nextStop(Direction direction)
+  {
+    if (Direction.IDLE == direction)
+    {
+      throw new IllegalArgumentException("Direction is invalid.");
+    }
+
+    return nextStop(m_currentFloor, (Direction.UP == direction) ? 1 : -1);
+  }
+
+  /**
+   * @param floor
+   * @return boolean - does the elevator stop at the floor, for a passenger on board or for hall
+   *                   calls it claimed?
+   */
+  public boolean hasStop(int floor)
+  {
+    return m_passengers.hasStop(floor) ||
+           (canReachFloor(floor) && m_hallCallStops.get(floor - LOWEST_FLOOR));
+  }
+
+  /**
+   * A Macro to find the closest stop strictly past a floor, going up (1) or down (-1)
+   * @param floor
+   * @param sign
+   * @return int
+   */
+  private int nextStop(int floor, int sign)
+  {
+    return (sign > 0) ? nextStopAbove(floor) : nextStopBelow(floor);
+  }
+
+  /**
+   * A Macro to find the closest car call or claimed hall call strictly above a floor
+   * @param floor
+   * @return int - HallCallRegistry.NO_CALL if there is none
+   */
+  private int nextStopAbove(int floor)
+  {
+    int carCall = m_passengers.nextStopAbove(floor);
+    int bit = (floor >= HIGHEST_FLOOR) ? -1 : m_hallCallStops.nextSetBit(Math.max(0, floor + 1 - LOWEST_FLOOR));
+
+    if (bit < 0)
+    {
+      return carCall;
+    }
+
+    return (HallCallRegistry.NO_CALL == carCall) ? bit + LOWEST_FLOOR : Math.min(carCall, bit + LOWEST_FLOOR);
+  }
+
+  /**
+   * A Macro to find the closest car call or claimed hall call strictly below a floor
+   * @param floor
+   * @return int - HallCallRegistry.NO_CALL if there is none
+   */
+  private int nextStopBelow(int floor)
+  {
+    int carCall = m_passengers.nextStopBelow(floor);
+    int bit = (floor <= LOWEST_FLOOR) ? -1
+              : m_hallCallStops.previousSetBit(Math.min(HIGHEST_FLOOR, floor - 1) - LOWEST_FLOOR);
+
+    if (bit < 0)
+    {
+      return carCall;
+    }
+
+    return (HallCallRegistry.NO_CALL == carCall) ? bit + LOWEST_FLOOR : Math.max(carCall, bit + LOWEST_FLOOR);
+  }
+
   /**
    * @return is the current floor the target floor the elevator was headed?
    */
@@ -735,6 +1471,48 @@ public class Elevator
     return (!m_passengers.isEmpty());
   }
 
+  /**
+   * @return int - number of passengers currently on board
+   */
+  public int getPassengerCount()
+  {
+    return m_passengers.size();
+  }
+
+  /**
+   * @return long - number of passengers that have gotten off this elevator at their final destination
+   */
+  public long getPassengersDelivered()
+  {
+    return m_passengersDelivered;
+  }
+
+  /**
+   * Hand over the next passenger that got off to change to another bank of elevators
+   * @return int - handle of the passenger, PassengerStore.NO_PASSENGER if no one is left
+   */
+  public int takeTransferringPassenger()
+  {
+    return m_transferringPassengers.isEmpty() ? PassengerStore.NO_PASSENGER : m_transferringPassengers.remove(0);
+  }
+
+  /**
+   * @return boolean - can another passenger get on this frame?
+   */
+  public boolean canBoardThisFrame()
+  {
+    return m_boardedThisFrame < TRANSFER_RATE;
+  }
+
+
+  /**
+   * @return long - number of floors this elevator has traveled
+   */
+  public long getFloorsTraveled()
+  {
+    return m_floorsTraveled;
+  }
+
   /**
    * Is the state of the elevator in maintenance mode?
    * @return boolean
@@ -774,7 +1552,7 @@ public class Elevator
    */
   public boolean passengerRequestInRange(int requestFloor)
   {
-    return ((requestFloor <= HIGHEST_FLOOR) || 
+    return ((requestFloor <= HIGHEST_FLOOR) && 
             (requestFloor >= LOWEST_FLOOR));
   }
 
@@ -808,12 +1586,48 @@ public class Elevator
   }
 
   /**
-   * A macro to identify this elevator for printing
-   * @return String
+   * @param direction - UP or DOWN
+   * @return String - text of a hall call made for the direction
+   */
+  private static String callString(Direction direction)
+  {
+    return (Direction.UP == direction) ? "Going UP" : "Going DOWN";
+  }
+
+  /**
+   * A macro to log a record about this elevator at its current floor
+   * @param level
+   * @param message - constant text of the record
+   */
+  private void log(Log.Level level, String message)
+  {
+    log(level, message, Log.NONE, Log.NONE, null);
+  }
+
+  /**
+   * A macro to log a record about a passenger or target floor of this elevator
+   * @param level
+   * @param message - constant text of the record
+   * @param passengerID int - Log.NONE if there is no passenger
+   * @param target int - floor being headed to, Log.NONE if there is none
+   */
+  private void log(Log.Level level, String message, int passengerID, int target)
+  {
+    log(level, message, passengerID, target, null);
+  }
+
+  /**
+   * A macro to log a record about this elevator at its current floor
+   * @param level
+   * @param message - constant text of the record
+   * @param passengerID int - Log.NONE if there is no passenger
+   * @param target int - floor being headed to, Log.NONE if there is none
+   * @param detail - constant text to add to the message, null for none
    */
-  private String elevatorHeaderStr()
+  private void log(Log.Level level, String message, int passengerID, int target, String detail)
   {
-    return "Elevator (" + String.valueOf(ELEVATOR_ID) + "): ";
+    Log.log(level, Log.Category.ELEVATOR, message, ELEVATOR_ID, m_currentFloor, passengerID,
+            target, Log.NONE, detail);
   }
 
   // private boolean atMidway()
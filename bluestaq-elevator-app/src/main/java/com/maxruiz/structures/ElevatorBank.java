@@ -0,0 +1,140 @@
+package com.maxruiz.structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class is a group of elevators that serve the same floors, e.g. the low rise or the high
+ * rise cars of a tall building. The elevators of a bank share its hall calls and its dispatcher,
+ * so a call made on a floor is only ever seen by the cars that can answer it.
+ *
+ * A building puts every elevator that has the same lowest and highest floor in the same bank.
+ * Passengers change from one bank to another at the floors the two of them serve, see
+ * RoutingIndex.
+ * @see Elevator
+ * @see RoutingIndex
+ * @author Max Ruiz
+ */
+public class ElevatorBank
+{
+  private final int BANK_ID;
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+
+  private final HallCallRegistry m_hallCalls;
+  private final Dispatcher m_dispatcher;
+  private final ArrayList<Elevator> m_elevators = new ArrayList<>();
+
+  /**
+   * Constructor for ElevatorBank, with no elevators yet
+   * @param id - Bank ID
+   * @param lowestFloor - lowest floor the elevators of the bank serve
+   * @param highestFloor - highest floor the elevators of the bank serve
+   * @param strategy - how the elevators of the bank pick calls and stops
+   * @throws IllegalArgumentException if the floors are equal or crossed
+   */
+  public ElevatorBank(int id, int lowestFloor, int highestFloor, Dispatcher.Strategy strategy)
+  {
+    BANK_ID = id;
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+
+    if (null == strategy)
+    {
+      throw new IllegalArgumentException("strategy is invalid.");
+    }
+
+    m_hallCalls = new HallCallRegistry(LOWEST_FLOOR, HIGHEST_FLOOR);
+    m_dispatcher = strategy.create(m_elevators);
+  }
+
+  /**
+   * Create an elevator in this bank
+   * @param ec - Elevator config, its floors must be the floors of the bank
+   * @return Elevator - the new elevator
+   * @throws IllegalArgumentException if the elevator serves other floors
+   */
+  public Elevator addElevator(ElevatorConfig ec)
+  {
+    if (false == serves(ec))
+    {
+      throw new IllegalArgumentException("ElevatorConfig is invalid.");
+    }
+
+    Elevator elevator = new Elevator(ec, m_hallCalls, m_dispatcher);
+    m_elevators.add(elevator);
+
+    return elevator;
+  }
+
+  /**
+   * @param ec
+   * @return boolean - does the elevator serve exactly the floors of this bank?
+   */
+  public boolean serves(ElevatorConfig ec)
+  {
+    return LOWEST_FLOOR == ec.getLowestFloor() && HIGHEST_FLOOR == ec.getHighestFloor();
+  }
+
+  /**
+   * @param elevator
+   * @return boolean - is the elevator one of this bank? Banks never share floors exactly, so
+   *                   the floors the elevator serves are enough to tell
+   */
+  public boolean contains(Elevator elevator)
+  {
+    return LOWEST_FLOOR == elevator.getLowestFloor() && HIGHEST_FLOOR == elevator.getHighestFloor();
+  }
+
+  /**
+   * @param floor
+   * @return boolean - is the floor within the floors of this bank?
+   */
+  public boolean canReachFloor(int floor)
+  {
+    return floor >= LOWEST_FLOOR && floor <= HIGHEST_FLOOR;
+  }
+
+  /**
+   * Set a hall call for the elevators of this bank
+   * @param requestFloor int - floor request from a passenger in the building
+   * @param direction Direction - UP or DOWN, the way the passenger is going
+   * @return boolean - true if the call was not set yet
+   */
+  public boolean receivePassengerRequest(int requestFloor, Direction direction)
+  {
+    // Any of the elevators will do, they share the calls
+    return m_elevators.get(0).receivePassengerRequest(requestFloor, direction);
+  }
+
+  public int getID() {
+    return BANK_ID;
+  }
+
+  public int getLowestFloor() {
+    return LOWEST_FLOOR;
+  }
+
+  public int getHighestFloor() {
+    return HIGHEST_FLOOR;
+  }
+
+  /**
+   * @return List<Elevator> - the elevators of the bank, which are the cars eligible for its calls
+   */
+  public List<Elevator> getElevators()
+  {
+    return m_elevators;
+  }
+
+  /**
+   * @return HallCallRegistry - the hall calls shared by the elevators of the bank
+   */
+  public HallCallRegistry getHallCalls()
+  {
+    return m_hallCalls;
+  }
+}
@@ -0,0 +1,120 @@
+package com.maxruiz.structures;
+
+import java.util.List;
+
+/**
+ * This class assigns every hall call to the elevator with the lowest estimated time of arrival,
+ * taking into account where each elevator is, where it is headed and the stops it already has.
+ * An idle elevator only answers the calls assigned to it, rather than racing the others for them.
+ *
+ * Assignments are not stored. They are worked out from the state of the elevators every time
+ * they are asked for, so a call moves to another elevator as soon as that one would get there
+ * first. Ties go to the elevator that comes first in the building. Elevators with passengers
+ * choose their next stop the same as LOOK.
+ * @see Elevator#estimateFramesTo
+ * @see LookDispatcher
+ * @author Max Ruiz
+ */
+public class EtaDispatcher extends LookDispatcher
+{
+  private final List<Elevator> m_elevators;
+
+  /**
+   * Constructor for EtaDispatcher
+   * @param elevators - every elevator of the bank
+   */
+  public EtaDispatcher(List<Elevator> elevators)
+  {
+    m_elevators = elevators;
+  }
+
+  @Override
+  public int selectHallCall(Elevator elevator, HallCallRegistry hallCalls)
+  {
+    if (hallCalls.isEmpty())
+    {
+      return HallCallRegistry.NO_CALL;
+    }
+
+    int bestCall = HallCallRegistry.NO_CALL;
+    long bestFrames = Long.MAX_VALUE;
+
+    int highestFloor = elevator.getHighestFloor();
+    int call = hallCalls.nextServableAbove(elevator.getLowestFloor() - 1, highestFloor);
+
+    while (HallCallRegistry.NO_CALL != call)
+    {
+      long frames = elevator.estimateFramesTo(call);
+
+      if (frames < bestFrames && isAssignedTo(elevator, call, frames))
+      {
+        bestCall = call;
+        bestFrames = frames;
+      }
+
+      call = hallCalls.nextServableAbove(call, highestFloor);
+    }
+
+    return bestCall;
+  }
+
+  /**
+   * @param floor
+   * @return Elevator - the elevator the call at this floor is assigned to, null if none can reach it
+   */
+  public Elevator getAssignedElevator(int floor)
+  {
+    Elevator best = null;
+    long bestFrames = Long.MAX_VALUE;
+
+    for (Elevator e : m_elevators)
+    {
+      long frames = e.estimateFramesTo(floor);
+
+      if (frames < bestFrames)
+      {
+        best = e;
+        bestFrames = frames;
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * A Macro to check that no other elevator would get to a call sooner, or as soon while coming
+   * first in the building
+   * @param elevator
+   * @param floor
+   * @param frames long - estimate of elevator
+   * @return boolean
+   */
+  private boolean isAssignedTo(Elevator elevator, int floor, long frames)
+  {
+    if (Long.MAX_VALUE == frames)
+    {
+      return false;
+    }
+
+    // Elevators that come first win ties
+    boolean comesFirst = true;
+
+    for (Elevator e : m_elevators)
+    {
+      if (e == elevator)
+      {
+        comesFirst = false;
+        continue;
+      }
+
+      long otherFrames = e.estimateFramesTo(floor);
+
+      if (otherFrames < frames || (comesFirst && otherFrames == frames))
+      {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,29 @@
+package com.maxruiz.structures;
+
+/**
+ * This class dispatches first come first served. An idle elevator answers the oldest hall call
+ * that it can reach and that no other elevator has taken, and an elevator with passengers heads
+ * to the destination of whoever has been on board the longest.
+ * @see Dispatcher
+ * @author Max Ruiz
+ */
+public class FifoDispatcher implements Dispatcher
+{
+  @Override
+  public int selectHallCall(Elevator elevator, HallCallRegistry hallCalls)
+  {
+    if (hallCalls.isEmpty())
+    {
+      return HallCallRegistry.NO_CALL;
+    }
+
+    // Calls out of range or already taken don't hold up the ones behind them
+    return hallCalls.oldestServable(elevator.getLowestFloor(), elevator.getHighestFloor());
+  }
+
+  @Override
+  public int selectNextStop(Elevator elevator)
+  {
+    return elevator.getOldestDestination();
+  }
+}
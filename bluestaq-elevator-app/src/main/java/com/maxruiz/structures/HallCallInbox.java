@@ -0,0 +1,237 @@
+package com.maxruiz.structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class is a bounded ring of requests from outside the building, e.g. hall call buttons and
+ * badge readers, that any number of threads offer and the thread running the building takes at
+ * the start of every frame. It is the only part of a building that is thread safe.
+ *
+ * A producer claims the next sequence number only if the ring has room, fills in the slot and
+ * publishes it by storing the sequence number in the slot, the same as the ring of the log. Unlike
+ * the log, a producer never waits: when the ring is full the request is refused and counted, so a
+ * burst of button presses can never hold up the building or the thread that pressed them. The
+ * fields of the requests live in parallel arrays allocated up front, so offering a request
+ * allocates nothing.
+ *
+ * Every request is stamped with System.nanoTime() when it is offered, so the building can measure
+ * how long it took to be dispatched.
+ * @see Building
+ * @author Max Ruiz
+ */
+public class HallCallInbox
+{
+  /**
+   * The kinds of requests
+   */
+  public enum Kind
+  {
+    // Someone pressed the up or down button on a floor
+    HALL_CALL,
+    // Someone badged in on a floor, going to a known floor
+    BADGE
+  }
+
+  private static final Kind[] KINDS = Kind.values();
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int CAPACITY;
+  private final int MASK;
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+
+  private final AtomicLong m_claimSequence = new AtomicLong();
+  private final AtomicLongArray m_published;
+  private volatile long m_releasedSequence = 0;
+  private final AtomicLong m_refused = new AtomicLong();
+
+  private final int[] m_kinds;
+  private final int[] m_floors;
+  private final int[] m_targets;
+  private final long[] m_enqueueNanos;
+
+  // Only touched by the thread running the building
+  private long m_nextSequence = 0;
+
+  /**
+   * @param capacity int - number of requests the ring holds, must be a power of two
+   * @param lowestFloor - the lowest floor of the building
+   * @param highestFloor - the highest floor of the building
+   * @throws IllegalArgumentException if the capacity is not a power of two
+   */
+  public HallCallInbox(int capacity, int lowestFloor, int highestFloor)
+  {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+    {
+      throw new IllegalArgumentException("capacity must be a power of two.");
+    }
+
+    CAPACITY = capacity;
+    MASK = capacity - 1;
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+
+    m_published = new AtomicLongArray(capacity);
+
+    for (int i = 0; i < capacity; i++)
+    {
+      m_published.set(i, -1);
+    }
+
+    m_kinds = new int[capacity];
+    m_floors = new int[capacity];
+    m_targets = new int[capacity];
+    m_enqueueNanos = new long[capacity];
+  }
+
+  /**
+   * Press the up or down button on a floor. Safe to call from any thread, never waits.
+   * @param floor
+   * @param direction - UP or DOWN
+   * @return boolean - false if the inbox is full and the call was refused
+   * @throws IllegalArgumentException if the floor is not in the building or there is no floor
+   *                                  that way
+   */
+  public boolean offerHallCall(int floor, Direction direction)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("floor is invalid.");
+    }
+
+    boolean hasFloorThatWay = (Direction.UP == direction && floor < HIGHEST_FLOOR) ||
+                              (Direction.DOWN == direction && floor > LOWEST_FLOOR);
+
+    if (false == hasFloorThatWay)
+    {
+      throw new IllegalArgumentException("direction is invalid.");
+    }
+
+    return offer(Kind.HALL_CALL, floor, direction.ordinal());
+  }
+
+  /**
+   * Badge in on a floor, going to another floor. The building lines up a passenger for it.
+   * Safe to call from any thread, never waits.
+   * @param floor
+   * @param destinationFloor
+   * @return boolean - false if the inbox is full and the badge was refused
+   * @throws IllegalArgumentException if a floor is not in the building or they are the same
+   */
+  public boolean offerBadge(int floor, int destinationFloor)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("floor is invalid.");
+    }
+
+    if (destinationFloor < LOWEST_FLOOR || destinationFloor > HIGHEST_FLOOR || floor == destinationFloor)
+    {
+      throw new IllegalArgumentException("destinationFloor is invalid.");
+    }
+
+    return offer(Kind.BADGE, floor, destinationFloor);
+  }
+
+  /**
+   * @return long - number of requests refused because the inbox was full
+   */
+  public long getRefusedCount()
+  {
+    return m_refused.get();
+  }
+
+  /**
+   * @return int - number of requests the ring holds
+   */
+  public int getCapacity() {
+    return CAPACITY;
+  }
+
+  /**
+   * @return boolean - is the next request published? Only for the thread running the building.
+   */
+  boolean hasNext()
+  {
+    return m_published.getAcquire((int)(m_nextSequence & MASK)) == m_nextSequence;
+  }
+
+  Kind getKind() {
+    return KINDS[m_kinds[(int)(m_nextSequence & MASK)]];
+  }
+
+  int getFloor() {
+    return m_floors[(int)(m_nextSequence & MASK)];
+  }
+
+  /**
+   * @return Direction - of the next request, a HALL_CALL
+   */
+  Direction getDirection() {
+    return DIRECTIONS[m_targets[(int)(m_nextSequence & MASK)]];
+  }
+
+  /**
+   * @return int - destination floor of the next request, a BADGE
+   */
+  int getDestinationFloor() {
+    return m_targets[(int)(m_nextSequence & MASK)];
+  }
+
+  long getEnqueueNanos() {
+    return m_enqueueNanos[(int)(m_nextSequence & MASK)];
+  }
+
+  /**
+   * Hand the slot of the next request back to the producers and move on to the one after it
+   */
+  void next()
+  {
+    m_releasedSequence = ++m_nextSequence;
+  }
+
+  /**
+   * A Macro to claim a slot if there is room, fill it in and publish it
+   * @param kind
+   * @param floor
+   * @param target - direction ordinal or destination floor
+   * @return boolean - false if there was no room
+   */
+  private boolean offer(Kind kind, int floor, int target)
+  {
+    long sequence = m_claimSequence.get();
+
+    while (true)
+    {
+      if (sequence - m_releasedSequence >= CAPACITY)
+      {
+        m_refused.incrementAndGet();
+        return false;
+      }
+
+      // Another producer took this one, try the next
+      long witness = m_claimSequence.compareAndExchange(sequence, sequence + 1);
+
+      if (witness == sequence)
+      {
+        break;
+      }
+
+      sequence = witness;
+    }
+
+    int index = (int)(sequence & MASK);
+
+    m_kinds[index] = kind.ordinal();
+    m_floors[index] = floor;
+    m_targets[index] = target;
+    m_enqueueNanos[index] = System.nanoTime();
+
+    m_published.setRelease(index, sequence);
+
+    return true;
+  }
+}
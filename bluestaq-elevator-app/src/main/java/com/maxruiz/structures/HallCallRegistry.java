@@ -0,0 +1,549 @@
+package com.maxruiz.structures;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class holds the hall calls of a bank of elevators, i.e. the requests made by passengers
+ * waiting on a floor. Every elevator of a bank shares the same registry, while separate banks and
+ * buildings each have their own.
+ *
+ * Every floor has an UP and a DOWN call, set when the first passenger going that way presses the
+ * button and cleared when an elevator serving that direction opens its doors there. Setting a
+ * call that is already set does nothing, so passengers can keep asking without adding anything.
+ * The calls are kept in slots, two per floor, ordered by floor then direction.
+ *
+ * A slot can be pending (someone pressed the button and no elevator has taken the call yet),
+ * and a floor can be claimed (an elevator is on its way to answer the calls there). Both are kept
+ * as bits, and the pending slots are also linked together in the order they were registered, so
+ * every operation is O(1) apart from the searches above and below a floor.
+ *
+ * A call that is pending on a floor that is not claimed is servable, i.e. any elevator that
+ * reaches the floor may take it. Servable calls are kept in a bit set for the closest one to a
+ * floor, and in a segment tree keyed by registration order for the oldest one within a range of
+ * floors. The tree costs O(log floors) to update and to query, so an elevator that only serves
+ * part of the building never has to wait on calls it can't take.
+ *
+ * This class is NOT thread safe.
+ * @see Elevator
+ * @author Max Ruiz
+ */
+public class HallCallRegistry
+{
+  public static final int NO_CALL = Integer.MIN_VALUE;
+
+  private static final int NO_INDEX = -1;
+  private static final long NO_SEQUENCE = Long.MAX_VALUE;
+  private static final int SLOTS_PER_FLOOR = 2;
+
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+
+  // By slot, except claimed which is by floor
+  private final BitSet m_pending;
+  private final BitSet m_claimed;
+  private final BitSet m_servable;
+
+  // Pending slots in the order they were registered, linked by slot
+  private final int[] m_nextPending;
+  private final int[] m_prevPending;
+  private int m_oldestPending = NO_INDEX;
+  private int m_newestPending = NO_INDEX;
+  private int m_pendingCount = 0;
+
+  // When each pending slot was registered, and a segment tree over the slots where every node
+  // holds the servable slot registered first in its range, NO_INDEX if there is none
+  private final long[] m_sequence;
+  private long m_nextSequence = 0;
+  private final int m_treeLeaves;
+  private final int[] m_oldestServableTree;
+
+  /**
+   * Constructor for HallCallRegistry that covers every floor from lowestFloor to highestFloor
+   * @param lowestFloor
+   * @param highestFloor
+   * @throws IllegalArgumentException if the floors are equal or crossed
+   */
+  public HallCallRegistry(int lowestFloor, int highestFloor)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+
+    int numFloors = HIGHEST_FLOOR - LOWEST_FLOOR + 1;
+    int numSlots = SLOTS_PER_FLOOR * numFloors;
+
+    m_pending = new BitSet(numSlots);
+    m_claimed = new BitSet(numFloors);
+    m_servable = new BitSet(numSlots);
+    m_nextPending = new int[numSlots];
+    m_prevPending = new int[numSlots];
+
+    m_sequence = new long[numSlots];
+    Arrays.fill(m_sequence, NO_SEQUENCE);
+
+    m_treeLeaves = numSlots;
+    m_oldestServableTree = new int[2 * numSlots];
+    Arrays.fill(m_oldestServableTree, NO_INDEX);
+  }
+
+  /**
+   * Register a call at a floor for a direction, unless one is already pending there
+   * @param floor
+   * @param direction - UP or DOWN
+   * @return boolean - true: new call, false: the floor had already been requested that way
+   */
+  public boolean register(int floor, Direction direction)
+  {
+    int slot = slotOf(floor, direction);
+
+    if (m_pending.get(slot))
+    {
+      return false;
+    }
+
+    m_pending.set(slot);
+    m_nextPending[slot] = NO_INDEX;
+    m_prevPending[slot] = m_newestPending;
+
+    if (NO_INDEX == m_newestPending)
+    {
+      m_oldestPending = slot;
+    }
+    else
+    {
+      m_nextPending[m_newestPending] = slot;
+    }
+
+    m_newestPending = slot;
+    m_pendingCount++;
+
+    m_sequence[slot] = m_nextSequence++;
+    updateServable(slot);
+
+    return true;
+  }
+
+  /**
+   * Remove the pending call at a floor for a direction, e.g. an elevator going that way opened
+   * its doors there
+   * @param floor
+   * @param direction - UP or DOWN
+   * @return boolean - true if there was a pending call to remove
+   */
+  public boolean cancel(int floor, Direction direction)
+  {
+    int slot = slotOf(floor, direction);
+
+    if (false == m_pending.get(slot))
+    {
+      return false;
+    }
+
+    unlinkPending(slot);
+
+    return true;
+  }
+
+  /**
+   * Remove the pending calls at a floor, both ways
+   * @param floor
+   * @return boolean - true if there was a pending call to remove
+   */
+  public boolean cancel(int floor)
+  {
+    boolean up = cancel(floor, Direction.UP);
+    boolean down = cancel(floor, Direction.DOWN);
+
+    return up || down;
+  }
+
+  /**
+   * An elevator takes the calls at a floor. The calls are no longer pending and the floor is
+   * marked as claimed so that other elevators don't head to the same floor.
+   * @param floor
+   */
+  public void claim(int floor)
+  {
+    int index = indexOf(floor);
+
+    cancel(floor);
+
+    m_claimed.set(index);
+    updateServable(SLOTS_PER_FLOOR * index);
+    updateServable(SLOTS_PER_FLOOR * index + 1);
+  }
+
+  /**
+   * The elevator that claimed the calls at a floor has answered them
+   * @param floor
+   */
+  public void release(int floor)
+  {
+    int index = indexOf(floor);
+
+    m_claimed.clear(index);
+    updateServable(SLOTS_PER_FLOOR * index);
+    updateServable(SLOTS_PER_FLOOR * index + 1);
+  }
+
+  /**
+   * @param floor
+   * @return boolean - is there a call waiting for an elevator at this floor, either way?
+   */
+  public boolean isPending(int floor)
+  {
+    int slot = SLOTS_PER_FLOOR * indexOf(floor);
+
+    return m_pending.get(slot) || m_pending.get(slot + 1);
+  }
+
+  /**
+   * @param floor
+   * @param direction - UP or DOWN
+   * @return boolean - is there a call waiting for an elevator at this floor going this way?
+   */
+  public boolean isPending(int floor, Direction direction)
+  {
+    return m_pending.get(slotOf(floor, direction));
+  }
+
+  /**
+   * @param floor
+   * @return boolean - is an elevator already answering the calls at this floor?
+   */
+  public boolean isClaimed(int floor)
+  {
+    return m_claimed.get(indexOf(floor));
+  }
+
+  /**
+   * @return int - the floor of the pending call registered first, NO_CALL if there are none
+   */
+  public int oldestPending()
+  {
+    return floorOf(m_oldestPending);
+  }
+
+  /**
+   * @param floor
+   * @return int - the closest floor strictly above floor with a pending call, NO_CALL if none
+   */
+  public int nextPendingAbove(int floor)
+  {
+    int from = Math.max(0, floor - LOWEST_FLOOR + 1);
+
+    if (from > HIGHEST_FLOOR - LOWEST_FLOOR)
+    {
+      return NO_CALL;
+    }
+
+    return floorOf(m_pending.nextSetBit(SLOTS_PER_FLOOR * from));
+  }
+
+  /**
+   * @param floor
+   * @return int - the closest floor strictly below floor with a pending call, NO_CALL if none
+   */
+  public int nextPendingBelow(int floor)
+  {
+    int from = Math.min(HIGHEST_FLOOR - LOWEST_FLOOR, floor - LOWEST_FLOOR - 1);
+
+    if (from < 0)
+    {
+      return NO_CALL;
+    }
+
+    return floorOf(m_pending.previousSetBit(SLOTS_PER_FLOOR * from + 1));
+  }
+
+  /**
+   * @param lowestFloor - lowest floor the elevator asking can reach
+   * @param highestFloor - highest floor the elevator asking can reach
+   * @return int - the floor, from lowestFloor to highestFloor, of the servable call that was 
+   *               registered first, NO_CALL if there are none
+   */
+  public int oldestServable(int lowestFloor, int highestFloor)
+  {
+    int low = SLOTS_PER_FLOOR * Math.max(0, lowestFloor - LOWEST_FLOOR) + m_treeLeaves;
+    int high = SLOTS_PER_FLOOR * (Math.min(HIGHEST_FLOOR, highestFloor) - LOWEST_FLOOR + 1) + 
+               m_treeLeaves;
+    int oldest = NO_INDEX;
+
+    // Walk up from both ends of the range, [low, high)
+    while (low < high)
+    {
+      if (1 == (low & 1))
+      {
+        oldest = older(oldest, m_oldestServableTree[low++]);
+      }
+
+      if (1 == (high & 1))
+      {
+        oldest = older(oldest, m_oldestServableTree[--high]);
+      }
+
+      low >>= 1;
+      high >>= 1;
+    }
+
+    return floorOf(oldest);
+  }
+
+  /**
+   * @param floor
+   * @param highestFloor - highest floor the elevator asking can reach
+   * @return int - the closest floor strictly above floor, up to highestFloor, with a servable call,
+   *               NO_CALL if none
+   */
+  public int nextServableAbove(int floor, int highestFloor)
+  {
+    int from = Math.max(0, floor - LOWEST_FLOOR + 1);
+    int to = Math.min(HIGHEST_FLOOR, highestFloor) - LOWEST_FLOOR;
+
+    if (from > to)
+    {
+      return NO_CALL;
+    }
+
+    int slot = m_servable.nextSetBit(SLOTS_PER_FLOOR * from);
+
+    return (slot > SLOTS_PER_FLOOR * to + 1) ? NO_CALL : floorOf(slot);
+  }
+
+  /**
+   * @param floor
+   * @param lowestFloor - lowest floor the elevator asking can reach
+   * @return int - the closest floor strictly below floor, down to lowestFloor, with a servable call,
+   *               NO_CALL if none
+   */
+  public int nextServableBelow(int floor, int lowestFloor)
+  {
+    int from = Math.min(HIGHEST_FLOOR - LOWEST_FLOOR, floor - LOWEST_FLOOR - 1);
+    int to = Math.max(LOWEST_FLOOR, lowestFloor) - LOWEST_FLOOR;
+
+    if (from < to)
+    {
+      return NO_CALL;
+    }
+
+    int slot = m_servable.previousSetBit(SLOTS_PER_FLOOR * from + 1);
+
+    return (slot < SLOTS_PER_FLOOR * to) ? NO_CALL : floorOf(slot);
+  }
+
+  /**
+   * @param floor
+   * @return boolean - is there a call at this floor that no elevator has taken?
+   */
+  public boolean isServable(int floor)
+  {
+    int slot = SLOTS_PER_FLOOR * indexOf(floor);
+
+    return m_servable.get(slot) || m_servable.get(slot + 1);
+  }
+
+  /**
+   * @return boolean - are there no pending calls?
+   */
+  public boolean isEmpty()
+  {
+    return 0 == m_pendingCount;
+  }
+
+  /**
+   * @return int - number of pending calls, a floor called both ways counts twice
+   */
+  public int getPendingCount()
+  {
+    return m_pendingCount;
+  }
+
+  public int getLowestFloor()
+  {
+    return LOWEST_FLOOR;
+  }
+
+  public int getHighestFloor()
+  {
+    return HIGHEST_FLOOR;
+  }
+
+  /**
+   * Write the calls and the order they were registered in. Which calls are servable follows from
+   * them, so it is not written.
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeBitSet(m_pending);
+    out.writeBitSet(m_claimed);
+    out.writeInts(m_nextPending, m_nextPending.length);
+    out.writeInts(m_prevPending, m_prevPending.length);
+    out.writeInt(m_oldestPending);
+    out.writeInt(m_newestPending);
+    out.writeInt(m_pendingCount);
+    out.writeLongs(m_sequence, m_sequence.length);
+    out.writeLong(m_nextSequence);
+  }
+
+  /**
+   * Replace every call with the ones written by writeCheckpoint(), for the same floors
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if the order of the calls is out of range
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    int numSlots = m_sequence.length;
+
+    in.readBitSet(m_pending, numSlots);
+    in.readBitSet(m_claimed, numSlots / SLOTS_PER_FLOOR);
+    in.readInts(m_nextPending, numSlots);
+    in.readInts(m_prevPending, numSlots);
+    m_oldestPending = in.readInt();
+    m_newestPending = in.readInt();
+    m_pendingCount = in.readCount(numSlots);
+    in.readLongs(m_sequence, numSlots);
+    m_nextSequence = in.readLong();
+
+    if (m_oldestPending < NO_INDEX || m_oldestPending >= numSlots ||
+        m_newestPending < NO_INDEX || m_newestPending >= numSlots ||
+        m_pendingCount != m_pending.cardinality())
+    {
+      throw new IllegalArgumentException("Checkpoint hall calls are invalid.");
+    }
+
+    for (int slot = 0; slot < numSlots; slot++)
+    {
+      updateServable(slot);
+    }
+  }
+
+  /**
+   * Take a pending call out of the registration order
+   * @param slot
+   */
+  private void unlinkPending(int slot)
+  {
+    int prev = m_prevPending[slot];
+    int next = m_nextPending[slot];
+
+    if (NO_INDEX == prev)
+    {
+      m_oldestPending = next;
+    }
+    else
+    {
+      m_nextPending[prev] = next;
+    }
+
+    if (NO_INDEX == next)
+    {
+      m_newestPending = prev;
+    }
+    else
+    {
+      m_prevPending[next] = prev;
+    }
+
+    m_pending.clear(slot);
+    m_pendingCount--;
+
+    m_sequence[slot] = NO_SEQUENCE;
+    updateServable(slot);
+  }
+
+  /**
+   * Bring the servable bit and the segment tree up to date after the call in a slot changed
+   * @param slot
+   */
+  private void updateServable(int slot)
+  {
+    boolean servable = m_pending.get(slot) && !m_claimed.get(slot / SLOTS_PER_FLOOR);
+
+    m_servable.set(slot, servable);
+
+    int node = slot + m_treeLeaves;
+    m_oldestServableTree[node] = servable ? slot : NO_INDEX;
+
+    for (node >>= 1; node > 0; node >>= 1)
+    {
+      m_oldestServableTree[node] = older(m_oldestServableTree[2 * node], 
+                                         m_oldestServableTree[2 * node + 1]);
+    }
+  }
+
+  /**
+   * A Macro to pick the slot of the call registered first
+   * @param a - slot or NO_INDEX
+   * @param b - slot or NO_INDEX
+   * @return int
+   */
+  private int older(int a, int b)
+  {
+    if (NO_INDEX == a)
+    {
+      return b;
+    }
+
+    if (NO_INDEX == b)
+    {
+      return a;
+    }
+
+    return (m_sequence[a] <= m_sequence[b]) ? a : b;
+  }
+
+  /**
+   * A Macro to convert a floor into an index of the claimed bits
+   * @param floor
+   * @return int
+   * @throws IllegalArgumentException if the floor is not covered by this registry
+   */
+  private int indexOf(int floor)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("Floor " + floor + " is out of range.");
+    }
+
+    return floor - LOWEST_FLOOR;
+  }
+
+  /**
+   * A Macro to convert a floor and direction into a slot
+   * @param floor
+   * @param direction - UP or DOWN
+   * @return int
+   * @throws IllegalArgumentException if the floor is not covered by this registry or the 
+   *                                  direction is neither UP nor DOWN
+   */
+  private int slotOf(int floor, Direction direction)
+  {
+    if (Direction.UP != direction && Direction.DOWN != direction)
+    {
+      throw new IllegalArgumentException("Direction is invalid.");
+    }
+
+    return SLOTS_PER_FLOOR * indexOf(floor) + direction.Value;
+  }
+
+  /**
+   * A Macro to convert a slot back into its floor
+   * @param slot - slot, NO_INDEX or a negative result of a bit set search
+   * @return int - NO_CALL if there is no slot
+   */
+  private int floorOf(int slot)
+  {
+    return (slot < 0) ? NO_CALL : slot / SLOTS_PER_FLOOR + LOWEST_FLOOR;
+  }
+}
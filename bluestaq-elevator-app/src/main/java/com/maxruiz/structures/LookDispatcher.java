@@ -0,0 +1,64 @@
+package com.maxruiz.structures;
+
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class dispatches with the LOOK algorithm, also known as collective control. An elevator
+ * keeps sweeping in one direction, serving the closest destination or hall call ahead of it, and
+ * only reverses once there is nothing left to serve in that direction.
+ *
+ * Hall calls that another elevator has claimed or that are out of reach are passed over rather
+ * than waited on.
+ * @see Dispatcher
+ * @author Max Ruiz
+ */
+public class LookDispatcher implements Dispatcher
+{
+  @Override
+  public int selectHallCall(Elevator elevator, HallCallRegistry hallCalls)
+  {
+    if (hallCalls.isEmpty())
+    {
+      return HallCallRegistry.NO_CALL;
+    }
+
+    int floor = elevator.getCurrentFloor();
+
+    if (hallCalls.isServable(floor))
+    {
+      return floor;
+    }
+
+    boolean sweepingUp = (Direction.DOWN != elevator.getSweepDirection());
+
+    int call = sweepingUp ? hallCalls.nextServableAbove(floor, elevator.getHighestFloor())
+                          : hallCalls.nextServableBelow(floor, elevator.getLowestFloor());
+
+    if (HallCallRegistry.NO_CALL != call)
+    {
+      return call;
+    }
+
+    // Nothing left ahead, reverse
+    return sweepingUp ? hallCalls.nextServableBelow(floor, elevator.getLowestFloor())
+                      : hallCalls.nextServableAbove(floor, elevator.getHighestFloor());
+  }
+
+  @Override
+  public int selectNextStop(Elevator elevator)
+  {
+    Direction sweep = (Direction.DOWN != elevator.getSweepDirection()) ? Direction.UP : Direction.DOWN;
+
+    int stop = elevator.nextStop(sweep);
+
+    if (HallCallRegistry.NO_CALL != stop)
+    {
+      return stop;
+    }
+
+    // Nothing left ahead, reverse
+    stop = elevator.nextStop((Direction.UP == sweep) ? Direction.DOWN : Direction.UP);
+
+    return (HallCallRegistry.NO_CALL != stop) ? stop : elevator.getOldestDestination();
+  }
+}
@@ -0,0 +1,297 @@
+package com.maxruiz.structures;
+
+import java.util.BitSet;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+import com.maxruiz.passengers.PassengerStore;
+
+/**
+ * This class holds the passengers on board an elevator by the floor they get off at, the way a
+ * manifest would. Whether anyone gets off at a floor, and who, is found without looking at anyone
+ * else on board, so a full elevator passes a floor in constant time.
+ *
+ * Every floor someone gets off at is a stop, kept as a bit per floor, so the stops around a floor
+ * are found by scanning the bits rather than the passengers. The passengers of a floor are kept in
+ * the order they got on, so the one that has been on board the longest is always at the front of
+ * some floor. The lines are indexed from the lowest floor the elevator serves, and created on the
+ * first stop at their floor.
+ *
+ * This class is NOT thread safe.
+ * @see Elevator
+ * @see PassengerQueue
+ * @author Max Ruiz
+ */
+public class OnboardManifest
+{
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+
+  // Indexed by floor - LOWEST_FLOOR
+  private final PassengerQueue[] m_byFloor;
+  private final BitSet m_stops;
+  private int m_size = 0;
+  private long m_nextSequence = 0;
+
+  /**
+   * Constructor for OnboardManifest, with no one on board
+   * @param lowestFloor
+   * @param highestFloor
+   * @throws IllegalArgumentException if the floors are equal or crossed
+   */
+  public OnboardManifest(int lowestFloor, int highestFloor)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+
+    m_byFloor = new PassengerQueue[HIGHEST_FLOOR - LOWEST_FLOOR + 1];
+    m_stops = new BitSet(m_byFloor.length);
+  }
+
+  /**
+   * A passenger gets on, to get off at a floor
+   * @param handle - the passenger
+   * @param floor - where they get off
+   * @throws IllegalArgumentException if the floor is not served
+   */
+  public void add(int handle, int floor)
+  {
+    line(floor).add(handle, m_nextSequence++);
+    m_stops.set(floor - LOWEST_FLOOR);
+    m_size++;
+  }
+
+  /**
+   * A passenger gets off at another floor than they got on for, e.g. they got sick. They keep
+   * their place in the order everyone got on.
+   * @param floor - where they were getting off
+   * @param index - their place among the passengers getting off there
+   * @param toFloor - where they get off now
+   * @throws IllegalArgumentException if a floor is not served
+   * @throws IndexOutOfBoundsException if no one is at that place
+   */
+  public void move(int floor, int index, int toFloor)
+  {
+    PassengerQueue from = line(floor);
+    PassengerQueue to = line(toFloor);
+    long sequence = from.getSequence(index);
+
+    to.insert(from.remove(index), sequence);
+    m_stops.set(toFloor - LOWEST_FLOOR);
+
+    if (from.isEmpty())
+    {
+      m_stops.clear(floor - LOWEST_FLOOR);
+    }
+  }
+
+  /**
+   * The passenger that got on first of the ones getting off at a floor gets off
+   * @param floor
+   * @return int - handle of the passenger, PassengerStore.NO_PASSENGER if no one gets off there
+   * @throws IllegalArgumentException if the floor is not served
+   */
+  public int removeFirst(int floor)
+  {
+    if (false == hasStop(floor))
+    {
+      return PassengerStore.NO_PASSENGER;
+    }
+
+    PassengerQueue line = m_byFloor[floor - LOWEST_FLOOR];
+    int handle = line.remove(0);
+    m_size--;
+
+    if (line.isEmpty())
+    {
+      m_stops.clear(floor - LOWEST_FLOOR);
+    }
+
+    return handle;
+  }
+
+  /**
+   * @param floor
+   * @return PassengerQueue - the passengers getting off at the floor, in the order they got on.
+   *                          Not to be changed, see move() and removeFirst()
+   * @throws IllegalArgumentException if the floor is not served
+   */
+  public PassengerQueue get(int floor)
+  {
+    return line(floor);
+  }
+
+  /**
+   * @param floor
+   * @return boolean - does anyone get off at the floor? False for a floor that is not served
+   */
+  public boolean hasStop(int floor)
+  {
+    return floor >= LOWEST_FLOOR && floor <= HIGHEST_FLOOR && m_stops.get(floor - LOWEST_FLOOR);
+  }
+
+  /**
+   * @param floor
+   * @return int - number of passengers getting off at the floor
+   */
+  public int count(int floor)
+  {
+    return hasStop(floor) ? m_byFloor[floor - LOWEST_FLOOR].size() : 0;
+  }
+
+  /**
+   * @param floor - any floor, in the building or not
+   * @return int - the closest stop strictly above floor, HallCallRegistry.NO_CALL if there is none
+   */
+  public int nextStopAbove(int floor)
+  {
+    if (floor >= HIGHEST_FLOOR)
+    {
+      return HallCallRegistry.NO_CALL;
+    }
+
+    int bit = m_stops.nextSetBit(Math.max(0, floor + 1 - LOWEST_FLOOR));
+
+    return (bit < 0) ? HallCallRegistry.NO_CALL : bit + LOWEST_FLOOR;
+  }
+
+  /**
+   * @param floor - any floor, in the building or not
+   * @return int - the closest stop strictly below floor, HallCallRegistry.NO_CALL if there is none
+   */
+  public int nextStopBelow(int floor)
+  {
+    if (floor <= LOWEST_FLOOR)
+    {
+      return HallCallRegistry.NO_CALL;
+    }
+
+    int bit = m_stops.previousSetBit(Math.min(HIGHEST_FLOOR, floor - 1) - LOWEST_FLOOR);
+
+    return (bit < 0) ? HallCallRegistry.NO_CALL : bit + LOWEST_FLOOR;
+  }
+
+  /**
+   * @param fromFloor
+   * @param toFloor
+   * @return int - number of stops from one floor to the other, both included, in either order
+   */
+  public int countStops(int fromFloor, int toFloor)
+  {
+    int low = Math.max(LOWEST_FLOOR, Math.min(fromFloor, toFloor)) - LOWEST_FLOOR;
+    int high = Math.min(HIGHEST_FLOOR, Math.max(fromFloor, toFloor)) - LOWEST_FLOOR;
+    int stops = 0;
+
+    for (int bit = m_stops.nextSetBit(low); bit >= 0 && bit <= high; bit = m_stops.nextSetBit(bit + 1))
+    {
+      stops++;
+    }
+
+    return stops;
+  }
+
+  /**
+   * @return int - the stop of the passenger that has been on board the longest,
+   *               HallCallRegistry.NO_CALL if there is no one on board
+   */
+  public int getOldestStop()
+  {
+    int oldest = HallCallRegistry.NO_CALL;
+    long oldestSequence = Long.MAX_VALUE;
+
+    for (int bit = m_stops.nextSetBit(0); bit >= 0; bit = m_stops.nextSetBit(bit + 1))
+    {
+      long sequence = m_byFloor[bit].getSequence(0);
+
+      if (sequence < oldestSequence)
+      {
+        oldestSequence = sequence;
+        oldest = bit + LOWEST_FLOOR;
+      }
+    }
+
+    return oldest;
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  public boolean isEmpty() {
+    return 0 == m_size;
+  }
+
+  /**
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeLong(m_nextSequence);
+
+    for (PassengerQueue line : m_byFloor)
+    {
+      if (null == line)
+      {
+        out.writeInt(0);
+      }
+      else
+      {
+        line.writeCheckpoint(out);
+      }
+    }
+  }
+
+  /**
+   * Replace everyone on board with the passengers written by writeCheckpoint(), for the same floors
+   * @param in - where the state is read from
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    m_nextSequence = in.readLong();
+    m_stops.clear();
+    m_size = 0;
+
+    for (int i = 0; i < m_byFloor.length; i++)
+    {
+      PassengerQueue line = (null == m_byFloor[i]) ? new PassengerQueue() : m_byFloor[i];
+      line.readCheckpoint(in);
+
+      if (line.isEmpty())
+      {
+        continue;
+      }
+
+      m_byFloor[i] = line;
+      m_stops.set(i);
+      m_size += line.size();
+    }
+  }
+
+  /**
+   * A Macro to find the line of a floor, created the first time it is needed
+   * @param floor
+   * @return PassengerQueue
+   * @throws IllegalArgumentException if the floor is not served
+   */
+  private PassengerQueue line(int floor)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("Floor is invalid.");
+    }
+
+    int index = floor - LOWEST_FLOOR;
+
+    if (null == m_byFloor[index])
+    {
+      m_byFloor[index] = new PassengerQueue();
+    }
+
+    return m_byFloor[index];
+  }
+}
@@ -0,0 +1,121 @@
+package com.maxruiz.structures;
+
+import java.util.List;
+
+/**
+ * This class decides where the idle elevators of a bank wait for their next call. Rather than
+ * staying wherever they dropped off their last passenger, the idle cars spread out over the floors
+ * where passengers are expected, e.g. down to the lobby ahead of the morning up-peak.
+ *
+ * The floors of the bank are split into one zone per idle car, each with the same share of the
+ * forecast demand, and every car parks at the middle of the demand of its zone. The lowest idle
+ * car takes the lowest zone and so on, so the cars never have to cross each other to get there.
+ *
+ * A policy only answers questions, it never changes the elevators or the forecast, so the same
+ * answer can be asked for again (e.g. by the DiscreteEventEngine) without side effects.
+ * @see DemandForecast
+ * @see ElevatorBank
+ * @author Max Ruiz
+ */
+public class ParkingPolicy
+{
+  public static final int NO_FLOOR = Integer.MIN_VALUE;
+
+  private final DemandForecast m_forecast;
+  private final List<Elevator> m_elevators;
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+  private final double[] m_weights;
+
+  /**
+   * Constructor for ParkingPolicy
+   * @param forecast - the demand forecast of the building
+   * @param bank - the bank whose idle elevators are parked
+   * @throws IllegalArgumentException if forecast or bank is null
+   */
+  public ParkingPolicy(DemandForecast forecast, ElevatorBank bank)
+  {
+    if (null == forecast)
+    {
+      throw new IllegalArgumentException("forecast is invalid.");
+    }
+
+    if (null == bank)
+    {
+      throw new IllegalArgumentException("bank is invalid.");
+    }
+
+    m_forecast = forecast;
+    m_elevators = bank.getElevators();
+    LOWEST_FLOOR = bank.getLowestFloor();
+    HIGHEST_FLOOR = bank.getHighestFloor();
+    m_weights = new double[HIGHEST_FLOOR - LOWEST_FLOOR + 1];
+  }
+
+  /**
+   * @param elevator - an elevator of the bank that is idle with no one on board
+   * @return int - the floor the elevator should wait at, NO_FLOOR if no passenger is expected
+   */
+  public int selectParkingFloor(Elevator elevator)
+  {
+    double total = m_forecast.forecastFloors(LOWEST_FLOOR, HIGHEST_FLOOR, m_weights);
+
+    if (total <= 0.0)
+    {
+      return NO_FLOOR;
+    }
+
+    // Rank the elevator among the idle ones from the bottom up, ties go to the first elevator
+    int idle = 0;
+    int rank = 0;
+    boolean before = true;
+
+    for (Elevator other : m_elevators)
+    {
+      if (other == elevator)
+      {
+        before = false;
+        idle++;
+        continue;
+      }
+
+      if (false == other.isAvailableToPark())
+      {
+        continue;
+      }
+
+      idle++;
+
+      if (other.getCurrentFloor() < elevator.getCurrentFloor() ||
+          (before && other.getCurrentFloor() == elevator.getCurrentFloor()))
+      {
+        rank++;
+      }
+    }
+
+    // The middle of the demand of its zone
+    double median = total * (2 * rank + 1) / (2.0 * idle);
+    double cumulative = 0.0;
+
+    for (int floor = LOWEST_FLOOR; floor < HIGHEST_FLOOR; floor++)
+    {
+      cumulative += m_weights[floor - LOWEST_FLOOR];
+
+      if (cumulative >= median)
+      {
+        return floor;
+      }
+    }
+
+    return HIGHEST_FLOOR;
+  }
+
+  /**
+   * @return long - number of frames the parking floors stay the same, unless a passenger arrives
+   *                or an elevator of the bank changes
+   */
+  public long framesUntilChange()
+  {
+    return m_forecast.framesUntilNextBin();
+  }
+}
@@ -0,0 +1,229 @@
+package com.maxruiz.structures;
+
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+
+/**
+ * This class is a line of passengers, e.g. the ones waiting on one floor to go one way, oldest
+ * first. Passengers are handles of a PassengerStore. It is a ring buffer, so the passenger at the
+ * front gets on in constant time, however many are behind them. A passenger further back, e.g. one
+ * small enough to fit when the front one wasn't, is taken out by shifting whichever side of the
+ * line is shorter.
+ *
+ * Every passenger is kept with the order they joined the building's lines in, so the lines of a
+ * floor can be walked together oldest first.
+ * @see WaitingPassengers
+ * @see PassengerStore
+ * @author Max Ruiz
+ */
+public class PassengerQueue
+{
+  private static final int INITIAL_CAPACITY = 8;
+
+  private int[] m_passengers = new int[INITIAL_CAPACITY];
+  private long[] m_sequences = new long[INITIAL_CAPACITY];
+  // Capacity is a power of two, an index wraps with the mask
+  private int m_mask = INITIAL_CAPACITY - 1;
+  private int m_head = 0;
+  private int m_size = 0;
+
+  /**
+   * Put a passenger at the back of the line, for a line that is never walked with others
+   * @param handle - the passenger
+   */
+  public void add(int handle)
+  {
+    add(handle, 0);
+  }
+
+  /**
+   * Put a passenger at the back of the line
+   * @param handle - the passenger
+   * @param sequence long - order the passenger joined the lines in
+   */
+  public void add(int handle, long sequence)
+  {
+    if (m_size == m_passengers.length)
+    {
+      grow();
+    }
+
+    int slot = (m_head + m_size) & m_mask;
+    m_passengers[slot] = handle;
+    m_sequences[slot] = sequence;
+    m_size++;
+  }
+
+  /**
+   * Put a passenger in line behind everyone that joined before them, for a line kept in the order
+   * passengers joined it, e.g. one that was joined from another line
+   * @param handle - the passenger
+   * @param sequence long - order the passenger joined the lines in
+   */
+  public void insert(int handle, long sequence)
+  {
+    add(handle, sequence);
+
+    // Move them up past everyone that joined after them
+    for (int i = m_size - 1; i > 0; i--)
+    {
+      int to = (m_head + i) & m_mask;
+      int from = (m_head + i - 1) & m_mask;
+
+      if (m_sequences[from] <= sequence)
+      {
+        break;
+      }
+
+      m_passengers[to] = m_passengers[from];
+      m_sequences[to] = m_sequences[from];
+      m_passengers[from] = handle;
+      m_sequences[from] = sequence;
+    }
+  }
+
+  /**
+   * @param index - place in line, 0 is the front
+   * @return int - handle of the passenger
+   * @throws IndexOutOfBoundsException if no one is at that place in line
+   */
+  public int get(int index)
+  {
+    return m_passengers[slotOf(index)];
+  }
+
+  /**
+   * @param index - place in line, 0 is the front
+   * @return long - order the passenger joined the lines in
+   * @throws IndexOutOfBoundsException if no one is at that place in line
+   */
+  public long getSequence(int index)
+  {
+    return m_sequences[slotOf(index)];
+  }
+
+  /**
+   * Take a passenger out of line, everyone behind them moves up a place
+   * @param index - place in line, 0 is the front
+   * @return int - handle of the passenger taken out
+   * @throws IndexOutOfBoundsException if no one is at that place in line
+   */
+  public int remove(int index)
+  {
+    int slot = slotOf(index);
+    int handle = m_passengers[slot];
+
+    if (index < m_size / 2)
+    {
+      // Shift the front of the line back one place
+      for (int i = index; i > 0; i--)
+      {
+        int to = (m_head + i) & m_mask;
+        int from = (m_head + i - 1) & m_mask;
+        m_passengers[to] = m_passengers[from];
+        m_sequences[to] = m_sequences[from];
+      }
+
+      m_head = (m_head + 1) & m_mask;
+    }
+    else
+    {
+      // Shift the back of the line forward one place
+      for (int i = index; i < m_size - 1; i++)
+      {
+        int to = (m_head + i) & m_mask;
+        int from = (m_head + i + 1) & m_mask;
+        m_passengers[to] = m_passengers[from];
+        m_sequences[to] = m_sequences[from];
+      }
+    }
+
+    m_size--;
+
+    return handle;
+  }
+
+  /**
+   * Everyone leaves the line
+   */
+  public void clear()
+  {
+    m_head = 0;
+    m_size = 0;
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  public boolean isEmpty() {
+    return 0 == m_size;
+  }
+
+  /**
+   * Write everyone in line, front first, with the order they joined the lines in
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeInt(m_size);
+
+    for (int i = 0; i < m_size; i++)
+    {
+      int slot = (m_head + i) & m_mask;
+      out.writeInt(m_passengers[slot]);
+      out.writeLong(m_sequences[slot]);
+    }
+  }
+
+  /**
+   * Replace everyone in line with the passengers written by writeCheckpoint()
+   * @param in - where the state is read from
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    clear();
+
+    for (int size = in.readCount(Integer.MAX_VALUE / 2); size > 0; size--)
+    {
+      int handle = in.readInt();
+      add(handle, in.readLong());
+    }
+  }
+
+  /**
+   * A Macro to find the slot of a place in line
+   * @param index
+   * @return int
+   * @throws IndexOutOfBoundsException if no one is at that place in line
+   */
+  private int slotOf(int index)
+  {
+    if (index < 0 || index >= m_size)
+    {
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + m_size);
+    }
+
+    return (m_head + index) & m_mask;
+  }
+
+  /**
+   * Double the capacity, the front of the line moves to the first slot
+   */
+  private void grow()
+  {
+    int[] passengers = new int[m_passengers.length * 2];
+    long[] sequences = new long[m_passengers.length * 2];
+
+    for (int i = 0; i < m_size; i++)
+    {
+      passengers[i] = m_passengers[(m_head + i) & m_mask];
+      sequences[i] = m_sequences[(m_head + i) & m_mask];
+    }
+
+    m_passengers = passengers;
+    m_sequences = sequences;
+    m_mask = passengers.length - 1;
+    m_head = 0;
+  }
+}
@@ -0,0 +1,258 @@
+package com.maxruiz.structures;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class maps every origin and destination floor of a building to the way a passenger gets
+ * there: the bank of elevators that takes them first, how far it takes them and how many legs
+ * the whole journey has. It is worked out once, when the building is created, so routing a
+ * passenger is a lookup rather than a scan over the elevators.
+ *
+ * A journey uses as few banks as possible. When no single bank serves both floors, the passenger
+ * rides to a sky lobby, a floor served by the next bank as well, and is routed again from there.
+ * Of the floors two banks share, the one closest to the passenger is used. Ties between banks
+ * go to the bank created first.
+ * @see ElevatorBank
+ * @author Max Ruiz
+ */
+public class RoutingIndex
+{
+  public static final int NO_ROUTE = -1;
+
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+  private final int NUM_FLOORS;
+  private final List<ElevatorBank> m_banks;
+
+  // Indexed by (origin - LOWEST_FLOOR) * NUM_FLOORS + (destination - LOWEST_FLOOR)
+  private final int[] m_firstBank;
+  private final int[] m_legDestination;
+  private final int[] m_legCount;
+
+  /**
+   * Constructor for RoutingIndex that routes every pair of floors from lowestFloor to highestFloor
+   * @param lowestFloor
+   * @param highestFloor
+   * @param banks - every bank of the building
+   * @throws IllegalArgumentException if the floors are equal or crossed
+   */
+  public RoutingIndex(int lowestFloor, int highestFloor, List<ElevatorBank> banks)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+    NUM_FLOORS = HIGHEST_FLOOR - LOWEST_FLOOR + 1;
+    m_banks = banks;
+
+    m_firstBank = new int[NUM_FLOORS * NUM_FLOORS];
+    m_legDestination = new int[NUM_FLOORS * NUM_FLOORS];
+    m_legCount = new int[NUM_FLOORS * NUM_FLOORS];
+
+    Arrays.fill(m_firstBank, NO_ROUTE);
+    Arrays.fill(m_legDestination, NO_ROUTE);
+
+    build();
+  }
+
+  /**
+   * Route every pair of floors, one destination at a time
+   */
+  private void build()
+  {
+    int numBanks = m_banks.size();
+
+    // Legs left to the destination when riding each bank, 0 if it can't get there,
+    // and the bank to change to next
+    int[] legsLeft = new int[numBanks];
+    int[] nextBank = new int[numBanks];
+
+    for (int destination = LOWEST_FLOOR; destination <= HIGHEST_FLOOR; destination++)
+    {
+      Arrays.fill(legsLeft, 0);
+      Arrays.fill(nextBank, NO_ROUTE);
+
+      for (int b = 0; b < numBanks; b++)
+      {
+        if (m_banks.get(b).canReachFloor(destination))
+        {
+          legsLeft[b] = 1;
+        }
+      }
+
+      // Widen out one leg at a time, so every bank gets the fewest legs it can have
+      boolean widened = true;
+
+      for (int legs = 1; widened; legs++)
+      {
+        widened = false;
+
+        for (int b = 0; b < numBanks; b++)
+        {
+          if (0 != legsLeft[b])
+          {
+            continue;
+          }
+
+          for (int c = 0; c < numBanks; c++)
+          {
+            if (legs == legsLeft[c] && overlap(b, c))
+            {
+              legsLeft[b] = legs + 1;
+              nextBank[b] = c;
+              widened = true;
+              break;
+            }
+          }
+        }
+      }
+
+      for (int origin = LOWEST_FLOOR; origin <= HIGHEST_FLOOR; origin++)
+      {
+        if (origin != destination)
+        {
+          routeFrom(origin, destination, legsLeft, nextBank);
+        }
+      }
+    }
+  }
+
+  /**
+   * A Macro to pick the bank with the fewest legs to the destination out of those serving
+   * the origin, and how far it goes
+   * @param origin
+   * @param destination
+   * @param legsLeft
+   * @param nextBank
+   */
+  private void routeFrom(int origin, int destination, int[] legsLeft, int[] nextBank)
+  {
+    int best = NO_ROUTE;
+
+    for (int b = 0; b < m_banks.size(); b++)
+    {
+      if (0 == legsLeft[b] || false == m_banks.get(b).canReachFloor(origin))
+      {
+        continue;
+      }
+
+      if (NO_ROUTE == best || legsLeft[b] < legsLeft[best])
+      {
+        best = b;
+      }
+    }
+
+    if (NO_ROUTE == best)
+    {
+      return;
+    }
+
+    int index = index(origin, destination);
+    m_firstBank[index] = best;
+    m_legCount[index] = legsLeft[best];
+
+    if (1 == legsLeft[best])
+    {
+      m_legDestination[index] = destination;
+      return;
+    }
+
+    // The next bank doesn't serve the origin, otherwise it would have been picked,
+    // so the closest shared floor is a sky lobby away from it
+    ElevatorBank from = m_banks.get(best);
+    ElevatorBank to = m_banks.get(nextBank[best]);
+    int lowestShared = Math.max(from.getLowestFloor(), to.getLowestFloor());
+    int highestShared = Math.min(from.getHighestFloor(), to.getHighestFloor());
+
+    m_legDestination[index] = Math.min(Math.max(origin, lowestShared), highestShared);
+  }
+
+  /**
+   * @param b
+   * @param c
+   * @return boolean - do the two banks serve at least one floor in common?
+   */
+  private boolean overlap(int b, int c)
+  {
+    ElevatorBank first = m_banks.get(b);
+    ElevatorBank second = m_banks.get(c);
+
+    return first.getLowestFloor() <= second.getHighestFloor() &&
+           second.getLowestFloor() <= first.getHighestFloor();
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return int - the index of the bank to take first, NO_ROUTE if there is no way to get there
+   */
+  public int getBank(int origin, int destination)
+  {
+    return isRoutable(origin, destination) ? m_firstBank[index(origin, destination)] : NO_ROUTE;
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return int - the floor to ride the first bank to, either the destination or a sky lobby,
+   *               NO_ROUTE if there is no way to get there
+   */
+  public int getLegDestination(int origin, int destination)
+  {
+    return isRoutable(origin, destination) ? m_legDestination[index(origin, destination)] : NO_ROUTE;
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return int - number of elevators the journey takes, 0 if there is no way to get there
+   */
+  public int getLegCount(int origin, int destination)
+  {
+    return isRoutable(origin, destination) ? m_legCount[index(origin, destination)] : 0;
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return List<Elevator> - the cars that can take the first leg, empty if there is no way
+   *                          to get there
+   */
+  public List<Elevator> getEligibleElevators(int origin, int destination)
+  {
+    int bank = getBank(origin, destination);
+
+    if (NO_ROUTE == bank)
+    {
+      return Collections.emptyList();
+    }
+
+    return m_banks.get(bank).getElevators();
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return boolean - are both floors in the building?
+   */
+  private boolean isRoutable(int origin, int destination)
+  {
+    return origin >= LOWEST_FLOOR && origin <= HIGHEST_FLOOR &&
+           destination >= LOWEST_FLOOR && destination <= HIGHEST_FLOOR;
+  }
+
+  /**
+   * @param origin
+   * @param destination
+   * @return int - index of the pair of floors in the tables
+   */
+  private int index(int origin, int destination)
+  {
+    return (origin - LOWEST_FLOOR) * NUM_FLOORS + (destination - LOWEST_FLOOR);
+  }
+}
@@ -0,0 +1,203 @@
+package com.maxruiz.structures;
+
+import com.maxruiz.passengers.PassengerStore;
+import com.maxruiz.utility.CheckpointReader;
+import com.maxruiz.utility.CheckpointWriter;
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class holds the passengers waiting on every floor of a building, in one line per floor and
+ * direction. An elevator going UP only ever has to look at the line going UP, however many people
+ * are waiting to go DOWN on the same floor.
+ *
+ * The lines are indexed from the lowest floor of the building, so basements (negative floors) work
+ * the same as any other floor. Passengers are handles of the PassengerStore of the building.
+ * @see PassengerQueue
+ * @see PassengerStore
+ * @author Max Ruiz
+ */
+public class WaitingPassengers
+{
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+  private final PassengerStore m_store;
+
+  // Indexed by floor - LOWEST_FLOOR
+  private final PassengerQueue[] m_up;
+  private final PassengerQueue[] m_down;
+  private long m_nextSequence = 0;
+
+  /**
+   * Constructor for WaitingPassengers, with no one waiting
+   * @param lowestFloor
+   * @param highestFloor
+   * @param store - the store of the passengers
+   * @throws IllegalArgumentException if the floors are equal or crossed, or store is null
+   */
+  public WaitingPassengers(int lowestFloor, int highestFloor, PassengerStore store)
+  {
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    if (null == store)
+    {
+      throw new IllegalArgumentException("store is invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+    m_store = store;
+
+    int numFloors = HIGHEST_FLOOR - LOWEST_FLOOR + 1;
+    m_up = new PassengerQueue[numFloors];
+    m_down = new PassengerQueue[numFloors];
+
+    for (int i = 0; i < numFloors; i++)
+    {
+      m_up[i] = new PassengerQueue();
+      m_down[i] = new PassengerQueue();
+    }
+  }
+
+  /**
+   * Put a passenger at the back of the line of a floor, for the way they are going
+   * @param floor
+   * @param handle - the passenger
+   * @throws IllegalArgumentException if the floor is not in the building
+   */
+  public void add(int floor, int handle)
+  {
+    get(floor, m_store.getDestinationDirection(handle)).add(handle, m_nextSequence++);
+  }
+
+  /**
+   * @param floor
+   * @param direction Direction - UP or DOWN
+   * @return PassengerQueue - the line of the floor going that way
+   * @throws IllegalArgumentException if the floor is not in the building or direction is IDLE
+   */
+  public PassengerQueue get(int floor, Direction direction)
+  {
+    if (floor < LOWEST_FLOOR || floor > HIGHEST_FLOOR)
+    {
+      throw new IllegalArgumentException("Floor is invalid.");
+    }
+
+    if (Direction.UP == direction)
+    {
+      return m_up[floor - LOWEST_FLOOR];
+    }
+    else if (Direction.DOWN == direction)
+    {
+      return m_down[floor - LOWEST_FLOOR];
+    }
+
+    throw new IllegalArgumentException("Direction is invalid.");
+  }
+
+  /**
+   * @param floor
+   * @return int - number of passengers waiting on the floor, both ways
+   * @throws IllegalArgumentException if the floor is not in the building
+   */
+  public int size(int floor)
+  {
+    return get(floor, Direction.UP).size() + get(floor, Direction.DOWN).size();
+  }
+
+  /**
+   * @return long - number of passengers waiting in the building
+   */
+  public long size()
+  {
+    long waiting = 0;
+
+    for (int i = 0; i < m_up.length; i++)
+    {
+      waiting += m_up[i].size() + m_down[i].size();
+    }
+
+    return waiting;
+  }
+
+  /**
+   * Take the passenger that has waited the longest on a floor out of line, either way
+   * @param floor
+   * @return int - handle of the passenger, PassengerStore.NO_PASSENGER if no one is waiting
+   * @throws IllegalArgumentException if the floor is not in the building
+   */
+  public int removeOldest(int floor)
+  {
+    PassengerQueue up = get(floor, Direction.UP);
+    PassengerQueue down = get(floor, Direction.DOWN);
+
+    if (up.isEmpty() && down.isEmpty())
+    {
+      return PassengerStore.NO_PASSENGER;
+    }
+
+    if (down.isEmpty() || (false == up.isEmpty() && up.getSequence(0) < down.getSequence(0)))
+    {
+      return up.remove(0);
+    }
+
+    return down.remove(0);
+  }
+
+  /**
+   * Everyone leaves every floor, and the building
+   */
+  public void clear()
+  {
+    for (int i = 0; i < m_up.length; i++)
+    {
+      release(m_up[i]);
+      release(m_down[i]);
+    }
+  }
+
+  /**
+   * @param out - where the state is written
+   */
+  void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeLong(m_nextSequence);
+
+    for (int i = 0; i < m_up.length; i++)
+    {
+      m_up[i].writeCheckpoint(out);
+      m_down[i].writeCheckpoint(out);
+    }
+  }
+
+  /**
+   * Replace everyone waiting with the passengers written by writeCheckpoint(), for the same floors
+   * @param in - where the state is read from
+   */
+  void readCheckpoint(CheckpointReader in)
+  {
+    m_nextSequence = in.readLong();
+
+    for (int i = 0; i < m_up.length; i++)
+    {
+      m_up[i].readCheckpoint(in);
+      m_down[i].readCheckpoint(in);
+    }
+  }
+
+  /**
+   * A Macro to release every passenger of a line from the store and empty it
+   * @param line
+   */
+  private void release(PassengerQueue line)
+  {
+    for (int i = 0; i < line.size(); i++)
+    {
+      m_store.release(line.get(i));
+    }
+
+    line.clear();
+  }
+}
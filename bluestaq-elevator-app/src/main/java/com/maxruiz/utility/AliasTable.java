@@ -0,0 +1,121 @@
+package com.maxruiz.utility;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This class draws an index at random, each with its own weight, in constant time however many
+ * indices there are. It is Vose's alias method: every index owns a column of the same height,
+ * topped up with the overflow of one heavier index, so a draw is one column and one coin flip.
+ *
+ * A table never changes once it is built, so it can be shared by buildings on different threads.
+ * @author Max Ruiz
+ */
+public class AliasTable
+{
+  private final double[] m_probability;
+  private final int[] m_alias;
+
+  /**
+   * Constructor for AliasTable
+   * @param weights double[] - weight of every index, only their ratios matter
+   * @throws IllegalArgumentException if a weight is negative or not a number, or they add up to 0
+   */
+  public AliasTable(double[] weights)
+  {
+    int n = weights.length;
+    double total = 0.0;
+
+    for (double weight : weights)
+    {
+      if (false == (weight >= 0.0) || Double.isInfinite(weight))
+      {
+        throw new IllegalArgumentException("weights is invalid.");
+      }
+
+      total += weight;
+    }
+
+    if (total <= 0.0)
+    {
+      throw new IllegalArgumentException("weights is invalid.");
+    }
+
+    m_probability = new double[n];
+    m_alias = new int[n];
+
+    // Columns scaled so the average height is 1, worked off as two stacks
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+
+    for (int i = 0; i < n; i++)
+    {
+      scaled[i] = weights[i] * n / total;
+
+      if (scaled[i] < 1.0)
+      {
+        small[smallCount++] = i;
+      }
+      else
+      {
+        large[largeCount++] = i;
+      }
+    }
+
+    while (smallCount > 0 && largeCount > 0)
+    {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+
+      m_probability[less] = scaled[less];
+      m_alias[less] = more;
+
+      scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+      if (scaled[more] < 1.0)
+      {
+        small[smallCount++] = more;
+      }
+      else
+      {
+        large[largeCount++] = more;
+      }
+    }
+
+    // What is left is a full column, give or take rounding
+    while (largeCount > 0)
+    {
+      int i = large[--largeCount];
+      m_probability[i] = 1.0;
+      m_alias[i] = i;
+    }
+
+    while (smallCount > 0)
+    {
+      int i = small[--smallCount];
+      m_probability[i] = 1.0;
+      m_alias[i] = i;
+    }
+  }
+
+  /**
+   * @param random
+   * @return int - an index, drawn in proportion to its weight
+   */
+  public int sample(RandomGenerator random)
+  {
+    int column = random.nextInt(m_probability.length);
+
+    return (random.nextDouble() < m_probability[column]) ? column : m_alias[column];
+  }
+
+  /**
+   * @return int - number of indices
+   */
+  public int size()
+  {
+    return m_probability.length;
+  }
+}
@@ -0,0 +1,319 @@
+package com.maxruiz.utility;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class draws the passengers that show up in a building from an ArrivalProfile. Every floor
+ * and direction is a Poisson process whose rate follows the period of the day. Together they are
+ * one Poisson process of groups at the rate of the whole building, and each group is handed the
+ * route of one of them in proportion to its rate, which is how they are drawn here.
+ *
+ * The time of the next group is drawn ahead, by walking the rate over the periods of the day until
+ * an exponential amount of expected groups has gone by, so any number of groups can show up in the
+ * same frame and a quiet stretch is known to be quiet before it is run. The route and the size of
+ * a group are drawn from alias tables, in constant time however many floors there are.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @see ArrivalProfile
+ * @see AliasTable
+ * @author Max Ruiz
+ */
+public class ArrivalProcess
+{
+  public static final long NO_ARRIVAL = Long.MAX_VALUE;
+
+  /**
+   * Passengers that show up together on a floor, all going to the same floor
+   */
+  public static class Group
+  {
+    public final int OriginFloor;
+    public final int DestinationFloor;
+    public final int Size;
+
+    public Group(int originFloor, int destinationFloor, int size)
+    {
+      OriginFloor = originFloor;
+      DestinationFloor = destinationFloor;
+      Size = size;
+    }
+  }
+
+  private final int LOWEST_FLOOR;
+  private final int NUM_FLOORS;
+  private final long FRAME_MILLIS;
+  private final long START_MILLIS;
+
+  private final RandomGenerator m_random;
+  private final SimulationClock m_clock;
+
+  // One entry per period of the day
+  private final long[] m_periodStartMillis;
+  private final double[] m_groupsPerMilli;
+  // Indexed by origin * NUM_FLOORS + destination, from the lowest floor
+  private final AliasTable[] m_routes;
+  private final AliasTable m_groupSizes;
+
+  // Milliseconds since midnight of the first day
+  private double m_nextArrivalMillis;
+  private long m_nextArrivalFrame;
+
+  /**
+   * Constructor for ArrivalProcess
+   * @param profile - how many passengers show up and where they go, by the time of day
+   * @param lowestFloor - the lobby
+   * @param highestFloor
+   * @param clock - the clock of the building
+   * @param frameMillis long - simulated time of a frame
+   * @param startMillis long - time of day of the first frame, in milliseconds after midnight
+   * @param random - stream of random values of the arrivals
+   * @throws IllegalArgumentException if the floors are equal or crossed, or a value is invalid
+   */
+  public ArrivalProcess(ArrivalProfile profile, int lowestFloor, int highestFloor,
+                        SimulationClock clock, long frameMillis, long startMillis,
+                        RandomGenerator random)
+  {
+    if (null == profile)
+    {
+      throw new IllegalArgumentException("profile is invalid.");
+    }
+
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    if (null == clock || null == random)
+    {
+      throw new IllegalArgumentException("clock and random are invalid.");
+    }
+
+    if (frameMillis <= 0)
+    {
+      throw new IllegalArgumentException("frameMillis is invalid.");
+    }
+
+    if (startMillis < 0 || startMillis >= ArrivalProfile.MILLIS_PER_DAY)
+    {
+      throw new IllegalArgumentException("startMillis is invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    NUM_FLOORS = highestFloor - lowestFloor + 1;
+    FRAME_MILLIS = frameMillis;
+    START_MILLIS = startMillis;
+    m_clock = clock;
+    m_random = random;
+
+    List<ArrivalProfile.Period> periods = profile.getPeriods();
+    double groupsPerPassenger = 1.0 / profile.getMeanGroupSize();
+
+    m_periodStartMillis = new long[periods.size()];
+    m_groupsPerMilli = new double[periods.size()];
+    m_routes = new AliasTable[periods.size()];
+    m_groupSizes = new AliasTable(profile.getGroupSizeWeights());
+
+    for (int i = 0; i < periods.size(); i++)
+    {
+      ArrivalProfile.Period period = periods.get(i);
+      m_periodStartMillis[i] = period.StartMillis;
+      m_routes[i] = createRoutes(period);
+
+      // A period with nowhere to go in this building has no arrivals
+      if (null != m_routes[i])
+      {
+        m_groupsPerMilli[i] = period.PassengersPerHour * groupsPerPassenger / ArrivalProfile.MILLIS_PER_HOUR;
+      }
+    }
+
+    schedule(START_MILLIS + m_clock.getFrame() * FRAME_MILLIS);
+  }
+
+  /**
+   * @param period
+   * @return AliasTable - the routes of the period weighted by their share of the traffic,
+   *                      null if the period has none in this building
+   */
+  private AliasTable createRoutes(ArrivalProfile.Period period)
+  {
+    int upperFloors = NUM_FLOORS - 1;
+    double[] weights = new double[NUM_FLOORS * NUM_FLOORS];
+    double total = 0.0;
+
+    for (int origin = 0; origin < NUM_FLOORS; origin++)
+    {
+      for (int destination = 0; destination < NUM_FLOORS; destination++)
+      {
+        double weight = 0.0;
+
+        // Interfloor traffic needs two floors above the lobby
+        if (origin == destination || (0 != origin && 0 != destination && upperFloors < 2))
+        {
+          continue;
+        }
+        else if (0 == origin)
+        {
+          weight = period.Incoming / upperFloors;
+        }
+        else if (0 == destination)
+        {
+          weight = period.Outgoing / upperFloors;
+        }
+        else
+        {
+          weight = period.Interfloor / (upperFloors * (upperFloors - 1));
+        }
+
+        weights[origin * NUM_FLOORS + destination] = weight;
+        total += weight;
+      }
+    }
+
+    return (total > 0.0 && period.PassengersPerHour > 0.0) ? new AliasTable(weights) : null;
+  }
+
+  /**
+   * Take the next group that has shown up by the current frame
+   * @return Group - null if no one else has shown up yet
+   */
+  public Group poll()
+  {
+    if (m_nextArrivalFrame > m_clock.getFrame())
+    {
+      return null;
+    }
+
+    int period = periodAt(m_nextArrivalMillis);
+    int route = m_routes[period].sample(m_random);
+    int size = m_groupSizes.sample(m_random) + 1;
+
+    schedule(m_nextArrivalMillis);
+
+    return new Group(LOWEST_FLOOR + route / NUM_FLOORS, LOWEST_FLOOR + route % NUM_FLOORS, size);
+  }
+
+  /**
+   * @return long - number of frames before the next group shows up, 0 if one already has,
+   *                NO_ARRIVAL if no one ever will
+   */
+  public long framesUntilNextArrival()
+  {
+    if (NO_ARRIVAL == m_nextArrivalFrame)
+    {
+      return NO_ARRIVAL;
+    }
+
+    return Math.max(0, m_nextArrivalFrame - m_clock.getFrame());
+  }
+
+  /**
+   * @return long - frame the next group shows up on, NO_ARRIVAL if no one ever will
+   */
+  public long getNextArrivalFrame()
+  {
+    return m_nextArrivalFrame;
+  }
+
+  /**
+   * Draw the time of the next group after the given time, walking the rate of each period until
+   * an exponential amount of expected groups has gone by
+   * @param fromMillis double - milliseconds since midnight of the first day
+   */
+  private void schedule(double fromMillis)
+  {
+    double groups = -Math.log1p(-m_random.nextDouble());
+    double time = fromMillis;
+    int period = periodAt(time);
+    long dayStart = (long)(time / ArrivalProfile.MILLIS_PER_DAY) * ArrivalProfile.MILLIS_PER_DAY;
+    int emptyPeriods = 0;
+
+    while (true)
+    {
+      double end = dayStart + ((period + 1 < m_periodStartMillis.length) ? m_periodStartMillis[period + 1]
+                                                                         : ArrivalProfile.MILLIS_PER_DAY);
+      double rate = m_groupsPerMilli[period];
+
+      if (rate > 0.0)
+      {
+        emptyPeriods = 0;
+
+        if (time + groups / rate < end)
+        {
+          time += groups / rate;
+          break;
+        }
+
+        groups -= (end - time) * rate;
+      }
+      else if (++emptyPeriods > m_periodStartMillis.length)
+      {
+        // A whole day without arrivals, there will never be any
+        m_nextArrivalMillis = Double.POSITIVE_INFINITY;
+        m_nextArrivalFrame = NO_ARRIVAL;
+        return;
+      }
+
+      time = end;
+      period++;
+
+      if (period == m_periodStartMillis.length)
+      {
+        period = 0;
+        dayStart += ArrivalProfile.MILLIS_PER_DAY;
+      }
+    }
+
+    m_nextArrivalMillis = time;
+
+    // Everyone who shows up after a frame and up to the next one shows up on the next one
+    double frame = Math.ceil((time - START_MILLIS) / FRAME_MILLIS);
+    m_nextArrivalFrame = (frame >= NO_ARRIVAL) ? NO_ARRIVAL : (long)frame;
+  }
+
+  /**
+   * @param millis double - milliseconds since midnight of the first day
+   * @return int - the period of the day the time falls in
+   */
+  private int periodAt(double millis)
+  {
+    double timeOfDay = millis % ArrivalProfile.MILLIS_PER_DAY;
+    int period = 0;
+
+    while (period + 1 < m_periodStartMillis.length && m_periodStartMillis[period + 1] <= timeOfDay)
+    {
+      period++;
+    }
+
+    return period;
+  }
+
+  /**
+   * The stream of random values belongs to the building, which writes it with the rest of its state
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeDouble(m_nextArrivalMillis);
+    out.writeLong(m_nextArrivalFrame);
+  }
+
+  /**
+   * Continue from a state written by writeCheckpoint()
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if the next arrival is before the first frame
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    double nextArrivalMillis = in.readDouble();
+    long nextArrivalFrame = in.readLong();
+
+    if (false == (nextArrivalMillis >= START_MILLIS) || nextArrivalFrame < 0)
+    {
+      throw new IllegalArgumentException("Checkpoint arrival is invalid.");
+    }
+
+    m_nextArrivalMillis = nextArrivalMillis;
+    m_nextArrivalFrame = nextArrivalFrame;
+  }
+}
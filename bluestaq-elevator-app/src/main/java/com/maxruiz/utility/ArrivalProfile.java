@@ -0,0 +1,188 @@
+package com.maxruiz.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class describes how many passengers show up in a building over a day and where they are
+ * going. The day is split into periods, each with an arrival rate and a traffic mix: the share of
+ * incoming passengers (from the lobby up), outgoing passengers (down to the lobby) and passengers
+ * going from one upper floor to another. The lobby is the lowest floor of the building.
+ *
+ * Passengers show up in groups, e.g. colleagues coming back from lunch together. A group shares
+ * its origin and destination, and its size is drawn from the group size weights.
+ *
+ * office() is a typical office building: an up-peak in the morning, two-way traffic over lunch
+ * and a down-peak in the evening, with peak intensities from the usual elevator traffic analysis,
+ * e.g. 12% of the population arriving in five minutes at the height of the up-peak.
+ * @see ArrivalProcess
+ * @author Max Ruiz
+ */
+public class ArrivalProfile
+{
+  public static final long MILLIS_PER_HOUR = 60L * 60L * 1000L;
+  public static final long MILLIS_PER_DAY = 24L * MILLIS_PER_HOUR;
+
+  // A group of 1 is the most common, the mean is 1.6 passengers
+  private static final double[] DEFAULT_GROUP_SIZE_WEIGHTS = {0.6, 0.25, 0.1, 0.05};
+
+  /**
+   * A part of the day with the same arrivals
+   */
+  public static class Period
+  {
+    public final long StartMillis;
+    public final double PassengersPerHour;
+    public final double Incoming;
+    public final double Outgoing;
+    public final double Interfloor;
+
+    /**
+     * @param startMillis - start of the period, in milliseconds after midnight
+     * @param passengersPerHour - arrival rate over the whole building
+     * @param incoming - share of passengers going from the lobby up
+     * @param outgoing - share of passengers going down to the lobby
+     * @param interfloor - share of passengers going from one upper floor to another
+     */
+    public Period(long startMillis, double passengersPerHour, double incoming, double outgoing,
+                  double interfloor)
+    {
+      StartMillis = startMillis;
+      PassengersPerHour = passengersPerHour;
+      Incoming = incoming;
+      Outgoing = outgoing;
+      Interfloor = interfloor;
+    }
+  }
+
+  private final List<Period> m_periods;
+  private final double[] m_groupSizeWeights;
+
+  /**
+   * Constructor for ArrivalProfile
+   * @param periods - the periods of the day in order, the first starting at midnight
+   * @param groupSizeWeights - weight of a group of 1, 2, 3, ... passengers
+   * @throws IllegalArgumentException if the periods are out of order, don't start at midnight,
+   *                                  have a negative rate or mix, or there are no group sizes
+   */
+  public ArrivalProfile(List<Period> periods, double[] groupSizeWeights)
+  {
+    if (null == periods || periods.isEmpty() || 0 != periods.get(0).StartMillis)
+    {
+      throw new IllegalArgumentException("periods is invalid.");
+    }
+
+    for (int i = 0; i < periods.size(); i++)
+    {
+      Period p = periods.get(i);
+
+      if (p.StartMillis >= MILLIS_PER_DAY || (i > 0 && p.StartMillis <= periods.get(i - 1).StartMillis))
+      {
+        throw new IllegalArgumentException("periods is invalid.");
+      }
+
+      if (false == (p.PassengersPerHour >= 0.0) || false == (p.Incoming >= 0.0) ||
+          false == (p.Outgoing >= 0.0) || false == (p.Interfloor >= 0.0))
+      {
+        throw new IllegalArgumentException("periods is invalid.");
+      }
+    }
+
+    if (null == groupSizeWeights || 0 == groupSizeWeights.length)
+    {
+      throw new IllegalArgumentException("groupSizeWeights is invalid.");
+    }
+
+    m_periods = Collections.unmodifiableList(new ArrayList<>(periods));
+    m_groupSizeWeights = groupSizeWeights.clone();
+  }
+
+  /**
+   * @param passengersPerHour - arrival rate over the whole building
+   * @return ArrivalProfile - the same interfloor traffic all day, one passenger at a time
+   */
+  public static ArrivalProfile uniform(double passengersPerHour)
+  {
+    return new ArrivalProfile(List.of(new Period(0, passengersPerHour, 0.0, 0.0, 1.0)),
+                              new double[] {1.0});
+  }
+
+  /**
+   * @param population - number of people working above the lobby
+   * @return ArrivalProfile - a day of an office building, in groups
+   */
+  public static ArrivalProfile office(int population)
+  {
+    if (population <= 0)
+    {
+      throw new IllegalArgumentException("population is invalid.");
+    }
+
+    ArrayList<Period> periods = new ArrayList<>();
+
+    // Rates in share of the population per 5 minutes, the way peaks are usually given
+    periods.add(officePeriod(0, 0, population, 0.001, 0.1, 0.4, 0.5));
+    periods.add(officePeriod(7, 0, population, 0.04, 0.8, 0.1, 0.1));
+    periods.add(officePeriod(8, 0, population, 0.12, 0.9, 0.05, 0.05));
+    periods.add(officePeriod(9, 30, population, 0.03, 0.3, 0.2, 0.5));
+    periods.add(officePeriod(11, 30, population, 0.10, 0.45, 0.45, 0.1));
+    periods.add(officePeriod(13, 30, population, 0.03, 0.2, 0.3, 0.5));
+    periods.add(officePeriod(16, 30, population, 0.11, 0.05, 0.9, 0.05));
+    periods.add(officePeriod(18, 0, population, 0.02, 0.1, 0.7, 0.2));
+    periods.add(officePeriod(20, 0, population, 0.002, 0.1, 0.4, 0.5));
+
+    return new ArrivalProfile(periods, DEFAULT_GROUP_SIZE_WEIGHTS);
+  }
+
+  /**
+   * A Macro to create a period of the office day
+   * @param hour
+   * @param minute
+   * @param population
+   * @param shareIn5Minutes - share of the population that shows up in 5 minutes
+   * @param incoming
+   * @param outgoing
+   * @param interfloor
+   * @return Period
+   */
+  private static Period officePeriod(int hour, int minute, int population, double shareIn5Minutes,
+                                     double incoming, double outgoing, double interfloor)
+  {
+    return new Period((hour * 60L + minute) * 60L * 1000L, population * shareIn5Minutes * 12.0,
+                      incoming, outgoing, interfloor);
+  }
+
+  /**
+   * @return List<Period> - the periods of the day, in order
+   */
+  public List<Period> getPeriods()
+  {
+    return m_periods;
+  }
+
+  /**
+   * @return double[] - weight of a group of 1, 2, 3, ... passengers
+   */
+  public double[] getGroupSizeWeights()
+  {
+    return m_groupSizeWeights.clone();
+  }
+
+  /**
+   * @return double - average number of passengers in a group
+   */
+  public double getMeanGroupSize()
+  {
+    double total = 0.0;
+    double sum = 0.0;
+
+    for (int i = 0; i < m_groupSizeWeights.length; i++)
+    {
+      total += m_groupSizeWeights[i];
+      sum += m_groupSizeWeights[i] * (i + 1);
+    }
+
+    return (total > 0.0) ? sum / total : 1.0;
+  }
+}
@@ -0,0 +1,237 @@
+package com.maxruiz.utility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.BitSet;
+
+/**
+ * This class reads back the values written by a CheckpointWriter, in the same order. The channel
+ * is read through one buffer and arrays are copied out of it in bulk. A checkpoint that ends early,
+ * or has a count or an enum that is out of range, is reported rather than read past.
+ *
+ * The channel is left open, it belongs to the caller. Every reader has its own buffer, so any
+ * number of them can read copies of the same checkpoint at once, e.g. to fork many runs from it.
+ *
+ * This class is NOT thread safe.
+ * @see CheckpointWriter
+ * @author Max Ruiz
+ */
+public class CheckpointReader
+{
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ReadableByteChannel m_channel;
+  private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  /**
+   * @param channel - where the checkpoint is read from
+   * @throws IllegalArgumentException if channel is null
+   */
+  public CheckpointReader(ReadableByteChannel channel)
+  {
+    if (null == channel)
+    {
+      throw new IllegalArgumentException("channel is invalid.");
+    }
+
+    m_channel = channel;
+    m_buffer.limit(0);
+  }
+
+  public int readInt()
+  {
+    ensure(Integer.BYTES);
+    return m_buffer.getInt();
+  }
+
+  public long readLong()
+  {
+    ensure(Long.BYTES);
+    return m_buffer.getLong();
+  }
+
+  public double readDouble()
+  {
+    ensure(Double.BYTES);
+    return m_buffer.getDouble();
+  }
+
+  /**
+   * @return boolean
+   * @throws IllegalArgumentException if the value is not a boolean
+   */
+  public boolean readBoolean()
+  {
+    ensure(1);
+    byte value = m_buffer.get();
+
+    if (value != 0 && value != 1)
+    {
+      throw new IllegalArgumentException("Checkpoint is invalid.");
+    }
+
+    return 1 == value;
+  }
+
+  /**
+   * @param <E>
+   * @param values - every value of the enum, e.g. EventType.values()
+   * @return E - the value with the ordinal that was written
+   * @throws IllegalArgumentException if there is no value with that ordinal
+   */
+  public <E extends Enum<E>> E readEnum(E[] values)
+  {
+    int ordinal = readInt();
+
+    if (ordinal < 0 || ordinal >= values.length)
+    {
+      throw new IllegalArgumentException("Checkpoint is invalid.");
+    }
+
+    return values[ordinal];
+  }
+
+  /**
+   * Read a count, e.g. of the values of an array that follows
+   * @param max - the largest count that is valid
+   * @return int - from 0 to max
+   * @throws IllegalArgumentException if the count is out of range
+   */
+  public int readCount(int max)
+  {
+    int count = readInt();
+
+    if (count < 0 || count > max)
+    {
+      throw new IllegalArgumentException("Checkpoint is invalid.");
+    }
+
+    return count;
+  }
+
+  /**
+   * Read values into the start of an array
+   * @param values
+   * @param length - number of values to read
+   */
+  public void readInts(int[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Integer.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Integer.BYTES);
+      m_buffer.asIntBuffer().get(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Integer.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Read values into the start of an array
+   * @param values
+   * @param length - number of values to read
+   */
+  public void readLongs(long[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Long.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Long.BYTES);
+      m_buffer.asLongBuffer().get(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Long.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Read values into the start of an array
+   * @param values
+   * @param length - number of values to read
+   */
+  public void readDoubles(double[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Double.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Double.BYTES);
+      m_buffer.asDoubleBuffer().get(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Double.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Read values into the start of an array
+   * @param values
+   * @param length - number of values to read
+   */
+  public void readBytes(byte[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(1);
+      int count = Math.min(length - i, m_buffer.remaining());
+      m_buffer.get(values, i, count);
+      i += count;
+    }
+  }
+
+  /**
+   * Read the bits written by CheckpointWriter.writeBitSet() into a set, replacing its bits
+   * @param bits
+   * @param size - number of bits the set can have
+   * @throws IllegalArgumentException if a bit is set past the size
+   */
+  public void readBitSet(BitSet bits, int size)
+  {
+    long[] words = new long[readCount((size + Long.SIZE - 1) / Long.SIZE)];
+    readLongs(words, words.length);
+
+    BitSet read = BitSet.valueOf(words);
+
+    if (read.length() > size)
+    {
+      throw new IllegalArgumentException("Checkpoint is invalid.");
+    }
+
+    bits.clear();
+    bits.or(read);
+  }
+
+  /**
+   * A Macro to have the next value in the buffer, reading from the channel if it is not
+   * @param bytes - size of the value
+   * @throws IllegalArgumentException if the checkpoint ends before the value
+   * @throws UncheckedIOException if the channel cannot be read
+   */
+  private void ensure(int bytes)
+  {
+    if (m_buffer.remaining() >= bytes)
+    {
+      return;
+    }
+
+    m_buffer.compact();
+
+    try
+    {
+      while (m_buffer.position() < bytes)
+      {
+        if (m_channel.read(m_buffer) < 0)
+        {
+          throw new IllegalArgumentException("Checkpoint is truncated.");
+        }
+      }
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    finally
+    {
+      m_buffer.flip();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.maxruiz.utility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.BitSet;
+
+/**
+ * This class writes the state of a building to a channel as primitive values, e.g. to a file, so
+ * the run can be resumed or forked later, see CheckpointReader. Values go through one buffer and
+ * arrays are copied into it in bulk, so a building with many passengers is written with a few
+ * large writes rather than one per value.
+ *
+ * Nothing is written about what a value is, the reader has to read them back in the same order.
+ * The channel is left open, it belongs to the caller.
+ *
+ * This class is NOT thread safe.
+ * @see CheckpointReader
+ * @author Max Ruiz
+ */
+public class CheckpointWriter
+{
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final WritableByteChannel m_channel;
+  private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  /**
+   * @param channel - where the checkpoint is written
+   * @throws IllegalArgumentException if channel is null
+   */
+  public CheckpointWriter(WritableByteChannel channel)
+  {
+    if (null == channel)
+    {
+      throw new IllegalArgumentException("channel is invalid.");
+    }
+
+    m_channel = channel;
+  }
+
+  public void writeInt(int value)
+  {
+    ensure(Integer.BYTES);
+    m_buffer.putInt(value);
+  }
+
+  public void writeLong(long value)
+  {
+    ensure(Long.BYTES);
+    m_buffer.putLong(value);
+  }
+
+  public void writeDouble(double value)
+  {
+    ensure(Double.BYTES);
+    m_buffer.putDouble(value);
+  }
+
+  public void writeBoolean(boolean value)
+  {
+    ensure(1);
+    m_buffer.put((byte)(value ? 1 : 0));
+  }
+
+  /**
+   * @param value - written as its ordinal
+   */
+  public void writeEnum(Enum<?> value)
+  {
+    writeInt(value.ordinal());
+  }
+
+  /**
+   * Write the first values of an array, without their count
+   * @param values
+   * @param length - number of values to write
+   */
+  public void writeInts(int[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Integer.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Integer.BYTES);
+      m_buffer.asIntBuffer().put(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Integer.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Write the first values of an array, without their count
+   * @param values
+   * @param length - number of values to write
+   */
+  public void writeLongs(long[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Long.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Long.BYTES);
+      m_buffer.asLongBuffer().put(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Long.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Write the first values of an array, without their count
+   * @param values
+   * @param length - number of values to write
+   */
+  public void writeDoubles(double[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(Double.BYTES);
+      int count = Math.min(length - i, m_buffer.remaining() / Double.BYTES);
+      m_buffer.asDoubleBuffer().put(values, i, count);
+      m_buffer.position(m_buffer.position() + count * Double.BYTES);
+      i += count;
+    }
+  }
+
+  /**
+   * Write the first values of an array, without their count
+   * @param values
+   * @param length - number of values to write
+   */
+  public void writeBytes(byte[] values, int length)
+  {
+    for (int i = 0; i < length; )
+    {
+      ensure(1);
+      int count = Math.min(length - i, m_buffer.remaining());
+      m_buffer.put(values, i, count);
+      i += count;
+    }
+  }
+
+  /**
+   * Write the set bits as the count of their words, then the words
+   * @param bits
+   */
+  public void writeBitSet(BitSet bits)
+  {
+    long[] words = bits.toLongArray();
+
+    writeInt(words.length);
+    writeLongs(words, words.length);
+  }
+
+  /**
+   * Write everything still in the buffer to the channel
+   * @throws UncheckedIOException if the channel cannot be written
+   */
+  public void flush()
+  {
+    m_buffer.flip();
+
+    try
+    {
+      while (m_buffer.hasRemaining())
+      {
+        m_channel.write(m_buffer);
+      }
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    finally
+    {
+      m_buffer.clear();
+    }
+  }
+
+  /**
+   * A Macro to make room in the buffer for a value
+   * @param bytes - size of the value
+   */
+  private void ensure(int bytes)
+  {
+    if (m_buffer.remaining() < bytes)
+    {
+      flush();
+    }
+  }
+}
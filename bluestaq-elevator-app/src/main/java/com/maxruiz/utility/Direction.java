@@ -1,6 +1,7 @@
 package com.maxruiz.utility;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -59,10 +60,17 @@ public enum Direction
    */
   public static Direction getRandomDirection()
   {
-    Random random = new Random();
-
-    int randomIdx = random.nextInt(SIZE.Value);
+    return from(ThreadLocalRandom.current().nextInt(SIZE.Value));
+  }
 
-    return from(randomIdx);
+  /**
+   * This is a utility function to procure a randomly generated direction from a seeded stream,
+   * so that the direction can be repeated
+   * @param random
+   * @return Direction - a randomly generated direction
+   */
+  public static Direction getRandomDirection(RandomGenerator random)
+  {
+    return from(random.nextInt(SIZE.Value));
   }
 }
@@ -1,11 +1,14 @@
 package com.maxruiz.utility;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 
+import com.maxruiz.logging.Log;
+
 
 /**
  * This class contains events that affect the system and how it plays out.
@@ -31,16 +34,42 @@ public class EventController
 
   private Map<EventType, Double> m_eventChanceMap = new LinkedHashMap<EventType, Double>();
   
-  private Random m_randomGen = new Random();
+  private final RandomGenerator m_randomGen;
 
   private ArrayList<EventType> m_customEventList = new ArrayList<>();
   private int m_customEventListIndex = 0;
 
+  // The run of IDLE events sampled ahead, and the event that ends it, handed out one at a time
+  // -1 means nothing has been sampled ahead
+  private long m_pendingIdleEvents = -1;
+  private EventType m_pendingEvent = EventType.IDLE;
+
   /**
    * Constructor for EventController. Here, it loads the possible events.
    */
   public EventController()
   {
+    this(new SplittableRandom());
+  }
+
+  /**
+   * Constructor for EventController that seeds the random events, so that the same seed
+   * produces the same events.
+   * @param seed long
+   */
+  public EventController(long seed)
+  {
+    this(new SplittableRandom(seed));
+  }
+
+  /**
+   * Constructor for EventController that draws its random events from the provided stream,
+   * e.g. one split off the stream of a seeded building.
+   * @param random
+   */
+  public EventController(RandomGenerator random)
+  {
+    m_randomGen = random;
     loadEventsMap();
   }
 
@@ -91,26 +120,232 @@ public class EventController
   }
 
   /**
-   * This method returns a randomly geneerated event for the system.
+   * Change the chance of a random event, e.g. 0 to stop rolling passengers when they are drawn
+   * by an ArrivalProcess instead. Anything sampled ahead is drawn again.
+   * @param eventType
+   * @param chance double - chance of the event in one roll, from 0 to 1
+   * @throws IllegalArgumentException if the chance is not from 0 to 1
+   */
+  public void setEventChance(EventType eventType, double chance)
+  {
+    if (false == (chance >= 0.0 && chance <= 1.0))
+    {
+      throw new IllegalArgumentException("chance is invalid.");
+    }
+
+    m_eventChanceMap.put(eventType, chance);
+
+    sortEventMap();
+
+    m_pendingIdleEvents = -1;
+  }
+
+  /**
+   * This method returns a randomly geneerated event for the system. The events come from runs
+   * of IDLE events sampled ahead by sampleIdleRun(), one event at a time, the same runs that 
+   * countUpcomingIdleEvents() looks at and skipIdleEvents() skips. So a building that is stepped
+   * frame by frame gets the same events as one that jumps over its quiet frames.
    * @return EventType - enumeration value that is an event
    */
   public EventType getNextRandomEvent()
   {
-    double diceRoll = m_randomGen.nextDouble();
+    EventType et = EventType.IDLE;
+
+    if (m_pendingIdleEvents < 0)
+    {
+      sampleIdleRun();
+    }
+
+    if (m_pendingIdleEvents > 0)
+    {
+      m_pendingIdleEvents--;
+    }
+    else if (0 == m_pendingIdleEvents)
+    {
+      m_pendingIdleEvents = -1;
+      et = m_pendingEvent;
+    }
+
+    Log.log(EventType.IDLE == et ? Log.Level.TRACE : Log.Level.DEBUG, Log.Category.EVENTS,
+            "Random Event", Log.NONE, Log.NONE, Log.NONE, Log.NONE, Log.NONE, et.Representation);
+
+    return et;
+  } 
+
+  /**
+   * The chance that a single dice roll lands on anything other than IDLE. Because the map is
+   * sorted, each event owns the slice of [0, 1) between the previous chance and its own.
+   * @return double
+   */
+  private double nonIdleChance()
+  {
+    double chance = 0.0;
+    double previous = 0.0;
 
     for (Map.Entry<EventType, Double> eventEntry : m_eventChanceMap.entrySet())
     {
-      
-      if (diceRoll < eventEntry.getValue())
+      double value = Math.min(1.0, eventEntry.getValue());
+
+      if (value > previous && EventType.IDLE != eventEntry.getKey())
+      {
+        chance += value - previous;
+      }
+
+      previous = Math.max(previous, value);
+    }
+
+    return chance;
+  }
+
+  /**
+   * Roll a non-IDLE event, given that the dice roll did not land on IDLE.
+   * @param roll double - uniform in [0, nonIdleChance())
+   * @return EventType
+   */
+  private EventType rollNonIdleEvent(double roll)
+  {
+    double previous = 0.0;
+    EventType last = EventType.IDLE;
+
+    for (Map.Entry<EventType, Double> eventEntry : m_eventChanceMap.entrySet())
+    {
+      double value = Math.min(1.0, eventEntry.getValue());
+
+      if (value > previous && EventType.IDLE != eventEntry.getKey())
       {
-        System.out.println("\n----- Random Event: " + eventEntry.getKey().Representation);
+        last = eventEntry.getKey();
+
+        if (roll < value - previous)
+        {
+          return last;
+        }
 
-        return eventEntry.getKey();
+        roll -= value - previous;
       }
+
+      previous = Math.max(previous, value);
     }
 
-    return EventType.IDLE;
-  } 
+    return last;
+  }
+
+  /**
+   * Look ahead at how many of the next events will be IDLE before anything else happens.
+   * For random events this is the run sampled by sampleIdleRun(), which getNextRandomEvent()
+   * hands out one event at a time.
+   * For custom events the list is assumed not to loop, as that is how the Building reads it.
+   * @param custom boolean - look at the custom event list rather than the random events
+   * @return long - number of upcoming IDLE events, Long.MAX_VALUE if nothing else will happen
+   */
+  public long countUpcomingIdleEvents(boolean custom)
+  {
+    if (custom)
+    {
+      return countUpcomingIdleCustomEvents();
+    }
+
+    if (m_pendingIdleEvents < 0)
+    {
+      sampleIdleRun();
+    }
+
+    // Nothing but IDLE can happen
+    if (m_pendingIdleEvents < 0)
+    {
+      return Long.MAX_VALUE;
+    }
+
+    return m_pendingIdleEvents;
+  }
+
+  /**
+   * A Macro to sample the length of the next run of IDLE events from the geometric distribution,
+   * along with the event that ends it. This has the same distribution as rolling the dice once
+   * per event, with two draws per run instead of one per event. Nothing is sampled if no event
+   * other than IDLE can happen.
+   */
+  private void sampleIdleRun()
+  {
+    double chance = nonIdleChance();
+
+    if (chance <= 0.0)
+    {
+      return;
+    }
+
+    if (chance >= 1.0)
+    {
+      m_pendingIdleEvents = 0;
+    }
+    else 
+    {
+      double u = m_randomGen.nextDouble();
+      double run = Math.floor(Math.log1p(-u) / Math.log1p(-chance));
+      m_pendingIdleEvents = (run >= Long.MAX_VALUE) ? Long.MAX_VALUE - 1 : (long)run;
+    }
+
+    m_pendingEvent = rollNonIdleEvent(m_randomGen.nextDouble() * chance);
+  }
+
+  /**
+   * @return long - number of IDLE events left before the custom list produces something else
+   */
+  private long countUpcomingIdleCustomEvents()
+  {
+    if (m_customEventList.isEmpty())
+    {
+      return Long.MAX_VALUE;
+    }
+
+    long count = 0;
+
+    for (int i = m_customEventListIndex; i < m_customEventList.size(); i++)
+    {
+      if (EventType.IDLE != m_customEventList.get(i))
+      {
+        return count;
+      }
+
+      count++;
+    }
+
+    // Past the end of the list the last event repeats
+    if (EventType.IDLE == m_customEventList.get(m_customEventList.size() - 1))
+    {
+      return Long.MAX_VALUE;
+    }
+
+    return count;
+  }
+
+  /**
+   * Consume IDLE events without printing them, as if they had been requested one at a time.
+   * The caller must have checked that at least this many IDLE events are upcoming.
+   * @param count long - number of IDLE events to skip
+   * @param custom boolean - skip through the custom event list rather than the random events
+   * @see countUpcomingIdleEvents
+   */
+  public void skipIdleEvents(long count, boolean custom)
+  {
+    if (count <= 0)
+    {
+      return;
+    }
+
+    if (custom)
+    {
+      long index = Math.min((long)m_customEventListIndex + count, (long)m_customEventList.size());
+      m_customEventListIndex = (int)index;
+      return;
+    }
+
+    if (m_pendingIdleEvents < count)
+    {
+      throw new IllegalStateException("Cannot skip more IDLE events than are upcoming.");
+    }
+
+    m_pendingIdleEvents -= count;
+  }
 
   /**
    * @param loop boolean - determines if the returned custom event wraps to
@@ -142,7 +377,8 @@ public class EventController
       et = m_customEventList.get(m_customEventListIndex++);
     }
 
-    System.out.println("\n----- Custom Event: " + et.Representation);
+    Log.log(EventType.IDLE == et ? Log.Level.TRACE : Log.Level.DEBUG, Log.Category.EVENTS,
+            "Custom Event", Log.NONE, Log.NONE, Log.NONE, Log.NONE, Log.NONE, et.Representation);
 
     return et;
   }
@@ -220,6 +456,37 @@ public class EventController
     m_customEventList.clear();
     m_customEventList = eventList;
   }
-}
 
+  /**
+   * The chances of the events and the custom list come from the configuration, and the stream of
+   * random values belongs to the building, so only how far along the events are is written
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeInt(m_customEventListIndex);
+    out.writeLong(m_pendingIdleEvents);
+    out.writeEnum(m_pendingEvent);
+  }
 
+  /**
+   * Continue from a state written by writeCheckpoint()
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if the state does not fit the custom list
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    int customEventListIndex = in.readCount(m_customEventList.size());
+    long pendingIdleEvents = in.readLong();
+    EventType pendingEvent = in.readEnum(EventType.values());
+
+    if (pendingIdleEvents < -1)
+    {
+      throw new IllegalArgumentException("Checkpoint events are invalid.");
+    }
+
+    m_customEventListIndex = customEventListIndex;
+    m_pendingIdleEvents = pendingIdleEvents;
+    m_pendingEvent = pendingEvent;
+  }
+}
@@ -0,0 +1,328 @@
+package com.maxruiz.utility;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class reads a scenario, the passengers and events of a building by the frame they happen
+ * on, e.g. a capture of the traffic of a real building. It reads one line ahead of the building,
+ * so however long the scenario is only one line of it is ever held in memory.
+ *
+ * One entry per line, in the order they happen:
+ * <pre>
+ *   # comment
+ *   &lt;frame&gt; PASSENGERS &lt;origin floor&gt; &lt;destination floor&gt; [sqft]
+ *   &lt;frame&gt; STUCK
+ *   &lt;frame&gt; FIRE
+ * </pre>
+ * Frames are counted from the first frame of the building, and any number of entries can happen
+ * on the same frame. A passenger without a size gets a random one from the building.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @see EventController
+ * @author Max Ruiz
+ */
+public class ScenarioReader implements Closeable
+{
+  public static final long NO_ENTRY = Long.MAX_VALUE;
+
+  /**
+   * Something that happens in the building on a frame
+   */
+  public static class Entry
+  {
+    public final long Frame;
+    public final EventController.EventType Event;
+    // Only for PASSENGERS
+    public final int OriginFloor;
+    public final int DestinationFloor;
+    // 0 for a random size
+    public final int Sqft;
+
+    public Entry(long frame, EventController.EventType event, int originFloor, int destinationFloor,
+                 int sqft)
+    {
+      Frame = frame;
+      Event = event;
+      OriginFloor = originFloor;
+      DestinationFloor = destinationFloor;
+      Sqft = sqft;
+    }
+  }
+
+  private final int LOWEST_FLOOR;
+  private final int HIGHEST_FLOOR;
+  private final SimulationClock m_clock;
+
+  // null once the whole scenario has been read
+  private BufferedReader m_reader;
+  private long m_lineNumber = 0;
+  private Entry m_next = null;
+
+  /**
+   * Constructor for ScenarioReader, which reads the first entry
+   * @param path - the scenario file
+   * @param lowestFloor
+   * @param highestFloor
+   * @param clock - the clock of the building
+   * @throws IllegalArgumentException if the floors are equal or crossed, or the first entry is invalid
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public ScenarioReader(Path path, int lowestFloor, int highestFloor, SimulationClock clock)
+  {
+    if (null == path || null == clock)
+    {
+      throw new IllegalArgumentException("path and clock are invalid.");
+    }
+
+    if (lowestFloor >= highestFloor)
+    {
+      throw new IllegalArgumentException("Lowest and highest floor are invalid.");
+    }
+
+    LOWEST_FLOOR = lowestFloor;
+    HIGHEST_FLOOR = highestFloor;
+    m_clock = clock;
+
+    try
+    {
+      m_reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    m_next = readEntry(0);
+  }
+
+  /**
+   * Take the next entry that has happened by the current frame
+   * @return Entry - null if nothing else has happened yet
+   * @throws IllegalArgumentException if the entry after it is invalid
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public Entry poll()
+  {
+    if (null == m_next || m_next.Frame > m_clock.getFrame())
+    {
+      return null;
+    }
+
+    Entry entry = m_next;
+    m_next = readEntry(entry.Frame);
+
+    return entry;
+  }
+
+  /**
+   * @return long - number of frames before the next entry happens, 0 if one already has,
+   *                NO_ENTRY if the scenario is over
+   */
+  public long framesUntilNextEntry()
+  {
+    if (null == m_next)
+    {
+      return NO_ENTRY;
+    }
+
+    return Math.max(0, m_next.Frame - m_clock.getFrame());
+  }
+
+  /**
+   * @return boolean - has every entry been taken?
+   */
+  public boolean isFinished()
+  {
+    return null == m_next;
+  }
+
+  /**
+   * Stop reading, the scenario is over
+   */
+  @Override
+  public void close()
+  {
+    m_next = null;
+
+    if (null == m_reader)
+    {
+      return;
+    }
+
+    try
+    {
+      m_reader.close();
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    finally
+    {
+      m_reader = null;
+    }
+  }
+
+  /**
+   * A Macro to read the next entry, skipping blank lines and comments. The file is closed at its end.
+   * @param previousFrame long - frame of the entry before it, entries never go back in time
+   * @return Entry - null at the end of the file
+   * @throws IllegalArgumentException if the entry is invalid
+   */
+  private Entry readEntry(long previousFrame)
+  {
+    if (null == m_reader)
+    {
+      return null;
+    }
+
+    String line;
+
+    try
+    {
+      line = m_reader.readLine();
+
+      while (null != line)
+      {
+        m_lineNumber++;
+
+        int comment = line.indexOf('#');
+        line = ((comment < 0) ? line : line.substring(0, comment)).trim();
+
+        if (false == line.isEmpty())
+        {
+          break;
+        }
+
+        line = m_reader.readLine();
+      }
+    }
+    catch (IOException e)
+    {
+      close();
+      throw new UncheckedIOException(e);
+    }
+
+    if (null == line)
+    {
+      close();
+      return null;
+    }
+
+    return parseEntry(line.split("\\s+"), previousFrame);
+  }
+
+  /**
+   * @param fields - the words of a line
+   * @param previousFrame long
+   * @return Entry
+   * @throws IllegalArgumentException if the entry is invalid
+   */
+  private Entry parseEntry(String[] fields, long previousFrame)
+  {
+    try
+    {
+      long frame = Long.parseLong(fields[0]);
+      EventController.EventType event = EventController.EventType.valueOf(fields[1]);
+
+      if (frame < previousFrame)
+      {
+        throw new IllegalArgumentException();
+      }
+
+      switch (event)
+      {
+        case STUCK:
+        case FIRE:
+          if (2 == fields.length)
+          {
+            return new Entry(frame, event, 0, 0, 0);
+          }
+          break;
+
+        case PASSENGERS:
+          if (4 == fields.length || 5 == fields.length)
+          {
+            int origin = Integer.parseInt(fields[2]);
+            int destination = Integer.parseInt(fields[3]);
+            int sqft = (5 == fields.length) ? Integer.parseInt(fields[4]) : 0;
+
+            if (isFloor(origin) && isFloor(destination) && origin != destination
+                && (5 == fields.length) == (sqft > 0))
+            {
+              return new Entry(frame, event, origin, destination, sqft);
+            }
+          }
+          break;
+
+        default:
+          break;
+      }
+    }
+    catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e)
+    {
+      // Reported below, with the line it came from
+    }
+
+    throw new IllegalArgumentException("Scenario line " + m_lineNumber + " is invalid.");
+  }
+
+  /**
+   * @param floor
+   * @return boolean - is the floor in the building?
+   */
+  private boolean isFloor(int floor)
+  {
+    return floor >= LOWEST_FLOOR && floor <= HIGHEST_FLOOR;
+  }
+
+  /**
+   * Write how far the scenario has been read, the file itself is not written
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeBoolean(null != m_next);
+    out.writeLong(m_lineNumber);
+  }
+
+  /**
+   * Continue from a state written by writeCheckpoint(), reading ahead through the same file from
+   * where this reader is up to the line of the next entry
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if this reader is already past that line, or the file
+   *                                  ends before it
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    boolean hasNext = in.readBoolean();
+    long lineNumber = in.readLong();
+
+    if (false == hasNext)
+    {
+      close();
+      return;
+    }
+
+    if (lineNumber < m_lineNumber)
+    {
+      throw new IllegalArgumentException("Checkpoint scenario line is invalid.");
+    }
+
+    while (null != m_next && m_lineNumber < lineNumber)
+    {
+      m_next = readEntry(m_next.Frame);
+    }
+
+    if (null == m_next || m_lineNumber != lineNumber)
+    {
+      throw new IllegalArgumentException("Checkpoint scenario line is invalid.");
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.maxruiz.utility;
+
+/**
+ * This class keeps the simulated time of a building as a number of frames. The building
+ * advances it once per frame, or by many frames at once when frames are skipped, and everything
+ * that needs to know when something happened, e.g. when a passenger boarded, reads it.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @author Max Ruiz
+ */
+public class SimulationClock
+{
+  private long m_frame = 0;
+
+  /**
+   * @return long - the current frame, the number of frames that have passed so far
+   */
+  public long getFrame()
+  {
+    return m_frame;
+  }
+
+  /**
+   * Move on to the next frame
+   */
+  public void advance()
+  {
+    m_frame++;
+  }
+
+  /**
+   * Move on by several frames at once
+   * @param frames long
+   * @throws IllegalArgumentException if frames is negative
+   */
+  public void advance(long frames)
+  {
+    if (frames < 0)
+    {
+      throw new IllegalArgumentException("frames is invalid.");
+    }
+
+    m_frame += frames;
+  }
+
+  /**
+   * @param out - where the frame is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeLong(m_frame);
+  }
+
+  /**
+   * Move to the frame written by writeCheckpoint()
+   * @param in - where the frame is read from
+   * @throws IllegalArgumentException if the frame is negative
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    long frame = in.readLong();
+
+    if (frame < 0)
+    {
+      throw new IllegalArgumentException("Checkpoint frame is invalid.");
+    }
+
+    m_frame = frame;
+  }
+}
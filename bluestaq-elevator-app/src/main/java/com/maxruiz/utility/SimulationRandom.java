@@ -0,0 +1,131 @@
+package com.maxruiz.utility;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class is a stream of random values that gives the same values as a SplittableRandom with
+ * the same seed, and splits off the same streams, but whose state can be saved to a checkpoint and
+ * restored. A SplittableRandom keeps its state to itself, so a building that draws from one could
+ * never be resumed where it left off.
+ *
+ * The state is two longs, the seed that moves on by the gamma every value, the same as SplitMix64.
+ *
+ * This class is NOT thread safe, the same as the Building that owns it.
+ * @see SplittableRandom
+ * @see CheckpointWriter
+ * @author Max Ruiz
+ */
+public class SimulationRandom implements RandomGenerator
+{
+  // Weyl increment of a stream seeded with a single long
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long m_seed;
+  private long m_gamma;
+
+  /**
+   * Constructor for SimulationRandom whose values are different every time
+   */
+  public SimulationRandom()
+  {
+    this(new SplittableRandom().nextLong());
+  }
+
+  /**
+   * Constructor for SimulationRandom, the same values as new SplittableRandom(seed)
+   * @param seed long
+   */
+  public SimulationRandom(long seed)
+  {
+    this(seed, GOLDEN_GAMMA);
+  }
+
+  private SimulationRandom(long seed, long gamma)
+  {
+    m_seed = seed;
+    m_gamma = gamma;
+  }
+
+  /**
+   * Split off a new stream, the same way as SplittableRandom.split(). The values of this stream
+   * and the new one are independent from here on.
+   * @return SimulationRandom
+   */
+  public SimulationRandom split()
+  {
+    return new SimulationRandom(nextLong(), mixGamma(nextSeed()));
+  }
+
+  @Override
+  public long nextLong()
+  {
+    return mix64(nextSeed());
+  }
+
+  @Override
+  public int nextInt()
+  {
+    return mix32(nextSeed());
+  }
+
+  /**
+   * @param out - where the state is written
+   */
+  public void writeCheckpoint(CheckpointWriter out)
+  {
+    out.writeLong(m_seed);
+    out.writeLong(m_gamma);
+  }
+
+  /**
+   * Continue from a state written by writeCheckpoint()
+   * @param in - where the state is read from
+   * @throws IllegalArgumentException if the gamma is even, which no stream has
+   */
+  public void readCheckpoint(CheckpointReader in)
+  {
+    long seed = in.readLong();
+    long gamma = in.readLong();
+
+    if (0 == (gamma & 1L))
+    {
+      throw new IllegalArgumentException("Checkpoint random state is invalid.");
+    }
+
+    m_seed = seed;
+    m_gamma = gamma;
+  }
+
+  private long nextSeed()
+  {
+    return m_seed += m_gamma;
+  }
+
+  private static long mix64(long z)
+  {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static int mix32(long z)
+  {
+    z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+    return (int)(((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+  }
+
+  /**
+   * A Macro to turn a value into an odd gamma with enough bits flipping, the same as SplittableRandom
+   * @param z
+   * @return long
+   */
+  private static long mixGamma(long z)
+  {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    z = (z ^ (z >>> 33)) | 1L;
+    int n = Long.bitCount(z ^ (z >>> 1));
+    return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+  }
+}
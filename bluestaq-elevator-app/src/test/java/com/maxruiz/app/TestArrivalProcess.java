@@ -0,0 +1,141 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.utility.AliasTable;
+import com.maxruiz.utility.ArrivalProcess;
+import com.maxruiz.utility.ArrivalProfile;
+import com.maxruiz.utility.SimulationClock;
+
+public class TestArrivalProcess
+{
+  int valid_lowestFloor = 0;
+  int valid_highestFloor = 10;
+  long valid_frameMillis = 200;
+  long valid_seed = 42;
+
+  @Test
+  void test_aliasTableFrequencies()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {new AliasTable(new double[] {0.0, 0.0}); });
+    assertThrows(IllegalArgumentException.class, () -> {new AliasTable(new double[] {1.0, -1.0}); });
+
+    AliasTable table = new AliasTable(new double[] {1.0, 0.0, 3.0, 6.0});
+    SplittableRandom random = new SplittableRandom(valid_seed);
+    int[] counts = new int[table.size()];
+    int draws = 100000;
+
+    for (int i = 0; i < draws; i++)
+    {
+      counts[table.sample(random)]++;
+    }
+
+    assertEquals(0, counts[1]);
+    assertEquals(0.1, counts[0] / (double)draws, 0.01);
+    assertEquals(0.3, counts[2] / (double)draws, 0.01);
+    assertEquals(0.6, counts[3] / (double)draws, 0.01);
+  }
+
+  @Test
+  void test_rateOverAnHour()
+  {
+    SimulationClock clock = new SimulationClock();
+    ArrivalProcess process = createProcess(ArrivalProfile.uniform(3600.0), clock, 0);
+    long framesPerHour = ArrivalProfile.MILLIS_PER_HOUR / valid_frameMillis;
+    int passengers = 0;
+
+    for (long frame = 0; frame < framesPerHour; frame++)
+    {
+      for (ArrivalProcess.Group group = process.poll(); null != group; group = process.poll())
+      {
+        // Interfloor only, never the lobby
+        assertTrue(group.OriginFloor != group.DestinationFloor);
+        assertTrue(group.OriginFloor > valid_lowestFloor && group.DestinationFloor > valid_lowestFloor);
+        passengers += group.Size;
+      }
+
+      clock.advance();
+    }
+
+    // 3600 expected, the standard deviation is 60
+    assertEquals(3600, passengers, 300);
+  }
+
+  @Test
+  void test_officeUpPeakFromLobby()
+  {
+    SimulationClock clock = new SimulationClock();
+    // 8:00, the height of the up-peak
+    ArrivalProcess process = createProcess(ArrivalProfile.office(600), clock, 8L * ArrivalProfile.MILLIS_PER_HOUR);
+    int fromLobby = 0;
+    int groups = 0;
+    boolean sharedFrame = false;
+
+    // 30 minutes
+    for (long frame = 0; frame < 9000; frame++)
+    {
+      int groupsThisFrame = 0;
+
+      for (ArrivalProcess.Group group = process.poll(); null != group; group = process.poll())
+      {
+        assertTrue(group.Size >= 1 && group.Size <= 4);
+        fromLobby += (valid_lowestFloor == group.OriginFloor) ? 1 : 0;
+        groups++;
+        groupsThisFrame++;
+      }
+
+      sharedFrame |= groupsThisFrame > 1;
+      clock.advance();
+    }
+
+    // 864 passengers an hour in groups of 1.6
+    assertEquals(270, groups, 60);
+    assertEquals(0.9, fromLobby / (double)groups, 0.06);
+    assertTrue(sharedFrame);
+  }
+
+  @Test
+  void test_noArrivals()
+  {
+    SimulationClock clock = new SimulationClock();
+    ArrivalProcess process = createProcess(ArrivalProfile.uniform(0.0), clock, 0);
+
+    assertEquals(ArrivalProcess.NO_ARRIVAL, process.framesUntilNextArrival());
+    assertNull(process.poll());
+
+    // Arrivals only from noon, the next one is drawn over the quiet morning
+    ArrivalProfile noon = new ArrivalProfile(List.of(new ArrivalProfile.Period(0, 0.0, 1.0, 0.0, 0.0),
+                                                     new ArrivalProfile.Period(12L * ArrivalProfile.MILLIS_PER_HOUR,
+                                                                               60.0, 1.0, 0.0, 0.0)),
+                                             new double[] {1.0});
+    process = createProcess(noon, clock, 0);
+
+    assertTrue(process.framesUntilNextArrival() >= 12L * ArrivalProfile.MILLIS_PER_HOUR / valid_frameMillis);
+    assertTrue(process.framesUntilNextArrival() < 24L * ArrivalProfile.MILLIS_PER_HOUR / valid_frameMillis);
+
+    clock.advance(process.framesUntilNextArrival());
+    ArrivalProcess.Group group = process.poll();
+    assertEquals(valid_lowestFloor, group.OriginFloor);
+  }
+
+  /**
+   * A Macro to create an arrival process for the test building
+   * @param profile
+   * @param clock
+   * @param startMillis
+   * @return ArrivalProcess
+   */
+  private ArrivalProcess createProcess(ArrivalProfile profile, SimulationClock clock, long startMillis)
+  {
+    return new ArrivalProcess(profile, valid_lowestFloor, valid_highestFloor, clock, valid_frameMillis,
+                              startMillis, new SplittableRandom(valid_seed));
+  }
+}
@@ -1,20 +1,38 @@
 package com.maxruiz.app;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import com.maxruiz.config.BuildingConfig;
 import com.maxruiz.config.ElevatorConfig;
 import com.maxruiz.config.PassengerConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.JourneyMetrics;
 import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+import com.maxruiz.structures.Elevator;
 import com.maxruiz.passengers.PassengerPriority;
+import com.maxruiz.utility.ArrivalProfile;
 
 public class TestBuilding 
 {
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
   int valid_lowestFloor = 0;
   int valid_highestFloor = 5;
   int valid_maxNumPassengersPerFloor = 1;
@@ -58,4 +76,169 @@ public class TestBuilding
   {
     assertDoesNotThrow(() -> {new Building(); });
   }
+
+  @Test
+  void test_sameSeedRepeatsRun()
+  {
+    BuildingConfig bc = new BuildingConfig();
+    bc.setSeed(42);
+
+    Building first = new Building(bc);
+    Building second = new Building(bc);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      first.operate();
+      second.operate();
+
+      assertEquals(first.getKpis().summaryString(), second.getKpis().summaryString());
+    }
+  }
+
+  @Test
+  void test_differentSeedsDiffer()
+  {
+    BuildingConfig bc = new BuildingConfig();
+
+    Building first = new Building(bc, 1);
+    Building second = new Building(bc, 2);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      first.operate();
+      second.operate();
+    }
+
+    assertNotEquals(first.getKpis().summaryString(), second.getKpis().summaryString());
+  }
+
+  @Test
+  void test_journeysAddUp()
+  {
+    BuildingConfig bc = new BuildingConfig();
+
+    Building building = new Building(bc, 7);
+
+    for (int i = 0; i < 100_000; i++)
+    {
+      building.operate();
+    }
+
+    JourneyMetrics metrics = building.getJourneyMetrics();
+
+    for (JourneyMetrics.Leg leg : JourneyMetrics.Leg.values())
+    {
+      long count = metrics.getHistogram(leg).getCount();
+      long elevatorCount = 0;
+      long floorCount = 0;
+
+      for (int e = 0; e < metrics.getElevatorCount(); e++)
+      {
+        elevatorCount += metrics.getElevatorHistogram(leg, e).getCount();
+      }
+
+      for (int f = bc.getLowestFloor(); f <= bc.getHighestFloor(); f++)
+      {
+        floorCount += metrics.getFloorHistogram(leg, f).getCount();
+      }
+
+      assertEquals(building.getKpis().getPassengersDelivered(), count);
+      assertEquals(count, elevatorCount);
+      assertEquals(count, floorCount);
+    }
+  }
+
+  @Test
+  void test_skyLobbyTransfers()
+  {
+    BuildingConfig bc = new BuildingConfig();
+    int skyLobby = (bc.getHighestFloor() - bc.getLowestFloor()) / 2;
+
+    bc.getElevatorConfigs().clear();
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+    bc.getElevatorConfigs().add(new ElevatorConfig(skyLobby, bc.getHighestFloor()));
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+
+    Building building = new Building(bc, 7);
+
+    assertEquals(2, building.getBanks().size());
+    assertEquals(2, building.getBanks().get(0).getElevators().size());
+    assertEquals(skyLobby, building.getRoutingIndex().getLegDestination(bc.getLowestFloor(), 
+                                                                        bc.getHighestFloor()));
+
+    for (int i = 0; i < 100_000; i++)
+    {
+      building.operate();
+    }
+
+    BuildingKpis kpis = building.getKpis();
+
+    assertTrue(kpis.getPassengersTransferred() > 0);
+    assertTrue(kpis.getPassengersDelivered() > kpis.getPassengersTransferred());
+
+    // Every ride ends at a sky lobby or the final destination, unless it hasn't ended yet
+    assertEquals(kpis.getPassengersBoarded(), kpis.getPassengersDelivered() + 
+                 kpis.getPassengersTransferred() + kpis.getPassengersRiding());
+    assertEquals(kpis.getPassengersDelivered(), 
+                 building.getJourneyMetrics().getHistogram(JourneyMetrics.Leg.TO_DESTINATION).getCount());
+  }
+
+  @Test
+  void test_idleElevatorsPark()
+  {
+    // The custom passengers show up on the ground floor and halfway up, then the building idles
+    BuildingConfig bc = new BuildingConfig();
+    bc.loadDefaultBuildingConfig(true, true);
+    bc.setParkIdleElevators(true);
+
+    Building stepped = new Building(bc, 7);
+    Building skipped = new Building(bc, 7);
+
+    for (int i = 0; i < 10_000; i++)
+    {
+      stepped.operate();
+    }
+
+    new DiscreteEventEngine(skipped).run(10_000);
+
+    assertEquals(2, stepped.getKpis().getPassengersDelivered());
+    assertEquals(stepped.getKpis().summaryString(), skipped.getKpis().summaryString());
+
+    // One idle elevator waits at each floor passengers showed up on
+    List<Elevator> elevators = stepped.getBanks().get(0).getElevators();
+    int halfway = (bc.getHighestFloor() - bc.getLowestFloor()) / 2;
+
+    assertEquals(bc.getLowestFloor(), Math.min(elevators.get(0).getCurrentFloor(), elevators.get(1).getCurrentFloor()));
+    assertEquals(halfway, Math.max(elevators.get(0).getCurrentFloor(), elevators.get(1).getCurrentFloor()));
+
+    for (int e = 0; e < elevators.size(); e++)
+    {
+      assertEquals(elevators.get(e).getCurrentFloor(), 
+                   skipped.getBanks().get(0).getElevators().get(e).getCurrentFloor());
+    }
+  }
+
+  @Test
+  void test_arrivalProfileSpawnsPassengers()
+  {
+    // The custom events replay as given, the passengers show up from a steady profile on top
+    BuildingConfig bc = new BuildingConfig();
+    bc.loadDefaultBuildingConfig(true, true);
+    bc.setArrivalProfile(ArrivalProfile.uniform(600.0));
+
+    Building stepped = new Building(bc, 7);
+    Building skipped = new Building(bc, 7);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      stepped.operate();
+    }
+
+    new DiscreteEventEngine(skipped).run(50_000);
+
+    // 10000 seconds at 600 passengers an hour
+    BuildingKpis kpis = stepped.getKpis();
+    assertEquals(1667, kpis.getPassengersSpawned() + kpis.getPassengersTurnedAway(), 200);
+    assertEquals(kpis.summaryString(), skipped.getKpis().summaryString());
+  }
 }
@@ -0,0 +1,203 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.utility.ArrivalProfile;
+import com.maxruiz.utility.SimulationRandom;
+
+public class TestCheckpoint
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  @TempDir
+  Path tempDir;
+
+  int valid_warmUpFrames = 30_000;
+  int valid_frames = 60_000;
+
+  @Test
+  void test_randomMatchesSplittableRandom()
+  {
+    SplittableRandom expected = new SplittableRandom(42);
+    SimulationRandom random = new SimulationRandom(42);
+
+    for (int i = 0; i < 3; i++)
+    {
+      for (int j = 0; j < 1000; j++)
+      {
+        assertEquals(expected.nextLong(), random.nextLong());
+        assertEquals(expected.nextInt(), random.nextInt());
+        assertEquals(expected.nextInt(7), random.nextInt(7));
+        assertEquals(expected.nextInt(-3, 100), random.nextInt(-3, 100));
+        assertEquals(expected.nextDouble(), random.nextDouble());
+      }
+
+      // The streams split off are the same as well
+      expected = expected.split();
+      random = random.split();
+    }
+  }
+
+  @Test
+  void test_restoredRunContinuesIdentically() throws IOException
+  {
+    BuildingConfig bc = createConfig();
+    Path path = tempDir.resolve("building.ckpt");
+
+    Building uninterrupted = new Building(bc);
+
+    for (int i = 0; i < valid_frames; i++)
+    {
+      uninterrupted.operate();
+    }
+
+    Building saved = new Building(bc);
+
+    for (int i = 0; i < valid_warmUpFrames; i++)
+    {
+      saved.operate();
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+    {
+      saved.saveCheckpoint(channel);
+    }
+
+    Building restored = new Building(bc);
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+    {
+      restored.loadCheckpoint(channel);
+    }
+
+    assertEquals(valid_warmUpFrames, restored.getTicks());
+    assertArrayEquals(save(saved), save(restored));
+
+    for (int i = valid_warmUpFrames; i < valid_frames; i++)
+    {
+      restored.operate();
+    }
+
+    // Every value of the state is the same, not just the metrics
+    assertTrue(uninterrupted.getKpis().getPassengersTransferred() > 0);
+    assertEquals(uninterrupted.getKpis().summaryString(), restored.getKpis().summaryString());
+    assertArrayEquals(save(uninterrupted), save(restored));
+  }
+
+  @Test
+  void test_forksRunInParallel() throws InterruptedException, ExecutionException
+  {
+    BuildingConfig bc = createConfig();
+    Building warm = new Building(bc);
+    new DiscreteEventEngine(warm).run(valid_warmUpFrames);
+
+    byte[] snapshot = save(warm);
+
+    new DiscreteEventEngine(warm).run(valid_frames);
+    byte[] expected = save(warm);
+
+    // Every fork reads its own copy of the one snapshot
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    List<Future<byte[]>> forks = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++)
+    {
+      forks.add(pool.submit(() -> {
+        Building fork = new Building(bc);
+        fork.loadCheckpoint(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+        new DiscreteEventEngine(fork).run(valid_frames);
+        return save(fork);
+      }));
+    }
+
+    for (Future<byte[]> fork : forks)
+    {
+      assertArrayEquals(expected, fork.get());
+    }
+
+    pool.shutdown();
+  }
+
+  @Test
+  void test_invalidCheckpointsAreRejected()
+  {
+    BuildingConfig bc = createConfig();
+    byte[] snapshot = save(new Building(bc));
+
+    // Another seed, a truncated snapshot and something else entirely
+    assertThrows(IllegalArgumentException.class, () -> {
+      new Building(bc, 8).loadCheckpoint(Channels.newChannel(new ByteArrayInputStream(snapshot))); });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new Building(bc).loadCheckpoint(Channels.newChannel(new ByteArrayInputStream(
+        Arrays.copyOf(snapshot, snapshot.length - 1)))); });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new Building(bc).loadCheckpoint(Channels.newChannel(new ByteArrayInputStream(new byte[64]))); });
+  }
+
+  /**
+   * Two banks with a sky lobby, passengers from a profile and parked idle elevators
+   * @return BuildingConfig
+   */
+  static BuildingConfig createConfig()
+  {
+    BuildingConfig bc = new BuildingConfig();
+    int skyLobby = (bc.getHighestFloor() - bc.getLowestFloor()) / 2;
+
+    bc.getElevatorConfigs().clear();
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+    bc.getElevatorConfigs().add(new ElevatorConfig(skyLobby, bc.getHighestFloor()));
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+    bc.setDispatchStrategy(Dispatcher.Strategy.ETA);
+    bc.setArrivalProfile(ArrivalProfile.uniform(900.0));
+    bc.setParkIdleElevators(true);
+    bc.setSeed(7);
+
+    return bc;
+  }
+
+  /**
+   * @param building
+   * @return byte[] - the checkpoint of the building
+   */
+  static byte[] save(Building building)
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    building.saveCheckpoint(Channels.newChannel(bytes));
+
+    return bytes.toByteArray();
+  }
+}
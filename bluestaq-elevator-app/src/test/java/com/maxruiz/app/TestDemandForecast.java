@@ -0,0 +1,105 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.structures.DemandForecast;
+import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationClock;
+
+public class TestDemandForecast
+{
+  int valid_lowestFloor = 0;
+  int valid_highestFloor = 10;
+  // One frame a minute, one bin an hour
+  long valid_frameMillis = 60L * 1000L;
+  long valid_binMillis = 60L * valid_frameMillis;
+  long valid_startMillis = 7L * valid_binMillis;
+
+  @Test
+  void test_badInitBinMillis()
+  {
+    assertThrows(IllegalArgumentException.class, () ->
+                {new DemandForecast(valid_lowestFloor, valid_highestFloor, new SimulationClock(),
+                                    valid_frameMillis, valid_startMillis, 7L * valid_frameMillis, 0.5);
+                });
+    assertThrows(IllegalArgumentException.class, () ->
+                {new DemandForecast(valid_lowestFloor, valid_highestFloor, new SimulationClock(),
+                                    valid_frameMillis, DemandForecast.MILLIS_PER_DAY);
+                });
+  }
+
+  @Test
+  void test_recentArrivalsUntilSeenDaily()
+  {
+    SimulationClock clock = new SimulationClock();
+    DemandForecast forecast = createForecast(clock);
+    double[] weights = new double[valid_highestFloor - valid_lowestFloor + 1];
+
+    assertEquals(0.0, forecast.forecastFloors(valid_lowestFloor, valid_highestFloor, weights));
+    assertThrows(IllegalArgumentException.class, () -> {forecast.observe(2, Direction.IDLE); });
+    assertThrows(IllegalArgumentException.class, () -> {forecast.observe(valid_highestFloor + 1, Direction.UP); });
+
+    forecast.observe(2, Direction.UP);
+    forecast.observe(2, Direction.DOWN);
+    forecast.observe(8, Direction.DOWN);
+
+    double total = forecast.forecastFloors(valid_lowestFloor, valid_highestFloor, weights);
+    assertEquals(3.0, total, 1e-9);
+    assertEquals(2.0, weights[2], 1e-9);
+    assertEquals(1.0, weights[8], 1e-9);
+
+    // An hour later the same arrival counts twice as much
+    clock.advance(60);
+    forecast.observe(8, Direction.DOWN);
+    forecast.forecastFloors(valid_lowestFloor, valid_highestFloor, weights);
+    assertEquals(weights[2] * 1.5, weights[8], 1e-9);
+  }
+
+  @Test
+  void test_dailyForecastRepeatsNextDay()
+  {
+    SimulationClock clock = new SimulationClock();
+    DemandForecast forecast = createForecast(clock);
+    double[] weights = new double[valid_highestFloor - valid_lowestFloor + 1];
+    long framesPerDay = DemandForecast.MILLIS_PER_DAY / valid_frameMillis;
+
+    assertEquals(24, forecast.getBinsPerDay());
+    assertEquals(7, forecast.getBinOfDay());
+    assertEquals(60, forecast.framesUntilNextBin());
+
+    // Everyone shows up in the lobby going up from 8 to 9, then leaves from floor 6 all day
+    for (long frame = 0; frame < framesPerDay; frame++)
+    {
+      if (8 == forecast.getBinOfDay())
+      {
+        forecast.observe(valid_lowestFloor, Direction.UP);
+      }
+      else if (0 == frame % 10)
+      {
+        forecast.observe(6, Direction.DOWN);
+      }
+
+      clock.advance();
+    }
+
+    // Recent arrivals all come from floor 6, but from 7 the day before shows the up-peak coming
+    assertEquals(7, forecast.getBinOfDay());
+    forecast.forecastFloors(valid_lowestFloor, valid_highestFloor, weights);
+    assertTrue(weights[valid_lowestFloor] > weights[6]);
+    assertEquals(6.0 + 60.0, weights[valid_lowestFloor] + weights[6], 1e-9);
+
+    clock.advance(60);
+    assertEquals(60.0, forecast.getDailyForecast(valid_lowestFloor, Direction.UP), 1e-9);
+    assertEquals(0.0, forecast.getDailyForecast(6, Direction.DOWN), 1e-9);
+  }
+
+  private DemandForecast createForecast(SimulationClock clock)
+  {
+    return new DemandForecast(valid_lowestFloor, valid_highestFloor, clock, valid_frameMillis,
+                              valid_startMillis, valid_binMillis, 0.5);
+  }
+}
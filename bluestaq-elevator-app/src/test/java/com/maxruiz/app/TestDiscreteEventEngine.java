@@ -0,0 +1,121 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+
+public class TestDiscreteEventEngine 
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  @TempDir
+  Path tempDir;
+
+  long valid_tickLimit = 1_000_000_000L;
+
+  @Test
+  void test_idleBuildingJumpsToTickLimit()
+  {
+    // The default custom event list spawns a couple of passengers, then idles forever
+    BuildingConfig bc = new BuildingConfig();
+    bc.loadDefaultBuildingConfig(true, false);
+
+    Building building = new Building(bc);
+    DiscreteEventEngine engine = new DiscreteEventEngine(building);
+
+    engine.run(valid_tickLimit);
+
+    BuildingKpis kpis = building.getKpis();
+    assertEquals(valid_tickLimit, kpis.getTicks());
+    assertEquals(kpis.getPassengersSpawned(), kpis.getPassengersDelivered());
+    assertTrue(engine.getFramesOperated() < 1000);
+  }
+
+  @Test
+  void test_stopsExactlyAtTickLimit()
+  {
+    BuildingConfig bc = new BuildingConfig();
+    bc.loadDefaultBuildingConfig(true, false);
+
+    Building building = new Building(bc);
+    DiscreteEventEngine engine = new DiscreteEventEngine(building);
+
+    engine.run(12345);
+
+    assertEquals(12345, building.getTicks());
+    assertEquals(12345, engine.getFramesOperated() + engine.getFramesSkipped());
+  }
+
+  @Test
+  void test_randomEventsMatchSteppedRun()
+  {
+    // Passengers, stuck elevators and fires all come from the random events
+    BuildingConfig bc = new BuildingConfig();
+    bc.setSeed(7);
+
+    assertSameAsStepped(bc, 200_000);
+  }
+
+  @Test
+  void test_arrivalsParkingAndTransfersMatchSteppedRun()
+  {
+    assertSameAsStepped(TestCheckpoint.createConfig(), 200_000);
+  }
+
+  @Test
+  void test_scenarioWithArrivalsMatchesSteppedRun() throws IOException
+  {
+    // The scenario is over early, the arrivals go on
+    Path path = tempDir.resolve("scenario.txt");
+    Files.writeString(path, "100 PASSENGERS 0 5\n4500 STUCK\n");
+
+    BuildingConfig bc = TestCheckpoint.createConfig();
+    bc.setScenarioPath(path);
+
+    assertSameAsStepped(bc, 60_000);
+  }
+
+  /**
+   * Run the same building frame by frame and with the engine, every value of their state must
+   * be the same, not just the metrics
+   * @param bc
+   * @param ticks
+   */
+  private static void assertSameAsStepped(BuildingConfig bc, long ticks)
+  {
+    Building stepped = new Building(bc);
+
+    for (long i = 0; i < ticks; i++)
+    {
+      stepped.operate();
+    }
+
+    Building jumped = new Building(bc);
+    DiscreteEventEngine engine = new DiscreteEventEngine(jumped);
+    engine.run(ticks);
+
+    assertTrue(stepped.getKpis().getPassengersDelivered() > 0);
+    assertTrue(engine.getFramesSkipped() > 0);
+    assertEquals(stepped.getKpis().summaryString(), jumped.getKpis().summaryString());
+    assertArrayEquals(TestCheckpoint.save(stepped), TestCheckpoint.save(jumped));
+  }
+}
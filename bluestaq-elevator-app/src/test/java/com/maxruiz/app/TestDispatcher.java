@@ -0,0 +1,142 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.passengers.Passenger;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.structures.Elevator;
+import com.maxruiz.structures.EtaDispatcher;
+import com.maxruiz.structures.FifoDispatcher;
+import com.maxruiz.structures.HallCallRegistry;
+import com.maxruiz.structures.LookDispatcher;
+import com.maxruiz.utility.Direction;
+
+public class TestDispatcher
+{
+  int valid_lowestFloor = 0;
+  int valid_highestFloor = 10;
+  int valid_startingFloor = 5;
+
+  @Test
+  void test_fifoSkipsCallsItCannotTake()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    Elevator elevator = createElevator(calls);
+    Dispatcher dispatcher = new FifoDispatcher();
+
+    assertEquals(HallCallRegistry.NO_CALL, dispatcher.selectHallCall(elevator, calls));
+
+    calls.register(2, Direction.UP);
+    calls.register(8, Direction.UP);
+    assertEquals(2, dispatcher.selectHallCall(elevator, calls));
+
+    calls.claim(2);
+    calls.register(2, Direction.UP);
+    assertEquals(8, dispatcher.selectHallCall(elevator, calls));
+
+    // A low rise elevator is not held up by the high rise call ahead of it
+    calls.cancel(8);
+    calls.register(9, Direction.UP);
+    calls.register(3, Direction.UP);
+
+    Elevator lowRise = new Elevator(new ElevatorConfig(valid_lowestFloor, 5, 1, 0, 100, 1, 1), calls);
+    assertEquals(3, dispatcher.selectHallCall(lowRise, calls));
+    assertEquals(9, dispatcher.selectHallCall(elevator, calls));
+    assertFalse(lowRise.passengerRequestInRange(9));
+  }
+
+  @Test
+  void test_lookSweepsBeforeReversing()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    Elevator elevator = createElevator(calls);
+    Dispatcher dispatcher = new LookDispatcher();
+
+    calls.register(2, Direction.UP);
+    calls.register(9, Direction.UP);
+    calls.register(8, Direction.UP);
+
+    // Sweeping up from floor 5, the closest call above comes first
+    assertEquals(8, dispatcher.selectHallCall(elevator, calls));
+
+    calls.claim(8);
+    assertEquals(9, dispatcher.selectHallCall(elevator, calls));
+
+    calls.claim(9);
+    assertEquals(2, dispatcher.selectHallCall(elevator, calls));
+
+    calls.register(valid_startingFloor, Direction.UP);
+    assertEquals(valid_startingFloor, dispatcher.selectHallCall(elevator, calls));
+  }
+
+  @Test
+  void test_nextStopOnBoard()
+  {
+    Elevator elevator = createElevator(null);
+
+    boardPassenger(elevator, 1);
+    boardPassenger(elevator, 9);
+    boardPassenger(elevator, 7);
+
+    // First come first served criss-crosses, LOOK keeps going up
+    assertEquals(1, new FifoDispatcher().selectNextStop(elevator));
+    assertEquals(7, new LookDispatcher().selectNextStop(elevator));
+  }
+
+  @Test
+  void test_etaAssignsClosestElevator()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    List<Elevator> elevators = new ArrayList<>();
+    elevators.add(createElevator(calls, valid_lowestFloor));
+    elevators.add(createElevator(calls, valid_highestFloor));
+
+    // Idle, 2 frames per floor
+    assertEquals(16, elevators.get(0).estimateFramesTo(8));
+    assertEquals(4, elevators.get(1).estimateFramesTo(8));
+
+    calls.register(8, Direction.UP);
+    calls.register(1, Direction.UP);
+
+    Dispatcher dispatcher = new EtaDispatcher(elevators);
+    assertEquals(1, dispatcher.selectHallCall(elevators.get(0), calls));
+    assertEquals(8, dispatcher.selectHallCall(elevators.get(1), calls));
+    assertEquals(elevators.get(1), ((EtaDispatcher)dispatcher).getAssignedElevator(8));
+
+    // LOOK lets whichever elevator asks first take the call, however far away it is
+    calls.cancel(1);
+    assertEquals(HallCallRegistry.NO_CALL, dispatcher.selectHallCall(elevators.get(0), calls));
+    assertEquals(8, new LookDispatcher().selectHallCall(elevators.get(0), calls));
+
+    // Ties go to the elevator that comes first
+    calls.cancel(8);
+    calls.register(valid_startingFloor, Direction.UP);
+    assertEquals(valid_startingFloor, dispatcher.selectHallCall(elevators.get(0), calls));
+    assertEquals(HallCallRegistry.NO_CALL, dispatcher.selectHallCall(elevators.get(1), calls));
+  }
+
+  private Elevator createElevator(HallCallRegistry calls)
+  {
+    return createElevator(calls, valid_startingFloor);
+  }
+
+  private Elevator createElevator(HallCallRegistry calls, int startingFloor)
+  {
+    return new Elevator(new ElevatorConfig(valid_lowestFloor, valid_highestFloor, 0,
+                                           startingFloor, 100, 1, 1), calls);
+  }
+
+  private void boardPassenger(Elevator elevator, int destinationFloor)
+  {
+    Passenger p = new Passenger(0, valid_startingFloor, valid_lowestFloor, valid_highestFloor, 1);
+    p.setDestinationFloor(destinationFloor);
+    elevator.acceptPassenger(p);
+  }
+}
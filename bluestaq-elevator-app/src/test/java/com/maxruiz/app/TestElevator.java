@@ -1,10 +1,17 @@
 package com.maxruiz.app;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.passengers.Passenger;
 import com.maxruiz.structures.Elevator;
+import com.maxruiz.structures.HallCallRegistry;
+import com.maxruiz.utility.Direction;
 
 public class TestElevator 
 {
@@ -70,5 +77,104 @@ public class TestElevator
                 });
   }
 
-  
+  @Test
+  void test_badInitTransferRate()
+  {
+    int invalid_transferRate = 0;
+    assertThrows(IllegalArgumentException.class, () ->  
+                {new Elevator(new ElevatorConfig(valid_lowestFloor, valid_highestFloor, valid_id, valid_startingFloor, 
+                                                 valid_sqft, valid_atFloorFrames, valid_movingFrames, invalid_transferRate)); 
+                });
+  }
+
+  @Test
+  void test_batchedTransfers()
+  {
+    int transferRate = 2;
+    Elevator elevator = new Elevator(new ElevatorConfig(valid_lowestFloor, valid_highestFloor, valid_id, 
+                                                        valid_startingFloor, 100, valid_atFloorFrames, 
+                                                        valid_movingFrames, transferRate));
+
+    for (int i = 0; i < transferRate; i++)
+    {
+      assertTrue(elevator.canBoardThisFrame());
+      boardPassenger(elevator, valid_startingFloor + 1);
+    }
+
+    assertFalse(elevator.canBoardThisFrame());
+
+    // Squeeze in more than would fit through the doors to watch them get off
+    for (int i = transferRate; i < 5; i++)
+    {
+      boardPassenger(elevator, valid_startingFloor + 1);
+    }
+
+    while (0 == elevator.getPassengersDelivered())
+    {
+      elevator.operate();
+    }
+
+    // Two at a time through the doors
+    assertEquals(2, elevator.getPassengersDelivered());
+    elevator.operate();
+    assertEquals(4, elevator.getPassengersDelivered());
+    elevator.operate();
+    assertEquals(5, elevator.getPassengersDelivered());
+    assertTrue(elevator.canBoardThisFrame());
+  }
+
+  @Test
+  void test_doorsCloseEarly()
+  {
+    // The doors would be held for 50 frames if they didn't close once no one is getting on or off
+    Elevator elevator = new Elevator(new ElevatorConfig(valid_lowestFloor, valid_highestFloor, valid_id, 
+                                                        valid_startingFloor, valid_sqft, 50, 
+                                                        valid_movingFrames));
+    boardPassenger(elevator, valid_startingFloor + 1);
+
+    for (int i = 0; i < 10; i++)
+    {
+      elevator.operate();
+    }
+
+    assertEquals(1, elevator.getPassengersDelivered());
+  }
+
+  @Test
+  void test_stopsOnTheWay()
+  {
+    HallCallRegistry hallCalls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    Elevator elevator = new Elevator(new ElevatorConfig(valid_lowestFloor, valid_highestFloor, valid_id, 
+                                                        valid_startingFloor, valid_sqft, valid_atFloorFrames, 
+                                                        valid_movingFrames), hallCalls);
+
+    // The elevator claims the call at floor 4, then picks up someone going past it
+    elevator.receivePassengerRequest(4, Direction.DOWN);
+    elevator.operate();
+    assertTrue(hallCalls.isClaimed(4));
+    boardPassenger(elevator, valid_highestFloor);
+    boardPassenger(elevator, valid_startingFloor + 1);
+
+    assertEquals(valid_startingFloor + 1, elevator.nextStop(Direction.UP));
+    assertEquals(HallCallRegistry.NO_CALL, elevator.nextStop(Direction.DOWN));
+    assertTrue(elevator.hasStop(4));
+    assertTrue(elevator.hasStop(valid_highestFloor));
+    assertFalse(elevator.hasStop(3));
+
+    while (elevator.getPassengersDelivered() < 2)
+    {
+      elevator.operate();
+    }
+
+    // Floor 4 was answered on the way, no other elevator is kept from it
+    assertFalse(hallCalls.isClaimed(4));
+    assertFalse(elevator.hasStop(4));
+  }
+
+  private void boardPassenger(Elevator elevator, int destinationFloor)
+  {
+    Passenger p = new Passenger(0, valid_startingFloor, valid_lowestFloor, valid_highestFloor, 1);
+    p.setDestinationFloor(destinationFloor);
+    elevator.acceptPassenger(p);
+  }
 }
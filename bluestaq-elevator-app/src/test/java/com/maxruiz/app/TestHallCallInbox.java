@@ -0,0 +1,126 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.HallCallInbox;
+import com.maxruiz.utility.Direction;
+
+public class TestHallCallInbox
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  int valid_capacity = 16;
+  int valid_lowestFloor = 0;
+  int valid_highestFloor = 10;
+
+  @Test
+  void test_fullInboxRefusesWithoutWaiting()
+  {
+    HallCallInbox inbox = new HallCallInbox(valid_capacity, valid_lowestFloor, valid_highestFloor);
+
+    for (int i = 0; i < valid_capacity; i++)
+    {
+      assertTrue(inbox.offerBadge(valid_lowestFloor, valid_highestFloor));
+    }
+
+    assertFalse(inbox.offerHallCall(valid_lowestFloor, Direction.UP));
+    assertFalse(inbox.offerBadge(valid_highestFloor, valid_lowestFloor));
+    assertEquals(2, inbox.getRefusedCount());
+  }
+
+  @Test
+  void test_invalidRequestsAreRejected()
+  {
+    HallCallInbox inbox = new HallCallInbox(valid_capacity, valid_lowestFloor, valid_highestFloor);
+
+    assertThrows(IllegalArgumentException.class, () -> { new HallCallInbox(12, valid_lowestFloor, valid_highestFloor); });
+    assertThrows(IllegalArgumentException.class, () -> { inbox.offerHallCall(valid_highestFloor + 1, Direction.DOWN); });
+    assertThrows(IllegalArgumentException.class, () -> { inbox.offerHallCall(valid_highestFloor, Direction.UP); });
+    assertThrows(IllegalArgumentException.class, () -> { inbox.offerHallCall(valid_lowestFloor, Direction.IDLE); });
+    assertThrows(IllegalArgumentException.class, () -> { inbox.offerBadge(valid_lowestFloor, valid_lowestFloor); });
+  }
+
+  @Test
+  void test_buildingTakesRequestsFromManyThreads() throws InterruptedException, ExecutionException
+  {
+    BuildingConfig bc = new BuildingConfig();
+    bc.setSeed(7);
+    Building building = new Building(bc);
+    HallCallInbox inbox = building.getInbox();
+    int lowest = bc.getLowestFloor();
+    int highest = bc.getHighestFloor();
+
+    // Four threads press buttons and badge in while the building runs
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    List<Future<Integer>> producers = new ArrayList<>();
+
+    for (int t = 0; t < 4; t++)
+    {
+      int seed = t;
+
+      producers.add(pool.submit(() -> {
+        int offered = 0;
+
+        for (int i = 0; i < 5_000; i++)
+        {
+          int floor = lowest + (seed + i) % (highest - lowest);
+          boolean accepted = (0 == i % 2) ? inbox.offerHallCall(floor, Direction.UP)
+                                          : inbox.offerBadge(floor, highest);
+          offered += accepted ? 1 : 0;
+        }
+
+        return offered;
+      }));
+    }
+
+    boolean producing = true;
+
+    while (producing)
+    {
+      building.operate();
+      producing = false;
+
+      for (Future<Integer> producer : producers)
+      {
+        producing |= false == producer.isDone();
+      }
+    }
+
+    // What was offered after the last frame
+    building.operate();
+
+    int accepted = 0;
+
+    for (Future<Integer> producer : producers)
+    {
+      accepted += producer.get();
+    }
+
+    pool.shutdown();
+
+    assertTrue(accepted > 0);
+    assertEquals(4 * 5_000, accepted + inbox.getRefusedCount());
+    assertEquals(accepted, building.getInboxLatency().getCount());
+  }
+}
@@ -0,0 +1,193 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.structures.HallCallRegistry;
+import com.maxruiz.utility.Direction;
+
+public class TestHallCallRegistry 
+{
+  int valid_lowestFloor = -2;
+  int valid_highestFloor = 10;
+
+  @Test
+  void test_badInitFloorsTheSame()
+  {
+    assertThrows(IllegalArgumentException.class, () ->  
+                {new HallCallRegistry(valid_lowestFloor, valid_lowestFloor); 
+                });
+  }
+
+  @Test
+  void test_badFloor()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    assertThrows(IllegalArgumentException.class, () -> {calls.register(valid_highestFloor + 1, Direction.UP); });
+  }
+
+  @Test
+  void test_registrationOrderAndDedup()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+
+    assertTrue(calls.register(5, Direction.UP));
+    assertTrue(calls.register(-2, Direction.UP));
+    assertFalse(calls.register(5, Direction.UP));
+    assertTrue(calls.register(7, Direction.UP));
+    assertEquals(3, calls.getPendingCount());
+
+    assertEquals(5, calls.oldestPending());
+    calls.claim(5);
+    assertTrue(calls.isClaimed(5));
+    assertFalse(calls.isPending(5));
+
+    assertEquals(-2, calls.oldestPending());
+    assertTrue(calls.cancel(-2));
+    assertFalse(calls.cancel(-2));
+    assertEquals(7, calls.oldestPending());
+
+    calls.release(5);
+    assertFalse(calls.isClaimed(5));
+
+    assertTrue(calls.cancel(7));
+    assertTrue(calls.isEmpty());
+    assertEquals(HallCallRegistry.NO_CALL, calls.oldestPending());
+  }
+
+  @Test
+  void test_nextPendingAboveAndBelow()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+
+    calls.register(-1, Direction.UP);
+    calls.register(3, Direction.UP);
+    calls.register(10, Direction.UP);
+
+    assertEquals(3, calls.nextPendingAbove(-1));
+    assertEquals(10, calls.nextPendingAbove(3));
+    assertEquals(HallCallRegistry.NO_CALL, calls.nextPendingAbove(10));
+    assertEquals(3, calls.nextPendingBelow(10));
+    assertEquals(-1, calls.nextPendingBelow(3));
+    assertEquals(HallCallRegistry.NO_CALL, calls.nextPendingBelow(-1));
+    assertEquals(-1, calls.nextPendingAbove(-5));
+    assertEquals(10, calls.nextPendingBelow(20));
+  }
+
+  @Test
+  void test_oldestServableInRange()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+
+    calls.register(9, Direction.UP);
+    calls.register(1, Direction.UP);
+    calls.register(4, Direction.UP);
+    calls.register(6, Direction.UP);
+
+    assertEquals(9, calls.oldestServable(valid_lowestFloor, valid_highestFloor));
+    assertEquals(1, calls.oldestServable(valid_lowestFloor, 5));
+    assertEquals(4, calls.oldestServable(2, 7));
+    assertEquals(HallCallRegistry.NO_CALL, calls.oldestServable(7, 8));
+
+    // A claimed call is not servable until it is released while still pending
+    calls.claim(1);
+    calls.register(1, Direction.UP);
+    assertFalse(calls.isServable(1));
+    assertEquals(4, calls.oldestServable(valid_lowestFloor, 5));
+    calls.release(1);
+    assertTrue(calls.isServable(1));
+    assertEquals(4, calls.oldestServable(valid_lowestFloor, 5));
+
+    assertEquals(4, calls.nextServableAbove(1, 5));
+    assertEquals(HallCallRegistry.NO_CALL, calls.nextServableAbove(6, 8));
+    assertEquals(4, calls.nextServableBelow(6, 2));
+    assertEquals(HallCallRegistry.NO_CALL, calls.nextServableBelow(1, -2));
+  }
+
+  @Test
+  void test_upAndDownCallsAreSeparate()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+
+    assertTrue(calls.register(5, Direction.UP));
+    assertTrue(calls.register(5, Direction.DOWN));
+    assertFalse(calls.register(5, Direction.UP));
+    assertEquals(2, calls.getPendingCount());
+    assertThrows(IllegalArgumentException.class, () -> {calls.register(5, Direction.IDLE); });
+
+    // Answering the UP call leaves the people going down waiting
+    assertTrue(calls.cancel(5, Direction.UP));
+    assertFalse(calls.isPending(5, Direction.UP));
+    assertTrue(calls.isPending(5, Direction.DOWN));
+    assertTrue(calls.isPending(5));
+    assertEquals(5, calls.oldestPending());
+
+    assertTrue(calls.register(5, Direction.UP));
+    assertTrue(calls.cancel(5));
+    assertFalse(calls.isPending(5));
+    assertTrue(calls.isEmpty());
+  }
+
+  @Test
+  void test_oldestServableMatchesScan()
+  {
+    HallCallRegistry calls = new HallCallRegistry(valid_lowestFloor, valid_highestFloor);
+    SplittableRandom random = new SplittableRandom(1);
+    Direction[] directions = {Direction.UP, Direction.DOWN};
+    long[][] registered = new long[valid_highestFloor - valid_lowestFloor + 1][directions.length];
+    long order = 0;
+
+    for (int i = 0; i < 10_000; i++)
+    {
+      int floor = random.nextInt(valid_lowestFloor, valid_highestFloor + 1);
+      int d = random.nextInt(directions.length);
+
+      switch (random.nextInt(5))
+      {
+        case 0:
+          if (calls.register(floor, directions[d]))
+          {
+            registered[floor - valid_lowestFloor][d] = order++;
+          }
+          break;
+        case 1:
+          calls.cancel(floor, directions[d]);
+          break;
+        case 2:
+          calls.cancel(floor);
+          break;
+        case 3:
+          calls.claim(floor);
+          break;
+        default:
+          calls.release(floor);
+      }
+
+      int low = random.nextInt(valid_lowestFloor, valid_highestFloor + 1);
+      int high = random.nextInt(low, valid_highestFloor + 1);
+      int expected = HallCallRegistry.NO_CALL;
+      long expectedOrder = Long.MAX_VALUE;
+
+      for (int f = low; f <= high; f++)
+      {
+        for (int c = 0; c < directions.length; c++)
+        {
+          if (calls.isPending(f, directions[c]) && !calls.isClaimed(f) &&
+              registered[f - valid_lowestFloor][c] < expectedOrder)
+          {
+            expected = f;
+            expectedOrder = registered[f - valid_lowestFloor][c];
+          }
+        }
+      }
+
+      assertEquals(expected, calls.oldestServable(low, high));
+    }
+  }
+}
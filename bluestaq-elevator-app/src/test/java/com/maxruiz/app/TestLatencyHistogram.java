@@ -0,0 +1,83 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.metrics.LatencyHistogram;
+
+public class TestLatencyHistogram
+{
+  @Test
+  void test_badValues()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThrows(IllegalArgumentException.class, () -> {histogram.record(-1); });
+    assertThrows(IllegalArgumentException.class, () -> {histogram.getValueAtPercentile(-0.1); });
+    assertThrows(IllegalArgumentException.class, () -> {histogram.getValueAtPercentile(100.1); });
+  }
+
+  @Test
+  void test_empty()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50.0));
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  void test_smallValuesAreExact()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 1; i <= 50; i++)
+    {
+      histogram.record(i);
+    }
+
+    assertEquals(25, histogram.getValueAtPercentile(50.0));
+    assertEquals(45, histogram.getValueAtPercentile(90.0));
+    assertEquals(50, histogram.getValueAtPercentile(100.0));
+    assertEquals(50, histogram.getMax());
+  }
+
+  @Test
+  void test_percentilesWithinBucketError()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+    SplittableRandom random = new SplittableRandom(1);
+    long[] values = new long[100_000];
+
+    for (int i = 0; i < values.length; i++)
+    {
+      values[i] = random.nextLong(1_000_000_000L);
+      histogram.record(values[i]);
+    }
+
+    Arrays.sort(values);
+
+    for (double percentile : new double[] {50.0, 90.0, 99.0})
+    {
+      long exact = values[(int)Math.ceil(percentile / 100.0 * values.length) - 1];
+      long reported = histogram.getValueAtPercentile(percentile);
+
+      assertTrue(reported >= exact);
+      assertTrue(reported <= exact * 1.04);
+    }
+
+    LatencyHistogram merged = new LatencyHistogram();
+    merged.add(histogram);
+    merged.add(histogram);
+
+    assertEquals(2 * values.length, merged.getCount());
+    assertEquals(histogram.getValueAtPercentile(90.0), merged.getValueAtPercentile(90.0));
+  }
+}
@@ -0,0 +1,113 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.logging.Log;
+import com.maxruiz.logging.RollingLogOutputStream;
+
+public class TestLog
+{
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void test_levelsAndStructuredFields()
+  {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    Log.setLevel(Log.Level.INFO);
+    Log.setLevel(Log.Category.ELEVATOR, Log.Level.DEBUG);
+    Log.start(output);
+
+    assertFalse(Log.isEnabled(Log.Level.TRACE, Log.Category.ELEVATOR));
+    assertTrue(Log.isEnabled(Log.Level.DEBUG, Log.Category.ELEVATOR));
+    assertFalse(Log.isEnabled(Log.Level.DEBUG, Log.Category.BUILDING));
+
+    Log.log(Log.Level.TRACE, Log.Category.ELEVATOR, "dropped");
+    Log.log(Log.Level.DEBUG, Log.Category.BUILDING, "dropped");
+    Log.log(Log.Level.DEBUG, Log.Category.ELEVATOR, "Reached floor", 2, -1, Log.NONE, 7,
+            Log.NONE, null);
+
+    for (int i = 0; i < 100_000; i++)
+    {
+      Log.log(Log.Level.INFO, Log.Category.ENGINE, "Record", Log.NONE, Log.NONE, Log.NONE,
+              Log.NONE, i, "detail");
+    }
+
+    Log.shutdown();
+    Log.setLevel(Log.Level.INFO);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+
+    assertEquals(100_001, lines.length);
+    assertEquals("DEBUG ELEVATOR [elevator=2 floor=-1 target=7] Reached floor", lines[0]);
+    assertEquals("INFO  ENGINE [count=0] Record: detail", lines[1]);
+    assertEquals("INFO  ENGINE [count=99999] Record: detail", lines[100_000]);
+  }
+
+  @Test
+  void test_badRollingLimits()
+  {
+    assertThrows(IllegalArgumentException.class, () ->
+                {new RollingLogOutputStream(tempDir.resolve("log.txt"), 0, 1, false);
+                });
+    assertThrows(IllegalArgumentException.class, () ->
+                {new RollingLogOutputStream(tempDir.resolve("log.txt"), 1, 0, false);
+                });
+  }
+
+  @Test
+  void test_rollOver() throws IOException
+  {
+    RollingLogOutputStream output = new RollingLogOutputStream(tempDir.resolve("log.txt"),
+                                                               10, 2, false);
+
+    for (int i = 0; i < 4; i++)
+    {
+      output.write(("line " + i + "...\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    output.close();
+
+    assertEquals("line 3...\n", Files.readString(output.getPath(0)));
+    assertEquals("line 2...\n", Files.readString(output.getPath(1)));
+    assertEquals("line 1...\n", Files.readString(output.getPath(2)));
+    assertFalse(Files.exists(output.getPath(3)));
+  }
+
+  @Test
+  void test_gzipRollOver() throws IOException
+  {
+    RollingLogOutputStream output = new RollingLogOutputStream(tempDir.resolve("log.txt.gz"),
+                                                               10, 1, true);
+
+    output.write("first.....\n".getBytes(StandardCharsets.UTF_8));
+    output.write("second....\n".getBytes(StandardCharsets.UTF_8));
+    output.close();
+
+    assertEquals("second....\n", readGzip(output.getPath(0)));
+    assertEquals("first.....\n", readGzip(output.getPath(1)));
+  }
+
+  private String readGzip(Path path) throws IOException
+  {
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(path)))
+    {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.MonteCarloResult;
+
+public class TestMonteCarloRunner 
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  int valid_parallelism = 4;
+  long valid_firstSeed = 42;
+  int valid_runCount = 8;
+  long valid_tickBudget = 2000;
+
+  @Test
+  void test_badParallelism()
+  {
+    assertThrows(IllegalArgumentException.class, () ->  
+                {new MonteCarloRunner(new BuildingConfig(), 0); 
+                });
+  }
+
+  @Test
+  void test_badRunCount()
+  {
+    MonteCarloRunner runner = new MonteCarloRunner(new BuildingConfig(), valid_parallelism);
+    assertThrows(IllegalArgumentException.class, () ->  
+                {runner.run(valid_firstSeed, 0, valid_tickBudget); 
+                });
+  }
+
+  @Test
+  void test_everyRunUsesTheWholeBudget()
+  {
+    MonteCarloRunner runner = new MonteCarloRunner(new BuildingConfig(), valid_parallelism);
+    MonteCarloResult result = runner.run(valid_firstSeed, valid_runCount, valid_tickBudget);
+
+    assertEquals(valid_runCount, result.getRunCount());
+    assertEquals(valid_tickBudget, result.getStatistics(BuildingKpis.Kpi.TICKS).getMean());
+    assertEquals(0.0, result.getStatistics(BuildingKpis.Kpi.TICKS).getConfidenceHalfWidth95());
+
+    for (BuildingKpis kpis : result.getRunKpis())
+    {
+      assertEquals(valid_tickBudget, kpis.getTicks());
+    }
+  }
+}
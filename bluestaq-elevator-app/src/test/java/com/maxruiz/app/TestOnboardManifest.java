@@ -0,0 +1,79 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.passengers.PassengerStore;
+import com.maxruiz.structures.HallCallRegistry;
+import com.maxruiz.structures.OnboardManifest;
+
+public class TestOnboardManifest
+{
+  // Two basement floors
+  int valid_lowestFloor = -2;
+  int valid_highestFloor = 100;
+
+  @Test
+  void test_stopsByFloor()
+  {
+    OnboardManifest manifest = new OnboardManifest(valid_lowestFloor, valid_highestFloor);
+
+    assertThrows(IllegalArgumentException.class, () -> {new OnboardManifest(1, 1); });
+    assertThrows(IllegalArgumentException.class, () -> {manifest.add(0, valid_highestFloor + 1); });
+    assertEquals(HallCallRegistry.NO_CALL, manifest.getOldestStop());
+
+    manifest.add(10, 70);
+    manifest.add(11, valid_lowestFloor);
+    manifest.add(12, 70);
+    manifest.add(13, 5);
+
+    assertEquals(4, manifest.size());
+    assertEquals(2, manifest.count(70));
+    assertTrue(manifest.hasStop(valid_lowestFloor));
+    assertFalse(manifest.hasStop(6));
+    assertFalse(manifest.hasStop(valid_highestFloor + 1));
+
+    assertEquals(5, manifest.nextStopAbove(valid_lowestFloor));
+    assertEquals(70, manifest.nextStopAbove(5));
+    assertEquals(HallCallRegistry.NO_CALL, manifest.nextStopAbove(70));
+    assertEquals(5, manifest.nextStopBelow(70));
+    assertEquals(70, manifest.nextStopBelow(Integer.MAX_VALUE));
+    assertEquals(HallCallRegistry.NO_CALL, manifest.nextStopBelow(valid_lowestFloor));
+    assertEquals(3, manifest.countStops(valid_highestFloor, valid_lowestFloor));
+    assertEquals(1, manifest.countStops(6, 70));
+    assertEquals(70, manifest.getOldestStop());
+
+    // Whoever got on first gets off first
+    assertEquals(10, manifest.removeFirst(70));
+    assertEquals(valid_lowestFloor, manifest.getOldestStop());
+    assertEquals(12, manifest.removeFirst(70));
+    assertFalse(manifest.hasStop(70));
+    assertEquals(PassengerStore.NO_PASSENGER, manifest.removeFirst(70));
+    assertEquals(2, manifest.size());
+  }
+
+  @Test
+  void test_moveKeepsBoardingOrder()
+  {
+    OnboardManifest manifest = new OnboardManifest(valid_lowestFloor, valid_highestFloor);
+
+    manifest.add(10, 50);
+    manifest.add(11, 6);
+    manifest.add(12, 6);
+
+    // The first one on gets sick, and off at floor 6 before the others
+    manifest.move(50, 0, 6);
+
+    assertFalse(manifest.hasStop(50));
+    assertEquals(3, manifest.count(6));
+    assertEquals(6, manifest.getOldestStop());
+    assertEquals(10, manifest.removeFirst(6));
+    assertEquals(11, manifest.removeFirst(6));
+    assertEquals(12, manifest.removeFirst(6));
+    assertTrue(manifest.isEmpty());
+  }
+}
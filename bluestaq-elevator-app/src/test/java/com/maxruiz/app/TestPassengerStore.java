@@ -0,0 +1,125 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.passengers.Civilian;
+import com.maxruiz.passengers.PassengerFactory;
+import com.maxruiz.passengers.PassengerStore;
+import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationRandom;
+
+public class TestPassengerStore
+{
+  int valid_lowestFloor = -2;
+  int valid_highestFloor = 10;
+  int valid_sqft = 2;
+
+  @Test
+  void test_addIsValidated()
+  {
+    PassengerStore store = new PassengerStore();
+
+    assertThrows(IllegalArgumentException.class, () -> {new PassengerStore(0); });
+    assertThrows(IllegalArgumentException.class, () -> {store.add(0, -1, 0, valid_lowestFloor, valid_highestFloor,
+                                                                  valid_sqft, 0.0, 0.0, 1); });
+    assertThrows(IllegalArgumentException.class, () -> {store.add(0, 0, 0, valid_highestFloor, valid_lowestFloor,
+                                                                  valid_sqft, 0.0, 0.0, 1); });
+    assertThrows(IllegalArgumentException.class, () -> {store.add(0, 0, valid_highestFloor + 1, valid_lowestFloor,
+                                                                  valid_highestFloor, valid_sqft, 0.0, 0.0, 1); });
+    assertThrows(IllegalArgumentException.class, () -> {store.add(0, 0, 0, valid_lowestFloor, valid_highestFloor,
+                                                                  0, 0.0, 0.0, 1); });
+    assertThrows(IllegalArgumentException.class, () -> {store.release(0); });
+
+    int p = store.add(7, 0, 0, valid_lowestFloor, valid_highestFloor, valid_sqft, 0.0, 0.0, 1);
+
+    // A random destination, never their origin
+    assertEquals(7, store.getID(p));
+    assertNotEquals(0, store.getDestinationFloor(p));
+    assertTrue(store.getDestinationFloor(p) >= valid_lowestFloor);
+    assertTrue(store.getDestinationFloor(p) <= valid_highestFloor);
+
+    store.release(p);
+    assertThrows(IllegalArgumentException.class, () -> {store.release(p); });
+  }
+
+  @Test
+  void test_slotsAreRecycled()
+  {
+    PassengerStore store = new PassengerStore(4);
+    PassengerFactory factory = new PassengerFactory(new SimulationRandom(42));
+    ArrayList<Integer> inBuilding = new ArrayList<>();
+    SplittableRandom random = new SplittableRandom(7);
+
+    // A whole day of passengers, never more than 100 in the building at once
+    for (int i = 0; i < 100000; i++)
+    {
+      if (inBuilding.size() < 100 && (inBuilding.isEmpty() || random.nextBoolean()))
+      {
+        inBuilding.add(factory.createCivilian(store, 0, valid_lowestFloor, valid_highestFloor, valid_sqft));
+      }
+      else
+      {
+        store.release(inBuilding.remove(random.nextInt(inBuilding.size())));
+      }
+
+      assertEquals(inBuilding.size(), store.size());
+    }
+
+    assertTrue(store.capacity() <= 128);
+  }
+
+  @Test
+  void test_travelLikeAPassenger()
+  {
+    PassengerStore store = new PassengerStore();
+    PassengerFactory factory = new PassengerFactory(new SimulationRandom(42));
+
+    Civilian civ = factory.createCivilian(0, valid_lowestFloor, valid_highestFloor, valid_sqft);
+    civ.setDestinationFloor(2);
+
+    int p = store.add(civ);
+
+    assertEquals(civ.getID(), store.getID(p));
+    assertEquals(Direction.UP, store.getDestinationDirection(p));
+
+    // Only the first leg, up to a sky lobby, on an elevator that has traveled 10 floors before
+    store.setLegDestinationFloor(p, 1);
+    store.board(p, 10);
+    assertTrue(store.isOnElevator(p));
+    store.alight(p, 1, 11);
+    assertTrue(store.isAtDestinationFloor(p));
+    assertFalse(store.isAtFinalDestinationFloor(p));
+    assertFalse(store.isOnElevator(p));
+
+    store.setLegDestinationFloor(p, 2);
+    store.board(p, 0);
+    store.alight(p, 2, 1);
+    assertTrue(store.isAtFinalDestinationFloor(p));
+
+    // Only on board, then certain to get sick on the first frame, and only once
+    int sick = store.add(-1, 0, 0, valid_lowestFloor, valid_highestFloor, valid_sqft, 1.0, 0.0, 1);
+    assertFalse(store.operate(sick, 0));
+    store.board(sick, 0);
+    assertTrue(store.operate(sick, 0));
+    assertFalse(store.operate(sick, 0, 10));
+    assertTrue(store.isSick(sick));
+    assertFalse(store.isSick(p));
+
+    // The chance goes up with the floors traveled on every elevator
+    int tired = store.add(-2, 0, 0, valid_lowestFloor, valid_highestFloor, valid_sqft, 0.0, 0.5, 1);
+    store.board(tired, 100);
+    assertFalse(store.operate(tired, 100, 1000));
+    store.alight(tired, 1, 101);
+    store.board(tired, 0);
+    assertTrue(store.operate(tired, 1, 1000));
+  }
+}
@@ -0,0 +1,202 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.config.AppConfig;
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.config.JsonReader;
+import com.maxruiz.config.ResourceManager;
+import com.maxruiz.logging.Log;
+import com.maxruiz.passengers.PassengerPriority;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.utility.EventController;
+
+public class TestResourceManager
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void test_readsJson()
+  {
+    JsonReader reader = new JsonReader(new StringReader(
+      "{\"a\": [1, -2.5e2, 0], \"b\": {\"c\": \"x\\\"\\u0041\\n\", \"d\": [true, false, null]}, \"e\": {}}"));
+
+    reader.beginObject();
+    assertEquals("a", reader.nextName());
+    reader.beginArray();
+    assertEquals(1, reader.nextInt());
+    assertEquals(-250.0, reader.nextDouble());
+    assertThrows(IllegalArgumentException.class, () -> {reader.nextString(); });
+    assertEquals(0L, reader.nextLong());
+    assertFalse(reader.hasNext());
+    reader.endArray();
+    assertEquals("b", reader.nextName());
+    reader.beginObject();
+    assertEquals("c", reader.nextName());
+    assertEquals("x\"A\n", reader.nextString());
+    assertEquals("d", reader.nextName());
+    reader.skipValue();
+    reader.endObject();
+    assertEquals("e", reader.nextName());
+    reader.skipValue();
+    reader.endObject();
+    assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+
+    // Trailing commas, missing commas, leading zeros, bare words and a second document
+    String[] invalid = {"[1,]", "{\"a\": 1,}", "{\"a\": 1 \"b\": 2}", "[01]", "[True]", "{a: 1}", "[1] [2]",
+                        "[\"a", "[1.]", "[-]", "{\"a\" 1}", "[\"\\x\"]"};
+
+    for (String json : invalid)
+    {
+      JsonReader bad = new JsonReader(new StringReader(json));
+      assertThrows(IllegalArgumentException.class, () -> {bad.skipValue(); bad.peek(); }, json);
+    }
+
+    // Whole numbers that do not fit in a long are still numbers
+    JsonReader big = new JsonReader(new StringReader("[-9223372036854775808, 9223372036854775808]"));
+    big.beginArray();
+    assertEquals(Long.MIN_VALUE, big.nextLong());
+    assertThrows(IllegalArgumentException.class, () -> {big.nextLong(); });
+    assertEquals(9.223372036854775808e18, big.nextDouble());
+
+    JsonReader where = new JsonReader(new StringReader("{\n  \"a\": [1,\n    ]\n}"));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {where.skipValue(); });
+    assertEquals("Value at line 3 column 6 is invalid.", e.getMessage());
+  }
+
+  @Test
+  void test_loadsResources()
+  {
+    AppConfig ac = ResourceManager.loadAppConfig(Paths.get("resources/app_config.json"));
+    assertEquals(5, ac.getFrameRate());
+    assertEquals("test_output.txt", ac.getPrintToFileName());
+
+    ArrayList<EventController.EventType> events = ResourceManager.loadCustomEvents(
+      Paths.get("resources/custom_events.json"));
+    assertEquals(22, events.size());
+    assertEquals(EventController.EventType.PASSENGERS, events.get(1));
+
+    BuildingConfig bc = ResourceManager.loadBuildingConfig(Paths.get("resources/building_config.json"));
+    assertEquals(10, bc.getHighestFloor());
+    assertEquals(1, bc.getElevatorConfigs().size());
+
+    ElevatorConfig ec = bc.getElevatorConfigs().get(0);
+    assertEquals(1234, ec.getID());
+    assertEquals(0, ec.getLowestFloor());
+    assertEquals(10, ec.getHighestFloor());
+    assertEquals(ElevatorConfig.DEFAULT_TRANSFER_RATE, ec.getTransferRate());
+
+    assertEquals(2, bc.getPassengerConfigs().size());
+    assertEquals(PassengerPriority.get().getPriorityFromTitle("civilian"),
+                 bc.getPassengerConfigs().get(1).getPriority());
+    assertEquals(6, bc.getPassengerConfigs().get(1).getSqft());
+    assertTrue(bc.getPassengerConfigs().get(1).getSickFactors().isEmpty());
+  }
+
+  @Test
+  void test_validatesBuilding()
+  {
+    String valid = "{\"lowest_floor\": -2, \"highest_floor\": 10, \"max_number_of_passengers_per_floor\": 3, ";
+
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": []}"); });
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": [{\"sqft\": 0}]}"); });
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": [{\"lowest_floor\": -3}]}"); });
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": [{\"speed\": 2}]}"); });
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": [{}], \"custom_events\": []}"); });
+    assertThrows(IllegalArgumentException.class, () -> {read(valid + "\"elevators\": [{}], " +
+                                                             "\"passengers\": [{\"title\": \"mayor\"}]}"); });
+
+    // Values in any order, the floors of the building are known at the end
+    BuildingConfig bc = read("{\"elevators\": [{\"starting_floor\": 5}, {\"lowest_floor\": 1, \"ID\": 7}], " +
+                             "\"passengers\": [{\"origin_floor\": -1}], \"custom_events\": [\"IDLE\", \"FIRE\"], " +
+                             "\"dispatch_strategy\": \"ETA\", \"seed\": 42, \"use_custom_events\": true, " +
+                             "\"lowest_floor\": -2, \"highest_floor\": 10, \"max_number_of_passengers_per_floor\": 3}");
+
+    assertEquals(-2, bc.getElevatorConfigs().get(0).getLowestFloor());
+    assertEquals(5, bc.getElevatorConfigs().get(0).getStartingFloor());
+    assertEquals(1, bc.getElevatorConfigs().get(1).getStartingFloor());
+    assertEquals(10, bc.getPassengerConfigs().get(0).getHighestFloor());
+    assertEquals(Dispatcher.Strategy.ETA, bc.getDispatchStrategy());
+    assertEquals(42, bc.getSeed());
+    assertEquals(EventController.EventType.FIRE, bc.getCustomEvents().get(1));
+
+    // The building runs through its events
+    Building building = new Building(bc);
+
+    for (int i = 0; i < 100; i++)
+    {
+      building.operate();
+    }
+  }
+
+  @Test
+  void test_loadsLargeBuilding() throws IOException
+  {
+    Path path = tempDir.resolve("tower.json");
+
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+    {
+      writer.write("{\"lowest_floor\": -5, \"highest_floor\": 500, \"max_number_of_passengers_per_floor\": 40,\n");
+      writer.write(" \"elevators\": [\n");
+
+      for (int i = 0; i < 48; i++)
+      {
+        writer.write((0 == i ? "" : ",\n") + "  {\"ID\": " + i + ", \"lowest_floor\": " + (i / 8) * 80 +
+                     ", \"highest_floor\": " + ((i / 8) * 80 + 100) + ", \"sqft\": 20}");
+      }
+
+      writer.write("],\n \"use_custom_passengers\": true,\n \"passengers\": [\n");
+
+      for (int i = 0; i < 100000; i++)
+      {
+        writer.write((0 == i ? "" : ",\n") + "  {\"title\": \"civilian\", \"origin_floor\": " + (i % 500) +
+                     ", \"sqft\": " + (2 + i % 8) + ", \"sick_factors\": [0.01, 1.1]}");
+      }
+
+      writer.write("]}\n");
+    }
+
+    BuildingConfig bc = ResourceManager.loadBuildingConfig(path);
+
+    assertEquals(48, bc.getElevatorConfigs().size());
+    assertEquals(400, bc.getElevatorConfigs().get(47).getLowestFloor());
+    assertEquals(100000, bc.getPassengerConfigs().size());
+    assertEquals(499, bc.getPassengerConfigs().get(99999).getOriginFloor());
+    assertEquals(1.1, bc.getPassengerConfigs().get(99999).getSickFactorAt(1));
+  }
+
+  /**
+   * @param json
+   * @return BuildingConfig
+   */
+  private BuildingConfig read(String json)
+  {
+    return ResourceManager.readBuildingConfig(new JsonReader(new StringReader(json)));
+  }
+}
@@ -0,0 +1,108 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.structures.ElevatorBank;
+import com.maxruiz.structures.RoutingIndex;
+
+public class TestRoutingIndex
+{
+  int valid_lowestFloor = 0;
+  int valid_highestFloor = 30;
+
+  @Test
+  void test_badInitFloorsCrossed()
+  {
+    assertThrows(IllegalArgumentException.class, () ->
+                {new RoutingIndex(valid_highestFloor, valid_lowestFloor, new ArrayList<>());
+                });
+  }
+
+  @Test
+  void test_routesThroughSkyLobbies()
+  {
+    // Low rise, mid rise and high rise banks meeting at sky lobbies 10 and 20
+    RoutingIndex routes = createRoutingIndex(new int[][] {{0, 10}, {10, 20}, {20, 30}});
+
+    assertEquals(0, routes.getBank(2, 8));
+    assertEquals(8, routes.getLegDestination(2, 8));
+    assertEquals(1, routes.getLegCount(2, 8));
+
+    assertEquals(0, routes.getBank(2, 15));
+    assertEquals(10, routes.getLegDestination(2, 15));
+    assertEquals(2, routes.getLegCount(2, 15));
+    assertEquals(1, routes.getBank(10, 15));
+    assertEquals(1, routes.getLegCount(10, 15));
+
+    assertEquals(3, routes.getLegCount(2, 25));
+    assertEquals(10, routes.getLegDestination(2, 25));
+    assertEquals(20, routes.getLegDestination(10, 25));
+    assertEquals(2, routes.getBank(20, 25));
+
+    // And back down
+    assertEquals(2, routes.getBank(25, 3));
+    assertEquals(20, routes.getLegDestination(25, 3));
+    assertEquals(3, routes.getLegCount(25, 3));
+
+    assertEquals(2, routes.getEligibleElevators(2, 25).size());
+  }
+
+  @Test
+  void test_transfersAtClosestSharedFloor()
+  {
+    RoutingIndex routes = createRoutingIndex(new int[][] {{0, 12}, {8, 30}});
+
+    assertEquals(0, routes.getBank(2, 20));
+    assertEquals(8, routes.getLegDestination(2, 20));
+
+    // Already on a floor the high rise serves
+    assertEquals(1, routes.getBank(9, 20));
+    assertEquals(20, routes.getLegDestination(9, 20));
+    assertEquals(1, routes.getLegCount(9, 20));
+
+    assertEquals(1, routes.getBank(20, 2));
+    assertEquals(12, routes.getLegDestination(20, 2));
+  }
+
+  @Test
+  void test_noRoute()
+  {
+    RoutingIndex routes = createRoutingIndex(new int[][] {{0, 10}, {12, 30}});
+
+    assertEquals(RoutingIndex.NO_ROUTE, routes.getBank(2, 20));
+    assertEquals(RoutingIndex.NO_ROUTE, routes.getLegDestination(2, 20));
+    assertEquals(0, routes.getLegCount(2, 20));
+    assertTrue(routes.getEligibleElevators(2, 20).isEmpty());
+
+    assertEquals(RoutingIndex.NO_ROUTE, routes.getBank(2, 2));
+    assertEquals(RoutingIndex.NO_ROUTE, routes.getBank(2, valid_highestFloor + 1));
+    assertEquals(RoutingIndex.NO_ROUTE, routes.getBank(valid_lowestFloor - 1, 2));
+  }
+
+  /**
+   * @param bankFloors - lowest and highest floor of each bank, every bank gets two elevators
+   */
+  private RoutingIndex createRoutingIndex(int[][] bankFloors)
+  {
+    List<ElevatorBank> banks = new ArrayList<>();
+
+    for (int[] floors : bankFloors)
+    {
+      ElevatorBank bank = new ElevatorBank(banks.size(), floors[0], floors[1], Dispatcher.Strategy.LOOK);
+      bank.addElevator(new ElevatorConfig(floors[0], floors[1]));
+      bank.addElevator(new ElevatorConfig(floors[0], floors[1]));
+      banks.add(bank);
+    }
+
+    return new RoutingIndex(valid_lowestFloor, valid_highestFloor, banks);
+  }
+}
@@ -0,0 +1,145 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+import com.maxruiz.utility.EventController;
+import com.maxruiz.utility.ScenarioReader;
+import com.maxruiz.utility.SimulationClock;
+
+public class TestScenarioReader
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  @TempDir
+  Path tempDir;
+
+  int valid_lowestFloor = -2;
+  int valid_highestFloor = 10;
+
+  @Test
+  void test_entriesByFrame() throws IOException
+  {
+    Path path = tempDir.resolve("scenario.txt");
+    Files.writeString(path, "# Two basement floors\n" +
+                            "\n" +
+                            "0 PASSENGERS 0 10\n" +
+                            "0 PASSENGERS -2 3 4  # with a size\n" +
+                            "5 STUCK\n" +
+                            "9 FIRE\n");
+
+    SimulationClock clock = new SimulationClock();
+    ScenarioReader scenario = new ScenarioReader(path, valid_lowestFloor, valid_highestFloor, clock);
+
+    // Both passengers show up on the first frame
+    assertEquals(0, scenario.framesUntilNextEntry());
+    ScenarioReader.Entry entry = scenario.poll();
+    assertEquals(EventController.EventType.PASSENGERS, entry.Event);
+    assertEquals(10, entry.DestinationFloor);
+    assertEquals(0, entry.Sqft);
+    entry = scenario.poll();
+    assertEquals(valid_lowestFloor, entry.OriginFloor);
+    assertEquals(4, entry.Sqft);
+    assertNull(scenario.poll());
+    assertEquals(5, scenario.framesUntilNextEntry());
+
+    clock.advance(7);
+    assertEquals(EventController.EventType.STUCK, scenario.poll().Event);
+    assertNull(scenario.poll());
+
+    clock.advance(2);
+    assertEquals(EventController.EventType.FIRE, scenario.poll().Event);
+    assertTrue(scenario.isFinished());
+    assertEquals(ScenarioReader.NO_ENTRY, scenario.framesUntilNextEntry());
+  }
+
+  @Test
+  void test_invalidLinesAreReported() throws IOException
+  {
+    SimulationClock clock = new SimulationClock();
+    Path path = tempDir.resolve("invalid.txt");
+
+    assertThrows(UncheckedIOException.class, () -> {new ScenarioReader(tempDir.resolve("missing.txt"),
+                                                                       valid_lowestFloor, valid_highestFloor,
+                                                                       clock); });
+
+    // Not in the building, going nowhere, no size, and back in time
+    String[] invalid = {"0 PASSENGERS 0 11", "0 PASSENGERS 3 3", "0 PASSENGERS 0 1 0", "0 WAIT", "-1 FIRE"};
+
+    for (String line : invalid)
+    {
+      Files.writeString(path, "# comment\n" + line + "\n");
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+        new ScenarioReader(path, valid_lowestFloor, valid_highestFloor, clock); });
+      assertEquals("Scenario line 2 is invalid.", e.getMessage());
+    }
+
+    Files.writeString(path, "5 STUCK\n4 STUCK\n");
+    ScenarioReader scenario = new ScenarioReader(path, valid_lowestFloor, valid_highestFloor, clock);
+    clock.advance(5);
+    assertThrows(IllegalArgumentException.class, () -> {scenario.poll(); });
+  }
+
+  @Test
+  void test_buildingReplaysScenario() throws IOException
+  {
+    Path path = tempDir.resolve("day.txt");
+    int passengers = 0;
+
+    // A long trace, only ever read a line ahead
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+    {
+      for (int frame = 0; frame < 20000; frame += 7)
+      {
+        int origin = frame % 4;
+        writer.write(frame + " PASSENGERS " + origin + " " + (origin + 1 + frame % 3) + "\n");
+        passengers++;
+      }
+    }
+
+    BuildingConfig bc = new BuildingConfig();
+    bc.loadDefaultBuildingConfig(false, false);
+    bc.setSeed(7);
+    bc.setScenarioPath(path);
+
+    Building stepped = new Building(bc);
+
+    for (int i = 0; i < 30000; i++)
+    {
+      stepped.operate();
+    }
+
+    Building jumped = new Building(bc);
+    new DiscreteEventEngine(jumped).run(30000);
+
+    BuildingKpis kpis = stepped.getKpis();
+    assertEquals(passengers, kpis.getPassengersSpawned() + kpis.getPassengersTurnedAway());
+    assertEquals(kpis.getPassengersSpawned(), kpis.getPassengersDelivered());
+    assertEquals(kpis.getPassengersDelivered(), jumped.getKpis().getPassengersDelivered());
+    assertEquals(kpis.getWaitP90(), jumped.getKpis().getWaitP90());
+    assertEquals(kpis.getFloorsTraveled(), jumped.getKpis().getFloorsTraveled());
+  }
+}
@@ -0,0 +1,199 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.metrics.BuildingKpis;
+import com.maxruiz.metrics.TelemetryReader;
+import com.maxruiz.metrics.TelemetryWriter;
+import com.maxruiz.metrics.TelemetryWriter.PassengerEvent;
+import com.maxruiz.metrics.TelemetryWriter.Stream;
+import com.maxruiz.structures.Building;
+import com.maxruiz.structures.DiscreteEventEngine;
+import com.maxruiz.structures.Dispatcher;
+import com.maxruiz.utility.ArrivalProfile;
+import com.maxruiz.utility.Direction;
+
+public class TestTelemetry
+{
+  @BeforeAll
+  static void quietLog()
+  {
+    // Every building logs its elevators and banks as it starts
+    Log.setLevel(Log.Level.WARN);
+  }
+
+  @TempDir
+  Path tempDir;
+
+  int valid_frames = 60_000;
+
+  @Test
+  void test_rowsAreReadBackInOrder()
+  {
+    Path path = tempDir.resolve("rows.bstl");
+    int rows = TelemetryWriter.BLOCK_ROWS * 2 + 17;
+
+    try (TelemetryWriter telemetry = new TelemetryWriter(path))
+    {
+      for (int i = 0; i < rows; i++)
+      {
+        // Differences of every width, and a column that never changes
+        telemetry.recordPassenger(i * 100_000L, i % 3 == 0 ? -i : i, PassengerEvent.BOARDED,
+                                  (i * 7) % 50, 2);
+        telemetry.recordCar(i, 0, i % 10, Direction.UP, i % 2 == 0, 100 - (i % 100));
+      }
+    }
+
+    int passengerRow = 0;
+    int carRow = 0;
+
+    try (TelemetryReader reader = new TelemetryReader(path))
+    {
+      while (reader.nextBlock())
+      {
+        for (int row = 0; row < reader.size(); row++)
+        {
+          if (Stream.PASSENGERS == reader.getStream())
+          {
+            int i = passengerRow++;
+            assertEquals(i * 100_000L, reader.get(TelemetryWriter.PASSENGER_FRAME, row));
+            assertEquals(i % 3 == 0 ? -i : i, reader.get(TelemetryWriter.PASSENGER_ID, row));
+            assertEquals(PassengerEvent.BOARDED.ordinal(), reader.get(TelemetryWriter.PASSENGER_EVENT, row));
+            assertEquals((i * 7) % 50, reader.get(TelemetryWriter.PASSENGER_FLOOR, row));
+            assertEquals(2, reader.get(TelemetryWriter.PASSENGER_ELEVATOR, row));
+          }
+          else
+          {
+            int i = carRow++;
+            assertEquals(i, reader.get(TelemetryWriter.CAR_FRAME, row));
+            assertEquals(i % 10, reader.get(TelemetryWriter.CAR_FLOOR, row));
+            assertEquals(i % 2 == 0 ? 1 : 0, reader.get(TelemetryWriter.CAR_MOVING, row));
+            assertEquals(100 - (i % 100), reader.get(TelemetryWriter.CAR_REMAINING_SQFT, row));
+          }
+        }
+      }
+    }
+
+    assertEquals(rows, passengerRow);
+    assertEquals(rows, carRow);
+  }
+
+  @Test
+  void test_carRowsAreOnlyWrittenOnChange()
+  {
+    Path path = tempDir.resolve("cars.bstl");
+
+    try (TelemetryWriter telemetry = new TelemetryWriter(path))
+    {
+      for (int i = 0; i < 100; i++)
+      {
+        telemetry.recordCar(i, 0, 3, Direction.IDLE, false, 50);
+        telemetry.recordCar(i, 1, i / 10, Direction.UP, true, 50);
+      }
+    }
+
+    try (TelemetryReader reader = new TelemetryReader(path))
+    {
+      assertTrue(reader.nextBlock());
+      assertEquals(1 + 10, reader.size());
+      assertFalse(reader.nextBlock());
+    }
+  }
+
+  @Test
+  void test_buildingRecordsEveryJourney() throws IOException
+  {
+    Path path = tempDir.resolve("building.bstl");
+    Building building = new Building(createConfig());
+    long[] events = new long[PassengerEvent.values().length];
+    long rows = 0;
+
+    try (TelemetryWriter telemetry = new TelemetryWriter(path))
+    {
+      building.setTelemetry(telemetry);
+      new DiscreteEventEngine(building).run(valid_frames);
+      building.setTelemetry(null);
+    }
+
+    try (TelemetryReader reader = new TelemetryReader(path))
+    {
+      long[] lastFrames = new long[3];
+      Arrays.fill(lastFrames, -1);
+
+      while (reader.nextBlock())
+      {
+        rows += reader.size();
+
+        for (int row = 0; row < reader.size(); row++)
+        {
+          if (Stream.PASSENGERS == reader.getStream())
+          {
+            events[(int)reader.get(TelemetryWriter.PASSENGER_EVENT, row)]++;
+          }
+          else
+          {
+            // The rows of a car are in order of their frames
+            int elevator = (int)reader.get(TelemetryWriter.CAR_ELEVATOR, row);
+            long frame = reader.get(TelemetryWriter.CAR_FRAME, row);
+            assertTrue(frame >= lastFrames[elevator]);
+            lastFrames[elevator] = frame;
+          }
+        }
+      }
+    }
+
+    BuildingKpis kpis = building.getKpis();
+    assertTrue(kpis.getPassengersTransferred() > 0);
+    assertEquals(kpis.getPassengersTurnedAway(), events[PassengerEvent.TURNED_AWAY.ordinal()]);
+    assertEquals(kpis.getPassengersBoarded(), events[PassengerEvent.BOARDED.ordinal()]);
+    assertEquals(kpis.getPassengersTransferred(), events[PassengerEvent.TRANSFERRED.ordinal()]);
+    assertEquals(kpis.getPassengersDelivered(), events[PassengerEvent.DELIVERED.ordinal()]);
+
+    // Far less than a long for every value
+    assertTrue(Files.size(path) * 4 < rows * TelemetryWriter.CAR_COLUMNS * Long.BYTES);
+  }
+
+  @Test
+  void test_invalidFilesAreRejected() throws IOException
+  {
+    Path path = tempDir.resolve("invalid.bstl");
+    Files.write(path, new byte[64]);
+
+    assertThrows(IllegalArgumentException.class, () -> { new TelemetryReader(path); });
+  }
+
+  /**
+   * Two banks with a sky lobby and passengers from a profile
+   * @return BuildingConfig
+   */
+  private BuildingConfig createConfig()
+  {
+    BuildingConfig bc = new BuildingConfig();
+    int skyLobby = (bc.getHighestFloor() - bc.getLowestFloor()) / 2;
+
+    bc.getElevatorConfigs().clear();
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+    bc.getElevatorConfigs().add(new ElevatorConfig(skyLobby, bc.getHighestFloor()));
+    bc.getElevatorConfigs().add(new ElevatorConfig(bc.getLowestFloor(), skyLobby));
+    bc.setDispatchStrategy(Dispatcher.Strategy.ETA);
+    bc.setArrivalProfile(ArrivalProfile.uniform(900.0));
+    bc.setSeed(7);
+
+    return bc;
+  }
+}
@@ -0,0 +1,115 @@
+package com.maxruiz.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.maxruiz.passengers.PassengerFactory;
+import com.maxruiz.passengers.PassengerStore;
+import com.maxruiz.structures.PassengerQueue;
+import com.maxruiz.structures.WaitingPassengers;
+import com.maxruiz.utility.Direction;
+import com.maxruiz.utility.SimulationRandom;
+
+public class TestWaitingPassengers
+{
+  // Two basement floors
+  int valid_lowestFloor = -2;
+  int valid_highestFloor = 10;
+  int valid_sqft = 2;
+
+  PassengerFactory factory = new PassengerFactory(new SimulationRandom(42));
+  PassengerStore store = new PassengerStore();
+
+  @Test
+  void test_queueMatchesList()
+  {
+    // Wraps around and grows while passengers leave from the front, the middle and the back
+    PassengerQueue queue = new PassengerQueue();
+    ArrayList<Integer> expected = new ArrayList<>();
+    SplittableRandom random = new SplittableRandom(7);
+
+    for (int i = 0; i < 2000; i++)
+    {
+      if (expected.isEmpty() || random.nextInt(3) > 0)
+      {
+        int p = createCivilian(0, 5);
+        queue.add(p, i);
+        expected.add(p);
+      }
+      else
+      {
+        int index = (0 == random.nextInt(2)) ? 0 : random.nextInt(expected.size());
+        assertEquals(expected.remove(index), queue.remove(index));
+      }
+
+      assertEquals(expected.size(), queue.size());
+    }
+
+    for (int i = 0; i < expected.size(); i++)
+    {
+      assertEquals(expected.get(i), queue.get(i));
+    }
+
+    assertThrows(IndexOutOfBoundsException.class, () -> {queue.get(queue.size()); });
+
+    queue.clear();
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void test_linesPerFloorAndDirection()
+  {
+    WaitingPassengers waiting = new WaitingPassengers(valid_lowestFloor, valid_highestFloor, store);
+
+    int basementUp = createCivilian(valid_lowestFloor, 3);
+    int topDown = createCivilian(valid_highestFloor, 0);
+    int lobbyDown = createCivilian(0, valid_lowestFloor);
+    int lobbyUp = createCivilian(0, 7);
+
+    waiting.add(valid_lowestFloor, basementUp);
+    waiting.add(valid_highestFloor, topDown);
+    waiting.add(0, lobbyDown);
+    waiting.add(0, lobbyUp);
+
+    assertEquals(4, waiting.size());
+    assertEquals(2, waiting.size(0));
+    assertEquals(basementUp, waiting.get(valid_lowestFloor, Direction.UP).get(0));
+    assertEquals(topDown, waiting.get(valid_highestFloor, Direction.DOWN).get(0));
+    assertEquals(lobbyUp, waiting.get(0, Direction.UP).get(0));
+
+    assertThrows(IllegalArgumentException.class, () -> {waiting.get(valid_lowestFloor - 1, Direction.UP); });
+    assertThrows(IllegalArgumentException.class, () -> {waiting.get(0, Direction.IDLE); });
+
+    // Whoever showed up first, either way
+    assertEquals(lobbyDown, waiting.removeOldest(0));
+    assertEquals(lobbyUp, waiting.removeOldest(0));
+    assertEquals(PassengerStore.NO_PASSENGER, waiting.removeOldest(0));
+
+    store.release(lobbyDown);
+    store.release(lobbyUp);
+
+    // Everyone left in line leaves the store too
+    waiting.clear();
+    assertEquals(0, waiting.size());
+    assertEquals(0, store.size());
+  }
+
+  /**
+   * A Macro to create a civilian going from one floor to another
+   * @param origin
+   * @param destination
+   * @return int - handle of the civilian
+   */
+  private int createCivilian(int origin, int destination)
+  {
+    int civ = factory.createCivilian(store, origin, valid_lowestFloor, valid_highestFloor, valid_sqft);
+    store.setDestinationFloor(civ, destination);
+    return civ;
+  }
+}
@@ -0,0 +1,41 @@
+package com.maxruiz.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class is the entry point of benchmarks.jar. It takes the usual JMH command line and
+ * always adds the GC profiler, so every result comes with the allocation rate of the code
+ * being measured.
+ * @author Max Ruiz
+ */
+public class BenchmarkRunner
+{
+  /**
+   * @param args JMH command line arguments, e.g. a regex of the benchmarks to run
+   * @throws Exception if the arguments are invalid or a benchmark fails
+   */
+  public static void main(String[] args) throws Exception
+  {
+    CommandLineOptions cmd = new CommandLineOptions(args);
+
+    // Listing and help don't run anything, JMH handles them as usual
+    if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() ||
+        cmd.shouldListProfilers() || cmd.shouldListResultFormats())
+    {
+      Main.main(args);
+      return;
+    }
+
+    Options options = new OptionsBuilder()
+                          .parent(cmd)
+                          .addProfiler(GCProfiler.class)
+                          .build();
+
+    new Runner(options).run();
+  }
+}
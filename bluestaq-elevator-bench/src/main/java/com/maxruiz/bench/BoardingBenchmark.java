@@ -0,0 +1,91 @@
+package com.maxruiz.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.passengers.Passenger;
+import com.maxruiz.passengers.PassengerFactory;
+import com.maxruiz.structures.Elevator;
+import com.maxruiz.structures.HallCallRegistry;
+import com.maxruiz.utility.Direction;
+
+/**
+ * This class measures Elevator.acceptPassenger() while every floor of a tall building has a
+ * pending request, each boarding passenger removing the request of their floor.
+ *
+ * Boarding changes the elevator for good, so every iteration starts from a fresh elevator and
+ * times a batch of BATCH_SIZE boardings. The score is the time of a whole batch.
+ * @see Elevator
+ * @author Max Ruiz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = BoardingBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = BoardingBenchmark.BATCH_SIZE)
+@Fork(1)
+public class BoardingBenchmark
+{
+  static final int BATCH_SIZE = 1000;
+
+  // Number of floors with a pending request
+  @Param({"100", "10000"})
+  public int backlog;
+
+  private Elevator m_elevator;
+  private Passenger[] m_passengers;
+  private int m_nextPassenger;
+
+  @Setup(Level.Trial)
+  public void createPassengers()
+  {
+    Log.setLevel(Log.Level.OFF);
+
+    PassengerFactory factory = new PassengerFactory();
+    m_passengers = new Passenger[BATCH_SIZE];
+
+    for (int i = 0; i < BATCH_SIZE; i++)
+    {
+      // Spread the passengers over the floors, not in floor order
+      int originFloor = (int)((i * 7919L) % backlog);
+      m_passengers[i] = factory.createCivilian(originFloor, 0, backlog, 1);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void createElevator()
+  {
+    HallCallRegistry hallCalls = new HallCallRegistry(0, backlog);
+
+    // Large enough that nobody is turned away
+    m_elevator = new Elevator(new ElevatorConfig(0, backlog, 0, 0, Integer.MAX_VALUE, 5, 5),
+                              hallCalls);
+
+    for (int floor = 0; floor < backlog; floor++)
+    {
+      m_elevator.receivePassengerRequest(floor, Direction.UP);
+    }
+
+    m_nextPassenger = 0;
+  }
+
+  @Benchmark
+  public boolean acceptPassenger()
+  {
+    return m_elevator.acceptPassenger(m_passengers[m_nextPassenger++]);
+  }
+}
@@ -0,0 +1,77 @@
+package com.maxruiz.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maxruiz.config.BuildingConfig;
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.config.PassengerConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.structures.Building;
+
+/**
+ * This class measures how many frames per second Building.operate() runs for buildings
+ * of different sizes. Each operation is one frame, so the score is ticks/sec.
+ * @see Building
+ * @author Max Ruiz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildingBenchmark
+{
+  private static final long SEED = 42;
+
+  @Param({"10", "50"})
+  public int floors;
+
+  @Param({"2", "8"})
+  public int elevators;
+
+  // Maximum number of passengers waiting on each floor
+  @Param({"3", "20"})
+  public int passengersPerFloor;
+
+  private Building m_building;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    Log.setLevel(Log.Level.OFF);
+
+    ArrayList<ElevatorConfig> elevatorConfigs = new ArrayList<>();
+
+    for (int i = 0; i < elevators; i++)
+    {
+      elevatorConfigs.add(new ElevatorConfig(0, floors));
+    }
+
+    BuildingConfig bc = new BuildingConfig(0, floors, passengersPerFloor, false, elevatorConfigs,
+                                           false, new ArrayList<PassengerConfig>());
+    bc.setSeed(SEED);
+
+    m_building = new Building(bc);
+  }
+
+  @Benchmark
+  public void operate()
+  {
+    m_building.operate();
+  }
+}
@@ -0,0 +1,48 @@
+package com.maxruiz.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maxruiz.logging.Log;
+import com.maxruiz.utility.EventController;
+
+/**
+ * This class measures how fast EventController rolls the random event of a frame.
+ * @see EventController
+ * @author Max Ruiz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventControllerBenchmark
+{
+  private EventController m_eventController;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    Log.setLevel(Log.Level.OFF);
+
+    m_eventController = new EventController(42L);
+  }
+
+  @Benchmark
+  public EventController.EventType getNextRandomEvent()
+  {
+    return m_eventController.getNextRandomEvent();
+  }
+}
@@ -0,0 +1,84 @@
+package com.maxruiz.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maxruiz.config.ElevatorConfig;
+import com.maxruiz.logging.Log;
+import com.maxruiz.structures.Elevator;
+import com.maxruiz.utility.Direction;
+import com.maxruiz.structures.HallCallRegistry;
+
+/**
+ * This class measures Elevator.receivePassengerRequest() when every floor of a tall building
+ * already has a pending request.
+ * @see Elevator
+ * @see HallCallRegistry
+ * @author Max Ruiz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HallCallBenchmark
+{
+  // Number of floors with a pending request
+  @Param({"100", "10000"})
+  public int backlog;
+
+  private HallCallRegistry m_hallCalls;
+  private Elevator m_elevator;
+  private int m_nextFloor = 0;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    Log.setLevel(Log.Level.OFF);
+
+    // One floor above the backlog is kept free for new requests
+    m_hallCalls = new HallCallRegistry(0, backlog);
+    m_elevator = new Elevator(new ElevatorConfig(0, backlog), m_hallCalls);
+
+    for (int floor = 0; floor < backlog; floor++)
+    {
+      m_elevator.receivePassengerRequest(floor, Direction.UP);
+    }
+  }
+
+  /**
+   * A passenger pushes the button of a floor that has already been requested
+   */
+  @Benchmark
+  public void duplicateRequest()
+  {
+    m_elevator.receivePassengerRequest(m_nextFloor, Direction.UP);
+
+    m_nextFloor = (m_nextFloor + 1 == backlog) ? 0 : m_nextFloor + 1;
+  }
+
+  /**
+   * A passenger requests the one free floor, then boards, which removes the request again
+   * @return boolean
+   */
+  @Benchmark
+  public boolean newRequest()
+  {
+    m_elevator.receivePassengerRequest(backlog, Direction.DOWN);
+
+    return m_hallCalls.cancel(backlog, Direction.DOWN);
+  }
+}
@@ -0,0 +1,66 @@
+package com.maxruiz.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maxruiz.logging.Log;
+import com.maxruiz.passengers.Civilian;
+import com.maxruiz.passengers.PassengerFactory;
+
+/**
+ * This class measures the cost of creating a passenger, both through the PassengerFactory of
+ * a building and through the public constructor.
+ * @see PassengerFactory
+ * @author Max Ruiz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassengerBenchmark
+{
+  private static final int LOWEST_FLOOR = 0;
+  private static final int HIGHEST_FLOOR = 50;
+
+  private PassengerFactory m_factory;
+  private int m_originFloor = LOWEST_FLOOR;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    Log.setLevel(Log.Level.OFF);
+
+    m_factory = new PassengerFactory();
+  }
+
+  @Benchmark
+  public Civilian createCivilianFromFactory()
+  {
+    return m_factory.createCivilian(nextOriginFloor(), LOWEST_FLOOR, HIGHEST_FLOOR, 4);
+  }
+
+  @Benchmark
+  public Civilian constructCivilian()
+  {
+    return new Civilian(nextOriginFloor(), LOWEST_FLOOR, HIGHEST_FLOOR, 4);
+  }
+
+  private int nextOriginFloor()
+  {
+    m_originFloor = (m_originFloor == HIGHEST_FLOOR) ? LOWEST_FLOOR : m_originFloor + 1;
+    return m_originFloor;
+  }
+}